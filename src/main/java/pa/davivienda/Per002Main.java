@@ -0,0 +1,92 @@
+package pa.davivienda;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.QuarkusApplication;
+import io.quarkus.runtime.annotations.QuarkusMain;
+import jakarta.inject.Inject;
+import pa.davivienda.persistence.adapters.ReadPathBenchmark;
+import pa.davivienda.persistence.caches.CustomerIndexSnapshotBuilder;
+import pa.davivienda.persistence.exports.ExportFormat;
+import pa.davivienda.persistence.exports.TransactionCostExporter;
+
+/**
+ * Punto de entrada del microservicio PER002.
+ *
+ * <p>Sin argumentos levanta el servicio REST normalmente. Con argumentos se ejecuta
+ * en modo comando:</p>
+ * <ul>
+ *   <li>{@code build-customer-snapshot [ruta]} - Exporta el índice documento → CUN de CUMST</li>
+ *   <li>{@code benchmark-read-path tipoDoc numDoc codigo [iteraciones]} - Compara las
+ *       lecturas SQL y record-level access contra el AS/400 configurado</li>
+ *   <li>{@code export-costs ruta [csv|ndjson] [afterCustomerId afterTransactionCode]} -
+ *       Exporta CNTRLPRF para los códigos homologados, opcionalmente desde un cursor</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@QuarkusMain
+public class Per002Main implements QuarkusApplication {
+
+    static final String BUILD_CUSTOMER_SNAPSHOT = "build-customer-snapshot";
+    static final String BENCHMARK_READ_PATH = "benchmark-read-path";
+    static final String EXPORT_COSTS = "export-costs";
+    private static final int DEFAULT_BENCHMARK_ITERATIONS = 1000;
+
+    @Inject
+    CustomerIndexSnapshotBuilder customerIndexSnapshotBuilder;
+
+    @Inject
+    ReadPathBenchmark readPathBenchmark;
+
+    @Inject
+    TransactionCostExporter transactionCostExporter;
+
+    @ConfigProperty(name = "per002.customer-snapshot.path", defaultValue = "data/customer-index.bin")
+    String customerSnapshotPath;
+
+    @Override
+    public int run(String... args) throws Exception {
+        if (args.length > 0 && BUILD_CUSTOMER_SNAPSHOT.equals(args[0])) {
+            Path target = Path.of(args.length > 1 ? args[1] : customerSnapshotPath);
+            customerIndexSnapshotBuilder.build(target);
+            return 0;
+        }
+
+        if (args.length > 0 && BENCHMARK_READ_PATH.equals(args[0])) {
+            if (args.length < 4) {
+                Log.errorf("Uso: %s tipoDoc numDoc codigo [iteraciones]", BENCHMARK_READ_PATH);
+                return 1;
+            }
+            int iterations = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_BENCHMARK_ITERATIONS;
+            readPathBenchmark.run(args[1], args[2], args[3], Math.max(1, iterations));
+            return 0;
+        }
+
+        if (args.length > 0 && EXPORT_COSTS.equals(args[0])) {
+            if (args.length < 2 || args.length == 4) {
+                Log.errorf("Uso: %s ruta [csv|ndjson] [afterCustomerId afterTransactionCode]", EXPORT_COSTS);
+                return 1;
+            }
+            ExportFormat format = ExportFormat.parse(args.length > 2 ? args[2] : null);
+            TransactionCostExporter.Export export = transactionCostExporter.prepare(format,
+                    args.length > 4 ? args[3] : null, args.length > 4 ? args[4] : null, 0, (short) 0);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(args[1])))) {
+                export.writeTo(out);
+            }
+            return 0;
+        }
+
+        Quarkus.waitForExit();
+        return 0;
+    }
+}
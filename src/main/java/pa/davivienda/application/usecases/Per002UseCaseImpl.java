@@ -1,22 +1,55 @@
 package pa.davivienda.application.usecases;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import pa.davivienda.application.validators.InputTransactionCodeValidator;
 import pa.davivienda.domain.constants.Constants;
 import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
 import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.dtos.responses.Per002ConceptCostDto;
+import pa.davivienda.domain.dtos.responses.Per002CostSheetResponseDto;
 import pa.davivienda.domain.dtos.responses.Per002ResponseDto;
 import pa.davivienda.domain.entities.AuditLog;
-import pa.davivienda.domain.entities.Customer;
-import pa.davivienda.domain.entities.TransactionCost;
 import pa.davivienda.domain.enums.AuditMessageType;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
 import pa.davivienda.domain.interfaces.usecases.Per002UseCase;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
 import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.persistence.caches.SiblingCostPrefetcher;
 import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.AdaptiveConcurrencyLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.IdempotencyGuard;
+import pa.davivienda.transversal.concurrency.RequestContext;
+import pa.davivienda.transversal.concurrency.StructuredScope;
+import pa.davivienda.transversal.structures.IdempotencyCache;
 import pa.davivienda.transversal.utils.AuditUtils;
 import pa.davivienda.transversal.utils.Utilities;
 
@@ -32,6 +65,10 @@ import pa.davivienda.transversal.utils.Utilities;
  *   <li>Auditoría completa con 7 puntos (ENTRADA, TRAMA_OUT, TRAMA_IN, SALIDA, ERROR)</li>
  * </ol>
  * 
+ * <p>Los reintentos del bus de la consulta individual (mismo {@code idTransaccion} y mismo
+ * request) se responden con la respuesta original vía {@link IdempotencyGuard}, sin
+ * consultar DB2 i, y se auditan con un único registro REPLAY.</p>
+ * 
  * <p>Las validaciones implementadas incluyen:</p>
  * <ul>
  *   <li>Campos obligatorios del request (tipo identificación, número, concepto, país)</li>
@@ -41,6 +78,25 @@ import pa.davivienda.transversal.utils.Utilities;
  *   <li>Relación canal-concepto: reglas específicas de negocio</li>
  * </ul>
  * 
+ * <p>El tiempo límite de la solicitud ({@link Deadline}) se verifica antes de cada
+ * consulta y se propaga al repositorio junto con el canal, que lo aplican a la espera
+ * de conexión (con prioridad por canal) y como query timeout.</p>
+ * 
+ * <p>Las consultas pasan por {@link AdaptiveConcurrencyLimiter}: bajo sobrecarga el
+ * exceso se rechaza de inmediato en lugar de encolarse esperando conexión.</p>
+ * 
+ * <p>La consulta en lote aplica las mismas validaciones por ítem y agrupa los accesos a
+ * DB2 i: una consulta {@code IN} a CUMST por tipo de documento y una a CNTRLPRF. La
+ * hoja de costos de un cliente obtiene todos los conceptos permitidos para el canal con
+ * una búsqueda en CUMST y una consulta de varias claves a CNTRLPRF. La consulta
+ * masiva en streaming resuelve grupos acotados con los mismos accesos agrupados.</p>
+ * 
+ * <p>La variante asíncrona de la consulta individual superpone con cada consulta a DB2 i
+ * el trabajo que no depende de ella (serialización y hash de la auditoría, revisión de
+ * la caché de costos, prefetch) y cancela las etapas en curso si la solicitud falla.
+ * Con {@code per002.async-flow.enabled=true} la consulta individual del endpoint la usa
+ * (dentro de {@link IdempotencyGuard}, esperando su resultado).</p>
+ * 
  * @author Equipo PER002
  * @version 1.0.0
  * @since 2025-12-24
@@ -52,123 +108,746 @@ public class Per002UseCaseImpl implements Per002UseCase {
 
     @Inject
     Per002StatelessRepository statelessRepository;
+
+    @Inject
+    SiblingCostPrefetcher siblingCostPrefetcher;
     
     @Inject
     AuditPort auditPort;
 
+    @Inject
+    AdaptiveConcurrencyLimiter adaptiveLimiter;
+
+    @Inject
+    IdempotencyGuard idempotencyGuard;
+
+    @ConfigProperty(name = "per002.batch.max-items", defaultValue = "50")
+    int batchMaxItems;
+
+    @ConfigProperty(name = "per002.stream.chunk-size", defaultValue = "100")
+    int streamChunkSize;
+
+    @ConfigProperty(name = "per002.stream.chunk-timeout", defaultValue = "30s")
+    Duration streamChunkTimeout;
+
+    @ConfigProperty(name = "per002.stream.max-retries", defaultValue = "5")
+    int streamMaxRetries;
+
+    @ConfigProperty(name = "per002.async-flow.enabled", defaultValue = "false")
+    boolean asyncFlowEnabled;
+
+    ExecutorService asyncExecutor;
+
+    @PostConstruct
+    void init() {
+        asyncExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("per002-async-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        asyncExecutor.shutdownNow();
+    }
+
     @Override
     public Per002ResponseDto consultaCostoTransaccionPer(
             HeadersPer002RequestDto headers,
-            Per002RequestDto request) {
+            Per002RequestDto request,
+            Deadline deadline) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String requestHash = AuditUtils.calculateSHA256(headers.getCanal() + ":" + AuditUtils.toJson(request));
+
+        IdempotencyCache.Outcome<Per002ResponseDto> outcome = idempotencyGuard.execute(idTransaccion, requestHash,
+                deadline, () -> asyncFlowEnabled
+                        ? awaitConsultaCostoTransaccionAsync(headers, request, deadline)
+                        : consultaCostoTransaccion(headers, request, deadline));
+
+        if (outcome.replayed()) {
+            // 📝 AUDITORÍA: REPLAY (en lugar de la traza completa)
+            auditPort.logAsync(replayLog(idTransaccion, String.valueOf(headers.getCanal()), requestHash, outcome.source()));
+        }
+        return outcome.value();
+    }
+
+    /**
+     * Ejecuta la variante asíncrona y espera su resultado, con la excepción original.
+     */
+    private Per002ResponseDto awaitConsultaCostoTransaccionAsync(
+            HeadersPer002RequestDto headers,
+            Per002RequestDto request,
+            Deadline deadline) {
+
+        try {
+            return consultaCostoTransaccionPerAsync(headers, request, deadline).toCompletableFuture().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private Per002ResponseDto consultaCostoTransaccion(
+            HeadersPer002RequestDto headers,
+            Per002RequestDto request,
+            Deadline deadline) {
 
         String idTransaccion = headers.getIdTransaccion();
         String canal = String.valueOf(headers.getCanal());
         String cun = null; // Se obtendrá después de consultar CUMST
+        RequestContext context = new RequestContext(deadline, headers.getCanal());
         
         try {
             // 📝 AUDITORÍA 1: ENTRADA
-            auditEntrada(idTransaccion, canal, headers, request);
-            
-            // 1️⃣ Validación de campos obligatorios
-            if (request.getCodTipoIdentificacion() == null || request.getCodTipoIdentificacion().trim().isEmpty()) {
-                throw new IllegalArgumentException("codTipoIdentificacion es obligatorio");
-            }
+            auditPort.logAsync(entradaLog(idTransaccion, canal, headers, request));
             
-            if (request.getValNumeroIdentificacion() == null || request.getValNumeroIdentificacion().trim().isEmpty()) {
-                throw new IllegalArgumentException("valNumeroIdentificacion es obligatorio");
-            }
-            
-            if (request.getCodTipoConcepto() == null || request.getCodTipoConcepto().trim().isEmpty()) {
-                throw new IllegalArgumentException("codTipoConcepto es obligatorio");
-            }
-            
-            if (request.getCodPais() == null || request.getCodPais().trim().isEmpty()) {
-                throw new IllegalArgumentException("codPais es obligatorio");
-            }
-
-            // 2️⃣ Validación de headers
-           if (!Constants.CANALES_PERMITIDOS.contains(headers.getCanal())) {
-                throw new IllegalArgumentException("Canal inválido. Solo se permiten 81 o 151");
-            }
-
-            // 3️⃣ Validación de código de país
-            if (!InputTransactionCodeValidator.codPaisValidate(request.getCodPais())) {
-                throw new IllegalArgumentException("Código de país no permitido");
-            }
-
-            if (!InputTransactionCodeValidator.conceptoPerValidate(request.getCodTipoConcepto())) {
-                throw new IllegalArgumentException("Código de concepto no pertenece al catálogo PER");
-            }
-            InputTransactionCodeValidator.validateCanalConceptoRelation(headers.getCanal(), request.getCodTipoConcepto());
-            
-            // 4️⃣ Homologación de transacción
-            String trxCode = InputTransactionCodeValidator.getTransactionCodeHomologate(request.getCodTipoConcepto());
+            // 1️⃣ Validación y homologación
+            String trxCode = validateRequest(headers, request);
 
             // 📝 AUDITORÍA 2: TRAMA_OUT (Query 1 - Customer)
-            auditTramaOut(idTransaccion, canal, "findCustomerByDocument", 
-                         request.getCodTipoIdentificacion(), 
-                         request.getValNumeroIdentificacion());
+            auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findCustomerByDocument",
+                         request.getCodTipoIdentificacion(),
+                         request.getValNumeroIdentificacion()));
             
-            // 5️⃣ PRIMER SELECT (STATELESS)
-            Customer customer = statelessRepository.findCustomerByDocument(
+            // 2️⃣ PRIMER SELECT (STATELESS)
+            deadline.check("cumst");
+            CustomerProjection customer = adaptiveLimiter.call(() -> statelessRepository.findCustomerByDocument(
                     request.getCodTipoIdentificacion(),
-                    request.getValNumeroIdentificacion()
-            );
+                    request.getValNumeroIdentificacion(),
+                    context
+            ));
 
             if (customer == null) {
                 throw new IllegalArgumentException("El usuario no existe");
             }
             
             // Capturar CUN para auditoría
-            cun = customer.getCustomerId();
+            cun = customer.customerId();
             
             // 📝 AUDITORÍA 3: TRAMA_IN (Respuesta Query 1)
-            auditTramaIn(idTransaccion, canal, cun, "findCustomerByDocument", customer);
+            auditPort.logAsync(tramaInLog(idTransaccion, canal, cun, "findCustomerByDocument", customer));
 
             // 📝 AUDITORÍA 4: TRAMA_OUT (Query 2 - TransactionCost)
-            auditTramaOut(idTransaccion, canal, "findTransactionCost", customer.getCustomerId(), trxCode);
+            auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findTransactionCost", customer.customerId(), trxCode));
             
-            // 6️⃣ SEGUNDO SELECT (STATELESS)
-            TransactionCost transactionCost = statelessRepository.findTransactionCost(customer.getCustomerId(), trxCode);
+            // 3️⃣ SEGUNDO SELECT (STATELESS)
+            deadline.check("cntrlprf");
+            TransactionCostProjection transactionCost = adaptiveLimiter.call(
+                    () -> statelessRepository.findTransactionCost(customer.customerId(), trxCode, context));
+
+            // Prefetch opcional de los demás conceptos del cliente (asíncrono, con presupuesto),
+            // después de la consulta propia para no competir con ella por el permiso de DB2 i
+            siblingCostPrefetcher.prefetchSiblingCosts(cun, trxCode);
 
             if (transactionCost == null) {
                 throw new IllegalArgumentException("Data no encontrada");
             }
             
             // 📝 AUDITORÍA 5: TRAMA_IN (Respuesta Query 2)
-            auditTramaIn(idTransaccion, canal, cun, "findTransactionCost", transactionCost);
+            auditPort.logAsync(tramaInLog(idTransaccion, canal, cun, "findTransactionCost", transactionCost));
 
-            // 5️⃣ Respuesta
+            // 4️⃣ Respuesta
             Per002ResponseDto response = Per002ResponseDto.builder()
                     .fecHoraMovimiento(Utilities.getDateNowFormatted())
-                    .codMonedaTransaccion(transactionCost.getCurrencyCode())
-                    .costoDeLaTransaccion(transactionCost.getCost())
+                    .codMonedaTransaccion(transactionCost.currencyCode())
+                    .costoDeLaTransaccion(transactionCost.cost())
                     .build();
             
             // 📝 AUDITORÍA 6: SALIDA
-            auditSalida(idTransaccion, canal, cun, response);
+            auditPort.logAsync(salidaLog(idTransaccion, canal, cun, response));
             
             return response;
             
         } catch (Exception ex) {
             // 📝 AUDITORÍA 7: ERROR
-            auditError(idTransaccion, canal, cun, ex);
+            auditPort.logAsync(errorLog(idTransaccion, canal, cun, ex));
             throw ex;
         }
     }
     
     /**
-     * Audita el request de entrada (ENTRADA).
+     * Variante asíncrona de {@link #consultaCostoTransaccionPer}, con las mismas
+     * validaciones, consultas y puntos de auditoría.
+     * 
+     * <p>Las etapas corren en un {@link StructuredScope} de la solicitud, en hilos
+     * virtuales:</p>
+     * <ol>
+     *   <li>La preparación de ENTRADA y TRAMA_OUT (serialización JSON y SHA-256) corre en
+     *       paralelo con la búsqueda en CUMST</li>
+     *   <li>Resuelto el cliente, TRAMA_IN / TRAMA_OUT se preparan en paralelo con la
+     *       búsqueda en CNTRLPRF, que revisa la precarga y la caché de costos en su propia
+     *       tarea</li>
+     *   <li>Resuelto el costo, se lanza el prefetch de conceptos hermanos, y TRAMA_IN del
+     *       costo se prepara en paralelo con la respuesta y SALIDA</li>
+     * </ol>
+     * 
+     * <p>Si una etapa falla o vence el tiempo límite, el ámbito se da por fallido: se
+     * cancela la consulta en curso en DB2 i, no se lanzan más etapas, se audita el error
+     * y el resultado termina con la excepción original (sin envolver).</p>
+     */
+    @Override
+    public CompletionStage<Per002ResponseDto> consultaCostoTransaccionPerAsync(
+            HeadersPer002RequestDto headers,
+            Per002RequestDto request,
+            Deadline deadline) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String canal = String.valueOf(headers.getCanal());
+        RequestContext context = new RequestContext(deadline, headers.getCanal());
+        StructuredScope scope = new StructuredScope(asyncExecutor);
+        AtomicReference<String> cun = new AtomicReference<>(); // Se obtendrá después de consultar CUMST
+        CompletableFuture<Per002ResponseDto> result = new CompletableFuture<>();
+
+        CompletableFuture<Per002ResponseDto> flow;
+        try {
+            // 1️⃣ Validación y homologación (en el hilo de quien invoca, sin I/O)
+            String trxCode = validateRequest(headers, request);
+            deadline.check("cumst");
+
+            // 📝 AUDITORÍA 1 y 2: ENTRADA y TRAMA_OUT (Query 1), en paralelo con CUMST
+            CompletableFuture<Void> customerAudits = scope.fork(cancellation -> {
+                auditPort.logAsync(entradaLog(idTransaccion, canal, headers, request));
+                auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findCustomerByDocument",
+                        request.getCodTipoIdentificacion(),
+                        request.getValNumeroIdentificacion()));
+                return null;
+            });
+
+            // 2️⃣ PRIMER SELECT
+            CompletableFuture<CustomerProjection> customerLookup = adaptiveLimiter.callAsync(() ->
+                    statelessRepository.findCustomerByDocumentAsync(
+                            request.getCodTipoIdentificacion(),
+                            request.getValNumeroIdentificacion(),
+                            context,
+                            scope));
+
+            flow = customerLookup.thenCompose(customer -> {
+                if (customer == null) {
+                    throw new IllegalArgumentException("El usuario no existe");
+                }
+                String customerId = customer.customerId();
+                cun.set(customerId);
+                deadline.check("cntrlprf");
+
+                // 📝 AUDITORÍA 3 y 4: TRAMA_IN (Query 1) y TRAMA_OUT (Query 2), en paralelo con CNTRLPRF
+                CompletableFuture<Void> costAudits = customerAudits.thenCompose(ignored -> scope.fork(cancellation -> {
+                    auditPort.logAsync(tramaInLog(idTransaccion, canal, customerId, "findCustomerByDocument", customer));
+                    auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findTransactionCost", customerId, trxCode));
+                    return null;
+                }));
+
+                // 3️⃣ SEGUNDO SELECT
+                CompletableFuture<TransactionCostProjection> costLookup = adaptiveLimiter.callAsync(() ->
+                        statelessRepository.findTransactionCostAsync(customerId, trxCode, context, scope));
+
+                return costLookup.thenCombine(costAudits, (transactionCost, ignored) -> transactionCost);
+            }).thenCompose(transactionCost -> {
+                // Prefetch opcional de los demás conceptos del cliente, después de la consulta propia
+                siblingCostPrefetcher.prefetchSiblingCosts(cun.get(), trxCode);
+
+                if (transactionCost == null) {
+                    throw new IllegalArgumentException("Data no encontrada");
+                }
+
+                // 📝 AUDITORÍA 5: TRAMA_IN (Respuesta Query 2), en paralelo con la respuesta
+                CompletableFuture<Void> responseAudit = scope.fork(cancellation -> {
+                    auditPort.logAsync(tramaInLog(idTransaccion, canal, cun.get(), "findTransactionCost", transactionCost));
+                    return null;
+                });
+
+                // 4️⃣ Respuesta
+                Per002ResponseDto response = Per002ResponseDto.builder()
+                        .fecHoraMovimiento(Utilities.getDateNowFormatted())
+                        .codMonedaTransaccion(transactionCost.currencyCode())
+                        .costoDeLaTransaccion(transactionCost.cost())
+                        .build();
+
+                // 📝 AUDITORÍA 6: SALIDA
+                auditPort.logAsync(salidaLog(idTransaccion, canal, cun.get(), response));
+
+                return responseAudit.thenApply(ignored -> response);
+            });
+
+            if (!deadline.isUnbounded()) {
+                flow = flow.orTimeout(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            }
+
+        } catch (RuntimeException ex) {
+            // Validación o tiempo límite: falla antes de lanzar etapas
+            auditPort.logAsync(entradaLog(idTransaccion, canal, headers, request));
+            flow = CompletableFuture.failedFuture(ex);
+        }
+
+        flow.whenComplete((response, ex) -> {
+            if (ex == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof TimeoutException) {
+                cause = new DeadlineExceededException(cun.get() == null ? "cumst" : "cntrlprf", cause);
+            }
+            // Cancela las etapas en curso (p. ej. la consulta a DB2 i) y no lanza más; si el
+            // ámbito ya había fallado, se informa esa causa y no la cancelación que produjo
+            scope.fail(cause);
+            Throwable failure = scope.failure();
+
+            // 📝 AUDITORÍA 7: ERROR
+            Exception error = failure instanceof Exception e ? e : new CompletionException(failure);
+            auditPort.logAsync(errorLog(idTransaccion, canal, cun.get(), error));
+            result.completeExceptionally(failure);
+        });
+        return result;
+    }
+
+    /**
+     * Consulta en lote: valida todos los ítems en una pasada, resuelve los clientes con
+     * una consulta {@code IN} por tipo de documento y los costos con una consulta
+     * {@code IN} para el conjunto de clientes, y registra la auditoría en un solo batch.
+     * 
+     * <p>Los errores de validación o de datos de un ítem se informan en su resultado;
+     * los errores de canal, tamaño del lote o acceso a DB2 i fallan el lote completo.</p>
+     */
+    @Override
+    public List<Per002BatchItemResponseDto> consultaCostoTransaccionPerBatch(
+            HeadersPer002RequestDto headers,
+            List<Per002RequestDto> requests,
+            Deadline deadline) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String canal = String.valueOf(headers.getCanal());
+        RequestContext context = new RequestContext(deadline, headers.getCanal());
+        List<AuditLog> audits = new ArrayList<>();
+
+        try {
+            // 📝 AUDITORÍA: ENTRADA (lote completo)
+            audits.add(entradaLog(idTransaccion, canal, headers, requests));
+
+            if (requests == null || requests.isEmpty()) {
+                throw new IllegalArgumentException("consultas es obligatorio");
+            }
+            if (requests.size() > batchMaxItems) {
+                throw new IllegalArgumentException("El lote admite como máximo " + batchMaxItems + " consultas");
+            }
+            if (!Constants.CANALES_PERMITIDOS.contains(headers.getCanal())) {
+                throw new IllegalArgumentException("Canal inválido. Solo se permiten 81 o 151");
+            }
+
+            List<Per002BatchItemResponseDto> response =
+                    resolveBatchItems(headers, requests, 0, context, audits::add);
+
+            // 📝 AUDITORÍA: SALIDA (lote completo)
+            audits.add(salidaLog(idTransaccion, canal, null, response));
+            return response;
+
+        } catch (Exception ex) {
+            // 📝 AUDITORÍA: ERROR
+            audits.add(errorLog(idTransaccion, canal, null, ex));
+            throw ex;
+        } finally {
+            auditPort.logBatchAsync(audits);
+        }
+    }
+
+    /**
+     * Consulta masiva en streaming: toma las consultas en grupos de
+     * {@code per002.stream.chunk-size}, resuelve cada grupo con los mismos accesos
+     * agrupados que el lote y entrega sus resultados al {@code sink} antes de leer el
+     * siguiente grupo, de modo que la memoria usada no depende del tamaño del trabajo.
+     * 
+     * <p>La contrapresión viene de DB2 i: el siguiente grupo no se lee hasta que el
+     * anterior se resolvió y se entregó, y si el límite adaptativo o el circuit breaker
+     * rechazan un grupo por sobrecarga, se espera el {@code Retry-After} sugerido y se
+     * reintenta (hasta {@code per002.stream.max-retries}) en lugar de abortar. Cada grupo
+     * tiene su propio tiempo límite ({@code per002.stream.chunk-timeout}).</p>
+     * 
+     * <p>Si {@code requests.next()} lanza {@link IllegalArgumentException} (p. ej. una
+     * línea que no se pudo leer), ese ítem se responde con error con el mensaje de la
+     * excepción y el trabajo continúa.</p>
+     * 
+     * <p>Auditoría: un registro ERROR por ítem con error (escrito por grupo) y un único
+     * registro SALIDA de resumen del trabajo. Si el trabajo se aborta (canal inválido,
+     * reintentos agotados, error de lectura), se entrega un último resultado con estado
+     * ABORTADO e índice del primer ítem no resuelto, para reanudar desde ahí.</p>
+     */
+    @Override
+    public void consultaCostoTransaccionPerStream(
+            HeadersPer002RequestDto headers,
+            Iterator<Per002RequestDto> requests,
+            Consumer<List<Per002BatchItemResponseDto>> sink) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String canal = String.valueOf(headers.getCanal());
+        int index = 0;
+        int chunks = 0;
+        int errors = 0;
+        int retries = 0;
+        String abortMessage = null;
+
+        try {
+            if (!Constants.CANALES_PERMITIDOS.contains(headers.getCanal())) {
+                throw new IllegalArgumentException("Canal inválido. Solo se permiten 81 o 151");
+            }
+
+            while (requests.hasNext()) {
+                List<Per002RequestDto> chunk = new ArrayList<>(streamChunkSize);
+                Map<Integer, String> unreadable = new HashMap<>();
+                while (chunk.size() < streamChunkSize && requests.hasNext()) {
+                    try {
+                        chunk.add(requests.next());
+                    } catch (IllegalArgumentException iex) {
+                        unreadable.put(chunk.size(), iex.getMessage());
+                        chunk.add(null);
+                    }
+                }
+
+                List<Per002BatchItemResponseDto> results = null;
+                for (int attempt = 0; results == null; attempt++) {
+                    RequestContext context = new RequestContext(Deadline.after(streamChunkTimeout), headers.getCanal());
+                    try {
+                        results = resolveBatchItems(headers, chunk, index, context, audit -> { });
+                    } catch (ServiceUnavailableException suex) {
+                        if (attempt >= streamMaxRetries) {
+                            throw suex;
+                        }
+                        retries++;
+                        Thread.sleep(suex.getRetryAfter().toMillis());
+                    }
+                }
+                if (!unreadable.isEmpty()) {
+                    results = new ArrayList<>(results);
+                    for (Map.Entry<Integer, String> item : unreadable.entrySet()) {
+                        results.set(item.getKey(), batchItemError(index + item.getKey(),
+                                Per002RequestDto.builder().build(), item.getValue()));
+                    }
+                }
+
+                List<AuditLog> itemErrors = new ArrayList<>();
+                for (Per002BatchItemResponseDto result : results) {
+                    if (!"OK".equals(result.getEstado())) {
+                        itemErrors.add(itemErrorLog(idTransaccion, canal, result));
+                    }
+                }
+                if (!itemErrors.isEmpty()) {
+                    auditPort.logBatchAsync(itemErrors);
+                }
+
+                sink.accept(results);
+                index += chunk.size();
+                errors += itemErrors.size();
+                chunks++;
+            }
+
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            abortMessage = "Consulta masiva interrumpida";
+            abort(sink, index, abortMessage);
+        } catch (Exception ex) {
+            abortMessage = ex.getMessage();
+            auditPort.logAsync(errorLog(idTransaccion, canal, null, ex));
+            abort(sink, index, abortMessage);
+        } finally {
+            // 📝 AUDITORÍA: SALIDA (resumen del trabajo)
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("headers", headers);
+            summary.put("items", index);
+            summary.put("ok", index - errors);
+            summary.put("errores", errors);
+            summary.put("grupos", chunks);
+            summary.put("reintentos", retries);
+            summary.put("abortado", abortMessage);
+            auditPort.logAsync(salidaLog(idTransaccion, canal, null, summary));
+        }
+    }
+
+    /**
+     * Hoja de costos de un cliente: el costo de cada concepto PER homologado que el
+     * canal puede consultar, con una sola búsqueda en CUMST y una sola consulta de
+     * varias claves a CNTRLPRF ({@code codTipoConcepto} del request no aplica).
+     * 
+     * <p>Los conceptos sin fila en CNTRLPRF no se incluyen; si no hay ninguno se
+     * responde "Data no encontrada", como en la consulta individual.</p>
      */
-    private void auditEntrada(String idTransaccion, String canal, 
-                             HeadersPer002RequestDto headers, Per002RequestDto request) {
+    @Override
+    public Per002CostSheetResponseDto consultaCostosConceptosPer(
+            HeadersPer002RequestDto headers,
+            Per002RequestDto request,
+            Deadline deadline) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String canal = String.valueOf(headers.getCanal());
+        String cun = null;
+        RequestContext context = new RequestContext(deadline, headers.getCanal());
+
+        try {
+            // 📝 AUDITORÍA 1: ENTRADA
+            auditPort.logAsync(entradaLog(idTransaccion, canal, headers, request));
+
+            // 1️⃣ Validación y conceptos homologados permitidos para el canal
+            validateCustomerRequest(headers, request);
+            List<String> conceptos = InputTransactionCodeValidator.getHomologatedConceptsForCanal(headers.getCanal());
+            Map<String, String> conceptosByTrxCode = new LinkedHashMap<>();
+            conceptos.forEach(concepto ->
+                    conceptosByTrxCode.put(InputTransactionCodeValidator.getTransactionCodeHomologate(concepto), concepto));
+
+            // 📝 AUDITORÍA 2: TRAMA_OUT (Query 1 - Customer)
+            auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findCustomerByDocument",
+                         request.getCodTipoIdentificacion(),
+                         request.getValNumeroIdentificacion()));
+
+            // 2️⃣ CUMST
+            deadline.check("cumst");
+            CustomerProjection customer = adaptiveLimiter.call(() -> statelessRepository.findCustomerByDocument(
+                    request.getCodTipoIdentificacion(),
+                    request.getValNumeroIdentificacion(),
+                    context
+            ));
+
+            if (customer == null) {
+                throw new IllegalArgumentException("El usuario no existe");
+            }
+            cun = customer.customerId();
+
+            // 📝 AUDITORÍA 3: TRAMA_IN (Respuesta Query 1)
+            auditPort.logAsync(tramaInLog(idTransaccion, canal, cun, "findCustomerByDocument", customer));
+
+            // 📝 AUDITORÍA 4: TRAMA_OUT (Query 2 - todos los conceptos)
+            auditPort.logAsync(tramaOutLog(idTransaccion, canal, "findTransactionCosts", cun, conceptosByTrxCode.keySet()));
+
+            // 3️⃣ CNTRLPRF: una consulta para todos los códigos homologados
+            deadline.check("cntrlprf");
+            List<CustomerCostProjection> rows = adaptiveLimiter.call(() -> statelessRepository.findTransactionCosts(
+                    List.of(customer.customerId()), conceptosByTrxCode.keySet(), context));
+
+            // 📝 AUDITORÍA 5: TRAMA_IN (Respuesta Query 2)
+            auditPort.logAsync(tramaInLog(idTransaccion, canal, cun, "findTransactionCosts", rows));
+
+            Map<String, CustomerCostProjection> costsByTrxCode = new HashMap<>();
+            rows.forEach(row -> costsByTrxCode.put(row.transactionCode(), row));
+
+            // 4️⃣ Respuesta en el orden del catálogo
+            List<Per002ConceptCostDto> costos = new ArrayList<>();
+            conceptosByTrxCode.forEach((trxCode, concepto) -> {
+                CustomerCostProjection cost = costsByTrxCode.get(trxCode);
+                if (cost != null) {
+                    costos.add(Per002ConceptCostDto.builder()
+                            .codTipoConcepto(concepto)
+                            .costoDeLaTransaccion(cost.cost())
+                            .codMonedaTransaccion(cost.currencyCode())
+                            .build());
+                }
+            });
+
+            if (costos.isEmpty()) {
+                throw new IllegalArgumentException("Data no encontrada");
+            }
+
+            Per002CostSheetResponseDto response = Per002CostSheetResponseDto.builder()
+                    .fecHoraMovimiento(Utilities.getDateNowFormatted())
+                    .conceptos(costos)
+                    .build();
+
+            // 📝 AUDITORÍA 6: SALIDA
+            auditPort.logAsync(salidaLog(idTransaccion, canal, cun, response));
+
+            return response;
+
+        } catch (Exception ex) {
+            // 📝 AUDITORÍA 7: ERROR
+            auditPort.logAsync(errorLog(idTransaccion, canal, cun, ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * Resuelve un grupo de consultas con accesos agrupados a DB2 i: valida y homologa
+     * cada ítem, consulta CUMST con una lista {@code IN} por tipo de documento y
+     * CNTRLPRF con una lista {@code IN} para el conjunto de clientes.
+     * 
+     * @param firstIndex Índice del primer ítem dentro de la solicitud completa
+     * @param audit Destino de los registros TRAMA_OUT / TRAMA_IN del grupo
+     * @return Un resultado por ítem, en el orden recibido
+     */
+    private List<Per002BatchItemResponseDto> resolveBatchItems(HeadersPer002RequestDto headers,
+                                                               List<Per002RequestDto> requests, int firstIndex,
+                                                               RequestContext context, Consumer<AuditLog> audit) {
+
+        String idTransaccion = headers.getIdTransaccion();
+        String canal = String.valueOf(headers.getCanal());
+        Deadline deadline = context.deadline();
+
+        // 1️⃣ Validación y homologación de todos los ítems en una pasada
+        int size = requests.size();
+        Per002BatchItemResponseDto[] results = new Per002BatchItemResponseDto[size];
+        String[] trxCodes = new String[size];
+        Map<String, Set<String>> docNumbersByType = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Per002RequestDto request = requests.get(i);
+            if (request == null) {
+                results[i] = batchItemError(firstIndex + i, Per002RequestDto.builder().build(), "La consulta es obligatoria");
+                continue;
+            }
+            try {
+                trxCodes[i] = validateRequest(headers, request);
+                docNumbersByType.computeIfAbsent(request.getCodTipoIdentificacion(), type -> new LinkedHashSet<>())
+                        .add(request.getValNumeroIdentificacion());
+            } catch (IllegalArgumentException iex) {
+                results[i] = batchItemError(firstIndex + i, request, iex.getMessage());
+            }
+        }
+
+        // 2️⃣ CUMST: una consulta por tipo de documento
+        Map<String, Map<String, String>> cunsByType = new HashMap<>();
+        for (Map.Entry<String, Set<String>> docNumbers : docNumbersByType.entrySet()) {
+            String docType = docNumbers.getKey();
+            audit.accept(tramaOutLog(idTransaccion, canal, "findCustomersByDocuments", docType, docNumbers.getValue()));
+            deadline.check("cumst");
+            Map<String, String> cuns = adaptiveLimiter.call(() ->
+                    statelessRepository.findCustomersByDocuments(docType, docNumbers.getValue(), context));
+            audit.accept(tramaInLog(idTransaccion, canal, null, "findCustomersByDocuments", cuns));
+            cunsByType.put(docType, cuns);
+        }
+
+        String[] cuns = new String[size];
+        Set<String> customerIds = new LinkedHashSet<>();
+        Set<String> pendingCodes = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Per002RequestDto request = requests.get(i);
+            cuns[i] = cunsByType.get(request.getCodTipoIdentificacion()).get(request.getValNumeroIdentificacion());
+            if (cuns[i] == null) {
+                results[i] = batchItemError(firstIndex + i, request, "El usuario no existe");
+            } else {
+                customerIds.add(cuns[i]);
+                pendingCodes.add(trxCodes[i]);
+            }
+        }
+
+        // 3️⃣ CNTRLPRF: una consulta para el conjunto de clientes y códigos
+        Map<String, CustomerCostProjection> costs = new HashMap<>();
+        if (!customerIds.isEmpty()) {
+            audit.accept(tramaOutLog(idTransaccion, canal, "findTransactionCosts", customerIds, pendingCodes));
+            deadline.check("cntrlprf");
+            List<CustomerCostProjection> rows = adaptiveLimiter.call(() ->
+                    statelessRepository.findTransactionCosts(customerIds, pendingCodes, context));
+            audit.accept(tramaInLog(idTransaccion, canal, null, "findTransactionCosts", rows));
+            rows.forEach(row -> costs.put(row.customerId() + '\0' + row.transactionCode(), row));
+        }
+
+        // 4️⃣ Resultados en el orden de la solicitud
+        String fecHoraMovimiento = Utilities.getDateNowFormatted();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Per002RequestDto request = requests.get(i);
+            CustomerCostProjection cost = costs.get(cuns[i] + '\0' + trxCodes[i]);
+            results[i] = cost == null
+                    ? batchItemError(firstIndex + i, request, "Data no encontrada")
+                    : batchItem(firstIndex + i, request)
+                            .estado("OK")
+                            .fecHoraMovimiento(fecHoraMovimiento)
+                            .costoDeLaTransaccion(cost.cost())
+                            .codMonedaTransaccion(cost.currencyCode())
+                            .build();
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Valida los campos del cliente (documento y país) y el canal.
+     * 
+     * @throws IllegalArgumentException Si algún campo o regla no es válido
+     */
+    private static void validateCustomerRequest(HeadersPer002RequestDto headers, Per002RequestDto request) {
+        requireText(request.getCodTipoIdentificacion(), "codTipoIdentificacion");
+        requireText(request.getValNumeroIdentificacion(), "valNumeroIdentificacion");
+        requireText(request.getCodPais(), "codPais");
+
+        if (!Constants.CANALES_PERMITIDOS.contains(headers.getCanal())) {
+            throw new IllegalArgumentException("Canal inválido. Solo se permiten 81 o 151");
+        }
+        if (!InputTransactionCodeValidator.codPaisValidate(request.getCodPais())) {
+            throw new IllegalArgumentException("Código de país no permitido");
+        }
+    }
+
+    /**
+     * Valida los campos del request y la relación canal-concepto.
+     * 
+     * @return Código de transacción homologado (PRFKEY)
+     * @throws IllegalArgumentException Si algún campo o regla no es válido
+     */
+    private static String validateRequest(HeadersPer002RequestDto headers, Per002RequestDto request) {
+        // Campos obligatorios
+        requireText(request.getCodTipoIdentificacion(), "codTipoIdentificacion");
+        requireText(request.getValNumeroIdentificacion(), "valNumeroIdentificacion");
+        requireText(request.getCodTipoConcepto(), "codTipoConcepto");
+        requireText(request.getCodPais(), "codPais");
+
+        // Canal
+        if (!Constants.CANALES_PERMITIDOS.contains(headers.getCanal())) {
+            throw new IllegalArgumentException("Canal inválido. Solo se permiten 81 o 151");
+        }
+
+        // Código de país y concepto
+        if (!InputTransactionCodeValidator.codPaisValidate(request.getCodPais())) {
+            throw new IllegalArgumentException("Código de país no permitido");
+        }
+
+        if (!InputTransactionCodeValidator.conceptoPerValidate(request.getCodTipoConcepto())) {
+            throw new IllegalArgumentException("Código de concepto no pertenece al catálogo PER");
+        }
+        InputTransactionCodeValidator.validateCanalConceptoRelation(headers.getCanal(), request.getCodTipoConcepto());
+
+        // Homologación de transacción
+        return InputTransactionCodeValidator.getTransactionCodeHomologate(request.getCodTipoConcepto());
+    }
+
+    private static void requireText(String value, String field) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(field + " es obligatorio");
+        }
+    }
+
+    private static Per002BatchItemResponseDto.Per002BatchItemResponseDtoBuilder batchItem(int index, Per002RequestDto request) {
+        return Per002BatchItemResponseDto.builder()
+                .indice(index)
+                .codTipoIdentificacion(request.getCodTipoIdentificacion())
+                .valNumeroIdentificacion(request.getValNumeroIdentificacion())
+                .codTipoConcepto(request.getCodTipoConcepto());
+    }
+
+    private static Per002BatchItemResponseDto batchItemError(int index, Per002RequestDto request, String message) {
+        return batchItem(index, request)
+                .estado("ERROR")
+                .msgError(message)
+                .build();
+    }
+
+    private static void abort(Consumer<List<Per002BatchItemResponseDto>> sink, int index, String message) {
+        sink.accept(List.of(Per002BatchItemResponseDto.builder()
+                .indice(index)
+                .estado("ABORTADO")
+                .msgError(message)
+                .build()));
+    }
+
+    /**
+     * Registro de auditoría del request de entrada (ENTRADA).
+     */
+    private AuditLog entradaLog(String idTransaccion, String canal,
+                                HeadersPer002RequestDto headers, Object body) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("headers", headers);
-        payload.put("body", request);
+        payload.put("body", body);
         
         String payloadJson = AuditUtils.toJson(payload);
         
-        AuditLog log = AuditLog.builder()
+        return AuditLog.builder()
                 .idTransaccion(idTransaccion)
                 .tipoMensaje(AuditMessageType.ENTRADA)
                 .logCun(null) // Aún no tenemos el CUN
@@ -178,19 +857,17 @@ public class Per002UseCaseImpl implements Per002UseCase {
                 .payloadHash(AuditUtils.calculateSHA256(payloadJson))
                 .estado("OK")
                 .build();
-        
-        auditPort.logAsync(log);
     }
     
     /**
-     * Audita una query saliente hacia AS/400 (TRAMA_OUT).
+     * Registro de auditoría de una query saliente hacia AS/400 (TRAMA_OUT).
      */
-    private void auditTramaOut(String idTransaccion, String canal, 
-                              String queryName, Object... params) {
+    private AuditLog tramaOutLog(String idTransaccion, String canal,
+                                 String queryName, Object... params) {
         String query = getQueryByName(queryName);
         String payloadJson = AuditUtils.queryToJson(queryName, query, params);
         
-        AuditLog log = AuditLog.builder()
+        return AuditLog.builder()
                 .idTransaccion(idTransaccion)
                 .tipoMensaje(AuditMessageType.TRAMA_OUT)
                 .logCun(null)
@@ -200,22 +877,20 @@ public class Per002UseCaseImpl implements Per002UseCase {
                 .payloadHash(AuditUtils.calculateSHA256(payloadJson))
                 .estado("OK")
                 .build();
-        
-        auditPort.logAsync(log);
     }
     
     /**
-     * Audita una respuesta recibida desde AS/400 (TRAMA_IN).
+     * Registro de auditoría de una respuesta recibida desde AS/400 (TRAMA_IN).
      */
-    private void auditTramaIn(String idTransaccion, String canal, String cun,
-                             String queryName, Object result) {
+    private AuditLog tramaInLog(String idTransaccion, String canal, String cun,
+                                String queryName, Object result) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("queryName", queryName);
         payload.put("result", result);
         
         String payloadJson = AuditUtils.toJson(payload);
         
-        AuditLog log = AuditLog.builder()
+        return AuditLog.builder()
                 .idTransaccion(idTransaccion)
                 .tipoMensaje(AuditMessageType.TRAMA_IN)
                 .logCun(cun)
@@ -225,18 +900,15 @@ public class Per002UseCaseImpl implements Per002UseCase {
                 .payloadHash(AuditUtils.calculateSHA256(payloadJson))
                 .estado("OK")
                 .build();
-        
-        auditPort.logAsync(log);
     }
     
     /**
-     * Audita el response final (SALIDA).
+     * Registro de auditoría del response final (SALIDA).
      */
-    private void auditSalida(String idTransaccion, String canal, String cun,
-                            Per002ResponseDto response) {
+    private AuditLog salidaLog(String idTransaccion, String canal, String cun, Object response) {
         String payloadJson = AuditUtils.toJson(response);
         
-        AuditLog log = AuditLog.builder()
+        return AuditLog.builder()
                 .idTransaccion(idTransaccion)
                 .tipoMensaje(AuditMessageType.SALIDA)
                 .logCun(cun)
@@ -246,17 +918,15 @@ public class Per002UseCaseImpl implements Per002UseCase {
                 .payloadHash(AuditUtils.calculateSHA256(payloadJson))
                 .estado("OK")
                 .build();
-        
-        auditPort.logAsync(log);
     }
     
     /**
-     * Audita un error (ERROR).
+     * Registro de auditoría de un error (ERROR).
      */
-    private void auditError(String idTransaccion, String canal, String cun, Exception ex) {
+    private AuditLog errorLog(String idTransaccion, String canal, String cun, Exception ex) {
         String payloadJson = AuditUtils.exceptionToJson(ex, "ConsultaCostoTransaccionPer");
         
-        AuditLog log = AuditLog.builder()
+        return AuditLog.builder()
                 .idTransaccion(idTransaccion)
                 .tipoMensaje(AuditMessageType.ERROR)
                 .logCun(cun)
@@ -267,8 +937,48 @@ public class Per002UseCaseImpl implements Per002UseCase {
                 .estado("ERROR")
                 .detalleError(ex.getMessage())
                 .build();
-        
-        auditPort.logAsync(log);
+    }
+    
+    /**
+     * Registro de auditoría de un reintento respondido sin repetir la transacción (REPLAY).
+     */
+    private AuditLog replayLog(String idTransaccion, String canal, String requestHash,
+                               IdempotencyCache.Source source) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("requestHash", requestHash);
+        payload.put("origen", source.name());
+
+        String payloadJson = AuditUtils.toJson(payload);
+
+        return AuditLog.builder()
+                .idTransaccion(idTransaccion)
+                .tipoMensaje(AuditMessageType.REPLAY)
+                .logCun(null)
+                .logCanal(canal)
+                .loginUser("SYSTEM")
+                .payload(payloadJson)
+                .payloadHash(AuditUtils.calculateSHA256(payloadJson))
+                .estado("OK")
+                .build();
+    }
+
+    /**
+     * Registro de auditoría del error de un ítem de la consulta masiva (ERROR).
+     */
+    private AuditLog itemErrorLog(String idTransaccion, String canal, Per002BatchItemResponseDto item) {
+        String payloadJson = AuditUtils.toJson(item);
+
+        return AuditLog.builder()
+                .idTransaccion(idTransaccion)
+                .tipoMensaje(AuditMessageType.ERROR)
+                .logCun(null)
+                .logCanal(canal)
+                .loginUser("SYSTEM")
+                .payload(payloadJson)
+                .payloadHash(AuditUtils.calculateSHA256(payloadJson))
+                .estado("ERROR")
+                .detalleError(item.getMsgError())
+                .build();
     }
     
     /**
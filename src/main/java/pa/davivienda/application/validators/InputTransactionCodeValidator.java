@@ -27,18 +27,48 @@ import java.util.Map;
  */
 public class InputTransactionCodeValidator {
 
-    public static String getTransactionCodeHomologate(String transactionCode) {
+    private static final Map<String, String> HOMOLOGATED_DATA = Map.of(
+            "COBPER", "01PAR157",
+            "TRCPRO", "01PAR153",
+            "TRCTER", "01PAR154"
+        );
 
-        Map<String, String> homologatedData = Map.of(
-                "COBPER", "01PAR157",
-                "TRCPRO", "01PAR153",
-                "TRCTER", "01PAR154"
-            );
+    public static String getTransactionCodeHomologate(String transactionCode) {
 
-        if (homologatedData.get(transactionCode) == null || homologatedData.get(transactionCode).isBlank())
+        if (HOMOLOGATED_DATA.get(transactionCode) == null || HOMOLOGATED_DATA.get(transactionCode).isBlank())
             throw new IllegalArgumentException("Codigo de transaccion no permitido");
 
-        return homologatedData.get(transactionCode);
+        return HOMOLOGATED_DATA.get(transactionCode);
+    }
+
+    /**
+     * Retorna los códigos homologados (PRFKEY de CNTRLPRF) que el servicio puede consultar.
+     *
+     * @return Lista ordenada e inmutable de códigos homologados
+     */
+    public static List<String> getHomologatedTransactionCodes() {
+        return HOMOLOGATED_DATA.values().stream().sorted().toList();
+    }
+
+    /**
+     * Retorna los conceptos PER homologados que el canal puede consultar, según
+     * {@link #validateCanalConceptoRelation(short, String)}.
+     *
+     * @param canal Canal de origen
+     * @return Lista ordenada e inmutable de conceptos permitidos para el canal
+     */
+    public static List<String> getHomologatedConceptsForCanal(short canal) {
+        return HOMOLOGATED_DATA.keySet().stream()
+                .filter(concepto -> {
+                    try {
+                        validateCanalConceptoRelation(canal, concepto);
+                        return true;
+                    } catch (IllegalArgumentException iex) {
+                        return false;
+                    }
+                })
+                .sorted()
+                .toList();
     }
 
     public static boolean codPaisValidate(String codPais) {
@@ -0,0 +1,19 @@
+package pa.davivienda.domain.dtos.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Per002ConceptCostDto {
+
+    private String codTipoConcepto;
+    private int costoDeLaTransaccion;
+    private String codMonedaTransaccion;
+}
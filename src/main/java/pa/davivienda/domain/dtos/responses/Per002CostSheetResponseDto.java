@@ -0,0 +1,20 @@
+package pa.davivienda.domain.dtos.responses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Per002CostSheetResponseDto {
+
+    private String fecHoraMovimiento;
+    private List<Per002ConceptCostDto> conceptos;
+}
@@ -9,6 +9,8 @@ package pa.davivienda.domain.enums;
  * - TRAMA_IN: Respuesta recibida desde AS/400
  * - SALIDA: Response final enviado al BUS
  * - ERROR: Registro adicional en caso de excepción
+ * - EVENTO: Evento operativo del servicio, no asociado a una transacción
+ * - REPLAY: Reintento respondido con la respuesta original, sin repetir la transacción
  */
 public enum AuditMessageType {
     /**
@@ -34,5 +36,15 @@ public enum AuditMessageType {
     /**
      * Registro de error (excepción + stack trace)
      */
-    ERROR
+    ERROR,
+    
+    /**
+     * Evento operativo del servicio (p. ej. cambio de estado del circuit breaker)
+     */
+    EVENTO,
+
+    /**
+     * Reintento del BUS respondido con la respuesta original (hash del request + origen)
+     */
+    REPLAY
 }
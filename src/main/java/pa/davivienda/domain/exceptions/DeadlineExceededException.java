@@ -0,0 +1,33 @@
+package pa.davivienda.domain.exceptions;
+
+/**
+ * Indica que se agotó el tiempo límite de la solicitud antes de completarla.
+ *
+ * <p>Registra la etapa en la que expiró (p. ej. {@code cumst}, {@code db-limiter})
+ * para contabilizar los vencimientos por etapa. El controlador la traduce a
+ * 504 Gateway Timeout.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String stage;
+
+    public DeadlineExceededException(String stage) {
+        this(stage, null);
+    }
+
+    public DeadlineExceededException(String stage, Throwable cause) {
+        super("Tiempo límite de la solicitud agotado en " + stage, cause);
+        this.stage = stage;
+    }
+
+    /**
+     * @return Etapa en la que se agotó el tiempo límite
+     */
+    public String getStage() {
+        return stage;
+    }
+}
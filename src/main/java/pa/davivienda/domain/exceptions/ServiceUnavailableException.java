@@ -0,0 +1,31 @@
+package pa.davivienda.domain.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Indica que el servicio no puede atender la solicitud en este momento
+ * (p. ej. circuito de lecturas abierto o límite de concurrencia hacia DB2 i alcanzado).
+ *
+ * <p>El controlador la traduce a 503 Service Unavailable con el header
+ * {@code Retry-After} calculado a partir de {@link #getRetryAfter()}.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Tiempo sugerido antes de reintentar
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
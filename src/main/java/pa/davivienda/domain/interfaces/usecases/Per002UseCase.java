@@ -1,10 +1,30 @@
 package pa.davivienda.domain.interfaces.usecases;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
 import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
 import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.dtos.responses.Per002CostSheetResponseDto;
 import pa.davivienda.domain.dtos.responses.Per002ResponseDto;
+import pa.davivienda.transversal.concurrency.Deadline;
 
 public interface Per002UseCase {
 
-    Per002ResponseDto consultaCostoTransaccionPer(HeadersPer002RequestDto headersPer002RequestDto, Per002RequestDto per002RequestDto);
+    default Per002ResponseDto consultaCostoTransaccionPer(HeadersPer002RequestDto headersPer002RequestDto, Per002RequestDto per002RequestDto) {
+        return consultaCostoTransaccionPer(headersPer002RequestDto, per002RequestDto, Deadline.NONE);
+    }
+
+    Per002ResponseDto consultaCostoTransaccionPer(HeadersPer002RequestDto headersPer002RequestDto, Per002RequestDto per002RequestDto, Deadline deadline);
+
+    CompletionStage<Per002ResponseDto> consultaCostoTransaccionPerAsync(HeadersPer002RequestDto headersPer002RequestDto, Per002RequestDto per002RequestDto, Deadline deadline);
+
+    List<Per002BatchItemResponseDto> consultaCostoTransaccionPerBatch(HeadersPer002RequestDto headersPer002RequestDto, List<Per002RequestDto> per002RequestDtos, Deadline deadline);
+
+    void consultaCostoTransaccionPerStream(HeadersPer002RequestDto headersPer002RequestDto, Iterator<Per002RequestDto> per002RequestDtos, Consumer<List<Per002BatchItemResponseDto>> sink);
+
+    Per002CostSheetResponseDto consultaCostosConceptosPer(HeadersPer002RequestDto headersPer002RequestDto, Per002RequestDto per002RequestDto, Deadline deadline);
 }
@@ -0,0 +1,25 @@
+package pa.davivienda.domain.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Per002BatchItemResponseModel {
+
+    private int indice;
+    private String codTipoIdentificacion;
+    private String valNumeroIdentificacion;
+    private String codTipoConcepto;
+    private String estado;
+    private String fecHoraMovimiento;
+    private Integer costoDeLaTransaccion;
+    private String codMonedaTransaccion;
+    private String msgError;
+}
@@ -0,0 +1,19 @@
+package pa.davivienda.domain.models.responses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Per002BatchResponseModel {
+
+    private List<Per002BatchItemResponseModel> resultados;
+}
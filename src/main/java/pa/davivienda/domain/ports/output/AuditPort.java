@@ -1,5 +1,7 @@
 package pa.davivienda.domain.ports.output;
 
+import java.util.List;
+
 import pa.davivienda.domain.entities.AuditLog;
 
 /**
@@ -33,4 +35,20 @@ public interface AuditPort {
      * @param auditLog Datos del log a registrar
      */
     void logAsync(AuditLog auditLog);
+
+    /**
+     * Registra varios logs de auditoría en una sola operación (un batch de INSERTs).
+     * 
+     * Mismas reglas que {@link #log(AuditLog)}: si falla, NO propaga la excepción.
+     * 
+     * @param auditLogs Logs a registrar
+     */
+    void logBatch(List<AuditLog> auditLogs);
+
+    /**
+     * Registra varios logs de auditoría en una sola operación, de forma asíncrona.
+     * 
+     * @param auditLogs Logs a registrar
+     */
+    void logBatchAsync(List<AuditLog> auditLogs);
 }
@@ -0,0 +1,74 @@
+package pa.davivienda.domain.ports.output;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Puerto de salida para las lecturas puntuales de CUMST y CNTRLPRF (Arquitectura Hexagonal).
+ *
+ * Define solo el acceso a DB2 i; cachés, coalescencia, circuit breaker, límite de
+ * acceso y hedging quedan en Per002StatelessRepository, que delega aquí la lectura.
+ *
+ * Implementaciones (per002.read-path):
+ * - sql: consultas JPQL sobre StatelessSession (por defecto)
+ * - rla: lectura por clave de archivos lógicos con jt400 (record-level access)
+ *
+ * Reglas:
+ * - Retornar null si el registro no existe (en las consultas de varias claves, omitirlo)
+ * - Verificar el tiempo límite antes de leer y, si es posible, acotar la lectura a él
+ * - Registrar en el handle cómo cancelar la lectura en curso
+ */
+public interface CustomerCostReadPort {
+
+    /**
+     * Lee el CUN de un cliente por tipo y número de documento.
+     *
+     * @param docType Tipo de identificación (CUSTID)
+     * @param docNumber Número de identificación (CUSIDN)
+     * @param deadline Tiempo límite de la solicitud
+     * @param handle Punto de cancelación de la lectura
+     * @return La proyección del cliente, o null si no existe
+     */
+    CustomerProjection findCustomerByDocument(String docType, String docNumber,
+                                              Deadline deadline, CancellationHandle handle);
+
+    /**
+     * Lee el costo de una transacción homologada para un cliente.
+     *
+     * @param customerId CUN del cliente (PRFCUN)
+     * @param trxCode Código homologado (PRFKEY)
+     * @param deadline Tiempo límite de la solicitud
+     * @param handle Punto de cancelación de la lectura
+     * @return La proyección del costo, o null si no existe
+     */
+    TransactionCostProjection findTransactionCost(String customerId, String trxCode,
+                                                  Deadline deadline, CancellationHandle handle);
+
+    /**
+     * Lee los CUN de varios clientes con el mismo tipo de documento en una sola consulta.
+     *
+     * @param docType Tipo de identificación (CUSTID)
+     * @param docNumbers Números de identificación (CUSIDN)
+     * @param deadline Tiempo límite de la solicitud
+     * @return CUN por número de documento; los documentos inexistentes no aparecen
+     */
+    Map<String, String> findCustomersByDocuments(String docType, Collection<String> docNumbers, Deadline deadline);
+
+    /**
+     * Lee los costos de todas las combinaciones cliente × código en una sola consulta.
+     *
+     * @param customerIds CUN de los clientes (PRFCUN)
+     * @param trxCodes Códigos homologados (PRFKEY)
+     * @param deadline Tiempo límite de la solicitud
+     * @return Filas encontradas, con su clave
+     */
+    List<CustomerCostProjection> findTransactionCosts(Collection<String> customerIds, Collection<String> trxCodes,
+                                                      Deadline deadline);
+}
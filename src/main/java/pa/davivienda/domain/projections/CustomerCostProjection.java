@@ -0,0 +1,30 @@
+package pa.davivienda.domain.projections;
+
+/**
+ * Proyección de solo lectura de CNTRLPRF para consultas de varias claves.
+ * 
+ * <p>Incluye la clave (PRFCUN, PRFKEY) además del costo, para que una consulta
+ * {@code IN} sobre varios clientes o códigos pueda repartir cada fila a quien la pidió.</p>
+ * 
+ * @param customerId CUN del cliente (PRFCUN), normalizado con
+ *        {@link CustomerProjection#normalizeCustomerId(String)}
+ * @param transactionCode Código homologado (PRFKEY)
+ * @param cost Costo de la transacción (PRFFA1)
+ * @param currencyCode Código de moneda (PRFFCY)
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public record CustomerCostProjection(String customerId, String transactionCode, int cost, String currencyCode) {
+
+    public CustomerCostProjection {
+        customerId = CustomerProjection.normalizeCustomerId(customerId);
+    }
+
+    /**
+     * @return El costo sin la clave, como lo devuelve la consulta puntual
+     */
+    public TransactionCostProjection toTransactionCost() {
+        return new TransactionCostProjection(cost, currencyCode);
+    }
+}
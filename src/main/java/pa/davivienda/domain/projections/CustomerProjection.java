@@ -0,0 +1,33 @@
+package pa.davivienda.domain.projections;
+
+/**
+ * Proyección de solo lectura de CUMST con la única columna que usa el caso de uso.
+ * 
+ * <p>Se construye con una expresión {@code SELECT new} sobre {@code Customer}, por lo
+ * que la consulta solo trae CUSCUN y Hibernate no materializa la entidad.</p>
+ * 
+ * <p>CUSCUN y PRFCUN son CHAR en DB2 i y llegan con relleno de blancos; el CUN se
+ * normaliza con {@link #normalizeCustomerId(String)} para que todas las cachés y claves
+ * de un mismo cliente coincidan sin importar por qué camino se leyó.</p>
+ * 
+ * @param customerId CUN del cliente (CUSCUN), sin relleno
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public record CustomerProjection(String customerId) {
+
+    public CustomerProjection {
+        customerId = normalizeCustomerId(customerId);
+    }
+
+    /**
+     * Normaliza un CUN leído de DB2 i o recibido como clave (sin blancos de relleno).
+     *
+     * @param customerId CUN, posiblemente con relleno CHAR
+     * @return El CUN sin blancos al inicio ni al final, o null
+     */
+    public static String normalizeCustomerId(String customerId) {
+        return customerId == null ? null : customerId.trim();
+    }
+}
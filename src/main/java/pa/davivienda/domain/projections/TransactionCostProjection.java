@@ -0,0 +1,17 @@
+package pa.davivienda.domain.projections;
+
+/**
+ * Proyección de solo lectura de CNTRLPRF con las columnas que devuelve el servicio.
+ * 
+ * <p>Se construye con una expresión {@code SELECT new} sobre {@code TransactionCost},
+ * por lo que la consulta solo trae PRFFA1 y PRFFCY y Hibernate no materializa la
+ * entidad.</p>
+ * 
+ * @param cost Costo de la transacción (PRFFA1)
+ * @param currencyCode Código de moneda (PRFFCY)
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public record TransactionCostProjection(int cost, String currencyCode) {
+}
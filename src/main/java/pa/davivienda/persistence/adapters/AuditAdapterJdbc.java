@@ -1,28 +1,35 @@
 package pa.davivienda.persistence.adapters;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import pa.davivienda.domain.entities.AuditLog;
 import pa.davivienda.domain.ports.output.AuditPort;
 import pa.davivienda.transversal.utils.AuditUtils;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.StatelessSession;
 
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.persistence.EntityManager;
 
 /**
- * Adapter JDBC para auditoría usando StatelessSession de Hibernate.
+ * Adapter JDBC para auditoría sobre el datasource "audit".
  * 
  * Implementación del puerto AuditPort siguiendo arquitectura hexagonal.
  * 
  * Características:
- * - Usa StatelessSession (como Per002StatelessRepository)
+ * - Usa su propio pool de conexiones (datasource "audit"), separado del pool de
+ *   lecturas de Per002StatelessRepository, para que una ráfaga de INSERTs de
+ *   auditoría nunca retrase las consultas de negocio
  * - Retry automático (3 intentos)
+ * - Los registros de la consulta en lote se insertan uno a uno sobre una misma conexión
+ *   (sin {@code executeBatch}: el batch JDBC está desactivado para jt400); un reintento
+ *   continúa desde el primer registro no insertado, sin duplicar los ya confirmados
  * - Transaccionalmente independiente
  * - No propaga excepciones al flujo principal
  */
@@ -31,9 +38,28 @@ public class AuditAdapterJdbc implements AuditPort {
     
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_RETRY_DELAY_MS = 100;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO PERUSRLIB.AUDIT_LOGS (
+            ID_TRANSACCION,
+            TIPO_MENSAJE,
+            LOG_CUN,
+            LOG_CANAL,
+            LOGIN_USER,
+            TS,
+            PAYLOAD,
+            PAYLOAD_HASH,
+            ESTADO,
+            DETALLE_ERROR,
+            ORIGEN,
+            SERVICIO,
+            CREATED_BY
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
     
     @Inject
-    EntityManager entityManager;
+    @DataSource("audit")
+    AgroalDataSource auditDataSource;
     
     /**
      * {@inheritDoc}
@@ -56,6 +82,31 @@ public class AuditAdapterJdbc implements AuditPort {
     public void logAsync(AuditLog auditLog) {
         CompletableFuture.runAsync(() -> log(auditLog));
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void logBatch(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        try {
+            insertBatchWithRetry(auditLogs, MAX_RETRIES);
+        } catch (Exception e) {
+            // No propagar excepción - solo loguear
+            Log.errorf("Failed to insert %d audit logs after %d retries: %s",
+                      auditLogs.size(), MAX_RETRIES, e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void logBatchAsync(List<AuditLog> auditLogs) {
+        CompletableFuture.runAsync(() -> logBatch(auditLogs));
+    }
     
     /**
      * Inserta el log con retry logic.
@@ -91,76 +142,95 @@ public class AuditAdapterJdbc implements AuditPort {
     }
     
     /**
-     * Realiza el INSERT en PERUSRLIB.AUDIT_LOGS usando StatelessSession.
+     * Realiza el INSERT en PERUSRLIB.AUDIT_LOGS sobre el pool de auditoría.
      * 
      * @param auditLog Log a insertar
+     * @throws SQLException Si falla la conexión o el INSERT
      */
-    private void insertAuditLog(AuditLog auditLog) {
-        SessionFactory sf = entityManager
-                .unwrap(Session.class)
-                .getSessionFactory();
-        
-        try (StatelessSession ss = sf.openStatelessSession()) {
-            
-            // Iniciar transacción independiente
-            ss.beginTransaction();
-            
-            try {
-                // SQL INSERT
-                String sql = """
-                    INSERT INTO PERUSRLIB.AUDIT_LOGS (
-                        ID_TRANSACCION,
-                        TIPO_MENSAJE,
-                        LOG_CUN,
-                        LOG_CANAL,
-                        LOGIN_USER,
-                        TS,
-                        PAYLOAD,
-                        PAYLOAD_HASH,
-                        ESTADO,
-                        DETALLE_ERROR,
-                        ORIGEN,
-                        SERVICIO,
-                        CREATED_BY
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                    """;
-                
-                // Calcular hash si no está calculado
-                String payloadHash = auditLog.getPayloadHash();
-                if (payloadHash == null && auditLog.getPayload() != null) {
-                    payloadHash = AuditUtils.calculateSHA256(auditLog.getPayload());
-                }
-                
-                // Ejecutar INSERT
-                ss.createNativeMutationQuery(sql)
-                    .setParameter(1, auditLog.getIdTransaccion())
-                    .setParameter(2, auditLog.getTipoMensaje().name())
-                    .setParameter(3, auditLog.getLogCun())
-                    .setParameter(4, auditLog.getLogCanal())
-                    .setParameter(5, auditLog.getLoginUser())
-                    .setParameter(6, Timestamp.from(auditLog.getTimestamp()))
-                    .setParameter(7, auditLog.getPayload())
-                    .setParameter(8, payloadHash)
-                    .setParameter(9, auditLog.getEstado())
-                    .setParameter(10, auditLog.getDetalleError())
-                    .setParameter(11, auditLog.getOrigen())
-                    .setParameter(12, auditLog.getServicio())
-                    .setParameter(13, auditLog.getCreatedBy())
-                    .executeUpdate();
-                
-                // Commit transacción
-                ss.getTransaction().commit();
-                
-                Log.debugf("Audit log inserted: type=%s, trx=%s", 
-                          auditLog.getTipoMensaje(), auditLog.getIdTransaccion());
-                
-            } catch (Exception e) {
-                // Rollback en caso de error
-                if (ss.getTransaction().isActive()) {
-                    ss.getTransaction().rollback();
+    private void insertAuditLog(AuditLog auditLog) throws SQLException {
+        // Conexión del pool de auditoría (autocommit: el INSERT es su propia transacción)
+        try (Connection connection = auditDataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+
+            bind(ps, auditLog);
+            ps.executeUpdate();
+
+            Log.debugf("Audit log inserted: type=%s, trx=%s", 
+                      auditLog.getTipoMensaje(), auditLog.getIdTransaccion());
+        }
+    }
+
+    /**
+     * Inserta los logs uno a uno sobre una misma conexión; si falla, reintenta desde el
+     * primer log no insertado (con autocommit, los anteriores ya están confirmados y
+     * reintentarlos los duplicaría).
+     * 
+     * @param auditLogs Logs a insertar
+     * @param retriesLeft Intentos restantes
+     * @throws Exception Si falla después de todos los reintentos
+     */
+    private void insertBatchWithRetry(List<AuditLog> auditLogs, int retriesLeft) throws Exception {
+        int inserted = 0;
+        // Conexión del pool de auditoría (autocommit: cada INSERT es su propia transacción)
+        try (Connection connection = auditDataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+
+            for (AuditLog auditLog : auditLogs) {
+                bind(ps, auditLog);
+                ps.executeUpdate();
+                inserted++;
+            }
+
+            Log.debugf("Audit logs inserted: %d logs, trx=%s",
+                      auditLogs.size(), auditLogs.get(0).getIdTransaccion());
+        } catch (Exception e) {
+            List<AuditLog> pending = auditLogs.subList(inserted, auditLogs.size());
+            if (pending.isEmpty()) {
+                // Falló solo el cierre de la conexión: todos los logs quedaron insertados
+                return;
+            }
+            if (retriesLeft > 1) {
+                long delay = INITIAL_RETRY_DELAY_MS * (MAX_RETRIES - retriesLeft + 1);
+
+                Log.warnf("Audit insert failed, retrying %d of %d logs in %dms. Retries left: %d. Error: %s",
+                         pending.size(), auditLogs.size(), delay, retriesLeft - 1, e.getMessage());
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
                 }
+
+                insertBatchWithRetry(pending, retriesLeft - 1);
+            } else {
                 throw e;
             }
         }
     }
+
+    /**
+     * Asigna los parámetros del INSERT para un log.
+     */
+    private static void bind(PreparedStatement ps, AuditLog auditLog) throws SQLException {
+        // Calcular hash si no está calculado
+        String payloadHash = auditLog.getPayloadHash();
+        if (payloadHash == null && auditLog.getPayload() != null) {
+            payloadHash = AuditUtils.calculateSHA256(auditLog.getPayload());
+        }
+
+        ps.setString(1, auditLog.getIdTransaccion());
+        ps.setString(2, auditLog.getTipoMensaje().name());
+        ps.setString(3, auditLog.getLogCun());
+        ps.setString(4, auditLog.getLogCanal());
+        ps.setString(5, auditLog.getLoginUser());
+        ps.setTimestamp(6, Timestamp.from(auditLog.getTimestamp()));
+        ps.setString(7, auditLog.getPayload());
+        ps.setString(8, payloadHash);
+        ps.setString(9, auditLog.getEstado());
+        ps.setString(10, auditLog.getDetalleError());
+        ps.setString(11, auditLog.getOrigen());
+        ps.setString(12, auditLog.getServicio());
+        ps.setString(13, auditLog.getCreatedBy());
+    }
 }
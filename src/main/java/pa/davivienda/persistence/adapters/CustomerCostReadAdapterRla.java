@@ -0,0 +1,302 @@
+package pa.davivienda.persistence.adapters;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.ibm.as400.access.AS400;
+import com.ibm.as400.access.AS400File;
+import com.ibm.as400.access.AS400FileRecordDescription;
+import com.ibm.as400.access.FieldDescription;
+import com.ibm.as400.access.KeyedFile;
+import com.ibm.as400.access.QSYSObjectPathName;
+import com.ibm.as400.access.Record;
+import com.ibm.as400.access.RecordFormat;
+import com.ibm.as400.access.SocketProperties;
+
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Adapter de record-level access (jt400) para las lecturas de CUMST y CNTRLPRF.
+ *
+ * Implementación del puerto CustomerCostReadPort siguiendo arquitectura hexagonal.
+ * Se activa con {@code per002.read-path=rla}.
+ *
+ * Características:
+ * - Lectura por clave ({@link KeyedFile#read(Object[])}) sobre el servidor DDM, sin
+ *   pasar por el optimizador SQL ni por el host server de base de datos
+ * - Los archivos configurados deben ser lógicos con clave (CUSTID, CUSIDN) para
+ *   clientes y (PRFCUN, PRFKEY) para costos
+ * - Sesiones reutilizables (conexión AS400 + archivos abiertos en solo lectura, sin
+ *   control de compromiso ni bloqueo de registros) en un pool de hasta
+ *   {@code per002.rla.pool-size}; la concurrencia real la acota DbAccessLimiter
+ * - jt400 no admite timeout por lectura: el tiempo límite se verifica antes de leer y
+ *   el socket tiene un timeout de lectura ({@code per002.rla.read-timeout})
+ * - Cancelar el handle desconecta la sesión, que se descarta en lugar de volver al pool;
+ *   al terminar la lectura la cancelación se retira del handle, de modo que una
+ *   cancelación tardía nunca alcanza una sesión que ya usa otra solicitud
+ * - Record-level access no tiene {@code IN}: las consultas de varias claves son una
+ *   lectura por clave cada una, verificando el tiempo límite entre lecturas
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "per002.read-path", stringValue = "rla")
+public class CustomerCostReadAdapterRla implements CustomerCostReadPort {
+
+    @ConfigProperty(name = "per002.rla.host", defaultValue = "localhost")
+    String host;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String user;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String password;
+
+    @ConfigProperty(name = "per002.rla.library", defaultValue = "DAPCYFILES")
+    String library;
+
+    @ConfigProperty(name = "per002.rla.customer-file", defaultValue = "CUMST")
+    String customerFile;
+
+    @ConfigProperty(name = "per002.rla.cost-file", defaultValue = "CNTRLPRF")
+    String costFile;
+
+    @ConfigProperty(name = "per002.rla.pool-size", defaultValue = "2")
+    int poolSize;
+
+    @ConfigProperty(name = "per002.rla.read-timeout", defaultValue = "10s")
+    Duration readTimeout;
+
+    private final BlockingDeque<RlaSession> idle = new LinkedBlockingDeque<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerProjection findCustomerByDocument(String docType, String docNumber,
+                                                     Deadline deadline, CancellationHandle handle) {
+
+        deadline.check("cumst");
+        Record record = read(handle, session -> session.customers, docType, docNumber);
+        return record == null ? null : new CustomerProjection(text(record, "CUSCUN"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TransactionCostProjection findTransactionCost(String customerId, String trxCode,
+                                                         Deadline deadline, CancellationHandle handle) {
+
+        deadline.check("cntrlprf");
+        Record record = read(handle, session -> session.costs, customerId, trxCode);
+        if (record == null) {
+            return null;
+        }
+        return new TransactionCostProjection(number(record, "PRFFA1").intValue(), text(record, "PRFFCY"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, String> findCustomersByDocuments(String docType, Collection<String> docNumbers,
+                                                        Deadline deadline) {
+
+        Map<String, String> customers = new HashMap<>();
+        for (String docNumber : docNumbers) {
+            CustomerProjection customer = findCustomerByDocument(docType, docNumber, deadline, CancellationHandle.NONE);
+            if (customer != null) {
+                customers.put(docNumber, customer.customerId());
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CustomerCostProjection> findTransactionCosts(Collection<String> customerIds,
+                                                             Collection<String> trxCodes, Deadline deadline) {
+
+        List<CustomerCostProjection> costs = new ArrayList<>();
+        for (String customerId : customerIds) {
+            for (String trxCode : trxCodes) {
+                TransactionCostProjection cost = findTransactionCost(customerId, trxCode, deadline, CancellationHandle.NONE);
+                if (cost != null) {
+                    costs.add(new CustomerCostProjection(customerId, trxCode, cost.cost(), cost.currencyCode()));
+                }
+            }
+        }
+        return costs;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        RlaSession session;
+        while ((session = idle.poll()) != null) {
+            session.close();
+        }
+    }
+
+    /**
+     * Lee un registro por clave con una sesión del pool.
+     */
+    private Record read(CancellationHandle handle, FileSelector selector, String... key) {
+        if (handle.isCancelled()) {
+            throw new IllegalStateException("Lectura cancelada antes de ejecutarse");
+        }
+        RlaSession session = borrow();
+        CancellationHandle.Registration cancellation = handle.onCancel(session::cancel);
+        boolean healthy = false;
+        try {
+            KeyedFile file = selector.select(session);
+            Record record = file.read(toKey(file.getRecordFormat(), key));
+            healthy = true;
+            return record;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lectura por clave interrumpida", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error en lectura por clave de " + library + ": " + e.getMessage(), e);
+        } finally {
+            // Si la cancelación ya se disparó la sesión se descarta, aunque la lectura terminara bien
+            boolean detached = cancellation.remove();
+            release(session, healthy && detached && !session.cancelled);
+        }
+    }
+
+    private RlaSession borrow() {
+        RlaSession session = idle.pollFirst();
+        if (session != null) {
+            return session;
+        }
+        try {
+            return open();
+        } catch (Exception e) {
+            throw new IllegalStateException("No fue posible abrir la sesión de record-level access: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(RlaSession session, boolean reusable) {
+        if (reusable && idle.size() < poolSize && idle.offerFirst(session)) {
+            return;
+        }
+        session.close();
+    }
+
+    private RlaSession open() throws Exception {
+        AS400 system = new AS400(host, user, password.toCharArray());
+        system.setGuiAvailable(false);
+        SocketProperties socketProperties = new SocketProperties();
+        socketProperties.setSoTimeout((int) readTimeout.toMillis());
+        system.setSocketProperties(socketProperties);
+        system.connectService(AS400.RECORDACCESS);
+
+        RlaSession session = new RlaSession(system);
+        try {
+            session.customers = openKeyed(system, customerFile);
+            session.costs = openKeyed(system, costFile);
+        } catch (Exception e) {
+            session.close();
+            throw e;
+        }
+        Log.debugf("RLA session opened (%s/%s, %s/%s)", library, customerFile, library, costFile);
+        return session;
+    }
+
+    private KeyedFile openKeyed(AS400 system, String fileName) throws Exception {
+        String path = QSYSObjectPathName.toPath(library, fileName, "FILE");
+        RecordFormat format = new AS400FileRecordDescription(system, path).retrieveRecordFormat()[0];
+        KeyedFile file = new KeyedFile(system, path);
+        file.setRecordFormat(format);
+        file.open(AS400File.READ_ONLY, 1, AS400File.COMMIT_LOCK_LEVEL_NONE);
+        return file;
+    }
+
+    /**
+     * Convierte los valores de la clave al tipo de cada campo clave (carácter o decimal).
+     */
+    private static Object[] toKey(RecordFormat format, String... values) {
+        FieldDescription[] keyFields = format.getKeyFieldDescriptions();
+        Object[] key = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boolean numeric = i < keyFields.length
+                    && keyFields[i].getDataType().getJavaType() == BigDecimal.class;
+            key[i] = numeric ? new BigDecimal(values[i].trim()) : values[i];
+        }
+        return key;
+    }
+
+    private static String text(Record record, String field) {
+        try {
+            Object value = record.getField(field);
+            return value == null ? null : value.toString().trim();
+        } catch (Exception e) {
+            throw new IllegalStateException("Campo " + field + " no disponible: " + e.getMessage(), e);
+        }
+    }
+
+    private static Number number(Record record, String field) {
+        try {
+            return (Number) record.getField(field);
+        } catch (Exception e) {
+            throw new IllegalStateException("Campo " + field + " no disponible: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileSelector {
+        KeyedFile select(RlaSession session);
+    }
+
+    /**
+     * Conexión AS400 con los archivos de clientes y costos abiertos.
+     */
+    private static final class RlaSession {
+
+        private final AS400 system;
+        private KeyedFile customers;
+        private KeyedFile costs;
+        private volatile boolean cancelled;
+
+        private RlaSession(AS400 system) {
+            this.system = system;
+        }
+
+        void cancel() {
+            cancelled = true;
+            system.disconnectAllServices();
+        }
+
+        void close() {
+            for (KeyedFile file : new KeyedFile[] {customers, costs}) {
+                if (file != null) {
+                    try {
+                        file.close();
+                    } catch (Exception ignored) {
+                        // La conexión ya no está disponible
+                    }
+                }
+            }
+            system.disconnectAllServices();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package pa.davivienda.persistence.adapters;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import io.quarkus.arc.lookup.LookupUnlessProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Adapter SQL para las lecturas de CUMST y CNTRLPRF (camino por defecto).
+ *
+ * Implementación del puerto CustomerCostReadPort siguiendo arquitectura hexagonal.
+ *
+ * Características:
+ * - Consultas JPQL con proyección ({@code SELECT new}) sobre StatelessSession
+ * - Query timeout del {@code Statement} igual al tiempo restante de la solicitud
+ * - Cancelación con {@code Statement.cancel()} desde el handle (hedging); la acción se
+ *   retira del handle al cerrar la sesión
+ * - Consultas de varias claves con {@code IN}; los valores CHAR de DB2 i llegan con
+ *   relleno de blancos y se recortan antes de asociarlos a la clave pedida
+ * - Todos los CUN devueltos se normalizan con
+ *   {@link CustomerProjection#normalizeCustomerId(String)}
+ * - Usa la SessionFactory (thread-safe), por lo que puede invocarse desde
+ *   los hilos de hedging sin depender del contexto del request
+ */
+@ApplicationScoped
+@LookupUnlessProperty(name = "per002.read-path", stringValue = "rla")
+public class CustomerCostReadAdapterSql implements CustomerCostReadPort {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerProjection findCustomerByDocument(String docType, String docNumber,
+                                                     Deadline deadline, CancellationHandle handle) {
+
+        deadline.check("cumst");
+        try (CancellableSession cs = openCancellable(handle)) {
+
+            return cs.session().createQuery(
+                            """
+                            SELECT new pa.davivienda.domain.projections.CustomerProjection(c.customerId)
+                            FROM Customer c
+                            WHERE c.identificationType = :type
+                              AND c.identificationNumber = :number
+                            """,
+                            CustomerProjection.class
+                    )
+                    .setParameter("type", docType)
+                    .setParameter("number", docNumber)
+                    .setMaxResults(1)   // ✅ ASÍ se limita en JPQL
+                    .setTimeout(queryTimeoutSeconds(deadline))
+                    .uniqueResult();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TransactionCostProjection findTransactionCost(String customerId, String trxCode,
+                                                         Deadline deadline, CancellationHandle handle) {
+
+        deadline.check("cntrlprf");
+        try (CancellableSession cs = openCancellable(handle)) {
+
+            return cs.session().createQuery(
+                            """
+                            SELECT new pa.davivienda.domain.projections.TransactionCostProjection(t.cost, t.currencyCode)
+                            FROM TransactionCost t
+                            WHERE t.customerId = :customerId
+                              AND t.transactionCode = :trx
+                            """,
+                            TransactionCostProjection.class
+                    )
+                    .setParameter("customerId", customerId)
+                    .setParameter("trx", trxCode)
+                    .setMaxResults(1)
+                    .setTimeout(queryTimeoutSeconds(deadline))
+                    .uniqueResult();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, String> findCustomersByDocuments(String docType, Collection<String> docNumbers,
+                                                        Deadline deadline) {
+
+        deadline.check("cumst");
+        Map<String, String> requested = new HashMap<>();
+        docNumbers.forEach(number -> requested.put(number.trim(), number));
+
+        try (StatelessSession ss = sessionFactory.openStatelessSession()) {
+
+            List<Object[]> rows = ss.createQuery(
+                            """
+                            SELECT c.identificationNumber, c.customerId
+                            FROM Customer c
+                            WHERE c.identificationType = :type
+                              AND c.identificationNumber IN :numbers
+                            """,
+                            Object[].class
+                    )
+                    .setParameter("type", docType)
+                    .setParameter("numbers", docNumbers)
+                    .setTimeout(queryTimeoutSeconds(deadline))
+                    .list();
+
+            Map<String, String> customers = new HashMap<>();
+            for (Object[] row : rows) {
+                String number = requested.get(((String) row[0]).trim());
+                if (number != null) {
+                    customers.putIfAbsent(number, CustomerProjection.normalizeCustomerId((String) row[1]));
+                }
+            }
+            return customers;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CustomerCostProjection> findTransactionCosts(Collection<String> customerIds,
+                                                             Collection<String> trxCodes, Deadline deadline) {
+
+        deadline.check("cntrlprf");
+        try (StatelessSession ss = sessionFactory.openStatelessSession()) {
+
+            return ss.createQuery(
+                            """
+                            SELECT new pa.davivienda.domain.projections.CustomerCostProjection(
+                                t.customerId, t.transactionCode, t.cost, t.currencyCode)
+                            FROM TransactionCost t
+                            WHERE t.customerId IN :customerIds
+                              AND t.transactionCode IN :codes
+                            """,
+                            CustomerCostProjection.class
+                    )
+                    .setParameter("customerIds", customerIds)
+                    .setParameter("codes", trxCodes)
+                    .setTimeout(queryTimeoutSeconds(deadline))
+                    .list()
+                    .stream()
+                    .map(row -> new CustomerCostProjection(row.customerId(), row.transactionCode().trim(),
+                            row.cost(), row.currencyCode()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Tiempo restante de la solicitud como query timeout del {@code Statement} (0 = sin límite).
+     */
+    private static int queryTimeoutSeconds(Deadline deadline) {
+        return deadline.isUnbounded() ? 0 : deadline.remainingSeconds();
+    }
+
+    /**
+     * Abre una StatelessSession cuya consulta en curso puede cancelarse desde el handle.
+     */
+    private CancellableSession openCancellable(CancellationHandle handle) {
+        if (handle.isCancelled()) {
+            throw new IllegalStateException("Lectura cancelada antes de ejecutarse");
+        }
+        StatelessSession ss = sessionFactory.openStatelessSession();
+        CancellationHandle.Registration cancellation = handle.onCancel(
+                () -> ((SharedSessionContractImplementor) ss).getJdbcCoordinator().cancelLastQuery());
+        return new CancellableSession(ss, cancellation);
+    }
+
+    /**
+     * StatelessSession con su acción de cancelación registrada en el handle. Al cerrarse
+     * retira la acción antes de cerrar la sesión, para que una cancelación posterior de la
+     * solicitud no actúe sobre una conexión ya devuelta al pool ni quede retenida en el
+     * handle (como {@link CustomerCostReadAdapterRla} con sus sesiones RLA).
+     */
+    private record CancellableSession(StatelessSession session, CancellationHandle.Registration cancellation)
+            implements AutoCloseable {
+
+        @Override
+        public void close() {
+            try {
+                cancellation.remove();
+            } finally {
+                session.close();
+            }
+        }
+    }
+}
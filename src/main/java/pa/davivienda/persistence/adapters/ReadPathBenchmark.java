@@ -0,0 +1,87 @@
+package pa.davivienda.persistence.adapters;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Compara la latencia de los caminos de lectura SQL y record-level access.
+ *
+ * <p>Se ejecuta en modo comando ({@code benchmark-read-path}, ver {@code Per002Main})
+ * contra el AS/400 configurado. Para cada camino hace una fase de calentamiento y
+ * luego mide la búsqueda completa del caso de uso (cliente por documento y costo por
+ * CUN y código homologado), de forma secuencial y fuera de cachés, limitador y
+ * circuit breaker, y registra percentiles y throughput en el log.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class ReadPathBenchmark {
+
+    @Inject
+    CustomerCostReadAdapterSql sqlPath;
+
+    @Inject
+    CustomerCostReadAdapterRla rlaPath;
+
+    /**
+     * Mide ambos caminos con la misma clave.
+     *
+     * @param docType Tipo de identificación
+     * @param docNumber Número de identificación
+     * @param trxCode Código homologado
+     * @param iterations Lecturas medidas por camino (el calentamiento es un 10% adicional)
+     */
+    public void run(String docType, String docNumber, String trxCode, int iterations) {
+        measure("sql", sqlPath, docType, docNumber, trxCode, iterations);
+        measure("rla", rlaPath, docType, docNumber, trxCode, iterations);
+    }
+
+    private void measure(String name, CustomerCostReadPort port, String docType, String docNumber,
+                         String trxCode, int iterations) {
+
+        for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+            lookup(port, docType, docNumber, trxCode);
+        }
+
+        long[] samples = new long[iterations];
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            lookup(port, docType, docNumber, trxCode);
+            samples[i] = System.nanoTime() - t0;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(samples);
+        Log.infof("Read path %s: %d lookups, p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms, %.1f lookups/s",
+                name, iterations, millis(percentile(samples, 0.50)), millis(percentile(samples, 0.95)),
+                millis(percentile(samples, 0.99)), millis(samples[iterations - 1]),
+                iterations / (elapsed / 1e9));
+    }
+
+    private static void lookup(CustomerCostReadPort port, String docType, String docNumber, String trxCode) {
+        CustomerProjection customer = port.findCustomerByDocument(docType, docNumber, Deadline.NONE, CancellationHandle.NONE);
+        if (customer == null) {
+            throw new IllegalArgumentException("Cliente no encontrado: " + docType + " " + docNumber);
+        }
+        port.findTransactionCost(customer.customerId(), trxCode, Deadline.NONE, CancellationHandle.NONE);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,196 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import pa.davivienda.transversal.structures.BloomFilter;
+
+/**
+ * Filtro de Bloom sobre los documentos (CUSTID, CUSIDN) existentes en CUMST.
+ *
+ * <p>Con {@code per002.customer-filter.enabled=true} el filtro se construye al arrancar
+ * y se reconstruye periódicamente. Un filtro de Bloom no tiene falsos negativos sobre
+ * los documentos que cargó, pero un cliente creado después de la última reconstrucción
+ * no está en él. Por eso el rechazo sin consultar DB2 i es opcional
+ * ({@code per002.customer-filter.reject-unknown}, desactivado por defecto) y solo se
+ * aplica mientras el filtro tenga menos de {@code per002.customer-filter.max-staleness};
+ * fuera de esa ventana, o sin filtro construido, todas las consultas pasan a la base de
+ * datos. {@code rebuild-interval} debe ser menor que {@code max-staleness} para que el
+ * rechazo siga activo entre reconstrucciones.</p>
+ *
+ * <p>Métricas publicadas:</p>
+ * <ul>
+ *   <li>{@code per002.customer.filter.fpp} - Tasa estimada de falsos positivos</li>
+ *   <li>{@code per002.customer.filter.memory} - Memoria ocupada por el filtro (bytes)</li>
+ *   <li>{@code per002.customer.filter.entries} - Documentos cargados</li>
+ *   <li>{@code per002.customer.filter.rebuild} - Duración de cada reconstrucción</li>
+ *   <li>{@code per002.customer.filter.rejections} - Consultas rechazadas sin ir a DB2 i</li>
+ *   <li>{@code per002.customer.filter.misses} - Documentos ausentes del filtro que igual se consultaron</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see BloomFilter
+ */
+@ApplicationScoped
+public class CustomerDocumentFilter {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.customer-filter.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.customer-filter.false-positive-rate", defaultValue = "0.01")
+    double falsePositiveRate;
+
+    @ConfigProperty(name = "per002.customer-filter.fetch-size", defaultValue = "2000")
+    int fetchSize;
+
+    @ConfigProperty(name = "per002.customer-filter.reject-unknown", defaultValue = "false")
+    boolean rejectUnknown;
+
+    @ConfigProperty(name = "per002.customer-filter.max-staleness", defaultValue = "5m")
+    Duration maxStaleness;
+
+    LongSupplier nanoClock = System::nanoTime;
+
+    private volatile BloomFilter filter;
+    private volatile long builtAt;
+    private volatile double estimatedFpp;
+    private Timer rebuildTimer;
+    private Counter rejections;
+    private Counter misses;
+
+    @PostConstruct
+    void initMetrics() {
+        Gauge.builder("per002.customer.filter.fpp", this, f -> f.estimatedFpp)
+                .description("Tasa estimada de falsos positivos del filtro de documentos")
+                .register(registry);
+        Gauge.builder("per002.customer.filter.memory", this, f -> f.filter == null ? 0 : f.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("per002.customer.filter.entries", this, f -> f.filter == null ? 0 : f.filter.insertions())
+                .register(registry);
+        rebuildTimer = Timer.builder("per002.customer.filter.rebuild").register(registry);
+        rejections = Counter.builder("per002.customer.filter.rejections").register(registry);
+        misses = Counter.builder("per002.customer.filter.misses").register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(every = "${per002.customer-filter.rebuild-interval:1h}",
+               delayed = "${per002.customer-filter.rebuild-interval:1h}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Indica si el documento puede existir en CUMST.
+     *
+     * @param docType Tipo de identificación
+     * @param docNumber Número de identificación
+     * @return false solo si el rechazo está activo, el filtro es reciente y el documento no
+     *         estaba en CUMST al construirlo
+     */
+    public boolean mightExist(String docType, String docNumber) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(docType, docNumber)) {
+            return true;
+        }
+        if (!rejectUnknown || nanoClock.getAsLong() - builtAt > maxStaleness.toNanos()) {
+            // Puede ser un cliente creado después de la reconstrucción
+            misses.increment();
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * Reconstruye el filtro desde CUMST y lo publica de forma atómica.
+     */
+    public void rebuild() {
+        long start = nanoClock.getAsLong();
+        try {
+            BloomFilter built = load();
+            publish(built, start);
+            long elapsed = nanoClock.getAsLong() - start;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            Log.infof("Customer filter rebuilt: %d documentos, %d bytes, fpp=%.5f en %dms",
+                    built.insertions(), built.memoryBytes(), estimatedFpp, elapsed / 1_000_000);
+        } catch (Exception e) {
+            Log.warnf("Customer filter rebuild failed, keeping previous filter: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Publica un filtro construido con los documentos existentes al instante {@code loadStartedAt}.
+     */
+    void publish(BloomFilter built, long loadStartedAt) {
+        builtAt = loadStartedAt;
+        filter = built;
+        estimatedFpp = built.estimatedFalsePositiveRate();
+    }
+
+    private BloomFilter load() {
+        SessionFactory sf = entityManager
+                .unwrap(Session.class)
+                .getSessionFactory();
+
+        try (StatelessSession ss = sf.openStatelessSession()) {
+            long expected = ss.createQuery("SELECT COUNT(c) FROM Customer c", Long.class)
+                    .getSingleResult();
+            // Margen para clientes creados mientras se recorre la tabla
+            BloomFilter built = BloomFilter.create(expected + expected / 10, falsePositiveRate);
+
+            try (ScrollableResults<Object[]> rows = ss.createQuery(
+                            """
+                            SELECT c.identificationType, c.identificationNumber
+                            FROM Customer c
+                            """,
+                            Object[].class
+                    )
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    built.put((String) row[0], (String) row[1]);
+                }
+            }
+            return built;
+        }
+    }
+}
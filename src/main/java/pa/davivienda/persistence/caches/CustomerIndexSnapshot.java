@@ -0,0 +1,148 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshot de solo lectura del índice documento → CUN de CUMST, mapeado en memoria.
+ *
+ * <p>Formato del archivo (big-endian):</p>
+ * <pre>
+ * int  MAGIC ("PER2")   int  VERSION        long createdAt (epoch ms)
+ * int  entryCount       int  typeWidth      int  numberWidth    int cunWidth
+ * entryCount registros de ancho fijo: CUSTID | CUSIDN | CUSCUN
+ * </pre>
+ *
+ * <p>Los registros están ordenados por (CUSTID, CUSIDN) como bytes ISO-8859-1, sin
+ * blancos a la derecha y rellenos con ceros. La búsqueda binaria compara directamente
+ * los bytes mapeados con los caracteres de la consulta, sin crear objetos en el heap;
+ * solo el CUN encontrado se materializa como {@link String}.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see CustomerIndexSnapshotWriter
+ */
+public final class CustomerIndexSnapshot {
+
+    static final int MAGIC = 0x50455232;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final ByteBuffer buffer;
+    private final long createdAt;
+    private final int entryCount;
+    private final int typeWidth;
+    private final int numberWidth;
+    private final int cunWidth;
+    private final int recordSize;
+
+    private CustomerIndexSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Snapshot de clientes con formato no soportado");
+        }
+        this.createdAt = buffer.getLong(8);
+        this.entryCount = buffer.getInt(16);
+        this.typeWidth = buffer.getInt(20);
+        this.numberWidth = buffer.getInt(24);
+        this.cunWidth = buffer.getInt(28);
+        this.recordSize = typeWidth + numberWidth + cunWidth;
+        if ((long) HEADER_SIZE + (long) entryCount * recordSize > buffer.capacity()) {
+            throw new IllegalStateException("Snapshot de clientes truncado");
+        }
+    }
+
+    /**
+     * Mapea un snapshot desde disco en modo solo lectura.
+     *
+     * @param path Ruta del archivo generado por {@link CustomerIndexSnapshotWriter}
+     * @return Snapshot listo para consultas concurrentes
+     * @throws IOException Si el archivo no puede abrirse o mapearse
+     */
+    public static CustomerIndexSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CustomerIndexSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Busca el CUN de un documento.
+     *
+     * @param docType Tipo de identificación (CUSTID)
+     * @param docNumber Número de identificación (CUSIDN)
+     * @return El CUN, o null si el documento no está en el snapshot
+     */
+    public String findCustomerId(String docType, String docNumber) {
+        if (docType == null || docNumber == null) {
+            return null;
+        }
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_SIZE + mid * recordSize;
+            int cmp = compareField(offset, typeWidth, docType);
+            if (cmp == 0) {
+                cmp = compareField(offset + typeWidth, numberWidth, docNumber);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readCun(offset + typeWidth + numberWidth);
+            }
+        }
+        return null;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Compara el campo mapeado con el valor buscado (sin blancos a la derecha).
+     *
+     * @return negativo si el registro es menor que el valor, positivo si es mayor, 0 si son iguales
+     */
+    private int compareField(int offset, int width, String value) {
+        int length = trimmedLength(value);
+        for (int i = 0; i < width; i++) {
+            int stored = buffer.get(offset + i) & 0xFF;
+            int wanted = i < length ? value.charAt(i) : 0;
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+        }
+        return length > width ? -1 : 0;
+    }
+
+    private String readCun(int offset) {
+        int length = 0;
+        while (length < cunWidth && buffer.get(offset + length) != 0) {
+            length++;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    static int trimmedLength(String value) {
+        int length = value.length();
+        while (length > 0 && value.charAt(length - 1) == ' ') {
+            length--;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,74 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exporta CUMST (CUSTID, CUSIDN → CUSCUN) a un snapshot binario.
+ *
+ * <p>Recorre la tabla con un cursor de solo avance y delega el ordenamiento (por
+ * bloques en disco) y la escritura atómica en {@link CustomerIndexSnapshotWriter}. Se invoca desde el
+ * modo comando ({@code build-customer-snapshot}), fuera del camino de los requests.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class CustomerIndexSnapshotBuilder {
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "per002.customer-snapshot.fetch-size", defaultValue = "2000")
+    int fetchSize;
+
+    /**
+     * Genera el snapshot en la ruta indicada.
+     *
+     * @param target Ruta de destino
+     * @return Número de documentos escritos
+     * @throws IOException Si falla la escritura del archivo
+     */
+    public int build(Path target) throws IOException {
+        long createdAt = System.currentTimeMillis();
+        SessionFactory sf = entityManager
+                .unwrap(Session.class)
+                .getSessionFactory();
+
+        try (CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter()) {
+            try (StatelessSession ss = sf.openStatelessSession();
+                 ScrollableResults<Object[]> rows = ss.createQuery(
+                                """
+                                SELECT c.identificationType, c.identificationNumber, c.customerId
+                                FROM Customer c
+                                """,
+                                Object[].class
+                        )
+                        .setFetchSize(fetchSize)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    writer.add((String) row[0], (String) row[1], (String) row[2]);
+                }
+            }
+
+            int written = writer.writeTo(target, createdAt);
+            Log.infof("Customer snapshot written to %s: %d documentos (%d filas leídas)", target, written, writer.size());
+            return written;
+        }
+    }
+}
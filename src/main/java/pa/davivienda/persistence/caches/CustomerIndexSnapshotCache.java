@@ -0,0 +1,90 @@
+package pa.davivienda.persistence.caches;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+/**
+ * Índice documento → CUN de CUMST servido desde un snapshot mapeado en memoria.
+ *
+ * <p>Con {@code per002.customer-snapshot.enabled=true} el servicio mapea al arrancar
+ * el archivo generado por el comando {@code build-customer-snapshot} y revisa
+ * periódicamente si existe uno más reciente; en ese caso lo mapea y reemplaza la
+ * referencia de forma atómica. Los documentos que no estén en el snapshot se siguen
+ * consultando en DB2 i.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see CustomerIndexSnapshot
+ */
+@ApplicationScoped
+public class CustomerIndexSnapshotCache {
+
+    @ConfigProperty(name = "per002.customer-snapshot.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.customer-snapshot.path", defaultValue = "data/customer-index.bin")
+    String path;
+
+    private volatile CustomerIndexSnapshot snapshot;
+    private volatile FileTime loadedModifiedTime;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            reloadIfNewer();
+        }
+    }
+
+    @Scheduled(every = "${per002.customer-snapshot.reload-interval:5m}",
+               delayed = "${per002.customer-snapshot.reload-interval:5m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReload() {
+        if (enabled) {
+            reloadIfNewer();
+        }
+    }
+
+    /**
+     * Busca el CUN de un documento en el snapshot vigente.
+     *
+     * @param docType Tipo de identificación
+     * @param docNumber Número de identificación
+     * @return El CUN, o null si no hay snapshot o el documento no está en él
+     */
+    public String findCustomerId(String docType, String docNumber) {
+        CustomerIndexSnapshot current = snapshot;
+        return current == null ? null : current.findCustomerId(docType, docNumber);
+    }
+
+    /**
+     * Mapea el snapshot en disco si es más reciente que el cargado.
+     */
+    public void reloadIfNewer() {
+        Path file = Path.of(path);
+        try {
+            if (!Files.exists(file)) {
+                Log.debugf("Customer snapshot not found at %s", file);
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (loadedModifiedTime != null && modified.compareTo(loadedModifiedTime) <= 0) {
+                return;
+            }
+            CustomerIndexSnapshot loaded = CustomerIndexSnapshot.open(file);
+            snapshot = loaded;
+            loadedModifiedTime = modified;
+            Log.infof("Customer snapshot loaded: %d documentos, generado en %d", loaded.size(), loaded.getCreatedAt());
+        } catch (Exception e) {
+            Log.warnf("Customer snapshot reload failed, keeping previous snapshot: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Construye el archivo binario que lee {@link CustomerIndexSnapshot}.
+ *
+ * <p>Las filas (CUSTID, CUSIDN, CUSCUN) se acumulan en bloques de hasta {@code runSize}
+ * filas; cada bloque lleno se ordena y se vuelca a un archivo temporal, de modo que la
+ * memoria usada no depende del tamaño de CUMST. Al publicar, los bloques se mezclan en
+ * orden y se escriben en un archivo temporal que luego se mueve atómicamente sobre el
+ * destino, de modo que el servicio nunca mapea un snapshot incompleto.</p>
+ *
+ * <p>Si un documento aparece más de una vez se conserva el menor CUN (como bytes
+ * ISO-8859-1), sin importar el orden en que DB2 i devolvió las filas; así dos
+ * extracciones de los mismos datos producen el mismo snapshot. La consulta en línea
+ * ({@code setMaxResults(1)}) no garantiza orden y puede devolver otro de los CUN
+ * duplicados.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class CustomerIndexSnapshotWriter implements AutoCloseable {
+
+    private static final int DEFAULT_RUN_SIZE = 100_000;
+
+    private static final Comparator<byte[][]> DOCUMENT_ORDER = (a, b) -> {
+        int cmp = Arrays.compareUnsigned(a[0], b[0]);
+        return cmp != 0 ? cmp : Arrays.compareUnsigned(a[1], b[1]);
+    };
+
+    private static final Comparator<byte[][]> ROW_ORDER = DOCUMENT_ORDER
+            .thenComparing((a, b) -> Arrays.compareUnsigned(a[2], b[2]));
+
+    private final int runSize;
+    private final List<byte[][]> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private int rows;
+    private int typeWidth;
+    private int numberWidth;
+    private int cunWidth;
+
+    public CustomerIndexSnapshotWriter() {
+        this(DEFAULT_RUN_SIZE);
+    }
+
+    CustomerIndexSnapshotWriter(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize debe ser mayor a 0");
+        }
+        this.runSize = runSize;
+    }
+
+    /**
+     * Agrega una fila de CUMST al snapshot. Las filas incompletas se ignoran.
+     *
+     * @param docType Tipo de identificación (CUSTID)
+     * @param docNumber Número de identificación (CUSIDN)
+     * @param customerId CUN del cliente (CUSCUN)
+     * @throws IOException Si falla el volcado de un bloque a disco
+     */
+    public void add(String docType, String docNumber, String customerId) throws IOException {
+        if (docType == null || docNumber == null || customerId == null) {
+            return;
+        }
+        byte[] type = encode(docType);
+        byte[] number = encode(docNumber);
+        byte[] cun = encode(customerId);
+        typeWidth = Math.max(typeWidth, type.length);
+        numberWidth = Math.max(numberWidth, number.length);
+        cunWidth = Math.max(cunWidth, cun.length);
+        buffer.add(new byte[][] {type, number, cun});
+        rows++;
+        if (buffer.size() >= runSize) {
+            spill();
+        }
+    }
+
+    /**
+     * @return Filas agregadas (incluye documentos duplicados)
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Mezcla las filas en orden y publica el snapshot en la ruta indicada.
+     *
+     * @param target Ruta final del snapshot
+     * @param createdAt Marca de tiempo (epoch ms) de la extracción
+     * @return Número de documentos distintos escritos
+     * @throws IOException Si falla la escritura o el movimiento atómico
+     */
+    public int writeTo(Path target, long createdAt) throws IOException {
+        buffer.sort(ROW_ORDER);
+        List<RunReader> readers = new ArrayList<>();
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            for (Path run : runs) {
+                readers.add(new RunReader(run));
+            }
+            int written;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.position(CustomerIndexSnapshot.HEADER_SIZE);
+                OutputStream stream = Channels.newOutputStream(channel);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+                written = merge(readers, out);
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(CustomerIndexSnapshot.HEADER_SIZE)
+                        .putInt(CustomerIndexSnapshot.MAGIC)
+                        .putInt(CustomerIndexSnapshot.VERSION)
+                        .putLong(createdAt)
+                        .putInt(written)
+                        .putInt(typeWidth)
+                        .putInt(numberWidth)
+                        .putInt(cunWidth)
+                        .flip();
+                channel.write(header, 0);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return written;
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+            Files.deleteIfExists(temp);
+            close();
+        }
+    }
+
+    /**
+     * Descarta los bloques volcados a disco.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        buffer.clear();
+    }
+
+    /**
+     * Mezcla el bloque en memoria con los volcados y escribe un registro por documento.
+     */
+    private int merge(List<RunReader> readers, DataOutputStream out) throws IOException {
+        PriorityQueue<Source> queue = new PriorityQueue<>((a, b) -> ROW_ORDER.compare(a.current, b.current));
+        List<Iterator<byte[][]>> sources = new ArrayList<>(readers);
+        sources.add(buffer.iterator());
+        for (Iterator<byte[][]> iterator : sources) {
+            if (iterator.hasNext()) {
+                queue.add(new Source(iterator, iterator.next()));
+            }
+        }
+
+        int written = 0;
+        byte[][] last = null;
+        try {
+            while (!queue.isEmpty()) {
+                Source source = queue.poll();
+                byte[][] entry = source.current;
+                if (last == null || DOCUMENT_ORDER.compare(last, entry) != 0) {
+                    writePadded(out, entry[0], typeWidth);
+                    writePadded(out, entry[1], numberWidth);
+                    writePadded(out, entry[2], cunWidth);
+                    last = entry;
+                    written++;
+                }
+                if (source.iterator.hasNext()) {
+                    source.current = source.iterator.next();
+                    queue.add(source);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written;
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(ROW_ORDER);
+        Path run = Files.createTempFile("customer-index-run", ".tmp");
+        runs.add(run);
+        try (OutputStream file = Files.newOutputStream(run);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            for (byte[][] entry : buffer) {
+                for (byte[] field : entry) {
+                    out.writeShort(field.length);
+                    out.write(field);
+                }
+            }
+        }
+        buffer.clear();
+    }
+
+    private static byte[] encode(String value) {
+        return value.substring(0, CustomerIndexSnapshot.trimmedLength(value)).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writePadded(DataOutputStream out, byte[] value, int width) throws IOException {
+        out.write(value);
+        for (int i = value.length; i < width; i++) {
+            out.write(0);
+        }
+    }
+
+    /**
+     * Fila actual de un bloque durante la mezcla.
+     */
+    private static final class Source {
+
+        private final Iterator<byte[][]> iterator;
+        private byte[][] current;
+
+        private Source(Iterator<byte[][]> iterator, byte[][] current) {
+            this.iterator = iterator;
+            this.current = current;
+        }
+    }
+
+    /**
+     * Lee en orden las filas de un bloque volcado a disco.
+     */
+    private static final class RunReader implements Iterator<byte[][]>, AutoCloseable {
+
+        private final DataInputStream in;
+        private byte[][] next;
+
+        private RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+            this.next = read();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public byte[][] next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            byte[][] current = next;
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private byte[][] read() throws IOException {
+            byte[][] entry = new byte[3][];
+            for (int i = 0; i < 3; i++) {
+                int length;
+                try {
+                    length = in.readUnsignedShort();
+                } catch (EOFException e) {
+                    if (i == 0) {
+                        return null;
+                    }
+                    throw e;
+                }
+                entry[i] = in.readNBytes(length);
+                if (entry[i].length != length) {
+                    throw new EOFException("Bloque de snapshot truncado");
+                }
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Refresco periódico (refresh-ahead) de los costos fijados por {@link HotCostKeyTracker}.
+ *
+ * <p>Cada {@code per002.hot-keys.refresh-interval} fija los costos de las claves calientes
+ * actuales (y refresca los ya fijados) con una consulta agrupada por cada
+ * {@code per002.batch.max-in-list} clientes, y libera los de las claves que dejaron de ser
+ * calientes. Si el circuito de lecturas no está cerrado no consulta: los costos fijados
+ * se siguen sirviendo hasta vencer. Sus consultas no se registran en el circuit breaker
+ * ({@link Per002StatelessRepository#findTransactionCostsInBackground}): un refresco
+ * programado que falla o expira no cuenta como fallo de las solicitudes.</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.hot-keys.refresh.executed} - Refrescos ejecutados</li>
+ *   <li>{@code per002.hot-keys.refresh.skipped} - Refrescos omitidos (circuito no cerrado o fallo)</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class HotCostKeyRefresher {
+
+    @Inject
+    HotCostKeyTracker hotKeys;
+
+    @Inject
+    Per002StatelessRepository repository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.hot-keys.refresh-timeout", defaultValue = "5s")
+    Duration refreshTimeout;
+
+    @Scheduled(every = "${per002.hot-keys.refresh-interval:1m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshHotKeys() {
+        if (!hotKeys.isEnabled()) {
+            return;
+        }
+        List<HotCostKeyTracker.HotKey> hot = hotKeys.hotKeys();
+        hotKeys.retainPinned(hot);
+        if (hot.isEmpty()) {
+            return;
+        }
+        if (!repository.isCircuitClosed()) {
+            registry.counter("per002.hot-keys.refresh.skipped").increment();
+            return;
+        }
+
+        Set<String> customers = new LinkedHashSet<>();
+        Set<String> codes = new LinkedHashSet<>();
+        Set<String> wanted = new HashSet<>();
+        for (HotCostKeyTracker.HotKey hotKey : hot) {
+            customers.add(hotKey.customerId());
+            codes.add(hotKey.transactionCode());
+            wanted.add(hotKey.customerId() + '\0' + hotKey.transactionCode());
+        }
+
+        try {
+            List<CustomerCostProjection> rows = repository.findTransactionCostsInBackground(
+                    customers, codes, Deadline.after(refreshTimeout));
+            for (CustomerCostProjection row : rows) {
+                if (wanted.contains(row.customerId() + '\0' + row.transactionCode())) {
+                    hotKeys.pin(row.customerId(), row.transactionCode(), row.toTransactionCost());
+                }
+            }
+            registry.counter("per002.hot-keys.refresh.executed").increment();
+        } catch (RuntimeException e) {
+            Log.warnf("Refresh of hot cost keys failed: %s", e.getMessage());
+            registry.counter("per002.hot-keys.refresh.skipped").increment();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.structures.HeavyHitterSketch;
+
+/**
+ * Detección de los pares (cliente, código homologado) más consultados y costos fijados en memoria.
+ *
+ * <p>Unos pocos clientes corporativos concentran gran parte del tráfico, pero en
+ * {@link TransactionCostLookupCache} (LRU) compiten con los clientes ocasionales y un
+ * recorrido de muchos clientes distintos los desaloja. Cada búsqueda de costo se
+ * registra en un {@link HeavyHitterSketch} (memoria fija); las claves entre las
+ * {@code per002.hot-keys.top-k} más frecuentes y con al menos
+ * {@code per002.hot-keys.min-count} búsquedas estimadas son "calientes". {@link HotCostKeyRefresher}
+ * fija sus costos aquí, fuera del LRU, y los refresca cada
+ * {@code per002.hot-keys.refresh-interval} (refresh-ahead), antes de que venzan a los
+ * {@code per002.hot-keys.ttl}; si DB2 i no responde, un costo fijado deja de servirse al
+ * vencer. Cada {@code per002.hot-keys.decay-interval} las frecuencias se reducen a la
+ * mitad para seguir el tráfico reciente.</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.hot-keys.pinned} - Costos fijados</li>
+ *   <li>{@code per002.hot-keys.hits} - Búsquedas respondidas con un costo fijado</li>
+ *   <li>{@code per002.hot-keys.tracked} - Búsquedas registradas en el sketch</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class HotCostKeyTracker {
+
+    /**
+     * Clave caliente, su frecuencia estimada y si su costo está fijado.
+     */
+    public record HotKey(String customerId, String transactionCode, long estimatedCount, boolean pinned) {
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.hot-keys.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.hot-keys.top-k", defaultValue = "50")
+    int topK;
+
+    @ConfigProperty(name = "per002.hot-keys.min-count", defaultValue = "100")
+    long minCount;
+
+    @ConfigProperty(name = "per002.hot-keys.sketch-width", defaultValue = "4096")
+    int sketchWidth;
+
+    @ConfigProperty(name = "per002.hot-keys.sketch-depth", defaultValue = "4")
+    int sketchDepth;
+
+    @ConfigProperty(name = "per002.hot-keys.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    private HeavyHitterSketch sketch;
+    private final Map<String, PinnedCost> pinned = new ConcurrentHashMap<>();
+    private Counter hits;
+
+    @PostConstruct
+    void init() {
+        sketch = new HeavyHitterSketch(sketchWidth, sketchDepth, topK);
+        hits = Counter.builder("per002.hot-keys.hits").register(registry);
+        Gauge.builder("per002.hot-keys.pinned", pinned, Map::size)
+                .register(registry);
+        FunctionCounter.builder("per002.hot-keys.tracked", sketch, HeavyHitterSketch::total)
+                .register(registry);
+    }
+
+    @Scheduled(every = "${per002.hot-keys.decay-interval:5m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void decay() {
+        if (enabled) {
+            sketch.decay();
+        }
+    }
+
+    /**
+     * @return true si la detección está activa
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra una búsqueda de costo.
+     */
+    public void record(String customerId, String trxCode) {
+        if (enabled) {
+            sketch.add(key(customerId, trxCode));
+        }
+    }
+
+    /**
+     * Busca un costo fijado.
+     *
+     * @return El costo fijado y vigente, o null
+     */
+    public TransactionCostProjection lookup(String customerId, String trxCode) {
+        if (!enabled) {
+            return null;
+        }
+        PinnedCost entry = pinned.get(key(customerId, trxCode));
+        if (entry == null || System.nanoTime() - entry.loadedAt >= ttl.toNanos()) {
+            return null;
+        }
+        hits.increment();
+        return entry.cost;
+    }
+
+    /**
+     * @return Claves calientes actuales, de mayor a menor frecuencia
+     */
+    public List<HotKey> hotKeys() {
+        if (!enabled) {
+            return List.of();
+        }
+        List<HotKey> hot = new ArrayList<>();
+        for (HeavyHitterSketch.HeavyHitter hitter : sketch.topK()) {
+            if (hitter.count() >= minCount) {
+                int separator = hitter.key().indexOf('\0');
+                hot.add(new HotKey(hitter.key().substring(0, separator), hitter.key().substring(separator + 1),
+                        hitter.count(), pinned.containsKey(hitter.key())));
+            }
+        }
+        return hot;
+    }
+
+    /**
+     * @return Búsquedas registradas desde el arranque
+     */
+    public long trackedLookups() {
+        return sketch.total();
+    }
+
+    /**
+     * Fija (o refresca) el costo de una clave caliente.
+     */
+    public void pin(String customerId, String trxCode, TransactionCostProjection cost) {
+        if (enabled) {
+            pinned.put(key(customerId, trxCode), new PinnedCost(cost, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Libera los costos fijados de las claves que ya no están calientes.
+     */
+    public void retainPinned(Collection<HotKey> hot) {
+        Set<String> keep = new HashSet<>();
+        hot.forEach(hotKey -> keep.add(key(hotKey.customerId(), hotKey.transactionCode())));
+        pinned.keySet().retainAll(keep);
+    }
+
+    /**
+     * Recorre los costos fijados y vigentes, con la vigencia que les queda.
+     */
+    public void forEachPinned(TransactionCostLookupCache.CostVisitor visitor) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        pinned.forEach((key, entry) -> {
+            long remaining = ttl.toNanos() - (now - entry.loadedAt);
+            if (remaining > 0) {
+                int separator = key.indexOf('\0');
+                visitor.accept(key.substring(0, separator), key.substring(separator + 1), entry.cost, remaining);
+            }
+        });
+    }
+
+    private static String key(String customerId, String trxCode) {
+        return CustomerProjection.normalizeCustomerId(customerId) + '\0' + trxCode;
+    }
+
+    private record PinnedCost(TransactionCostProjection cost, long loadedAt) {
+    }
+}
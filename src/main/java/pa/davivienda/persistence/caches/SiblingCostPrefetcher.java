@@ -0,0 +1,179 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.application.validators.InputTransactionCodeValidator;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.TokenBucket;
+
+/**
+ * Prefetch de los demás códigos homologados de un cliente recién resuelto.
+ *
+ * <p>Con {@code per002.prefetch.enabled=true}, cuando el caso de uso resuelve un cliente
+ * se cargan en segundo plano, con una sola consulta, los demás códigos homologados del
+ * mismo cliente en {@link TransactionCostLookupCache}, para las consultas de otros
+ * conceptos que suelen seguir. El prefetch es opcional y nunca compite con las
+ * solicitudes: se descarta si se agota su presupuesto ({@code per002.prefetch.budget-rate}
+ * consultas por segundo), si el limitador no está ocioso, si el circuito de lecturas no
+ * está cerrado o si su cola ({@code per002.prefetch.queue-size}) está llena. Sus
+ * consultas no se registran en el circuit breaker
+ * ({@link Per002StatelessRepository#findTransactionCostsInBackground}).</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.prefetch.executed} - Prefetch ejecutados</li>
+ *   <li>{@code per002.prefetch.skipped} - Prefetch descartados, por motivo
+ *       (queue/circuit/busy/budget/error)</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class SiblingCostPrefetcher {
+
+    @Inject
+    TransactionCostPreloadCache costPreloadCache;
+
+    @Inject
+    TransactionCostLookupCache costLookupCache;
+
+    @Inject
+    Per002StatelessRepository repository;
+
+    @Inject
+    DbAccessLimiter dbAccessLimiter;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.prefetch.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.prefetch.budget-rate", defaultValue = "5")
+    double budgetRate;
+
+    @ConfigProperty(name = "per002.prefetch.budget-burst", defaultValue = "10")
+    int budgetBurst;
+
+    @ConfigProperty(name = "per002.prefetch.queue-size", defaultValue = "64")
+    int queueSize;
+
+    @ConfigProperty(name = "per002.prefetch.timeout", defaultValue = "2s")
+    Duration timeout;
+
+    private ThreadPoolExecutor pool;
+    private TokenBucket budget;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            budget = new TokenBucket(budgetRate, budgetBurst);
+            pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    Thread.ofPlatform().name("per002-prefetch-", 0).daemon(true).factory(),
+                    (task, rejectedBy) -> skip("queue"));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Programa la carga de los demás códigos homologados del cliente.
+     *
+     * <p>No bloquea ni falla: si el prefetch está desactivado, si ya hay uno en curso
+     * para el cliente o si la cola está llena, no hace nada. La decisión de consultar
+     * (presupuesto, limitador ocioso, circuito cerrado) se toma al ejecutarse. Debe
+     * invocarse después de la consulta de costo de la solicitud, para no competir con ella
+     * por el permiso de DB2 i.</p>
+     *
+     * @param requestedCustomerId CUN del cliente; se normaliza para que la búsqueda en
+     *        caché y las filas cargadas usen la misma clave
+     * @param requestedTrxCode Código que la solicitud en curso ya consulta (se excluye)
+     */
+    public void prefetchSiblingCosts(String requestedCustomerId, String requestedTrxCode) {
+        String customerId = CustomerProjection.normalizeCustomerId(requestedCustomerId);
+        if (!enabled || !costLookupCache.isEnabled() || !inFlight.add(customerId)) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    prefetch(customerId, requestedTrxCode);
+                } finally {
+                    inFlight.remove(customerId);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(customerId);
+        }
+    }
+
+    private void prefetch(String customerId, String requestedTrxCode) {
+        List<String> codes = new ArrayList<>();
+        for (String trxCode : InputTransactionCodeValidator.getHomologatedTransactionCodes()) {
+            if (!trxCode.equals(requestedTrxCode)
+                    && costPreloadCache.lookup(customerId, trxCode) == null
+                    && !costLookupCache.contains(customerId, trxCode)) {
+                codes.add(trxCode);
+            }
+        }
+        if (codes.isEmpty()) {
+            return;
+        }
+        if (!repository.isCircuitClosed()) {
+            skip("circuit");
+            return;
+        }
+        if (!dbAccessLimiter.isIdle()) {
+            skip("busy");
+            return;
+        }
+        if (!budget.tryAcquire()) {
+            skip("budget");
+            return;
+        }
+
+        try {
+            List<CustomerCostProjection> rows = repository.findTransactionCostsInBackground(
+                    List.of(customerId), codes, Deadline.after(timeout));
+            for (CustomerCostProjection row : rows) {
+                costLookupCache.putPrefetched(row.customerId(), row.transactionCode(), row.toTransactionCost());
+            }
+            registry.counter("per002.prefetch.executed").increment();
+        } catch (RuntimeException e) {
+            Log.debugf("Prefetch of sibling costs for %s failed: %s", customerId, e.getMessage());
+            skip("error");
+        }
+    }
+
+    private void skip(String reason) {
+        registry.counter("per002.prefetch.skipped", "reason", reason).increment();
+    }
+}
@@ -0,0 +1,208 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.structures.ExpiringLruCache;
+
+/**
+ * Caché de costos de CNTRLPRF por cliente y código homologado, con vigencia acotada.
+ *
+ * <p>A diferencia de {@link TransactionCostPreloadCache}, que carga la tabla completa, esta
+ * caché solo guarda las filas que se leyeron de DB2 i (lectura normal o prefetch de
+ * conceptos hermanos), hasta {@code per002.cost-cache.max-entries} y por
+ * {@code per002.cost-cache.ttl}. Con {@code per002.cost-cache.enabled=false} no guarda
+ * nada y todas las búsquedas son fallos.</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.cost-cache.lookups} - Búsquedas, por resultado (hit/miss)</li>
+ *   <li>{@code per002.cost-cache.prefetch.loaded} - Filas guardadas por prefetch</li>
+ *   <li>{@code per002.cost-cache.prefetch.used} - Filas de prefetch que atendieron al menos una búsqueda</li>
+ *   <li>{@code per002.cost-cache.prefetch.hit-ratio} - used / loaded</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class TransactionCostLookupCache {
+
+    /**
+     * Recibe cada costo vigente en {@link #forEach}.
+     */
+    @FunctionalInterface
+    public interface CostVisitor {
+
+        /**
+         * @param remainingNanos Vigencia restante del costo
+         */
+        void accept(String customerId, String trxCode, TransactionCostProjection cost, long remainingNanos);
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.cost-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.cost-cache.max-entries", defaultValue = "100000")
+    int maxEntries;
+
+    @ConfigProperty(name = "per002.cost-cache.ttl", defaultValue = "5m")
+    Duration ttl;
+
+    private ExpiringLruCache<String, CachedCost> cache;
+    private Counter hits;
+    private Counter misses;
+    private Counter prefetchLoaded;
+    private Counter prefetchUsed;
+
+    @PostConstruct
+    void init() {
+        cache = new ExpiringLruCache<>(maxEntries, ttl.toNanos());
+        hits = Counter.builder("per002.cost-cache.lookups").tag("result", "hit").register(registry);
+        misses = Counter.builder("per002.cost-cache.lookups").tag("result", "miss").register(registry);
+        prefetchLoaded = Counter.builder("per002.cost-cache.prefetch.loaded").register(registry);
+        prefetchUsed = Counter.builder("per002.cost-cache.prefetch.used").register(registry);
+        Gauge.builder("per002.cost-cache.prefetch.hit-ratio", this, TransactionCostLookupCache::prefetchHitRatio)
+                .register(registry);
+        Gauge.builder("per002.cost-cache.size", cache, ExpiringLruCache::size)
+                .register(registry);
+        FunctionCounter.builder("per002.cost-cache.evictions", cache, ExpiringLruCache::evictions)
+                .register(registry);
+    }
+
+    @Scheduled(every = "${per002.cost-cache.purge-interval:1m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeExpired() {
+        if (enabled) {
+            cache.purgeExpired();
+        }
+    }
+
+    /**
+     * @return true si la caché está activa
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Busca el costo vigente de un cliente para un código homologado.
+     *
+     * @param customerId CUN del cliente
+     * @param trxCode Código homologado (PRFKEY)
+     * @return La {@link TransactionCostProjection} en caché, o null si no está o venció
+     */
+    public TransactionCostProjection lookup(String customerId, String trxCode) {
+        if (!enabled) {
+            return null;
+        }
+        CachedCost cached = cache.get(key(customerId, trxCode));
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (cached.prefetched && cached.used.compareAndSet(false, true)) {
+            prefetchUsed.increment();
+        }
+        return cached.cost;
+    }
+
+    /**
+     * @return true si hay un costo vigente para la clave (no cuenta como búsqueda)
+     */
+    public boolean contains(String customerId, String trxCode) {
+        return enabled && cache.get(key(customerId, trxCode)) != null;
+    }
+
+    /**
+     * Guarda un costo leído por una búsqueda normal.
+     */
+    public void put(String customerId, String trxCode, TransactionCostProjection cost) {
+        if (enabled) {
+            cache.put(key(customerId, trxCode), new CachedCost(cost, false));
+        }
+    }
+
+    /**
+     * Guarda un costo cargado por prefetch (cuenta para la tasa de aciertos del prefetch).
+     */
+    public void putPrefetched(String customerId, String trxCode, TransactionCostProjection cost) {
+        if (enabled) {
+            cache.put(key(customerId, trxCode), new CachedCost(cost, true));
+            prefetchLoaded.increment();
+        }
+    }
+
+    /**
+     * Restaura un costo de un snapshot anterior con la vigencia que le quedaba (acotada a
+     * {@code per002.cost-cache.ttl}). No cuenta como prefetch.
+     */
+    public void restore(String customerId, String trxCode, TransactionCostProjection cost, long remainingNanos) {
+        if (enabled && remainingNanos > 0) {
+            cache.put(key(customerId, trxCode), new CachedCost(cost, false), remainingNanos);
+        }
+    }
+
+    /**
+     * Descarta el costo de la clave, p. ej. si la fila ya no existe en CNTRLPRF.
+     */
+    public void remove(String customerId, String trxCode) {
+        if (enabled) {
+            cache.remove(key(customerId, trxCode));
+        }
+    }
+
+    /**
+     * Recorre los costos vigentes sin contarlos como búsquedas.
+     */
+    public void forEach(CostVisitor visitor) {
+        if (!enabled) {
+            return;
+        }
+        cache.forEach((key, cached, remainingNanos) -> {
+            int separator = key.indexOf('\0');
+            visitor.accept(key.substring(0, separator), key.substring(separator + 1), cached.cost, remainingNanos);
+        });
+    }
+
+    private double prefetchHitRatio() {
+        double loaded = prefetchLoaded.count();
+        return loaded == 0 ? 0 : prefetchUsed.count() / loaded;
+    }
+
+    private static String key(String customerId, String trxCode) {
+        return CustomerProjection.normalizeCustomerId(customerId) + '\0' + trxCode;
+    }
+
+    /**
+     * Costo en caché; {@code used} marca la primera búsqueda atendida por una fila de prefetch.
+     */
+    private static final class CachedCost {
+
+        private final TransactionCostProjection cost;
+        private final boolean prefetched;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private CachedCost(TransactionCostProjection cost, boolean prefetched) {
+            this.cost = cost;
+            this.prefetched = prefetched;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package pa.davivienda.persistence.caches;
+
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import pa.davivienda.application.validators.InputTransactionCodeValidator;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+
+/**
+ * Precarga opcional de CNTRLPRF para los códigos homologados.
+ *
+ * <p>El conjunto de filas que el servicio consulta está acotado por los tres códigos
+ * de {@link InputTransactionCodeValidator#getHomologatedTransactionCodes()}. Cuando
+ * {@code per002.cost-preload.enabled=true}, al arrancar se recorren esas filas con un
+ * cursor de solo avance (sin materializar el resultado) y se cargan en una
+ * {@link TransactionCostTable}. Un job periódico reconstruye la tabla y la publica de
+ * forma atómica, por lo que las lecturas nunca ven una tabla a medio construir.</p>
+ *
+ * <p>Si la carga falla se conserva la tabla anterior (o ninguna) y el repositorio
+ * sigue consultando DB2 i.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see TransactionCostTable
+ */
+@ApplicationScoped
+public class TransactionCostPreloadCache {
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "per002.cost-preload.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.cost-preload.fetch-size", defaultValue = "500")
+    int fetchSize;
+
+    private volatile TransactionCostTable table;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(every = "${per002.cost-preload.refresh-interval:15m}",
+               delayed = "${per002.cost-preload.refresh-interval:15m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * Busca el costo precargado de un cliente para un código homologado.
+     *
+     * @param customerId CUN del cliente
+     * @param trxCode Código homologado (PRFKEY)
+     * @return La {@link TransactionCostProjection} precargada, o null si no está en memoria
+     */
+    public TransactionCostProjection lookup(String customerId, String trxCode) {
+        TransactionCostTable current = table;
+        if (current == null) {
+            return null;
+        }
+        int cell = current.find(CustomerProjection.normalizeCustomerId(customerId), trxCode);
+        if (cell < 0) {
+            return null;
+        }
+        return new TransactionCostProjection(current.costAt(cell), current.currencyAt(cell));
+    }
+
+    /**
+     * Reconstruye la tabla completa desde CNTRLPRF y la publica.
+     */
+    public void refresh() {
+        long start = System.nanoTime();
+        try {
+            TransactionCostTable loaded = load(InputTransactionCodeValidator.getHomologatedTransactionCodes());
+            table = loaded;
+            Log.infof("CNTRLPRF preload: %d filas, %d clientes en %dms",
+                    loaded.size(), loaded.customerCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            Log.warnf("CNTRLPRF preload failed, keeping previous table: %s", e.getMessage());
+        }
+    }
+
+    private TransactionCostTable load(List<String> trxCodes) {
+        TransactionCostTable loaded = new TransactionCostTable(trxCodes);
+
+        SessionFactory sf = entityManager
+                .unwrap(Session.class)
+                .getSessionFactory();
+
+        try (StatelessSession ss = sf.openStatelessSession();
+             ScrollableResults<Object[]> rows = ss.createQuery(
+                            """
+                            SELECT t.customerId, t.transactionCode, t.cost, t.currencyCode
+                            FROM TransactionCost t
+                            WHERE t.transactionCode IN :codes
+                            """,
+                            Object[].class
+                    )
+                    .setParameter("codes", trxCodes)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            while (rows.next()) {
+                Object[] row = rows.get();
+                loaded.put(CustomerProjection.normalizeCustomerId((String) row[0]), ((String) row[1]).trim(),
+                        ((Number) row[2]).intValue(), (String) row[3]);
+            }
+        }
+        return loaded;
+    }
+}
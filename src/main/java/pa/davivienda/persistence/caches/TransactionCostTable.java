@@ -0,0 +1,181 @@
+package pa.davivienda.persistence.caches;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla compacta en memoria con los costos de CNTRLPRF para los códigos homologados.
+ *
+ * <p>Los CUN se internan en una tabla hash de direccionamiento abierto; la posición
+ * del CUN en esa tabla es el índice de los arreglos primitivos de costo e id de moneda
+ * (uno por código homologado). Las monedas se internan en un arreglo pequeño de
+ * {@link String}, por lo que cada fila ocupa solo un {@code int} y un {@code short}.</p>
+ *
+ * <p>La tabla se llena desde un único hilo mediante {@link #put} y luego se publica
+ * de forma inmutable (referencia volatile) para lecturas concurrentes sin bloqueo.
+ * Las búsquedas no generan objetos.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see TransactionCostPreloadCache
+ */
+public final class TransactionCostTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final short NO_CURRENCY = -1;
+
+    private final String[] trxCodes;
+    private String[] customerIds;
+    private int[] costs;
+    private short[] currencyIds;
+    private String[] currencies = new String[8];
+    private int currencyCount;
+    private int customerCount;
+    private int rowCount;
+
+    /**
+     * Crea una tabla vacía para los códigos de transacción indicados.
+     *
+     * @param trxCodes Códigos homologados (PRFKEY) que admite la tabla
+     */
+    public TransactionCostTable(List<String> trxCodes) {
+        this.trxCodes = trxCodes.toArray(String[]::new);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Registra (o reemplaza) el costo de un cliente para un código homologado.
+     * Las filas de códigos no admitidos se ignoran.
+     *
+     * @param customerId CUN del cliente (PRFCUN)
+     * @param trxCode Código homologado (PRFKEY)
+     * @param cost Costo de la transacción (PRFFA1)
+     * @param currencyCode Código de moneda (PRFFCY)
+     */
+    public void put(String customerId, String trxCode, int cost, String currencyCode) {
+        int codeIndex = codeIndex(trxCode);
+        if (codeIndex < 0 || customerId == null) {
+            return;
+        }
+        if ((customerCount + 1) * 2 > customerIds.length) {
+            rehash(customerIds.length * 2);
+        }
+
+        int slot = probe(customerIds, customerId);
+        if (customerIds[slot] == null) {
+            customerIds[slot] = customerId;
+            customerCount++;
+        }
+
+        int cell = codeIndex * customerIds.length + slot;
+        if (currencyIds[cell] == NO_CURRENCY) {
+            rowCount++;
+        }
+        costs[cell] = cost;
+        currencyIds[cell] = internCurrency(currencyCode);
+    }
+
+    /**
+     * Localiza la celda de un cliente y código homologado.
+     *
+     * @param customerId CUN del cliente
+     * @param trxCode Código homologado
+     * @return Índice de la celda para {@link #costAt} y {@link #currencyAt}, o -1 si no existe
+     */
+    public int find(String customerId, String trxCode) {
+        int codeIndex = codeIndex(trxCode);
+        if (codeIndex < 0 || customerId == null) {
+            return -1;
+        }
+        int slot = probe(customerIds, customerId);
+        if (customerIds[slot] == null) {
+            return -1;
+        }
+        int cell = codeIndex * customerIds.length + slot;
+        return currencyIds[cell] == NO_CURRENCY ? -1 : cell;
+    }
+
+    public int costAt(int cell) {
+        return costs[cell];
+    }
+
+    public String currencyAt(int cell) {
+        return currencies[currencyIds[cell]];
+    }
+
+    /**
+     * @return Número de filas (cliente, código) cargadas
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @return Número de clientes distintos internados
+     */
+    public int customerCount() {
+        return customerCount;
+    }
+
+    private int codeIndex(String trxCode) {
+        for (int i = 0; i < trxCodes.length; i++) {
+            if (trxCodes[i].equals(trxCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private short internCurrency(String currencyCode) {
+        for (short i = 0; i < currencyCount; i++) {
+            if (currencies[i].equals(currencyCode)) {
+                return i;
+            }
+        }
+        if (currencyCount == currencies.length) {
+            currencies = Arrays.copyOf(currencies, currencies.length * 2);
+        }
+        currencies[currencyCount] = currencyCode;
+        return (short) currencyCount++;
+    }
+
+    private static int probe(String[] keys, String customerId) {
+        int mask = keys.length - 1;
+        int slot = mix(customerId.hashCode()) & mask;
+        while (keys[slot] != null && !keys[slot].equals(customerId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        customerIds = new String[capacity];
+        costs = new int[capacity * trxCodes.length];
+        currencyIds = new short[capacity * trxCodes.length];
+        Arrays.fill(currencyIds, NO_CURRENCY);
+    }
+
+    private void rehash(int newCapacity) {
+        String[] oldIds = customerIds;
+        int[] oldCosts = costs;
+        short[] oldCurrencyIds = currencyIds;
+        allocate(newCapacity);
+
+        for (int oldSlot = 0; oldSlot < oldIds.length; oldSlot++) {
+            if (oldIds[oldSlot] == null) {
+                continue;
+            }
+            int slot = probe(customerIds, oldIds[oldSlot]);
+            customerIds[slot] = oldIds[oldSlot];
+            for (int code = 0; code < trxCodes.length; code++) {
+                costs[code * newCapacity + slot] = oldCosts[code * oldIds.length + oldSlot];
+                currencyIds[code * newCapacity + slot] = oldCurrencyIds[code * oldIds.length + oldSlot];
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import pa.davivienda.domain.projections.TransactionCostProjection;
+
+/**
+ * Snapshot en disco de los costos en caché, para arrancar con la caché caliente.
+ *
+ * <p>Formato del archivo (big-endian):</p>
+ * <pre>
+ * int  MAGIC ("PW2C")   int  VERSION        long writtenAt (epoch ms)   int entryCount
+ * entryCount registros: UTF cliente | UTF código | int costo | boolean hayMoneda
+ *                       [UTF moneda] | long expiresAt (epoch ms)
+ * </pre>
+ *
+ * <p>Los vencimientos se guardan en tiempo de reloj (no {@code nanoTime}, que no
+ * sobrevive al reinicio de la JVM). Se escribe en un archivo temporal que luego se
+ * mueve atómicamente sobre el destino, igual que {@link CustomerIndexSnapshotWriter}.</p>
+ *
+ * @param writtenAt Marca de tiempo (epoch ms) de la escritura
+ * @param entries Costos del snapshot
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public record WarmCostSnapshot(long writtenAt, List<Entry> entries) {
+
+    static final int MAGIC = 0x50573243;
+    static final int VERSION = 1;
+
+    /**
+     * Costo de un cliente para un código homologado y su vencimiento.
+     *
+     * @param expiresAt Vencimiento (epoch ms)
+     */
+    public record Entry(String customerId, String transactionCode, TransactionCostProjection cost, long expiresAt) {
+    }
+
+    /**
+     * Publica el snapshot en la ruta indicada.
+     *
+     * @param target Ruta final del snapshot
+     * @throws IOException Si falla la escritura o el movimiento atómico
+     */
+    public void writeTo(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(writtenAt);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeUTF(entry.customerId);
+                    out.writeUTF(entry.transactionCode);
+                    out.writeInt(entry.cost.cost());
+                    out.writeBoolean(entry.cost.currencyCode() != null);
+                    if (entry.cost.currencyCode() != null) {
+                        out.writeUTF(entry.cost.currencyCode());
+                    }
+                    out.writeLong(entry.expiresAt);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Lee un snapshot escrito con {@link #writeTo}.
+     *
+     * @param path Ruta del snapshot
+     * @return El snapshot
+     * @throws IOException Si el archivo no puede leerse o está truncado
+     * @throws IllegalStateException Si el formato no es el esperado
+     */
+    public static WarmCostSnapshot readFrom(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("Snapshot de costos con formato no soportado");
+            }
+            long writtenAt = in.readLong();
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IllegalStateException("Snapshot de costos corrupto");
+            }
+            List<Entry> entries = new ArrayList<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                String customerId = in.readUTF();
+                String trxCode = in.readUTF();
+                int cost = in.readInt();
+                String currency = in.readBoolean() ? in.readUTF() : null;
+                entries.add(new Entry(customerId, trxCode, new TransactionCostProjection(cost, currency), in.readLong()));
+            }
+            return new WarmCostSnapshot(writtenAt, entries);
+        }
+    }
+}
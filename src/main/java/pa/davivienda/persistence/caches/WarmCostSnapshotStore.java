@@ -0,0 +1,288 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Conserva los costos en caché entre reinicios del servicio.
+ *
+ * <p>Con {@code per002.warm-snapshot.enabled=true}, al apagarse el servicio escribe en
+ * {@code per002.warm-snapshot.path} un {@link WarmCostSnapshot} con los costos vigentes de
+ * {@link TransactionCostLookupCache} y los fijados por {@link HotCostKeyTracker}, con su
+ * vencimiento. Al arrancar, si el snapshot tiene menos de {@code per002.warm-snapshot.max-age},
+ * restaura en {@link TransactionCostLookupCache} los costos que aún no vencieron (con la
+ * vigencia que les quedaba), de modo que los primeros minutos después de un despliegue no
+ * van todos a DB2 i. Los costos fijados se restauran como costos normales; vuelven a fijarse
+ * cuando el tráfico los detecte otra vez como calientes.</p>
+ *
+ * <p>Con {@code per002.warm-snapshot.revalidate=true}, pasados
+ * {@code per002.warm-snapshot.revalidate-delay} un hilo virtual revalida los costos
+ * restaurados contra CNTRLPRF para corregir los que cambiaron mientras el servicio estaba
+ * abajo: actualiza los que cambiaron y descarta los que ya no existen. Consulta por grupos
+ * de {@code per002.batch.max-in-list} clientes con una pausa de
+ * {@code per002.warm-snapshot.revalidate-pause} entre grupos para no competir con el
+ * tráfico, y se detiene si el circuito de lecturas no está cerrado, si falla una consulta
+ * o si se interrumpe el hilo; los costos sin revalidar se siguen sirviendo hasta vencer.
+ * Sus consultas no se registran en el circuit breaker
+ * ({@link Per002StatelessRepository#findTransactionCostsInBackground}). El índice de CUMST
+ * no se incluye: ya se conserva en {@link CustomerIndexSnapshotCache}.</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.warm-snapshot.restored} - Costos restaurados al arrancar</li>
+ *   <li>{@code per002.warm-snapshot.revalidated} - Costos restaurados revalidados</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see WarmCostSnapshot
+ */
+@ApplicationScoped
+public class WarmCostSnapshotStore {
+
+    @Inject
+    TransactionCostLookupCache costLookupCache;
+
+    @Inject
+    HotCostKeyTracker hotKeys;
+
+    @Inject
+    Per002StatelessRepository repository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.warm-snapshot.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.warm-snapshot.path", defaultValue = "data/warm-cost-cache.bin")
+    String path;
+
+    @ConfigProperty(name = "per002.warm-snapshot.max-age", defaultValue = "30m")
+    Duration maxAge;
+
+    @ConfigProperty(name = "per002.warm-snapshot.revalidate", defaultValue = "true")
+    boolean revalidate;
+
+    @ConfigProperty(name = "per002.warm-snapshot.revalidate-delay", defaultValue = "30s")
+    Duration revalidateDelay;
+
+    @ConfigProperty(name = "per002.warm-snapshot.revalidate-timeout", defaultValue = "5s")
+    Duration revalidateTimeout;
+
+    @ConfigProperty(name = "per002.warm-snapshot.revalidate-pause", defaultValue = "200ms")
+    Duration revalidatePause;
+
+    @ConfigProperty(name = "per002.batch.max-in-list", defaultValue = "100")
+    int maxInList;
+
+    LongSupplier wallClock = System::currentTimeMillis;
+
+    private volatile Thread revalidation;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled && costLookupCache.isEnabled()) {
+            restore();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (!enabled || !costLookupCache.isEnabled()) {
+            return;
+        }
+        Thread running = revalidation;
+        if (running != null) {
+            running.interrupt();
+        }
+        save();
+    }
+
+    /**
+     * Escribe el snapshot con los costos vigentes.
+     *
+     * @return Costos escritos, o -1 si falló la escritura
+     */
+    int save() {
+        long now = wallClock.getAsLong();
+        Map<String, WarmCostSnapshot.Entry> entries = new HashMap<>();
+        TransactionCostLookupCache.CostVisitor collect = (customerId, trxCode, cost, remainingNanos) -> {
+            WarmCostSnapshot.Entry entry = new WarmCostSnapshot.Entry(customerId, trxCode, cost,
+                    now + TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+            entries.merge(customerId + '\0' + trxCode, entry,
+                    (a, b) -> a.expiresAt() >= b.expiresAt() ? a : b);
+        };
+        hotKeys.forEachPinned(collect);
+        costLookupCache.forEach(collect);
+
+        try {
+            new WarmCostSnapshot(now, new ArrayList<>(entries.values())).writeTo(Path.of(path));
+            Log.infof("Warm cost snapshot written: %d costos en %s", entries.size(), path);
+            return entries.size();
+        } catch (IOException | RuntimeException e) {
+            Log.warnf("Warm cost snapshot write failed: %s", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Restaura los costos vigentes del snapshot e inicia su revalidación.
+     *
+     * @return Costos restaurados
+     */
+    int restore() {
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            Log.debugf("Warm cost snapshot not found at %s", file);
+            return 0;
+        }
+        WarmCostSnapshot snapshot;
+        try {
+            snapshot = WarmCostSnapshot.readFrom(file);
+        } catch (IOException | RuntimeException e) {
+            Log.warnf("Warm cost snapshot discarded, unreadable: %s", e.getMessage());
+            return 0;
+        }
+
+        long now = wallClock.getAsLong();
+        long age = now - snapshot.writtenAt();
+        if (age < 0 || age > maxAge.toMillis()) {
+            Log.infof("Warm cost snapshot discarded: escrito hace %d ms (max-age %s)", age, maxAge);
+            return 0;
+        }
+
+        Map<String, Set<String>> restored = new HashMap<>();
+        int count = 0;
+        for (WarmCostSnapshot.Entry entry : snapshot.entries()) {
+            long remaining = entry.expiresAt() - now;
+            if (remaining > 0) {
+                costLookupCache.restore(entry.customerId(), entry.transactionCode(), entry.cost(),
+                        TimeUnit.MILLISECONDS.toNanos(remaining));
+                restored.computeIfAbsent(entry.customerId(), k -> new LinkedHashSet<>()).add(entry.transactionCode());
+                count++;
+            }
+        }
+        registry.counter("per002.warm-snapshot.restored").increment(count);
+        Log.infof("Warm cost snapshot restored: %d de %d costos, escrito hace %d ms",
+                count, snapshot.entries().size(), age);
+
+        if (revalidate && !restored.isEmpty()) {
+            revalidation = Thread.ofVirtual().name("per002-warm-revalidate").start(() -> revalidate(restored));
+        }
+        return count;
+    }
+
+    private void revalidate(Map<String, Set<String>> restored) {
+        try {
+            Thread.sleep(revalidateDelay.toMillis());
+            int revalidated = revalidateCachedCosts(restored);
+            registry.counter("per002.warm-snapshot.revalidated").increment(revalidated);
+            Log.infof("Warm cost snapshot revalidated: %d costos", revalidated);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            Log.warnf("Warm cost snapshot revalidation failed: %s", e.getMessage());
+        } finally {
+            revalidation = null;
+        }
+    }
+
+    /**
+     * Revalida contra CNTRLPRF los costos restaurados, por grupos de clientes.
+     *
+     * <p>Los CUN se comparan normalizados ({@link CustomerProjection#normalizeCustomerId}),
+     * y un costo solo se descarta si su cliente se consultó y la fila no volvió. Si un
+     * grupo devuelve filas de clientes que no se pidieron (claves que no coinciden), en
+     * ese grupo solo se actualiza: no se descarta nada por una clave que no coincide.</p>
+     *
+     * @param codesByCustomer Códigos homologados a revalidar por CUN
+     * @return Claves revalidadas (actualizadas o descartadas)
+     */
+    int revalidateCachedCosts(Map<String, Set<String>> codesByCustomer) {
+        Map<String, Set<String>> restored = new LinkedHashMap<>();
+        codesByCustomer.forEach((customerId, codes) -> restored.computeIfAbsent(
+                CustomerProjection.normalizeCustomerId(customerId), k -> new LinkedHashSet<>()).addAll(codes));
+
+        int revalidated = 0;
+        List<String> customers = new ArrayList<>(restored.keySet());
+        for (int from = 0; from < customers.size(); from += maxInList) {
+            if (from > 0) {
+                try {
+                    Thread.sleep(revalidatePause.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (!repository.isCircuitClosed()) {
+                Log.info("Cost revalidation stopped: circuito no cerrado");
+                break;
+            }
+            List<String> chunk = customers.subList(from, Math.min(from + maxInList, customers.size()));
+            Set<String> codes = new LinkedHashSet<>();
+            chunk.forEach(customerId -> codes.addAll(restored.get(customerId)));
+
+            List<CustomerCostProjection> rows;
+            try {
+                rows = repository.findTransactionCostsInBackground(chunk, codes, Deadline.after(revalidateTimeout));
+            } catch (RuntimeException e) {
+                Log.warnf("Cost revalidation stopped: %s", e.getMessage());
+                break;
+            }
+
+            Set<String> queried = new HashSet<>(chunk);
+            Map<String, TransactionCostProjection> found = new HashMap<>();
+            boolean keysMatch = true;
+            for (CustomerCostProjection row : rows) {
+                if (queried.contains(row.customerId())) {
+                    found.put(row.customerId() + '\0' + row.transactionCode(), row.toTransactionCost());
+                } else {
+                    keysMatch = false;
+                }
+            }
+            if (!keysMatch) {
+                Log.warn("Cost revalidation: filas con CUN no solicitados, no se descarta ningún costo del grupo");
+            }
+            for (String customerId : chunk) {
+                for (String trxCode : restored.get(customerId)) {
+                    TransactionCostProjection cost = found.get(customerId + '\0' + trxCode);
+                    if (cost != null) {
+                        costLookupCache.put(customerId, trxCode, cost);
+                        revalidated++;
+                    } else if (keysMatch) {
+                        costLookupCache.remove(customerId, trxCode);
+                        revalidated++;
+                    }
+                }
+            }
+        }
+        return revalidated;
+    }
+}
@@ -0,0 +1,109 @@
+package pa.davivienda.persistence.exports;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escribe filas de CNTRLPRF en CSV o NDJSON, una por línea.
+ *
+ * <p>No acumula filas: cada {@link #write} va directo al {@link Writer} subyacente,
+ * que el llamador debe envolver en un buffer. Las columnas, en el orden de la clave
+ * del export, son {@code customerId, transactionCode, cost, currencyCode}; la última
+ * fila escrita es el cursor para reanudar.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public class TransactionCostExportWriter {
+
+    static final String CSV_HEADER = "customerId,transactionCode,cost,currencyCode";
+
+    private final Writer out;
+    private final ExportFormat format;
+    private long rows;
+
+    public TransactionCostExportWriter(Writer out, ExportFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    /**
+     * Escribe el encabezado (solo CSV).
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Escribe una fila.
+     */
+    public void write(String customerId, String transactionCode, int cost, String currencyCode) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(csv(customerId));
+            out.write(',');
+            out.write(csv(transactionCode));
+            out.write(',');
+            out.write(Integer.toString(cost));
+            out.write(',');
+            out.write(csv(currencyCode));
+        } else {
+            out.write("{\"customerId\":");
+            out.write(json(customerId));
+            out.write(",\"transactionCode\":");
+            out.write(json(transactionCode));
+            out.write(",\"cost\":");
+            out.write(Integer.toString(cost));
+            out.write(",\"currencyCode\":");
+            out.write(json(currencyCode));
+            out.write('}');
+        }
+        out.write('\n');
+        rows++;
+    }
+
+    /**
+     * @return Filas escritas
+     */
+    public long rows() {
+        return rows;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
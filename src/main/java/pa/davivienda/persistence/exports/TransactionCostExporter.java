@@ -0,0 +1,239 @@
+package pa.davivienda.persistence.exports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.application.validators.InputTransactionCodeValidator;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.CanalQuotaLimiter;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.RequestContext;
+
+/**
+ * Export de CNTRLPRF (costos por cliente) para los códigos homologados.
+ *
+ * <p>Lee las filas en páginas de {@code per002.export.page-size} ordenadas por
+ * (PRFCUN, PRFKEY), la clave del export, y escribe cada página directo al stream de
+ * salida en CSV o NDJSON: el resultado nunca se materializa. Cada página continúa desde
+ * la última fila de la anterior (keyset), sin {@code OFFSET}; para reanudar un export
+ * cortado se pasa la última fila recibida como cursor.</p>
+ *
+ * <p>Cada página es un acceso normal a DB2 i: toma un permiso de {@link DbAccessLimiter}
+ * con la prioridad del canal, consume un token de la cuota del canal
+ * ({@link CanalQuotaLimiter#acquire}) y abre su propia sesión, que devuelve la conexión
+ * al terminar la página; así un export no retiene la conexión de lectura entre páginas
+ * ni desplaza a las consultas en línea. Cada página tiene su tiempo límite
+ * ({@code per002.export.page-timeout}) y el export se detiene con
+ * {@link ServiceUnavailableException} si el circuit breaker de lecturas no está cerrado.</p>
+ *
+ * <p>Se admiten a lo sumo {@code per002.export.max-concurrent} exports a la vez; el
+ * exceso se rechaza con {@link ServiceUnavailableException}. El cupo se toma al empezar
+ * a escribir y se libera al terminar, de modo que un export preparado que nunca se
+ * escribe no lo retiene.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see TransactionCostExportWriter
+ */
+@ApplicationScoped
+public class TransactionCostExporter {
+
+    /**
+     * Export preparado; toma su cupo al escribirse y lo libera al terminar.
+     */
+    @FunctionalInterface
+    public interface Export {
+
+        /**
+         * Escribe el export completo en el stream (no lo cierra).
+         *
+         * @return Filas escritas
+         * @throws IOException Si falla la escritura
+         * @throws ServiceUnavailableException Si no hay cupo o el circuito de lecturas no está cerrado
+         */
+        long writeTo(OutputStream out) throws IOException;
+    }
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    DbAccessLimiter dbAccessLimiter;
+
+    @Inject
+    CanalQuotaLimiter canalQuotaLimiter;
+
+    @Inject
+    Per002StatelessRepository repository;
+
+    @ConfigProperty(name = "per002.export.page-size", defaultValue = "1000")
+    int pageSize;
+
+    @ConfigProperty(name = "per002.export.page-timeout", defaultValue = "30s")
+    Duration pageTimeout;
+
+    @ConfigProperty(name = "per002.export.max-concurrent", defaultValue = "1")
+    int maxConcurrent;
+
+    @ConfigProperty(name = "per002.export.retry-after", defaultValue = "60s")
+    Duration retryAfter;
+
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        slots = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Valida los parámetros y verifica que haya cupo para el export.
+     *
+     * @param format Formato de salida
+     * @param afterCustomerId PRFCUN de la última fila recibida (null para empezar desde el inicio)
+     * @param afterTransactionCode PRFKEY de la última fila recibida (junto con afterCustomerId)
+     * @param limit Máximo de filas a escribir (0 = todas)
+     * @param canal Canal que pide el export (0 = sin canal), para prioridad y cuota
+     * @return Export listo para escribirse
+     * @throws IllegalArgumentException Si el cursor está incompleto o el límite es negativo
+     * @throws ServiceUnavailableException Si ya hay {@code per002.export.max-concurrent} exports en curso
+     */
+    public Export prepare(ExportFormat format, String afterCustomerId, String afterTransactionCode, long limit,
+                          short canal) {
+        boolean hasCustomer = afterCustomerId != null && !afterCustomerId.isBlank();
+        boolean hasCode = afterTransactionCode != null && !afterTransactionCode.isBlank();
+        if (hasCustomer != hasCode) {
+            throw new IllegalArgumentException("El cursor requiere afterCustomerId y afterTransactionCode");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit no puede ser negativo");
+        }
+        // Verificación temprana para responder 503 antes de empezar a escribir
+        if (slots.availablePermits() == 0) {
+            throw unavailable();
+        }
+
+        String cursorCustomer = hasCustomer ? afterCustomerId.trim() : null;
+        String cursorCode = hasCode ? afterTransactionCode.trim() : null;
+        return out -> {
+            if (!slots.tryAcquire()) {
+                throw unavailable();
+            }
+            try {
+                return export(format, cursorCustomer, cursorCode, limit, canal, out);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    private ServiceUnavailableException unavailable() {
+        return new ServiceUnavailableException("Export de costos en curso", retryAfter);
+    }
+
+    private long export(ExportFormat format, String afterCustomerId, String afterTransactionCode,
+                        long limit, short canal, OutputStream out) throws IOException {
+
+        long start = System.nanoTime();
+        List<String> trxCodes = InputTransactionCodeValidator.getHomologatedTransactionCodes();
+        BufferedWriter buffered = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        TransactionCostExportWriter writer = new TransactionCostExportWriter(buffered, format);
+        writer.writeHeader();
+
+        String cursorCustomer = afterCustomerId;
+        String cursorCode = afterTransactionCode;
+        int pages = 0;
+        while (limit == 0 || writer.rows() < limit) {
+            int size = limit == 0 ? pageSize : (int) Math.min(pageSize, limit - writer.rows());
+            List<Object[]> page = readPage(trxCodes, cursorCustomer, cursorCode, size, canal);
+            pages++;
+            for (Object[] row : page) {
+                writer.write(((String) row[0]).trim(), ((String) row[1]).trim(),
+                        ((Number) row[2]).intValue(), row[3] == null ? null : ((String) row[3]).trim());
+            }
+            buffered.flush();
+            if (page.size() < size) {
+                break;
+            }
+            Object[] last = page.get(page.size() - 1);
+            cursorCustomer = (String) last[0];
+            cursorCode = (String) last[1];
+        }
+
+        Log.infof("CNTRLPRF export (%s, after=%s/%s): %d filas en %d páginas, %dms", format, afterCustomerId,
+                afterTransactionCode, writer.rows(), pages, (System.nanoTime() - start) / 1_000_000);
+        return writer.rows();
+    }
+
+    /**
+     * Lee una página con su propia sesión, dentro de un permiso de acceso a DB2 i.
+     */
+    private List<Object[]> readPage(List<String> trxCodes, String afterCustomerId, String afterTransactionCode,
+                                    int size, short canal) {
+        if (!repository.isCircuitClosed()) {
+            throw new ServiceUnavailableException("DB2 i no disponible, export detenido", retryAfter);
+        }
+        try {
+            canalQuotaLimiter.acquire(canal);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export de costos interrumpido", e);
+        }
+        RequestContext context = new RequestContext(Deadline.after(pageTimeout), canal);
+        return dbAccessLimiter.call(() -> {
+            try (StatelessSession ss = sessionFactory.openStatelessSession()) {
+                return query(ss, trxCodes, afterCustomerId, afterTransactionCode)
+                        .setMaxResults(size)
+                        .setTimeout(context.deadline().remainingSeconds())
+                        .getResultList();
+            }
+        }, context);
+    }
+
+    private static SelectionQuery<Object[]> query(StatelessSession ss, List<String> trxCodes,
+                                                  String afterCustomerId, String afterTransactionCode) {
+        if (afterCustomerId == null) {
+            return ss.createSelectionQuery(
+                            """
+                            SELECT t.customerId, t.transactionCode, t.cost, t.currencyCode
+                            FROM TransactionCost t
+                            WHERE t.transactionCode IN :codes
+                            ORDER BY t.customerId, t.transactionCode
+                            """,
+                            Object[].class
+                    )
+                    .setParameter("codes", trxCodes);
+        }
+        return ss.createSelectionQuery(
+                        """
+                        SELECT t.customerId, t.transactionCode, t.cost, t.currencyCode
+                        FROM TransactionCost t
+                        WHERE t.transactionCode IN :codes
+                          AND (t.customerId > :cun
+                               OR (t.customerId = :cun AND t.transactionCode > :trx))
+                        ORDER BY t.customerId, t.transactionCode
+                        """,
+                        Object[].class
+                )
+                .setParameter("codes", trxCodes)
+                .setParameter("cun", afterCustomerId)
+                .setParameter("trx", afterTransactionCode);
+    }
+}
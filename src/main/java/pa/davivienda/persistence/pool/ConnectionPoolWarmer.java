@@ -0,0 +1,148 @@
+package pa.davivienda.persistence.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+
+/**
+ * Mantiene calientes las conexiones del pool de lecturas para que el sign-on de jt400
+ * (login al host server, cientos de milisegundos) no ocurra dentro de un request.
+ *
+ * <p>Con {@code per002.pool-warmer.enabled=true}, un job periódico calcula con
+ * {@link PoolWarmPlanner} cuántas conexiones deben estar abiertas, lo fija como
+ * {@code min-size} del pool de Agroal (que deja de cerrarlas por inactividad) y abre
+ * las que falten fuera del camino de los requests. Nunca supera {@code max-size}.</p>
+ *
+ * <p>Métricas publicadas:</p>
+ * <ul>
+ *   <li>{@code per002.db.pool.warm-target} - Conexiones calientes objetivo</li>
+ *   <li>{@code per002.db.pool.warmed} - Conexiones abiertas por el warmer</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see PoolWarmPlanner
+ */
+@ApplicationScoped
+public class ConnectionPoolWarmer {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    DbAccessLimiter dbAccessLimiter;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.pool-warmer.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.pool-warmer.min-warm", defaultValue = "1")
+    int minWarm;
+
+    @ConfigProperty(name = "per002.pool-warmer.connection-hold", defaultValue = "250ms")
+    Duration connectionHold;
+
+    @ConfigProperty(name = "per002.pool-warmer.headroom", defaultValue = "1.5")
+    double headroom;
+
+    @ConfigProperty(name = "per002.pool-warmer.schedule")
+    Optional<List<String>> schedule;
+
+    @ConfigProperty(name = "per002.pool-warmer.schedule-lead", defaultValue = "10m")
+    Duration scheduleLead;
+
+    private PoolWarmPlanner planner;
+    private volatile int target;
+    private long lastAccessCount;
+    private long lastTickNanos;
+    private Counter warmed;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int maxSize = dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+        planner = new PoolWarmPlanner(Math.min(minWarm, maxSize), maxSize, connectionHold, headroom,
+                schedule.orElse(List.of()), scheduleLead);
+        warmed = Counter.builder("per002.db.pool.warmed").register(registry);
+        Gauge.builder("per002.db.pool.warm-target", this, w -> w.target).register(registry);
+
+        lastAccessCount = dbAccessLimiter.accessCount();
+        lastTickNanos = System.nanoTime();
+        apply(Math.min(minWarm, maxSize));
+    }
+
+    @Scheduled(every = "${per002.pool-warmer.interval:30s}",
+               delayed = "${per002.pool-warmer.interval:30s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledWarm() {
+        if (!enabled || planner == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long accessCount = dbAccessLimiter.accessCount();
+        int planned = planner.plan(accessCount - lastAccessCount, Duration.ofNanos(now - lastTickNanos),
+                LocalTime.now());
+        lastAccessCount = accessCount;
+        lastTickNanos = now;
+        apply(planned);
+    }
+
+    /**
+     * Fija el mínimo del pool y abre las conexiones que falten para alcanzarlo.
+     */
+    private void apply(int newTarget) {
+        if (newTarget != target) {
+            Log.infof("Read pool warm target: %d -> %d", target, newTarget);
+        }
+        target = newTarget;
+        dataSource.getConfiguration().connectionPoolConfiguration().setMinSize(newTarget);
+
+        AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+        long missing = newTarget - (metrics.activeCount() + metrics.availableCount());
+        if (missing <= 0) {
+            return;
+        }
+
+        // Se abren a la vez para que el pool cree conexiones nuevas en lugar de reutilizar la misma
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (long i = 0; i < missing; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            Log.warnf("Read pool warm-up failed: %s", e.getMessage());
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // La conexión vuelve al pool o se descarta
+                }
+            }
+            warmed.increment(opened.size());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package pa.davivienda.persistence.pool;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcula cuántas conexiones del pool de lecturas deben mantenerse abiertas (calientes).
+ *
+ * <p>El objetivo es que el sign-on de jt400 ocurra antes de que llegue el tráfico, no
+ * dentro de un request. Se combinan tres fuentes y se toma la mayor:</p>
+ * <ul>
+ *   <li>Tasa reciente de accesos a DB2 i (promedio móvil exponencial)</li>
+ *   <li>Historial por franja del día (15 minutos): la tasa aprendida de la franja actual
+ *       y de la siguiente, para anticipar picos recurrentes como los cambios de jornada</li>
+ *   <li>Ventanas programadas ({@code HH:mm-HH:mm}), activas desde {@code lead} antes de su inicio</li>
+ * </ul>
+ *
+ * <p>Las tasas se convierten en conexiones por la ley de Little
+ * ({@code tasa * tiempo de uso de la conexión * holgura}) y el resultado se acota a
+ * [{@code minWarm}, {@code maxSize}]. Durante una ventana programada se calientan
+ * {@code maxSize} conexiones.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class PoolWarmPlanner {
+
+    private static final int SLOT_SECONDS = 15 * 60;
+    private static final int SLOTS_PER_DAY = 24 * 60 * 60 / SLOT_SECONDS;
+    private static final double RECENT_ALPHA = 0.3;
+    private static final double HISTORY_ALPHA = 0.2;
+
+    private final int minWarm;
+    private final int maxSize;
+    private final double holdSeconds;
+    private final double headroom;
+    private final List<Window> schedule;
+    private final int leadSeconds;
+    private final double[] slotRates = new double[SLOTS_PER_DAY];
+
+    private double recentRate = -1;
+
+    /**
+     * @param minWarm Conexiones mínimas siempre abiertas
+     * @param maxSize Tamaño máximo del pool
+     * @param hold Tiempo medio que un acceso retiene la conexión
+     * @param headroom Factor de holgura sobre la concurrencia estimada
+     * @param schedule Ventanas {@code HH:mm-HH:mm} en las que se calienta todo el pool
+     * @param lead Anticipación con la que se activa cada ventana
+     */
+    public PoolWarmPlanner(int minWarm, int maxSize, Duration hold, double headroom,
+                           List<String> schedule, Duration lead) {
+        if (maxSize < 1 || minWarm < 0 || minWarm > maxSize) {
+            throw new IllegalArgumentException("minWarm debe estar entre 0 y maxSize");
+        }
+        this.minWarm = minWarm;
+        this.maxSize = maxSize;
+        this.holdSeconds = hold.toNanos() / 1e9;
+        this.headroom = headroom;
+        this.leadSeconds = (int) lead.toSeconds();
+        this.schedule = new ArrayList<>();
+        for (String window : schedule) {
+            this.schedule.add(Window.parse(window));
+        }
+    }
+
+    /**
+     * Registra la tasa observada desde el último ciclo y calcula el objetivo de conexiones.
+     *
+     * @param accesses Accesos a DB2 i desde el último ciclo
+     * @param elapsed Tiempo transcurrido desde el último ciclo
+     * @param now Hora local actual
+     * @return Conexiones que deben estar abiertas
+     */
+    public int plan(long accesses, Duration elapsed, LocalTime now) {
+        double seconds = Math.max(1e-3, elapsed.toNanos() / 1e9);
+        double rate = accesses / seconds;
+
+        recentRate = recentRate < 0 ? rate : recentRate + RECENT_ALPHA * (rate - recentRate);
+
+        int slot = now.toSecondOfDay() / SLOT_SECONDS;
+        slotRates[slot] += HISTORY_ALPHA * (rate - slotRates[slot]);
+
+        if (inScheduledWindow(now)) {
+            return maxSize;
+        }
+
+        double predicted = Math.max(recentRate, Math.max(slotRates[slot], slotRates[(slot + 1) % SLOTS_PER_DAY]));
+        int target = (int) Math.ceil(predicted * holdSeconds * headroom);
+        return Math.max(minWarm, Math.min(maxSize, target));
+    }
+
+    private boolean inScheduledWindow(LocalTime now) {
+        int second = now.toSecondOfDay();
+        for (Window window : schedule) {
+            if (window.contains(second) || window.contains((second + leadSeconds) % (24 * 60 * 60))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Window(int startSecond, int endSecond) {
+
+        static Window parse(String text) {
+            String[] parts = text.trim().split("-");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Ventana inválida (se espera HH:mm-HH:mm): " + text);
+            }
+            return new Window(LocalTime.parse(parts[0].trim()).toSecondOfDay(),
+                    LocalTime.parse(parts[1].trim()).toSecondOfDay());
+        }
+
+        boolean contains(int second) {
+            if (startSecond <= endSecond) {
+                return second >= startSecond && second < endSecond;
+            }
+            // Ventana que cruza la medianoche
+            return second >= startSecond || second < endSecond;
+        }
+    }
+}
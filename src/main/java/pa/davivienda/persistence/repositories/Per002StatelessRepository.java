@@ -1,19 +1,64 @@
 package pa.davivienda.persistence.repositories;
 
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.StatelessSession;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
-import jakarta.persistence.EntityManager;
-import pa.davivienda.domain.entities.Customer;
-import pa.davivienda.domain.entities.TransactionCost;
+import pa.davivienda.domain.entities.AuditLog;
+import pa.davivienda.domain.enums.AuditMessageType;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.caches.CustomerDocumentFilter;
+import pa.davivienda.persistence.caches.CustomerIndexSnapshotCache;
+import pa.davivienda.persistence.caches.HotCostKeyTracker;
+import pa.davivienda.persistence.caches.TransactionCostLookupCache;
+import pa.davivienda.persistence.caches.TransactionCostPreloadCache;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.CircuitBreaker;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.RequestContext;
+import pa.davivienda.transversal.concurrency.HedgedExecutor;
+import pa.davivienda.transversal.concurrency.LatencyTracker;
+import pa.davivienda.transversal.concurrency.SingleFlight;
+import pa.davivienda.transversal.concurrency.StructuredScope;
+import pa.davivienda.transversal.utils.AuditUtils;
 
 /**
  * Repositorio para operaciones transaccionales sin caché en DB2 i (AS/400).
  * 
- * <p>Utiliza {@link StatelessSession} de Hibernate para realizar consultas sin
+ * <p>Utiliza {@code StatelessSession} de Hibernate (por defecto) para realizar consultas sin
  * mantener estado ni caché de segundo nivel. Este enfoque es ideal para operaciones
  * transaccionales donde:</p>
  * <ul>
@@ -29,17 +74,200 @@ import pa.davivienda.domain.entities.TransactionCost;
  *   <li>CNTRLPRF - Control Profile (Perfil de Costos de Transacciones)</li>
  * </ul>
  * 
+ * <p>Las lecturas usan proyecciones ({@code SELECT new}) a records inmutables con
+ * solo las columnas que necesita el caso de uso, sin materializar entidades.</p>
+ * 
+ * <p>El acceso a DB2 i se delega en un {@link CustomerCostReadPort} elegido con
+ * {@code per002.read-path}: {@code sql} (JPQL sobre StatelessSession, por defecto) o
+ * {@code rla} (lectura por clave con record-level access de jt400). Cachés,
+ * coalescencia, circuit breaker, limitador y hedging aplican igual a ambos.</p>
+ * 
+ * <p>Las consultas idénticas concurrentes (mismo documento, o mismo cliente y código)
+ * se coalescen: solo una (la del líder) llega a DB2 i y las demás reciben su resultado
+ * o error. La consulta compartida corre con el tiempo límite y la cancelación del líder;
+ * si falla por causas propias del líder (su tiempo límite venció o su solicitud se
+ * canceló), cada seguidor al que aún le queda tiempo consulta por su cuenta en lugar de
+ * heredar ese error. A cambio, en ese caso DB2 i puede recibir una consulta por
+ * seguidor.</p>
+ * 
+ * <p>Con {@code per002.hedging.enabled=true}, una lectura que supera el percentil de
+ * latencia observado se repite en una segunda conexión; gana el primer resultado y la
+ * otra se cancela con {@code Statement.cancel()}. Requiere un pool de lecturas (y
+ * {@code per002.db-limiter.permits}) de al menos 2 conexiones.</p>
+ * 
+ * <p>Las lecturas de las solicitudes pasan por un circuit breaker: tras varios fallos
+ * consecutivos (p. ej. AS/400 inaccesible) las siguientes fallan de inmediato con
+ * {@link ServiceUnavailableException} en lugar de esperar los timeouts del pool y de
+ * jt400. Las respuestas desde snapshot, filtro o precarga no dependen del circuito.
+ * El tiempo límite agotado de una solicitud, los rechazos por sobrecarga y las
+ * cancelaciones no cuentan como fallo. Los trabajos en segundo plano (prefetch, refresco
+ * de claves calientes, revalidación) solo consultan con el circuito cerrado y no se
+ * registran en él. Cada cambio de estado se publica como métrica y como evento de
+ * auditoría.</p>
+ * 
+ * <p>Las variantes con {@link RequestContext} acotan cada etapa al tiempo que le queda a la
+ * solicitud: la espera de coalescencia, la espera de permiso del limitador (que
+ * dimensiona el acceso al pool) y el {@code Statement} query timeout de la consulta.
+ * Una consulta que supera el tiempo límite se cancela en DB2 i y se informa como
+ * {@link DeadlineExceededException}. El canal del contexto define la prioridad de la
+ * solicitud en la espera de conexión.</p>
+ * 
+ * <p>Las búsquedas de varias claves (consulta en lote) resuelven primero desde snapshot,
+ * filtro y precarga, y el resto con consultas {@code IN} de hasta
+ * {@code per002.batch.max-in-list} valores, sin coalescencia ni hedging.</p>
+ * 
+ * <p>Los costos leídos de DB2 i se guardan en {@link TransactionCostLookupCache} (si está
+ * activa). Los trabajos en segundo plano que la completan (p. ej.
+ * {@link pa.davivienda.persistence.caches.SiblingCostPrefetcher},
+ * {@link pa.davivienda.persistence.caches.HotCostKeyRefresher}) leen con
+ * {@link #findTransactionCostsInBackground}.</p>
+ * 
+ * <p>Con {@code per002.hot-keys.enabled=true} cada búsqueda de costo se registra en
+ * {@link HotCostKeyTracker}; los costos de las claves más consultadas se fijan en
+ * memoria fuera del LRU y se refrescan periódicamente con una consulta agrupada
+ * (refresh-ahead, {@link pa.davivienda.persistence.caches.HotCostKeyRefresher}), de modo que los clientes de alto volumen no pasan por DB2 i aunque
+ * un recorrido de clientes ocasionales vacíe la caché de costos.</p>
+ * 
+ * <p>Las variantes {@code Async} ejecutan la búsqueda como tarea de un
+ * {@link StructuredScope}: si la solicitud falla o vence mientras la consulta está en
+ * curso, el ámbito cancela el {@code Statement} en DB2 i, también si la consulta está
+ * coalescida y la solicitud es la líder (los seguidores vuelven a consultar).</p>
+ * 
  * @author Equipo PER002
  * @version 1.0.0
  * @since 2025-12-24
- * @see Customer
- * @see TransactionCost
+ * @see CustomerProjection
+ * @see TransactionCostProjection
  */
 @ApplicationScoped
 public class Per002StatelessRepository {
 
+    private static final String STAGE_CUMST = "cumst";
+    private static final String STAGE_CNTRLPRF = "cntrlprf";
+
+    @Inject
+    Instance<CustomerCostReadPort> readPorts;
+
+    @Inject
+    TransactionCostPreloadCache costPreloadCache;
+
+    @Inject
+    TransactionCostLookupCache costLookupCache;
+
+    @Inject
+    HotCostKeyTracker hotKeys;
+
+    @Inject
+    CustomerIndexSnapshotCache customerSnapshot;
+
     @Inject
-    EntityManager entityManager;
+    CustomerDocumentFilter customerFilter;
+
+    @Inject
+    DbAccessLimiter dbAccessLimiter;
+
+    @Inject
+    AuditPort auditPort;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.coalescing.enabled", defaultValue = "true")
+    boolean coalescingEnabled;
+
+    @ConfigProperty(name = "per002.coalescing.wait-timeout", defaultValue = "5s")
+    Duration coalescingWaitTimeout;
+
+    @ConfigProperty(name = "per002.hedging.enabled", defaultValue = "false")
+    boolean hedgingEnabled;
+
+    @ConfigProperty(name = "per002.hedging.percentile", defaultValue = "0.95")
+    double hedgingPercentile;
+
+    @ConfigProperty(name = "per002.hedging.budget-percent", defaultValue = "5")
+    double hedgingBudgetPercent;
+
+    @ConfigProperty(name = "per002.hedging.window-size", defaultValue = "1024")
+    int hedgingWindowSize;
+
+    @ConfigProperty(name = "per002.hedging.min-samples", defaultValue = "100")
+    int hedgingMinSamples;
+
+    @ConfigProperty(name = "per002.hedging.max-threads", defaultValue = "8")
+    int hedgingMaxThreads;
+
+    @ConfigProperty(name = "per002.circuit-breaker.failure-threshold", defaultValue = "5")
+    int circuitFailureThreshold;
+
+    @ConfigProperty(name = "per002.circuit-breaker.open-duration", defaultValue = "30s")
+    Duration circuitOpenDuration;
+
+    @ConfigProperty(name = "per002.circuit-breaker.half-open-probes", defaultValue = "2")
+    int circuitHalfOpenProbes;
+
+    @ConfigProperty(name = "per002.batch.max-in-list", defaultValue = "100")
+    int maxInList;
+
+    private final SingleFlight<String, CustomerProjection> customerFlights = new SingleFlight<>();
+    private final SingleFlight<String, TransactionCostProjection> costFlights = new SingleFlight<>();
+    private ExecutorService hedgedReadPool;
+    private HedgedExecutor hedgedExecutor;
+    private CircuitBreaker circuitBreaker;
+    private CustomerCostReadPort readPort;
+
+    @PostConstruct
+    void init() {
+        readPort = readPorts.get();
+
+        circuitBreaker = new CircuitBreaker(circuitFailureThreshold, circuitOpenDuration,
+                circuitHalfOpenProbes, this::onCircuitTransition);
+        Gauge.builder("per002.db.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN")
+                .register(registry);
+        FunctionCounter.builder("per002.db.circuit.rejected", circuitBreaker, CircuitBreaker::rejectedCount)
+                .register(registry);
+
+        if (hedgingEnabled) {
+            hedgedReadPool = new ThreadPoolExecutor(0, hedgingMaxThreads, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    Thread.ofPlatform().name("per002-hedged-read-", 0).daemon(true).factory());
+            hedgedExecutor = new HedgedExecutor(hedgedReadPool,
+                    new LatencyTracker(hedgingWindowSize, hedgingPercentile, hedgingMinSamples),
+                    hedgingBudgetPercent);
+            FunctionCounter.builder("per002.db.hedge.launched", hedgedExecutor, HedgedExecutor::hedgeCount)
+                    .register(registry);
+            FunctionCounter.builder("per002.db.hedge.wins", hedgedExecutor, HedgedExecutor::hedgeWinCount)
+                    .register(registry);
+            Gauge.builder("per002.db.hedge.threshold", hedgedExecutor, h -> h.thresholdNanos() / 1_000_000.0)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+
+        Gauge.builder("per002.lookup.coalescing.ratio", customerFlights, SingleFlight::coalescingRatio)
+                .tag("lookup", "customer")
+                .register(registry);
+        Gauge.builder("per002.lookup.coalescing.ratio", costFlights, SingleFlight::coalescingRatio)
+                .tag("lookup", "cost")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (hedgedReadPool != null) {
+            hedgedReadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Indica si el circuito de lecturas está cerrado, para que los accesos masivos que no
+     * pasan por este repositorio (p. ej. el export de CNTRLPRF) se detengan mientras
+     * DB2 i no está disponible.
+     *
+     * @return true si el circuito está {@link CircuitBreaker.State#CLOSED}
+     */
+    public boolean isCircuitClosed() {
+        return circuitBreaker.state() == CircuitBreaker.State.CLOSED;
+    }
 
     /**
      * Busca un cliente por tipo y número de documento.
@@ -48,54 +276,412 @@ public class Per002StatelessRepository {
      * StatelessSession para optimizar el rendimiento. La consulta retorna un
      * único resultado o null si no encuentra coincidencias.</p>
      * 
+     * <p>Si hay un snapshot de clientes mapeado en memoria se consulta primero; la
+     * base de datos solo se usa para los documentos que no estén en él. Los documentos
+     * que el filtro de Bloom descarta se responden como inexistentes sin ir a DB2 i.</p>
+     * 
      * @param docType Tipo de identificación (ej: "C" para cédula, "P" para pasaporte)
      * @param docNumber Número de identificación del cliente
-     * @return El objeto {@link Customer} encontrado, o null si no existe
+     * @return La {@link CustomerProjection} encontrada, o null si no existe
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
      * @throws RuntimeException Si ocurre un error de conexión o consulta a DB2
      */
-    public Customer findCustomerByDocument(String docType, String docNumber) {
-
-        SessionFactory sf = entityManager
-                .unwrap(Session.class)
-                .getSessionFactory();
-
-        try (StatelessSession ss = sf.openStatelessSession()) {
-
-            return ss.createQuery(
-                            """
-                            FROM Customer
-                            WHERE identificationType = :type
-                              AND identificationNumber = :number
-                            """,
-                            Customer.class
-                    )
-                    .setParameter("type", docType)
-                    .setParameter("number", docNumber)
-                    .setMaxResults(1)   // ✅ ASÍ se limita en JPQL
-                    .uniqueResult();
-        }
-    }
-
-    public TransactionCost findTransactionCost(String customerId, String trxCode) {
-
-        SessionFactory sf = entityManager
-                .unwrap(Session.class)
-                .getSessionFactory();
-
-        try (StatelessSession ss = sf.openStatelessSession()) {
-
-            return ss.createQuery(
-                            """
-                            FROM TransactionCost
-                            WHERE customerId = :customerId
-                              AND transactionCode = :trx
-                            """,
-                            TransactionCost.class
-                    )
-                    .setParameter("customerId", customerId)
-                    .setParameter("trx", trxCode)
-                    .setMaxResults(1)
-                    .uniqueResult();
+    public CustomerProjection findCustomerByDocument(String docType, String docNumber) {
+        return findCustomerByDocument(docType, docNumber, RequestContext.NONE);
+    }
+
+    /**
+     * Busca un cliente por tipo y número de documento dentro del tiempo límite de la solicitud.
+     * 
+     * @param docType Tipo de identificación
+     * @param docNumber Número de identificación del cliente
+     * @param context Tiempo límite y canal de la solicitud
+     * @return La {@link CustomerProjection} encontrada, o null si no existe
+     * @throws DeadlineExceededException Si el tiempo límite expira antes de obtener respuesta
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
+     */
+    public CustomerProjection findCustomerByDocument(String docType, String docNumber, RequestContext context) {
+        return findCustomerByDocument(docType, docNumber, context, CancellationHandle.NONE);
+    }
+
+    /**
+     * Busca un cliente por tipo y número de documento como tarea de un ámbito de la solicitud.
+     * 
+     * @param docType Tipo de identificación
+     * @param docNumber Número de identificación del cliente
+     * @param context Tiempo límite y canal de la solicitud
+     * @param scope Ámbito que cancela la consulta si la solicitud falla
+     * @return La {@link CustomerProjection} encontrada (o null), o el error de la búsqueda
+     */
+    public CompletableFuture<CustomerProjection> findCustomerByDocumentAsync(String docType, String docNumber,
+                                                                            RequestContext context,
+                                                                            StructuredScope scope) {
+        return scope.fork(cancellation -> findCustomerByDocument(docType, docNumber, context, cancellation));
+    }
+
+    private CustomerProjection findCustomerByDocument(String docType, String docNumber, RequestContext context,
+                                                      CancellationHandle cancellation) {
+
+        String snapshotCun = customerSnapshot.findCustomerId(docType, docNumber);
+        if (snapshotCun != null) {
+            return new CustomerProjection(snapshotCun);
+        }
+
+        if (!customerFilter.mightExist(docType, docNumber)) {
+            return null;
+        }
+
+        if (!coalescingEnabled) {
+            return withinDeadline(context.deadline(), STAGE_CUMST,
+                    () -> queryCustomerByDocument(docType, docNumber, context, cancellation));
+        }
+        return withinDeadline(context.deadline(), STAGE_CUMST, () -> coalesced(customerFlights, "customer",
+                docType + '\0' + docNumber, context, cancellation,
+                handle -> queryCustomerByDocument(docType, docNumber, context, handle)));
+    }
+
+    private CustomerProjection queryCustomerByDocument(String docType, String docNumber, RequestContext context,
+                                                       CancellationHandle cancellation) {
+        return cancellable(cancellation, () -> guarded(context.deadline(), STAGE_CUMST, () ->
+                unlessCancelled(cancellation, () -> read(cancellation, context.deadline(), handle -> dbAccessLimiter.call(
+                        () -> readPort.findCustomerByDocument(docType, docNumber, context.deadline(), handle), context)))));
+    }
+
+    /**
+     * Busca el costo de una transacción homologada para un cliente.
+     * 
+     * <p>Si la precarga de CNTRLPRF está activa responde desde memoria y solo consulta
+     * DB2 i cuando la fila no está precargada.</p>
+     * 
+     * @param customerId CUN del cliente (PRFCUN)
+     * @param trxCode Código de transacción homologado (PRFKEY)
+     * @return La {@link TransactionCostProjection} encontrada, o null si no existe
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
+     */
+    public TransactionCostProjection findTransactionCost(String customerId, String trxCode) {
+        return findTransactionCost(customerId, trxCode, RequestContext.NONE);
+    }
+
+    /**
+     * Busca el costo de una transacción homologada dentro del tiempo límite de la solicitud.
+     * 
+     * @param customerId CUN del cliente (PRFCUN)
+     * @param trxCode Código de transacción homologado (PRFKEY)
+     * @param context Tiempo límite y canal de la solicitud
+     * @return La {@link TransactionCostProjection} encontrada, o null si no existe
+     * @throws DeadlineExceededException Si el tiempo límite expira antes de obtener respuesta
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
+     */
+    public TransactionCostProjection findTransactionCost(String customerId, String trxCode, RequestContext context) {
+        return findTransactionCost(customerId, trxCode, context, CancellationHandle.NONE);
+    }
+
+    /**
+     * Busca el costo de una transacción homologada como tarea de un ámbito de la solicitud.
+     * 
+     * <p>La precarga y la caché de costos se revisan en la misma tarea, sin ocupar el hilo
+     * de quien la invoca.</p>
+     * 
+     * @param customerId CUN del cliente (PRFCUN)
+     * @param trxCode Código de transacción homologado (PRFKEY)
+     * @param context Tiempo límite y canal de la solicitud
+     * @param scope Ámbito que cancela la consulta si la solicitud falla
+     * @return La {@link TransactionCostProjection} encontrada (o null), o el error de la búsqueda
+     */
+    public CompletableFuture<TransactionCostProjection> findTransactionCostAsync(String customerId, String trxCode,
+                                                                                RequestContext context,
+                                                                                StructuredScope scope) {
+        return scope.fork(cancellation -> findTransactionCost(customerId, trxCode, context, cancellation));
+    }
+
+    private TransactionCostProjection findTransactionCost(String requestedCustomerId, String trxCode,
+                                                          RequestContext context, CancellationHandle cancellation) {
+
+        String customerId = CustomerProjection.normalizeCustomerId(requestedCustomerId);
+        hotKeys.record(customerId, trxCode);
+
+        TransactionCostProjection preloaded = costPreloadCache.lookup(customerId, trxCode);
+        if (preloaded != null) {
+            return preloaded;
+        }
+
+        TransactionCostProjection pinned = hotKeys.lookup(customerId, trxCode);
+        if (pinned != null) {
+            return pinned;
+        }
+
+        TransactionCostProjection cached = costLookupCache.lookup(customerId, trxCode);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!coalescingEnabled) {
+            return withinDeadline(context.deadline(), STAGE_CNTRLPRF,
+                    () -> queryTransactionCost(customerId, trxCode, context, cancellation));
+        }
+        return withinDeadline(context.deadline(), STAGE_CNTRLPRF, () -> coalesced(costFlights, "cost",
+                customerId + '\0' + trxCode, context, cancellation,
+                handle -> queryTransactionCost(customerId, trxCode, context, handle)));
+    }
+
+    private TransactionCostProjection queryTransactionCost(String customerId, String trxCode, RequestContext context,
+                                                           CancellationHandle cancellation) {
+        TransactionCostProjection cost = cancellable(cancellation, () -> guarded(context.deadline(), STAGE_CNTRLPRF, () ->
+                unlessCancelled(cancellation, () -> read(cancellation, context.deadline(), handle -> dbAccessLimiter.call(
+                        () -> readPort.findTransactionCost(customerId, trxCode, context.deadline(), handle), context)))));
+        if (cost != null) {
+            costLookupCache.put(customerId, trxCode, cost);
+        }
+        return cost;
+    }
+
+    /**
+     * Lee costos de CNTRLPRF para un trabajo en segundo plano (prefetch, refresco de claves
+     * calientes, revalidación), en consultas {@code IN} de hasta {@code per002.batch.max-in-list}
+     * clientes.
+     *
+     * <p>Pasa por el límite de acceso a DB2 i (sin canal), pero no por el circuit breaker
+     * ni por las cachés: el resultado de un trabajo opcional no debe abrir
+     * el circuito para las solicitudes. Quien la invoca debe comprobar antes
+     * {@link #isCircuitClosed()}.</p>
+     *
+     * @param customerIds CUN de los clientes
+     * @param trxCodes Códigos de transacción homologados
+     * @param deadline Tiempo límite de todas las consultas
+     * @return Filas encontradas, con su clave
+     * @throws RuntimeException Si falla una consulta o expira el tiempo límite
+     */
+    public List<CustomerCostProjection> findTransactionCostsInBackground(Collection<String> customerIds,
+                                                                         Collection<String> trxCodes,
+                                                                         Deadline deadline) {
+        RequestContext context = new RequestContext(deadline, (short) 0);
+        List<CustomerCostProjection> rows = new ArrayList<>();
+        for (List<String> chunk : chunks(new ArrayList<>(normalized(customerIds)))) {
+            rows.addAll(dbAccessLimiter.call(
+                    () -> readPort.findTransactionCosts(chunk, trxCodes, deadline), context));
+        }
+        return rows;
+    }
+
+    /**
+     * Busca los CUN de varios clientes con el mismo tipo de documento.
+     * 
+     * @param docType Tipo de identificación
+     * @param docNumbers Números de identificación
+     * @param context Tiempo límite y canal de la solicitud
+     * @return CUN por número de documento; los documentos inexistentes no aparecen
+     * @throws DeadlineExceededException Si el tiempo límite expira antes de obtener respuesta
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
+     */
+    public Map<String, String> findCustomersByDocuments(String docType, Collection<String> docNumbers,
+                                                        RequestContext context) {
+
+        Map<String, String> customers = new HashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String docNumber : new LinkedHashSet<>(docNumbers)) {
+            String snapshotCun = customerSnapshot.findCustomerId(docType, docNumber);
+            if (snapshotCun != null) {
+                customers.put(docNumber, snapshotCun);
+            } else if (customerFilter.mightExist(docType, docNumber)) {
+                pending.add(docNumber);
+            }
+        }
+
+        for (List<String> chunk : chunks(pending)) {
+            Map<String, String> found = guarded(context.deadline(), STAGE_CUMST, () ->
+                    dbAccessLimiter.call(() -> readPort.findCustomersByDocuments(docType, chunk, context.deadline()),
+                            context));
+            found.forEach((docNumber, cun) -> customers.put(docNumber, CustomerProjection.normalizeCustomerId(cun)));
+        }
+        return customers;
+    }
+
+    /**
+     * Busca los costos de todas las combinaciones cliente × código homologado.
+     * 
+     * <p>Resuelve primero desde la precarga y la caché de costos; los clientes con algún
+     * código pendiente se consultan en DB2 i y sus filas se guardan en la caché.</p>
+     * 
+     * @param customerIds CUN de los clientes
+     * @param trxCodes Códigos de transacción homologados
+     * @param context Tiempo límite y canal de la solicitud
+     * @return Filas encontradas, con su clave
+     * @throws DeadlineExceededException Si el tiempo límite expira antes de obtener respuesta
+     * @throws ServiceUnavailableException Si el circuito de lecturas está abierto
+     */
+    public List<CustomerCostProjection> findTransactionCosts(Collection<String> customerIds,
+                                                             Collection<String> trxCodes, RequestContext context) {
+
+        Set<String> codes = new LinkedHashSet<>(trxCodes);
+        List<CustomerCostProjection> costs = new ArrayList<>();
+        Set<String> found = new HashSet<>();
+        List<String> pending = new ArrayList<>();
+        for (String customerId : normalized(customerIds)) {
+            boolean complete = true;
+            for (String trxCode : codes) {
+                TransactionCostProjection known = costPreloadCache.lookup(customerId, trxCode);
+                if (known == null) {
+                    known = hotKeys.lookup(customerId, trxCode);
+                }
+                if (known == null) {
+                    known = costLookupCache.lookup(customerId, trxCode);
+                }
+                if (known != null) {
+                    costs.add(new CustomerCostProjection(customerId, trxCode, known.cost(), known.currencyCode()));
+                    found.add(customerId + '\0' + trxCode);
+                } else {
+                    complete = false;
+                }
+            }
+            if (!complete) {
+                pending.add(customerId);
+            }
+        }
+
+        for (List<String> chunk : chunks(pending)) {
+            List<CustomerCostProjection> rows = guarded(context.deadline(), STAGE_CNTRLPRF, () ->
+                    dbAccessLimiter.call(() -> readPort.findTransactionCosts(chunk, codes, context.deadline()), context));
+            for (CustomerCostProjection row : rows) {
+                if (found.add(row.customerId() + '\0' + row.transactionCode())) {
+                    costs.add(row);
+                    costLookupCache.put(row.customerId(), row.transactionCode(), row.toTransactionCost());
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Publica un cambio de estado del circuit breaker como métrica y evento de auditoría.
+     */
+    private void onCircuitTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        Log.warnf("DB2 read circuit breaker: %s -> %s", from, to);
+        Counter.builder("per002.db.circuit.transitions")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(registry)
+                .increment();
+
+        String payloadJson = AuditUtils.toJson(Map.of(
+                "evento", "CIRCUIT_BREAKER",
+                "desde", from.name(),
+                "hacia", to.name()));
+        auditPort.logAsync(AuditLog.builder()
+                .idTransaccion("CIRCUIT-BREAKER")
+                .tipoMensaje(AuditMessageType.EVENTO)
+                .loginUser("SYSTEM")
+                .payload(payloadJson)
+                .payloadHash(AuditUtils.calculateSHA256(payloadJson))
+                .estado(to == CircuitBreaker.State.CLOSED ? "OK" : "ERROR")
+                .build());
+    }
+
+    /**
+     * Consulta coalescida. El líder consulta con su propio tiempo límite y handle de
+     * cancelación; un seguidor que recibe un {@link DeadlineExceededException} o una
+     * {@link CancellationException} sin que su propio tiempo límite haya vencido ni su
+     * solicitud se haya cancelado, recibió un error del líder y consulta por su cuenta.
+     */
+    private <T> T coalesced(SingleFlight<String, T> flights, String lookup, String key, RequestContext context,
+                            CancellationHandle cancellation, Function<CancellationHandle, T> query) {
+        try {
+            return flights.execute(key, () -> query.apply(cancellation), context.deadline().min(coalescingWaitTimeout));
+        } catch (DeadlineExceededException | CancellationException e) {
+            if (context.deadline().isExpired() || cancellation.isCancelled()) {
+                throw e;
+            }
+            registry.counter("per002.lookup.coalescing.fallbacks", "lookup", lookup).increment();
+            return query.apply(cancellation);
+        }
+    }
+
+    /**
+     * Ejecuta una lectura directa o con hedging según la configuración; cancelar
+     * {@code cancellation} cancela también los intentos con hedging, y la espera de los
+     * intentos no supera el tiempo límite de la solicitud.
+     */
+    private <T> T read(CancellationHandle cancellation, Deadline deadline, Function<CancellationHandle, T> read) {
+        if (!hedgingEnabled) {
+            return read.apply(cancellation);
+        }
+        return hedgedExecutor.execute(handle -> {
+            cancellation.onCancel(handle::cancel);
+            return read.apply(handle);
+        }, deadline);
+    }
+
+    /**
+     * Dentro del circuit breaker: el error de una consulta cancelada por la solicitud no
+     * indica un problema de DB2 i, así que no cuenta como fallo del circuito.
+     */
+    private static <T> T unlessCancelled(CancellationHandle cancellation, Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            if (cancellation.isCancelled()) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fuera del circuit breaker: informa como {@link CancellationException} una consulta
+     * cancelada por la solicitud.
+     */
+    private static <T> T cancellable(CancellationHandle cancellation, Supplier<T> query) {
+        T result = query.get();
+        if (cancellation.isCancelled()) {
+            throw new CancellationException("Consulta cancelada por la solicitud");
+        }
+        return result;
+    }
+
+    /**
+     * CUN normalizados y sin repetir, en el orden recibido.
+     */
+    private static Set<String> normalized(Collection<String> customerIds) {
+        Set<String> normalized = new LinkedHashSet<>();
+        customerIds.forEach(customerId -> normalized.add(CustomerProjection.normalizeCustomerId(customerId)));
+        return normalized;
+    }
+
+    /**
+     * Divide las claves pendientes en listas {@code IN} de hasta {@code per002.batch.max-in-list} valores.
+     */
+    private <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += maxInList) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + maxInList)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Lectura de una solicitud protegida por el circuit breaker. Los errores producidos por
+     * haber agotado el tiempo límite de la solicitud (p. ej. el query timeout derivado de un
+     * {@code X-Request-Timeout} corto) se traducen a {@link DeadlineExceededException} antes
+     * de llegar al circuito, que no los cuenta como fallo de DB2 i.
+     */
+    private <T> T guarded(Deadline deadline, String stage, Supplier<T> lookup) {
+        return circuitBreaker.call(() -> withinDeadline(deadline, stage, lookup));
+    }
+
+    /**
+     * Traduce a {@link DeadlineExceededException} los errores producidos por haber
+     * agotado el tiempo límite (query timeout, espera de coalescencia).
+     */
+    private static <T> T withinDeadline(Deadline deadline, String stage, Supplier<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Incluye la espera de coalescencia acotada por el tiempo límite (ServiceUnavailable)
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException(stage, e);
+            }
+            throw e;
         }
     }
 }
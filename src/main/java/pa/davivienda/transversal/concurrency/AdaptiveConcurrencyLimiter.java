@@ -0,0 +1,147 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Control de admisión adaptativo para la sección del caso de uso que consulta DB2 i.
+ *
+ * <p>Con un pool fijo y {@code acquisition-timeout} de 60s, una sobrecarga se traduce en
+ * solicitudes encoladas durante un minuto. Este limitador ajusta la concurrencia admitida
+ * a partir de la latencia observada ({@link GradientConcurrencyLimit}) y rechaza de
+ * inmediato el exceso con {@link ServiceUnavailableException}, que el controlador
+ * responde como 503 con {@code Retry-After}. Se publican:</p>
+ * <ul>
+ *   <li>{@code per002.db.adaptive.limit} - Límite de concurrencia actual</li>
+ *   <li>{@code per002.db.adaptive.in-flight} - Solicitudes admitidas en curso</li>
+ *   <li>{@code per002.db.adaptive.rejected} - Solicitudes rechazadas</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class AdaptiveConcurrencyLimiter {
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.adaptive-limit.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.adaptive-limit.initial-limit", defaultValue = "10")
+    int initialLimit;
+
+    @ConfigProperty(name = "per002.adaptive-limit.min-limit", defaultValue = "1")
+    int minLimit;
+
+    @ConfigProperty(name = "per002.adaptive-limit.max-limit", defaultValue = "50")
+    int maxLimit;
+
+    @ConfigProperty(name = "per002.adaptive-limit.tolerance", defaultValue = "1.5")
+    double tolerance;
+
+    @ConfigProperty(name = "per002.adaptive-limit.retry-after", defaultValue = "1s")
+    Duration retryAfter;
+
+    private GradientConcurrencyLimit limit;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance);
+        rejected = Counter.builder("per002.db.adaptive.rejected").register(registry);
+        Gauge.builder("per002.db.adaptive.limit", limit, GradientConcurrencyLimit::getLimit)
+                .register(registry);
+        Gauge.builder("per002.db.adaptive.in-flight", limit, GradientConcurrencyLimit::getInFlight)
+                .register(registry);
+    }
+
+    /**
+     * Ejecuta la sección si hay lugar dentro del límite actual.
+     *
+     * @param work Sección dependiente de la base de datos
+     * @return Resultado de la sección
+     * @throws ServiceUnavailableException Si se alcanzó el límite de concurrencia
+     */
+    public <T> T call(Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Límite de concurrencia alcanzado, reintente", retryAfter);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = work.get();
+            limit.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Variante asíncrona de {@link #call}: admite la sección al iniciarla y la cuenta en
+     * el límite hasta que su resultado se completa.
+     *
+     * @param work Inicia la sección dependiente de la base de datos
+     * @return Resultado de la sección, o un future fallido con
+     *         {@link ServiceUnavailableException} si se alcanzó el límite de concurrencia
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Límite de concurrencia alcanzado, reintente", retryAfter));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> started;
+        try {
+            started = work.get();
+        } catch (RuntimeException | Error e) {
+            onFailure(e);
+            throw e;
+        }
+        return started.whenComplete((result, ex) -> {
+            if (ex == null) {
+                limit.onSuccess(System.nanoTime() - start);
+            } else {
+                onFailure(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+    }
+
+    /**
+     * Solo un error de DB2 i reduce el límite. El tiempo límite agotado de la solicitud,
+     * el rechazo del limitador de acceso o del circuito y la cancelación por otra etapa no
+     * indican sobrecarga y liberan el lugar sin ajustar el límite.
+     */
+    private void onFailure(Throwable error) {
+        if (CircuitBreaker.isBackendFailure(error)) {
+            limit.onDropped();
+        } else {
+            limit.onIgnored();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.constants.Constants;
+
+/**
+ * Cuotas de admisión por canal.
+ *
+ * <p>Los canales de {@link Constants#CANALES_PERMITIDOS} comparten el mismo backend;
+ * cada uno tiene su propio {@link TokenBucket} para que un pico de un canal no degrade
+ * al otro. La tasa y la ráfaga se configuran por canal
+ * ({@code per002.canal-quota.canal-<canal>.rate|burst}) con valores por defecto
+ * comunes. Una solicitud que equivale a varias consultas (un lote) consume un token por
+ * consulta. Se publican por canal:</p>
+ * <ul>
+ *   <li>{@code per002.canal.quota.requests} - Tokens pedidos por resultado (admitted / rejected)</li>
+ *   <li>{@code per002.canal.quota.available} - Tokens disponibles</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class CanalQuotaLimiter {
+
+    private static final String PREFIX = "per002.canal-quota.";
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "per002.canal-quota.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.canal-quota.default-rate", defaultValue = "50")
+    double defaultRate;
+
+    @ConfigProperty(name = "per002.canal-quota.default-burst", defaultValue = "100")
+    int defaultBurst;
+
+    private final Map<Short, CanalQuota> quotas = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (Short canal : Constants.CANALES_PERMITIDOS) {
+            double rate = config.getOptionalValue(PREFIX + "canal-" + canal + ".rate", Double.class).orElse(defaultRate);
+            int burst = config.getOptionalValue(PREFIX + "canal-" + canal + ".burst", Integer.class).orElse(defaultBurst);
+            TokenBucket bucket = new TokenBucket(rate, burst);
+            String tag = String.valueOf(canal);
+
+            quotas.put(canal, new CanalQuota(bucket,
+                    Counter.builder("per002.canal.quota.requests").tag("canal", tag).tag("result", "admitted")
+                            .register(registry),
+                    Counter.builder("per002.canal.quota.requests").tag("canal", tag).tag("result", "rejected")
+                            .register(registry)));
+            Gauge.builder("per002.canal.quota.available", bucket, TokenBucket::availableTokens)
+                    .tag("canal", tag)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Consume la cuota del canal.
+     *
+     * <p>Los canales sin cuota configurada (no permitidos) se admiten; el caso de uso
+     * los rechaza en su validación.</p>
+     *
+     * @param canal Canal del request
+     * @return true si el request está dentro de la cuota del canal
+     */
+    public boolean tryAcquire(short canal) {
+        return tryAcquire(canal, 1);
+    }
+
+    /**
+     * Consume la cuota del canal para una solicitud que equivale a {@code weight} consultas.
+     *
+     * @param canal Canal del request
+     * @param weight Consultas que representa la solicitud (se acota a la ráfaga del canal)
+     * @return true si la solicitud está dentro de la cuota del canal
+     */
+    public boolean tryAcquire(short canal, int weight) {
+        if (!enabled) {
+            return true;
+        }
+        CanalQuota quota = quotas.get(canal);
+        if (quota == null) {
+            return true;
+        }
+        if (quota.bucket().tryAcquire(weight)) {
+            quota.admitted().increment(weight);
+            return true;
+        }
+        quota.rejected().increment(weight);
+        return false;
+    }
+
+    /**
+     * Consume un token de la cuota del canal, esperando a que haya uno disponible.
+     *
+     * <p>Para trabajos largos (consulta masiva en streaming): en lugar de rechazar, el
+     * trabajo avanza al ritmo de la cuota del canal.</p>
+     *
+     * @param canal Canal del request
+     * @throws InterruptedException Si se interrumpe la espera
+     */
+    public void acquire(short canal) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        CanalQuota quota = quotas.get(canal);
+        if (quota == null) {
+            return;
+        }
+        while (!quota.bucket().tryAcquire()) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(MIN_WAIT_NANOS, quota.bucket().nanosUntilAvailable()));
+        }
+        quota.admitted().increment();
+    }
+
+    /**
+     * @param canal Canal del request
+     * @return Tiempo hasta que el canal vuelva a tener cuota disponible
+     */
+    public Duration retryAfter(short canal) {
+        return retryAfter(canal, 1);
+    }
+
+    /**
+     * @param canal Canal del request
+     * @param weight Consultas que representa la solicitud
+     * @return Tiempo hasta que el canal vuelva a tener cuota para {@code weight} consultas
+     */
+    public Duration retryAfter(short canal, int weight) {
+        CanalQuota quota = quotas.get(canal);
+        return quota == null ? Duration.ZERO : Duration.ofNanos(quota.bucket().nanosUntilAvailable(weight));
+    }
+
+    private record CanalQuota(TokenBucket bucket, Counter admitted, Counter rejected) {
+    }
+}
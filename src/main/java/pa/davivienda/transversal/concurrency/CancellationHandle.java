@@ -0,0 +1,114 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Punto de cancelación de una operación en curso (p. ej. {@code Statement.cancel()}).
+ *
+ * <p>La operación registra cómo cancelarse con {@link #onCancel}; quien la coordina
+ * invoca {@link #cancel()}. Si la cancelación llega antes del registro, la acción se
+ * ejecuta en cuanto se registra. Se pueden registrar varias acciones (p. ej. los
+ * intentos de una lectura con hedging enlazados al handle de la solicitud).</p>
+ *
+ * <p>Cuando la operación termina debe retirar su acción con
+ * {@link Registration#remove()}: si devuelve {@code false} la cancelación ya se ejecutó
+ * (o se está ejecutando) y el recurso no debe reutilizarse, p. ej. devolverse a un pool
+ * donde otra solicitud lo tomaría.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class CancellationHandle {
+
+    /** Handle que nunca se cancela, para ejecuciones sin coordinación. */
+    public static final CancellationHandle NONE = new CancellationHandle();
+
+    private static final Registration DETACHED = () -> true;
+
+    private final List<Canceller> cancellers = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Registra cómo cancelar la operación.
+     *
+     * @param action Acción de cancelación
+     * @return Registro para retirar la acción cuando la operación termina
+     */
+    public Registration onCancel(Runnable action) {
+        if (this == NONE) {
+            return DETACHED;
+        }
+        Canceller canceller = new Canceller(action);
+        cancellers.add(canceller);
+        if (cancelled) {
+            canceller.fire();
+        }
+        return canceller;
+    }
+
+    public void cancel() {
+        if (this == NONE) {
+            return;
+        }
+        cancelled = true;
+        for (Canceller canceller : cancellers) {
+            canceller.fire();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Acción de cancelación registrada en un handle.
+     */
+    @FunctionalInterface
+    public interface Registration {
+
+        /**
+         * Retira la acción para que una cancelación posterior no la ejecute.
+         *
+         * @return {@code true} si la acción no se ejecutó ni se ejecutará
+         */
+        boolean remove();
+    }
+
+    /**
+     * Ejecuta la acción a lo sumo una vez, salvo que se haya retirado antes.
+     */
+    private final class Canceller implements Registration {
+
+        private static final int ACTIVE = 0;
+        private static final int FIRED = 1;
+        private static final int REMOVED = 2;
+
+        private final Runnable action;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        private Canceller(Runnable action) {
+            this.action = action;
+        }
+
+        @Override
+        public boolean remove() {
+            boolean removed = state.compareAndSet(ACTIVE, REMOVED);
+            cancellers.remove(this);
+            return removed;
+        }
+
+        private void fire() {
+            if (!state.compareAndSet(ACTIVE, FIRED)) {
+                return;
+            }
+            try {
+                action.run();
+            } catch (RuntimeException ignored) {
+                // La operación ya terminó o la conexión ya no está disponible
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Circuit breaker por fallos consecutivos.
+ *
+ * <p>En estado {@link State#CLOSED} las llamadas pasan; tras {@code failureThreshold}
+ * fallos consecutivos el circuito se abre y durante {@code openDuration} las llamadas
+ * fallan de inmediato con {@link ServiceUnavailableException}, sin esperar los timeouts
+ * del pool ni del driver. Pasado ese tiempo el circuito queda {@link State#HALF_OPEN}:
+ * se dejan pasar {@code halfOpenProbes} llamadas de prueba; si todas terminan bien el
+ * circuito se cierra, y si alguna falla se vuelve a abrir.</p>
+ *
+ * <p>Solo cuentan como fallo los errores que cumplen el predicado de fallos; por defecto
+ * ({@link #isBackendFailure}) se ignoran el tiempo límite agotado de la solicitud, los
+ * rechazos por sobrecarga ({@link ServiceUnavailableException}) y las cancelaciones, que
+ * no indican un problema de DB2 i: un cliente con un tiempo límite corto no debe abrir
+ * el circuito para todos los canales. Una llamada de prueba ignorada libera su cupo.</p>
+ *
+ * <p>Las transiciones se notifican al {@link TransitionListener} fuera del lock.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final Predicate<Throwable> failurePredicate;
+    private final LongSupplier nanoClock;
+    private final TransitionListener listener;
+    private final LongAdder rejected = new LongAdder();
+
+    // Protegidos por this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    /**
+     * @param failureThreshold Fallos consecutivos que abren el circuito
+     * @param openDuration Tiempo que el circuito permanece abierto antes de probar
+     * @param halfOpenProbes Llamadas de prueba exitosas necesarias para cerrar el circuito
+     * @param listener Receptor de las transiciones de estado
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenProbes,
+                          TransitionListener listener) {
+        this(failureThreshold, openDuration, halfOpenProbes, CircuitBreaker::isBackendFailure, listener);
+    }
+
+    /**
+     * @param failurePredicate Indica si un error de la llamada cuenta como fallo del circuito
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenProbes,
+                          Predicate<Throwable> failurePredicate, TransitionListener listener) {
+        this(failureThreshold, openDuration, halfOpenProbes, failurePredicate, System::nanoTime, listener);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenProbes,
+                   LongSupplier nanoClock, TransitionListener listener) {
+        this(failureThreshold, openDuration, halfOpenProbes, CircuitBreaker::isBackendFailure, nanoClock, listener);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenProbes,
+                   Predicate<Throwable> failurePredicate, LongSupplier nanoClock, TransitionListener listener) {
+        if (failureThreshold < 1 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("failureThreshold y halfOpenProbes deben ser mayores a 0");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.failurePredicate = failurePredicate;
+        this.nanoClock = nanoClock;
+        this.listener = listener;
+    }
+
+    /**
+     * Ejecuta la llamada si el circuito lo permite.
+     *
+     * @param call Llamada protegida
+     * @return Resultado de la llamada
+     * @throws ServiceUnavailableException Si el circuito está abierto o sin cupo de prueba
+     */
+    public <T> T call(Supplier<T> call) {
+        acquirePermission();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            if (failurePredicate.test(e)) {
+                onFailure();
+            } else {
+                onIgnored();
+            }
+            throw e;
+        }
+        onSuccess();
+        return result;
+    }
+
+    /**
+     * Predicado de fallos por defecto.
+     *
+     * @return false para el tiempo límite agotado, los rechazos por sobrecarga y las
+     *         cancelaciones; true para el resto (errores de JDBC / DB2 i)
+     */
+    public static boolean isBackendFailure(Throwable error) {
+        return !(error instanceof DeadlineExceededException
+                || error instanceof ServiceUnavailableException
+                || error instanceof CancellationException);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private void acquirePermission() {
+        boolean halfOpened = false;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            if (state == State.OPEN && now - openedAt >= openDurationNanos) {
+                state = State.HALF_OPEN;
+                probesInFlight = 0;
+                probeSuccesses = 0;
+                halfOpened = true;
+            }
+            if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+                probesInFlight++;
+            } else if (state != State.CLOSED) {
+                rejected.increment();
+                long remaining = state == State.OPEN ? openDurationNanos - (now - openedAt) : openDurationNanos;
+                throw new ServiceUnavailableException(
+                        "Base de datos no disponible (circuito " + state + ")",
+                        Duration.ofNanos(Math.max(0, remaining)));
+            }
+        }
+        if (halfOpened) {
+            notifyTransition(State.OPEN, State.HALF_OPEN);
+        }
+    }
+
+    private void onSuccess() {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            consecutiveFailures = 0;
+            if (state == State.HALF_OPEN && ++probeSuccesses >= halfOpenProbes) {
+                state = State.CLOSED;
+            }
+            to = state;
+        }
+        notifyTransition(from, to);
+    }
+
+    private synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    private void onFailure() {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED && ++consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAt = nanoClock.getAsLong();
+                consecutiveFailures = 0;
+            }
+            to = state;
+        }
+        notifyTransition(from, to);
+    }
+
+    private void notifyTransition(State from, State to) {
+        if (from != to && listener != null) {
+            listener.onTransition(from, to);
+        }
+    }
+}
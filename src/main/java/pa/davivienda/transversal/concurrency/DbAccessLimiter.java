@@ -0,0 +1,160 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Limitador de acceso concurrente a DB2 i dimensionado al pool de lecturas.
+ *
+ * <p>Con hilos virtuales la cantidad de requests concurrentes deja de estar acotada por
+ * el pool de workers, y el pool de conexiones (muy pequeño) se convierte en una cola
+ * oculta dentro del driver jt400, que además usa {@code synchronized} y fija (pin) el
+ * hilo portador. Este limitador hace que la espera ocurra antes de tocar el
+ * driver, donde un hilo virtual sí puede desmontarse, y la expone como métrica:</p>
+ * <ul>
+ *   <li>{@code per002.db.limiter.in-use} - Permisos en uso</li>
+ *   <li>{@code per002.db.limiter.waiting} - Hilos esperando un permiso</li>
+ *   <li>{@code per002.db.limiter.wait} - Tiempo de espera por permiso, por canal</li>
+ * </ul>
+ *
+ * <p>Cuando el pool está ocupado los permisos se entregan por prioridad de canal
+ * ({@link PriorityPermits}): cada canal tiene un peso
+ * ({@code per002.db-limiter.canal-<canal>.weight}, por defecto 1) y cada unidad de peso
+ * equivale a {@code per002.db-limiter.aging-step} de antigüedad en la cola. Así el canal
+ * 81 (cobros COBPER) se adelanta al 151, pero una espera del 151 no puede ser adelantada
+ * indefinidamente.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class DbAccessLimiter {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "per002.db-limiter.permits", defaultValue = "1")
+    int permits;
+
+    @ConfigProperty(name = "per002.db-limiter.acquire-timeout", defaultValue = "60s")
+    Duration acquireTimeout;
+
+    @ConfigProperty(name = "per002.db-limiter.aging-step", defaultValue = "100ms")
+    Duration agingStep;
+
+    private PriorityPermits priorityPermits;
+    private final Map<Short, CanalPriority> canalPriorities = new ConcurrentHashMap<>();
+    private final LongAdder accesses = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        priorityPermits = new PriorityPermits(permits);
+        Gauge.builder("per002.db.limiter.in-use", priorityPermits, PriorityPermits::inUse)
+                .register(registry);
+        Gauge.builder("per002.db.limiter.waiting", priorityPermits, PriorityPermits::waiting)
+                .register(registry);
+    }
+
+    /**
+     * Ejecuta un acceso a base de datos cuando haya un permiso disponible.
+     *
+     * @param work Acceso a ejecutar
+     * @return Resultado del acceso
+     * @throws ServiceUnavailableException Si no se obtiene permiso dentro del timeout configurado
+     */
+    public <T> T call(Supplier<T> work) {
+        return call(work, RequestContext.NONE);
+    }
+
+    /**
+     * Ejecuta un acceso a base de datos esperando un permiso, con la prioridad del canal,
+     * como máximo hasta el tiempo límite de la solicitud (o el timeout configurado, si es menor).
+     *
+     * @param work Acceso a ejecutar
+     * @param context Tiempo límite y canal de la solicitud
+     * @return Resultado del acceso
+     * @throws DeadlineExceededException Si el tiempo límite expira esperando el permiso
+     * @throws ServiceUnavailableException Si no se obtiene permiso dentro del timeout configurado
+     */
+    public <T> T call(Supplier<T> work, RequestContext context) {
+        acquire(context);
+        accesses.increment();
+        try {
+            return work.get();
+        } finally {
+            priorityPermits.release();
+        }
+    }
+
+    /**
+     * Indica si hay permisos libres y nadie esperando, es decir, si un acceso opcional
+     * (p. ej. prefetch) puede usar DB2 i sin desplazar solicitudes.
+     *
+     * @return true si el limitador está ocioso
+     */
+    public boolean isIdle() {
+        return priorityPermits.waiting() == 0 && priorityPermits.inUse() < permits;
+    }
+
+    /**
+     * @return Accesos a la base de datos admitidos desde el arranque
+     */
+    public long accessCount() {
+        return accesses.sum();
+    }
+
+    private void acquire(RequestContext context) {
+        Deadline deadline = context.deadline();
+        CanalPriority priority = canalPriorities.computeIfAbsent(context.canal(), this::canalPriority);
+        long start = System.nanoTime();
+        try {
+            long key = start - priority.headStartNanos();
+            if (!priorityPermits.tryAcquire(key, deadline.min(acquireTimeout).toNanos())) {
+                if (deadline.isExpired()) {
+                    throw new DeadlineExceededException("db-limiter");
+                }
+                throw new ServiceUnavailableException("Tiempo de espera agotado esperando acceso a base de datos",
+                        RETRY_AFTER);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera de acceso a base de datos interrumpida", e);
+        } finally {
+            priority.waitTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private CanalPriority canalPriority(short canal) {
+        int weight = config.getOptionalValue("per002.db-limiter.canal-" + canal + ".weight", Integer.class)
+                .orElse(1);
+        Timer waitTimer = Timer.builder("per002.db.limiter.wait")
+                .tag("canal", canal == 0 ? "none" : String.valueOf(canal))
+                .register(registry);
+        return new CanalPriority(weight * agingStep.toNanos(), waitTimer);
+    }
+
+    private record CanalPriority(long headStartNanos, Timer waitTimer) {
+    }
+}
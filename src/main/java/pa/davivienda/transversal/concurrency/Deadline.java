@@ -0,0 +1,91 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+
+/**
+ * Tiempo límite absoluto de una solicitud.
+ *
+ * <p>Se calcula una sola vez al entrar la solicitud y se propaga por cada etapa
+ * (caso de uso, limitador de acceso, consulta a DB2 i) para que cada una use solo
+ * el tiempo que le queda, en lugar de su propio timeout fijo.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class Deadline {
+
+    /** Sin tiempo límite: nunca expira. */
+    public static final Deadline NONE = new Deadline(0, true);
+
+    private final long expiresAtNanos;
+    private final boolean unbounded;
+
+    private Deadline(long expiresAtNanos, boolean unbounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.unbounded = unbounded;
+    }
+
+    /**
+     * @param budget Tiempo disponible a partir de ahora
+     * @return Deadline que expira cuando se agota el presupuesto
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), false);
+    }
+
+    public boolean isUnbounded() {
+        return unbounded;
+    }
+
+    public boolean isExpired() {
+        return !unbounded && remainingNanos() <= 0;
+    }
+
+    /**
+     * @return Nanosegundos restantes (0 si expiró, {@link Long#MAX_VALUE} si no tiene límite)
+     */
+    public long remainingNanos() {
+        if (unbounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * @param timeout Timeout propio de la etapa
+     * @return El menor entre el timeout de la etapa y el tiempo restante
+     */
+    public Duration min(Duration timeout) {
+        long remaining = remainingNanos();
+        return remaining < timeout.toNanos() ? Duration.ofNanos(remaining) : timeout;
+    }
+
+    /**
+     * Tiempo restante redondeado hacia arriba a segundos, la resolución de
+     * {@code Statement.setQueryTimeout}.
+     *
+     * @return Segundos restantes (mínimo 1)
+     */
+    public int remainingSeconds() {
+        long remaining = remainingNanos();
+        if (remaining >= Integer.MAX_VALUE * 1_000_000_000L) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Verifica que quede tiempo antes de iniciar una etapa.
+     *
+     * @param stage Etapa que está por comenzar
+     * @throws DeadlineExceededException Si el tiempo límite ya expiró
+     */
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(stage);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo por gradiente de latencia.
+ *
+ * <p>Compara la latencia reciente (promedio móvil corto) con la latencia de referencia
+ * (promedio móvil largo). Mientras ambas se mantienen cerca el límite crece en
+ * {@code sqrt(limit)} (margen para encolar); cuando la latencia reciente supera la
+ * referencia más allá de la tolerancia, el límite se reduce proporcionalmente al
+ * gradiente {@code tolerance * largo / corto} (acotado a [0.5, 1]). Las operaciones
+ * fallidas por timeout reducen el límite un 10%.</p>
+ *
+ * <p>Si la concurrencia observada es menor a la mitad del límite, no hay información
+ * sobre la capacidad y el límite no se ajusta.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class GradientConcurrencyLimit {
+
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_ALPHA = 2.0 / (500 + 1);
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Protegidos por this
+    private double limit;
+    private double shortRttNanos = -1;
+    private double longRttNanos = -1;
+
+    private volatile int currentLimit;
+
+    /**
+     * @param initialLimit Límite inicial
+     * @param minLimit Límite mínimo
+     * @param maxLimit Límite máximo
+     * @param tolerance Crecimiento de latencia tolerado antes de reducir el límite (p. ej. 1.5)
+     */
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1.0) {
+            throw new IllegalArgumentException("Configuración de límite adaptativo inválida");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+    }
+
+    /**
+     * Reserva un lugar si la concurrencia actual está por debajo del límite.
+     *
+     * @return true si se reservó; el llamador debe liberarlo con onSuccess, onDropped u onIgnored
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Libera el lugar y ajusta el límite con la latencia observada.
+     *
+     * @param rttNanos Duración de la operación
+     */
+    public void onSuccess(long rttNanos) {
+        int observed = inFlight.getAndDecrement();
+        update(rttNanos, observed);
+    }
+
+    /**
+     * Libera el lugar de una operación que falló por sobrecarga (timeout) y reduce el límite.
+     */
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        setLimit(limit * DROP_FACTOR);
+    }
+
+    /**
+     * Libera el lugar sin ajustar el límite (la operación no aporta información de latencia).
+     */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int observedInFlight) {
+        if (shortRttNanos < 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += SHORT_ALPHA * (rttNanos - shortRttNanos);
+        longRttNanos += LONG_ALPHA * (rttNanos - longRttNanos);
+
+        // Tras una degradación, la referencia larga baja más rápido hacia la latencia actual
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        if (observedInFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        currentLimit = (int) limit;
+    }
+}
@@ -0,0 +1,210 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Ejecuta lecturas con "hedging": si la lectura supera el percentil de latencia
+ * observado, se lanza la misma lectura en paralelo y gana el primer resultado.
+ *
+ * <p>La lectura perdedora se cancela mediante su {@link CancellationHandle}
+ * (p. ej. {@code Statement.cancel()}). Un presupuesto limita los hedges a un
+ * porcentaje del tráfico: cada lectura acumula {@code budgetPercent / 100} de
+ * crédito, cada hedge consume uno, y el crédito acumulado tiene un tope para que
+ * una racha lenta no dispare una ráfaga de lecturas duplicadas.</p>
+ *
+ * <p>La espera nunca supera el tiempo límite de la solicitud: al agotarse se cancelan
+ * todos los intentos y se lanza {@link DeadlineExceededException}. El ejecutor debe ser
+ * acotado; si rechaza el hedge la lectura sigue solo con el intento original, y si
+ * rechaza el intento original se responde {@link ServiceUnavailableException}.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class HedgedExecutor {
+
+    private static final long CREDIT_UNIT = 1000;
+    private static final long MAX_CREDIT = 10 * CREDIT_UNIT;
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final String STAGE = "hedged-read";
+
+    private final Executor executor;
+    private final LatencyTracker latencyTracker;
+    private final long creditPerRead;
+    private final AtomicLong credit = new AtomicLong();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param executor Ejecutor de los intentos
+     * @param latencyTracker Percentil de latencia que dispara el hedge
+     * @param budgetPercent Porcentaje máximo de lecturas que pueden duplicarse
+     */
+    public HedgedExecutor(Executor executor, LatencyTracker latencyTracker, double budgetPercent) {
+        this.executor = executor;
+        this.latencyTracker = latencyTracker;
+        this.creditPerRead = Math.round(budgetPercent / 100.0 * CREDIT_UNIT);
+    }
+
+    /**
+     * Ejecuta la lectura sin tiempo límite; ver {@link #execute(Function, Deadline)}.
+     */
+    public <T> T execute(Function<CancellationHandle, T> read) {
+        return execute(read, Deadline.NONE);
+    }
+
+    /**
+     * Ejecuta la lectura, duplicándola si supera el umbral y hay presupuesto.
+     *
+     * @param read Lectura a ejecutar; recibe el handle donde registrar su cancelación
+     * @param deadline Tiempo límite de la solicitud
+     * @return Resultado del primer intento exitoso
+     * @throws DeadlineExceededException Si ningún intento termina antes del tiempo límite
+     * @throws ServiceUnavailableException Si el ejecutor rechaza el intento original
+     */
+    public <T> T execute(Function<CancellationHandle, T> read, Deadline deadline) {
+        addCredit();
+        long start = System.nanoTime();
+        CompletableFuture<Attempt<T>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        List<Attempt<T>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(launch(read, winner, pending, false));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Lecturas en curso al máximo, reintente", RETRY_AFTER);
+        }
+
+        Attempt<T> first = null;
+        try {
+            long threshold = latencyTracker.thresholdNanos();
+            if (threshold < 0 || threshold >= deadline.remainingNanos()) {
+                first = await(winner, deadline);
+            } else {
+                try {
+                    first = winner.get(threshold, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException slow) {
+                    if (tryConsumeCredit()) {
+                        pending.incrementAndGet();
+                        try {
+                            attempts.add(launch(read, winner, pending, true));
+                            hedges.increment();
+                        } catch (RejectedExecutionException e) {
+                            // Sin hilos libres: se sigue esperando solo el intento original
+                            if (pending.decrementAndGet() == 0) {
+                                winner.completeExceptionally(attempts.get(0).error);
+                            }
+                        }
+                    }
+                    first = await(winner, deadline);
+                }
+            }
+            if (first.hedge) {
+                hedgeWins.increment();
+            }
+            latencyTracker.record(System.nanoTime() - start);
+            return first.value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lectura interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            for (Attempt<T> attempt : attempts) {
+                if (attempt != first) {
+                    attempt.handle.cancel();
+                }
+            }
+        }
+    }
+
+    private static <T> Attempt<T> await(CompletableFuture<Attempt<T>> winner, Deadline deadline)
+            throws InterruptedException, ExecutionException {
+        if (deadline.isUnbounded()) {
+            return winner.get();
+        }
+        try {
+            return winner.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(STAGE, e);
+        }
+    }
+
+    public long hedgeCount() {
+        return hedges.sum();
+    }
+
+    public long hedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    public long thresholdNanos() {
+        return latencyTracker.thresholdNanos();
+    }
+
+    private <T> Attempt<T> launch(Function<CancellationHandle, T> read,
+                                  CompletableFuture<Attempt<T>> winner,
+                                  AtomicInteger pending, boolean hedge) {
+        Attempt<T> attempt = new Attempt<>(hedge);
+        executor.execute(() -> {
+            try {
+                attempt.value = read.apply(attempt.handle);
+                winner.complete(attempt);
+            } catch (Throwable t) {
+                attempt.error = t;
+                // Solo se propaga el error cuando ya no queda ningún intento en curso
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(t);
+                }
+            }
+        });
+        return attempt;
+    }
+
+    private void addCredit() {
+        credit.getAndUpdate(current -> Math.min(MAX_CREDIT, current + creditPerRead));
+    }
+
+    private boolean tryConsumeCredit() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - CREDIT_UNIT));
+        return true;
+    }
+
+    private static final class Attempt<T> {
+        final CancellationHandle handle = new CancellationHandle();
+        final boolean hedge;
+        volatile T value;
+        volatile Throwable error;
+
+        Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+    }
+}
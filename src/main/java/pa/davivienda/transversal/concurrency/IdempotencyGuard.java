@@ -0,0 +1,121 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.transversal.structures.IdempotencyCache;
+
+/**
+ * Respuesta única para los reintentos del bus con el mismo {@code idTransaccion}.
+ *
+ * <p>Cuando una consulta agota el timeout del bus, este la reintenta con el mismo
+ * {@code idTransaccion}. La clave de idempotencia es ese identificador más un hash del
+ * request, de modo que un mismo identificador con otro contenido se trata como una
+ * consulta nueva. Un reintento recibe la respuesta original (guardada durante
+ * {@code per002.idempotency.ttl}, hasta {@code per002.idempotency.max-entries}) o espera
+ * la que está en curso, sin consultar DB2 i. Solo se guardan las respuestas exitosas.</p>
+ *
+ * <p>La espera de una respuesta en curso dura hasta {@code per002.idempotency.wait-timeout}
+ * o el tiempo límite de la solicitud, lo que ocurra primero. Si vence el tiempo límite
+ * responde 504; si vence antes la espera, 503 con {@code Retry-After}, sin repetir la
+ * consulta que sigue en curso.</p>
+ *
+ * <p>Métricas:</p>
+ * <ul>
+ *   <li>{@code per002.idempotency.replays} - Reintentos respondidos, por origen (cache/in_flight)</li>
+ *   <li>{@code per002.idempotency.size} - Respuestas guardadas</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see IdempotencyCache
+ */
+@ApplicationScoped
+public class IdempotencyGuard {
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "per002.idempotency.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "per002.idempotency.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "per002.idempotency.ttl", defaultValue = "2m")
+    Duration ttl;
+
+    @ConfigProperty(name = "per002.idempotency.wait-timeout", defaultValue = "5s")
+    Duration waitTimeout;
+
+    private IdempotencyCache<Object> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new IdempotencyCache<>(maxEntries, ttl);
+        Gauge.builder("per002.idempotency.size", cache, IdempotencyCache::size)
+                .register(registry);
+    }
+
+    @Scheduled(every = "${per002.idempotency.purge-interval:1m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeExpired() {
+        if (enabled) {
+            cache.purgeExpired();
+        }
+    }
+
+    /**
+     * Ejecuta la operación, o responde el resultado de la llamada original con la misma clave.
+     *
+     * @param idTransaccion Identificador de la transacción del bus (sin él no aplica idempotencia)
+     * @param requestHash Hash del contenido del request
+     * @param deadline Tiempo límite de la solicitud (acota la espera de un resultado en curso)
+     * @param operation Operación a ejecutar
+     * @return Resultado y su origen
+     * @throws DeadlineExceededException Si el tiempo límite expira esperando un resultado en curso
+     * @throws ServiceUnavailableException Si se agota {@code per002.idempotency.wait-timeout} esperando
+     *         un resultado en curso antes del tiempo límite (503 con {@code Retry-After}: el
+     *         reintento recibe el resultado original)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IdempotencyCache.Outcome<T> execute(String idTransaccion, String requestHash, Deadline deadline,
+                                                    Supplier<T> operation) {
+        if (!enabled || idTransaccion == null || idTransaccion.isBlank()) {
+            return new IdempotencyCache.Outcome<>(operation.get(), IdempotencyCache.Source.EXECUTED);
+        }
+
+        boolean[] executed = {false};
+        IdempotencyCache.Outcome<Object> outcome;
+        try {
+            outcome = cache.execute(idTransaccion + '\0' + requestHash, () -> {
+                executed[0] = true;
+                return operation.get();
+            }, deadline.min(waitTimeout));
+        } catch (ServiceUnavailableException e) {
+            // Los errores de la propia operación se propagan sin cambios; los de la espera
+            // de la llamada original son 504 si ya no queda tiempo, o 503 para reintentar
+            if (!executed[0] && deadline.isExpired()) {
+                throw new DeadlineExceededException("idempotency", e);
+            }
+            throw e;
+        }
+
+        if (outcome.replayed()) {
+            registry.counter("per002.idempotency.replays", "source", outcome.source().name().toLowerCase())
+                    .increment();
+        }
+        return (IdempotencyCache.Outcome<T>) (IdempotencyCache.Outcome<?>) outcome;
+    }
+}
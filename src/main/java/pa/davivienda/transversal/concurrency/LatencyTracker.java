@@ -0,0 +1,59 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.Arrays;
+
+/**
+ * Percentil de latencia sobre una ventana deslizante de muestras recientes.
+ *
+ * <p>Las muestras se guardan en un buffer circular; el percentil se recalcula cada
+ * {@code recomputeEvery} muestras y se publica en un campo volatile, de modo que
+ * consultarlo en el camino del request no ordena ni crea objetos.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long thresholdNanos = -1;
+
+    /**
+     * @param windowSize Cantidad de muestras de la ventana
+     * @param percentile Percentil a seguir (0 &lt; p &lt; 1), p. ej. 0.95
+     * @param minSamples Muestras mínimas antes de publicar un umbral
+     */
+    public LatencyTracker(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.recomputeEvery = Math.max(1, windowSize / 16);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= recomputeEvery && count >= minSamples) {
+            sinceRecompute = 0;
+            long[] window = Arrays.copyOf(samples, count);
+            Arrays.sort(window);
+            thresholdNanos = window[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /**
+     * @return Latencia del percentil seguido en nanosegundos, o -1 si aún no hay muestras suficientes
+     */
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+}
@@ -0,0 +1,142 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Semáforo que entrega los permisos liberados por prioridad en lugar de por orden de llegada.
+ *
+ * <p>Cada espera tiene una clave fija, calculada al encolarse (menor = antes). Para dar
+ * prioridad con envejecimiento (aging) se usa {@code llegada - peso * paso}: un peso
+ * mayor equivale a haber llegado antes, pero solo por un tiempo acotado, de modo que una
+ * espera de menor peso nunca es adelantada por solicitudes que llegan más de
+ * {@code (pesoMayor - pesoMenor) * paso} después de ella (sin inanición). Como la clave no
+ * cambia con el tiempo, el orden de la cola es estable.</p>
+ *
+ * <p>Usa {@link ReentrantLock} (no {@code synchronized}) para no fijar hilos virtuales.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class PriorityPermits {
+
+    private final int permits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private int available;
+    private long sequence;
+
+    public PriorityPermits(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits debe ser mayor a 0");
+        }
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    /**
+     * Obtiene un permiso esperando como máximo el timeout indicado.
+     *
+     * @param priorityKey Clave de prioridad (menor = se atiende antes)
+     * @param timeoutNanos Tiempo máximo de espera
+     * @return true si se obtuvo el permiso
+     * @throws InterruptedException Si el hilo es interrumpido mientras espera
+     */
+    public boolean tryAcquire(long priorityKey, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+                return true;
+            }
+            if (timeoutNanos <= 0) {
+                return false;
+            }
+
+            Waiter waiter = new Waiter(priorityKey, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            long remaining = timeoutNanos;
+            try {
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    releaseLocked();
+                } else {
+                    waiters.remove(waiter);
+                }
+                throw e;
+            }
+            if (!waiter.granted) {
+                waiters.remove(waiter);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera un permiso, entregándolo a la espera de mayor prioridad si la hay.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inUse() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int waiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        Waiter next = waiters.poll();
+        if (next == null) {
+            available++;
+            return;
+        }
+        next.granted = true;
+        next.condition.signal();
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final long key;
+        final long seq;
+        final Condition condition;
+        boolean granted;
+
+        Waiter(long key, long seq, Condition condition) {
+            this.key = key;
+            this.seq = seq;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byKey = Long.compare(key, other.key);
+            return byKey != 0 ? byKey : Long.compare(seq, other.seq);
+        }
+    }
+}
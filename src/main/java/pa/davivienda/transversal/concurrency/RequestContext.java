@@ -0,0 +1,16 @@
+package pa.davivienda.transversal.concurrency;
+
+/**
+ * Datos de la solicitud que acompañan a cada lectura hasta el acceso a DB2 i.
+ *
+ * @param deadline Tiempo límite de la solicitud
+ * @param canal Canal de origen, usado para priorizar el acceso a la base de datos
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public record RequestContext(Deadline deadline, short canal) {
+
+    /** Contexto sin tiempo límite ni canal (prioridad por defecto). */
+    public static final RequestContext NONE = new RequestContext(Deadline.NONE, (short) 0);
+}
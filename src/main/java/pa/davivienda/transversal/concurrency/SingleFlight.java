@@ -0,0 +1,114 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Coalescencia de llamadas idénticas concurrentes ("single-flight").
+ *
+ * <p>El primer hilo que pide una clave (líder) ejecuta la carga en su propio hilo;
+ * los hilos que piden la misma clave mientras la carga está en curso (seguidores)
+ * esperan ese mismo resultado o excepción en lugar de repetir la consulta. Al terminar,
+ * la clave se libera y la siguiente llamada vuelve a consultar.</p>
+ *
+ * <p>Un seguidor que agota su tiempo de espera recibe {@link ServiceUnavailableException}
+ * (503 con {@code Retry-After}): el líder sigue en curso y el reintento puede
+ * aprovechar su resultado.</p>
+ *
+ * @param <K> Tipo de la clave
+ * @param <V> Tipo del resultado
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class SingleFlight<K, V> {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    /**
+     * Ejecuta la carga para la clave, o espera la que ya esté en curso.
+     *
+     * @param key Clave de la consulta
+     * @param loader Carga a ejecutar si no hay una en curso
+     * @param waitTimeout Tiempo máximo que un seguidor espera el resultado del líder
+     * @return Resultado de la carga (puede ser null)
+     * @throws ServiceUnavailableException Si un seguidor agota el tiempo de espera
+     */
+    public V execute(K key, Supplier<V> loader, Duration waitTimeout) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            followers.increment();
+            return await(existing, waitTimeout);
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @return Llamadas que ejecutaron la carga
+     */
+    public long leaderCount() {
+        return leaders.sum();
+    }
+
+    /**
+     * @return Llamadas que reutilizaron una carga en curso
+     */
+    public long followerCount() {
+        return followers.sum();
+    }
+
+    /**
+     * @return Proporción de llamadas coalescidas sobre el total (0 si no hubo llamadas)
+     */
+    public double coalescingRatio() {
+        long coalesced = followers.sum();
+        long total = coalesced + leaders.sum();
+        return total == 0 ? 0.0 : (double) coalesced / total;
+    }
+
+    private static <V> V await(CompletableFuture<V> future, Duration waitTimeout) {
+        try {
+            return future.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Tiempo de espera agotado esperando una consulta en curso",
+                    RETRY_AFTER);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera de consulta en curso interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
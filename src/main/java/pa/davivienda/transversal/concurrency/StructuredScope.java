@@ -0,0 +1,94 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Ámbito de las tareas concurrentes de una solicitud, con cancelación estructurada.
+ *
+ * <p>Cada {@link #fork} ejecuta una tarea en el {@link Executor} del ámbito con su propio
+ * {@link CancellationHandle} y devuelve su resultado como {@link CompletableFuture}. Si una
+ * tarea falla, o quien coordina invoca {@link #fail}, el ámbito se da por fallido: se
+ * cancelan los handles de las tareas en curso (p. ej. {@code Statement.cancel()}), sus
+ * futures terminan con {@link CancellationException} y los forks posteriores nacen
+ * cancelados, de modo que ninguna etapa sigue trabajando para una solicitud que ya
+ * no puede responderse.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class StructuredScope {
+
+    private final Executor executor;
+    private final List<Fork<?>> forks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public StructuredScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Ejecuta una tarea dentro del ámbito.
+     *
+     * @param task Tarea; recibe el handle con el que registrar su cancelación
+     * @return Resultado de la tarea, o {@link CancellationException} si el ámbito falló
+     */
+    public <T> CompletableFuture<T> fork(Function<CancellationHandle, T> task) {
+        Fork<T> fork = new Fork<>(new CancellationHandle(), new CompletableFuture<>());
+        forks.add(fork);
+        if (failure.get() != null) {
+            fork.cancel();
+            return fork.future;
+        }
+
+        try {
+            executor.execute(() -> {
+                if (fork.future.isDone()) {
+                    return;
+                }
+                try {
+                    fork.future.complete(task.apply(fork.handle));
+                } catch (RuntimeException | Error e) {
+                    fork.future.completeExceptionally(e);
+                    fail(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fork.future.completeExceptionally(e);
+            fail(e);
+        }
+        return fork.future;
+    }
+
+    /**
+     * Da el ámbito por fallido y cancela las tareas en curso. Solo la primera causa cuenta.
+     */
+    public void fail(Throwable cause) {
+        if (failure.compareAndSet(null, cause)) {
+            forks.forEach(Fork::cancel);
+        }
+    }
+
+    /**
+     * @return La causa del fallo del ámbito, o null si no falló
+     */
+    public Throwable failure() {
+        return failure.get();
+    }
+
+    private record Fork<T>(CancellationHandle handle, CompletableFuture<T> future) {
+
+        private void cancel() {
+            if (future.cancel(false)) {
+                handle.cancel();
+            }
+        }
+    }
+}
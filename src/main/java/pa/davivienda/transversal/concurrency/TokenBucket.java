@@ -0,0 +1,112 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sin locks (algoritmo GCRA).
+ *
+ * <p>En lugar de guardar tokens y última recarga (dos valores que requerirían un lock),
+ * se guarda un único instante: el "tiempo teórico de llegada" (TAT) de la próxima
+ * solicitud. Cada solicitud admitida lo avanza un intervalo de emisión
+ * ({@code 1 / rate}); se rechaza si el TAT resultante queda más allá de
+ * {@code burst} intervalos en el futuro. La admisión es un único compare-and-set.</p>
+ *
+ * <p>Una solicitud puede consumir varios tokens ({@link #tryAcquire(int)}), p. ej. un
+ * lote que equivale a varias consultas; un peso mayor que {@code burst} se acota a
+ * {@code burst} para que la solicitud pueda admitirse con el bucket lleno.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int burst;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond Tokens que se reponen por segundo
+     * @param burst Capacidad máxima del bucket
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate y burst deben ser mayores a 0");
+        }
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Consume un token si hay disponible.
+     *
+     * @return true si la solicitud fue admitida
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Consume {@code permits} tokens si hay disponibles.
+     *
+     * @param permits Tokens que consume la solicitud (se acota a {@code burst})
+     * @return true si la solicitud fue admitida
+     */
+    public boolean tryAcquire(int permits) {
+        long cost = cost(permits);
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + cost;
+            if (next - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Tokens disponibles en este momento
+     */
+    public long availableTokens() {
+        long now = nanoClock.getAsLong();
+        long used = Math.max(theoreticalArrival.get(), now) - now;
+        return (burstToleranceNanos - used) / emissionIntervalNanos;
+    }
+
+    /**
+     * @return Nanosegundos hasta que vuelva a haber un token disponible (0 si ya hay)
+     */
+    public long nanosUntilAvailable() {
+        return nanosUntilAvailable(1);
+    }
+
+    /**
+     * @param permits Tokens que consume la solicitud (se acota a {@code burst})
+     * @return Nanosegundos hasta que vuelva a haber {@code permits} tokens disponibles (0 si ya hay)
+     */
+    public long nanosUntilAvailable(int permits) {
+        long now = nanoClock.getAsLong();
+        long next = Math.max(theoreticalArrival.get(), now) + cost(permits);
+        return Math.max(0, next - now - burstToleranceNanos);
+    }
+
+    private long cost(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits debe ser mayor a 0");
+        }
+        return emissionIntervalNanos * Math.min(permits, burst);
+    }
+}
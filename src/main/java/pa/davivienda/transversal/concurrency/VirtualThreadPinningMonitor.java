@@ -0,0 +1,83 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detecta hilos virtuales fijados (pinned) a su hilo portador.
+ *
+ * <p>Cuando la ejecución en hilos virtuales está activa ({@code quarkus.virtual-threads.enabled})
+ * se escucha el evento JFR {@code jdk.VirtualThreadPinned}, que el JDK emite cuando un
+ * hilo virtual se bloquea dentro de un bloque {@code synchronized} (como los del
+ * driver jt400) sin poder liberar su portador. Se publican:</p>
+ * <ul>
+ *   <li>{@code per002.virtual-threads.pinned} - Duración de cada episodio de pinning</li>
+ *   <li>{@code per002.virtual-threads.pinned.events} - Episodios detectados</li>
+ * </ul>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "false")
+    boolean virtualThreadsEnabled;
+
+    @ConfigProperty(name = "per002.virtual-threads.pinning-threshold", defaultValue = "20ms")
+    Duration pinningThreshold;
+
+    private RecordingStream stream;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!virtualThreadsEnabled) {
+            return;
+        }
+        Timer pinnedTime = Timer.builder("per002.virtual-threads.pinned").register(registry);
+        Counter pinnedEvents = Counter.builder("per002.virtual-threads.pinned.events").register(registry);
+
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, recorded -> onPinned(recorded, pinnedTime, pinnedEvents));
+            stream.startAsync();
+            Log.infof("Virtual thread pinning monitor started (threshold=%s)", pinningThreshold);
+        } catch (Exception e) {
+            Log.warnf("Virtual thread pinning monitor unavailable: %s", e.getMessage());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static void onPinned(RecordedEvent recorded, Timer pinnedTime, Counter pinnedEvents) {
+        pinnedTime.record(recorded.getDuration());
+        pinnedEvents.increment();
+        if (Log.isDebugEnabled() && recorded.getStackTrace() != null && !recorded.getStackTrace().getFrames().isEmpty()) {
+            Log.debugf("Virtual thread pinned for %s at %s", recorded.getDuration(),
+                    recorded.getStackTrace().getFrames().get(0).getMethod().getType().getName());
+        }
+    }
+}
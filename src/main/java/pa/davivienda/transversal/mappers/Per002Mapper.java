@@ -1,10 +1,16 @@
 package pa.davivienda.transversal.mappers;
 
+import java.util.List;
+
 import org.mapstruct.Mapper;
 
 import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.dtos.responses.Per002CostSheetResponseDto;
 import pa.davivienda.domain.dtos.responses.Per002ResponseDto;
 import pa.davivienda.domain.models.requests.Per002RequestModel;
+import pa.davivienda.domain.models.responses.Per002BatchItemResponseModel;
+import pa.davivienda.domain.models.responses.Per002CostSheetResponseModel;
 import pa.davivienda.domain.models.responses.Per002ResponseModel;
 
 /**
@@ -18,6 +24,8 @@ import pa.davivienda.domain.models.responses.Per002ResponseModel;
  * <ul>
  *   <li>RequestModel → RequestDto (capa web → capa aplicación)</li>
  *   <li>ResponseDto → ResponseModel (capa aplicación → capa web)</li>
+ *   <li>Listas de RequestModel y resultados de la consulta en lote o en streaming</li>
+ *   <li>Hoja de costos por concepto de un cliente</li>
  * </ul>
  * 
  * @author Equipo PER002
@@ -31,4 +39,12 @@ public interface Per002Mapper {
     Per002RequestDto toRequestDto(Per002RequestModel per002RequestModel);
 
     Per002ResponseModel toResponseModel(Per002ResponseDto per002ResponseDto);
+
+    List<Per002RequestDto> toRequestDtos(List<Per002RequestModel> per002RequestModels);
+
+    Per002BatchItemResponseModel toBatchItemResponseModel(Per002BatchItemResponseDto itemResponseDto);
+
+    List<Per002BatchItemResponseModel> toBatchItemResponseModels(List<Per002BatchItemResponseDto> itemResponseDtos);
+
+    Per002CostSheetResponseModel toCostSheetResponseModel(Per002CostSheetResponseDto costSheetResponseDto);
 }
@@ -0,0 +1,128 @@
+package pa.davivienda.transversal.structures;
+
+/**
+ * Filtro de Bloom para pares de claves de texto (p. ej. tipo y número de documento).
+ *
+ * <p>Usa un arreglo de {@code long} como mapa de bits y doble hashing sobre un hash
+ * de 64 bits calculado directamente sobre los caracteres de las claves, por lo que ni
+ * la inserción ni la consulta crean objetos. Los blancos a la derecha se ignoran,
+ * igual que en las comparaciones de columnas CHAR de DB2 i.</p>
+ *
+ * <p>Un resultado {@code false} de {@link #mightContain} es definitivo; un resultado
+ * {@code true} puede ser un falso positivo.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private long insertions;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = (long) bits.length << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Crea un filtro dimensionado para la cantidad de elementos y la tasa de falsos
+     * positivos indicadas.
+     *
+     * @param expectedInsertions Cantidad esperada de elementos
+     * @param falsePositiveRate Tasa de falsos positivos objetivo (0 &lt; p &lt; 1)
+     * @return Filtro vacío
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate debe estar entre 0 y 1");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        m = Math.max(64, Math.min(m, (long) Integer.MAX_VALUE << 6));
+        int k = Math.max(1, (int) Math.round((double) m / n * LN2));
+        return new BloomFilter(m, k);
+    }
+
+    public void put(String first, String second) {
+        long hash = hash(first, second);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    public boolean mightContain(String first, String second) {
+        long hash = hash(first, second);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estima la tasa de falsos positivos actual a partir de la proporción de bits
+     * encendidos: {@code (bitsEncendidos / m) ^ k}.
+     *
+     * @return Tasa estimada de falsos positivos
+     */
+    public double estimatedFalsePositiveRate() {
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    public long insertions() {
+        return insertions;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String first, String second) {
+        long h = 0xcbf29ce484222325L;
+        h = mixIn(h, first);
+        h = (h ^ 0x1F) * 0x100000001b3L;
+        h = mixIn(h, second);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mixIn(long h, String value) {
+        if (value == null) {
+            return h;
+        }
+        int length = value.length();
+        while (length > 0 && value.charAt(length - 1) == ' ') {
+            length--;
+        }
+        for (int i = 0; i < length; i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,205 @@
+package pa.davivienda.transversal.structures;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché acotada con expiración por entrada (TTL) y desalojo LRU.
+ *
+ * <p>Las claves se reparten en segmentos, cada uno un {@link LinkedHashMap} en orden de
+ * acceso protegido por su propio lock, de modo que lecturas de claves distintas rara vez
+ * compiten. Cada segmento admite {@code maxEntries / segmentos} entradas y al superarlas
+ * desaloja la menos usada recientemente; las entradas vencidas se descartan al leerlas.</p>
+ *
+ * @param <K> Tipo de la clave
+ * @param <V> Tipo del valor
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class ExpiringLruCache<K, V> {
+
+    /**
+     * Recibe cada entrada vigente en {@link #forEach}.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor<K, V> {
+
+        /**
+         * @param remainingNanos Vigencia restante de la entrada
+         */
+        void visit(K key, V value, long remainingNanos);
+    }
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param maxEntries Entradas máximas (en total, repartidas entre segmentos)
+     * @param ttlNanos Vigencia de cada entrada desde que se guarda
+     */
+    public ExpiringLruCache(int maxEntries, long ttlNanos) {
+        this(maxEntries, ttlNanos, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiringLruCache(int maxEntries, long ttlNanos, LongSupplier nanoClock) {
+        if (maxEntries < 1 || ttlNanos <= 0) {
+            throw new IllegalArgumentException("maxEntries y ttl deben ser mayores a 0");
+        }
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return El valor vigente de la clave, o null si no está o venció
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (segment) {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAt >= 0) {
+                segment.map.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Guarda o reemplaza el valor de la clave con la vigencia completa.
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Guarda o reemplaza el valor de la clave con una vigencia propia (acotada a la de la caché).
+     */
+    public void put(K key, V value, long ttlNanos) {
+        Segment<K, V> segment = segmentFor(key);
+        long expiresAt = nanoClock.getAsLong() + Math.min(ttlNanos, this.ttlNanos);
+        synchronized (segment) {
+            segment.map.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Descarta la entrada de la clave, si existe.
+     */
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.remove(key);
+        }
+    }
+
+    /**
+     * Descarta las entradas vencidas de todos los segmentos.
+     *
+     * @return Entradas descartadas
+     */
+    public int purgeExpired() {
+        long now = nanoClock.getAsLong();
+        int purged = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<Entry<V>> it = segment.map.values().iterator();
+                while (it.hasNext()) {
+                    if (now - it.next().expiresAt >= 0) {
+                        it.remove();
+                        purged++;
+                    }
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Recorre las entradas vigentes, segmento por segmento, sin alterar el orden LRU.
+     * El visitante se invoca con el lock del segmento tomado y no debe usar la caché.
+     */
+    public void forEach(EntryVisitor<K, V> visitor) {
+        long now = nanoClock.getAsLong();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<K, Entry<V>> entry : segment.map.entrySet()) {
+                    long remaining = entry.getValue().expiresAt - now;
+                    if (remaining > 0) {
+                        visitor.visit(entry.getKey(), entry.getValue().value, remaining);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Entradas guardadas (incluye vencidas aún no descartadas)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Entradas desalojadas por capacidad desde la creación
+     */
+    public long evictions() {
+        long evictions = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> {
+
+        private final LinkedHashMap<K, Entry<V>> map;
+        private long evictions;
+
+        private Segment(int capacity) {
+            this.map = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > capacity) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package pa.davivienda.transversal.structures;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detector de claves más frecuentes ("heavy hitters") sobre un flujo de claves.
+ *
+ * <p>Cuenta las apariciones con un count-min sketch de {@code depth} filas de
+ * {@code width} contadores: cada clave incrementa un contador por fila y su frecuencia
+ * estimada es el mínimo de ellos (nunca subestima; sobreestima como mucho por las
+ * colisiones). La memoria es fija, sin importar cuántas claves distintas pasen. Junto al
+ * sketch se mantienen las {@code k} claves de mayor frecuencia estimada; una clave entra
+ * si su estimación supera la menor de ellas.</p>
+ *
+ * <p>Los contadores son atómicos, así que {@link #add} no toma locks salvo cuando la
+ * clave ya está entre las {@code k} o puede entrar. {@link #decay()} divide todos los
+ * contadores a la mitad para que la frecuencia refleje el tráfico reciente.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class HeavyHitterSketch {
+
+    /**
+     * Clave frecuente y su frecuencia estimada.
+     */
+    public record HeavyHitter(String key, long count) {
+    }
+
+    private final AtomicLongArray counters;
+    private final int depth;
+    private final int mask;
+    private final int k;
+    private final LongAdder total = new LongAdder();
+    private final Map<String, Long> top = new ConcurrentHashMap<>();
+    private volatile long admission;
+
+    /**
+     * @param width Contadores por fila (se redondea a potencia de 2)
+     * @param depth Filas (funciones hash)
+     * @param k Claves frecuentes a mantener
+     */
+    public HeavyHitterSketch(int width, int depth, int k) {
+        if (width < 1 || depth < 1 || k < 1) {
+            throw new IllegalArgumentException("width, depth y k deben ser mayores a 0");
+        }
+        int columns = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.counters = new AtomicLongArray(columns * depth);
+        this.depth = depth;
+        this.mask = columns - 1;
+        this.k = k;
+    }
+
+    /**
+     * Registra una aparición de la clave.
+     *
+     * @return Frecuencia estimada de la clave
+     */
+    public long add(String key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, h1, h2)));
+        }
+        total.increment();
+
+        if (estimate > admission || top.containsKey(key)) {
+            synchronized (top) {
+                offer(key, estimate);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * @return Frecuencia estimada de la clave (sin registrarla)
+     */
+    public long estimate(String key) {
+        int h1 = spread(key.hashCode());
+        int h2 = spread(h1 * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return Las claves más frecuentes, de mayor a menor frecuencia estimada
+     */
+    public List<HeavyHitter> topK() {
+        List<HeavyHitter> hitters = new ArrayList<>(k);
+        synchronized (top) {
+            top.forEach((key, count) -> hitters.add(new HeavyHitter(key, count)));
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::count).reversed().thenComparing(HeavyHitter::key));
+        return hitters;
+    }
+
+    /**
+     * @return Apariciones registradas desde la creación
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Divide a la mitad todos los contadores y las frecuencias de las claves frecuentes;
+     * las que llegan a cero dejan de serlo.
+     */
+    public void decay() {
+        synchronized (top) {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.getAndUpdate(i, count -> count >> 1);
+            }
+            top.replaceAll((key, count) -> count >> 1);
+            top.values().removeIf(count -> count == 0);
+            updateAdmission();
+        }
+    }
+
+    private void offer(String key, long estimate) {
+        Long previous = top.get(key);
+        if (previous != null) {
+            top.put(key, estimate);
+            if (previous > admission) {
+                // No era la menor: el umbral de entrada no cambia
+                return;
+            }
+        } else if (top.size() < k) {
+            top.put(key, estimate);
+        } else {
+            Map.Entry<String, Long> min = null;
+            for (Map.Entry<String, Long> entry : top.entrySet()) {
+                if (min == null || entry.getValue() < min.getValue()) {
+                    min = entry;
+                }
+            }
+            if (estimate <= min.getValue()) {
+                return;
+            }
+            top.remove(min.getKey());
+            top.put(key, estimate);
+        }
+        updateAdmission();
+    }
+
+    private void updateAdmission() {
+        if (top.size() < k) {
+            admission = 0;
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        for (long count : top.values()) {
+            min = Math.min(min, count);
+        }
+        admission = min;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,115 @@
+package pa.davivienda.transversal.structures;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.transversal.concurrency.SingleFlight;
+
+/**
+ * Resultados recientes de operaciones idempotentes, para responder reintentos sin repetirlas.
+ *
+ * <p>La primera llamada con una clave ejecuta la operación y, si termina bien con un
+ * resultado no nulo, lo guarda por la vigencia de la caché ({@link ExpiringLruCache}, con
+ * desalojo LRU al llegar al máximo de entradas). Un reintento con la misma clave recibe
+ * ese resultado; si llega mientras la operación aún está en curso, espera su resultado
+ * o error ({@link SingleFlight}). Los errores no se guardan: el siguiente reintento
+ * vuelve a ejecutar la operación.</p>
+ *
+ * @param <V> Tipo del resultado
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+public final class IdempotencyCache<V> {
+
+    /**
+     * Origen del resultado de una llamada.
+     */
+    public enum Source {
+        /** La llamada ejecutó la operación */
+        EXECUTED,
+        /** Resultado guardado de una llamada anterior */
+        CACHE,
+        /** Resultado de una llamada que estaba en curso */
+        IN_FLIGHT
+    }
+
+    /**
+     * Resultado de una llamada y su origen.
+     */
+    public record Outcome<V>(V value, Source source) {
+
+        /**
+         * @return true si el resultado no se obtuvo ejecutando la operación
+         */
+        public boolean replayed() {
+            return source != Source.EXECUTED;
+        }
+    }
+
+    private final ExpiringLruCache<String, V> completed;
+    private final SingleFlight<String, V> inFlight = new SingleFlight<>();
+
+    /**
+     * @param maxEntries Resultados guardados como máximo
+     * @param ttl Vigencia de cada resultado
+     */
+    public IdempotencyCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.completed = new ExpiringLruCache<>(maxEntries, ttl.toNanos(), nanoClock);
+    }
+
+    /**
+     * Ejecuta la operación, o responde el resultado guardado o en curso para la clave.
+     *
+     * @param key Clave de idempotencia
+     * @param operation Operación a ejecutar si no hay resultado para la clave
+     * @param waitTimeout Tiempo máximo de espera de un resultado en curso
+     * @return Resultado y su origen
+     * @throws ServiceUnavailableException Si se agota la espera de un resultado en curso
+     */
+    public Outcome<V> execute(String key, Supplier<V> operation, Duration waitTimeout) {
+        V cached = completed.get(key);
+        if (cached != null) {
+            return new Outcome<>(cached, Source.CACHE);
+        }
+
+        Source[] source = {Source.IN_FLIGHT};
+        V value = inFlight.execute(key, () -> {
+            // La llamada anterior pudo terminar entre la búsqueda y la toma de la clave
+            V stored = completed.get(key);
+            if (stored != null) {
+                source[0] = Source.CACHE;
+                return stored;
+            }
+            source[0] = Source.EXECUTED;
+            V result = operation.get();
+            if (result != null) {
+                // Se guarda antes de liberar la clave en curso: un reintento siempre ve uno u otro
+                completed.put(key, result);
+            }
+            return result;
+        }, waitTimeout);
+        return new Outcome<>(value, source[0]);
+    }
+
+    /**
+     * @return Resultados guardados (incluye vencidos aún no descartados)
+     */
+    public int size() {
+        return completed.size();
+    }
+
+    /**
+     * Descarta los resultados vencidos.
+     */
+    public void purgeExpired() {
+        completed.purgeExpired();
+    }
+}
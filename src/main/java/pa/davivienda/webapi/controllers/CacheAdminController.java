@@ -0,0 +1,71 @@
+package pa.davivienda.webapi.controllers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import pa.davivienda.persistence.caches.HotCostKeyTracker;
+
+/**
+ * Endpoints de consulta del estado de las cachés en memoria, para planificación de capacidad.
+ *
+ * <p>Deshabilitados por defecto ({@code per002.admin.enabled=false}, responden 404): el
+ * servicio no autentica a sus clientes, de modo que solo deben habilitarse detrás de una
+ * ruta del gateway restringida a operación. Aun habilitados no exponen CUN completos: se
+ * enmascaran todos los caracteres salvo los últimos {@value #VISIBLE_CUN_CHARS}.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ */
+@Path("/admin/cache")
+public class CacheAdminController {
+
+    static final int VISIBLE_CUN_CHARS = 4;
+
+    @Inject
+    HotCostKeyTracker hotKeys;
+
+    @ConfigProperty(name = "per002.admin.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * Claves (cliente, código homologado) más consultadas y si su costo está fijado en memoria.
+     *
+     * @return Búsquedas registradas y claves calientes (CUN enmascarado), de mayor a menor
+     *         frecuencia estimada
+     * @throws NotFoundException Si los endpoints de administración están deshabilitados
+     */
+    @GET
+    @Path("/hot-keys")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> hotKeys() {
+        if (!enabled) {
+            throw new NotFoundException();
+        }
+        List<HotCostKeyTracker.HotKey> masked = hotKeys.hotKeys().stream()
+                .map(hotKey -> new HotCostKeyTracker.HotKey(maskCustomerId(hotKey.customerId()),
+                        hotKey.transactionCode(), hotKey.estimatedCount(), hotKey.pinned()))
+                .toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", hotKeys.isEnabled());
+        body.put("trackedLookups", hotKeys.trackedLookups());
+        body.put("hotKeys", masked);
+        return body;
+    }
+
+    static String maskCustomerId(String customerId) {
+        String trimmed = customerId.strip();
+        int hidden = Math.max(0, trimmed.length() - VISIBLE_CUN_CHARS);
+        return "*".repeat(hidden) + trimmed.substring(hidden);
+    }
+}
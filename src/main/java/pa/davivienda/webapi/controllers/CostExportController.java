@@ -0,0 +1,167 @@
+package pa.davivienda.webapi.controllers;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
+import pa.davivienda.domain.entities.AuditLog;
+import pa.davivienda.domain.enums.AuditMessageType;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.persistence.exports.ExportFormat;
+import pa.davivienda.persistence.exports.TransactionCostExporter;
+import pa.davivienda.transversal.concurrency.CanalQuotaLimiter;
+import pa.davivienda.transversal.utils.AuditUtils;
+import pa.davivienda.webapi.validators.InputHeadersPer002Validator;
+
+/**
+ * Endpoint de export de costos por cliente (CNTRLPRF) para sistemas downstream.
+ *
+ * <p>Reemplaza la descarga fila por fila a través de {@code /per002/consultaCosto}:
+ * responde todas las filas de los códigos homologados en CSV o NDJSON, escritas a
+ * medida que se leen. Las filas vienen ordenadas por (customerId, transactionCode);
+ * si la descarga se corta, se reanuda pasando la última fila recibida en
+ * {@code afterCustomerId} y {@code afterTransactionCode}.</p>
+ *
+ * <p>Deshabilitado por defecto ({@code per002.export.enabled=false}, responde 404).
+ * Exige los mismos headers del BUS que {@code /per002/consultaCosto}, consume la cuota
+ * del canal (un token al admitirse y uno por página leída) y se audita: un registro
+ * ENTRADA con los parámetros y un SALIDA con las filas escritas, o un ERROR si el
+ * export se corta.</p>
+ *
+ * @author Equipo PER002
+ * @version 1.0.0
+ * @since 2026-10-19
+ * @see TransactionCostExporter
+ */
+@Path("per002/export")
+public class CostExportController {
+
+    @Inject
+    TransactionCostExporter exporter;
+
+    @Inject
+    CanalQuotaLimiter canalQuotaLimiter;
+
+    @Inject
+    AuditPort auditPort;
+
+    @ConfigProperty(name = "per002.export.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * Exporta los costos por cliente.
+     *
+     * @param formato csv (por defecto) o ndjson
+     * @param afterCustomerId Cursor: customerId de la última fila recibida
+     * @param afterTransactionCode Cursor: transactionCode de la última fila recibida
+     * @param limit Máximo de filas (0 = todas)
+     * @param httpHeaders Headers HTTP requeridos por el BUS
+     * @return Response con código 200 y las filas, 400 si los headers o los parámetros no
+     *         son válidos, 404 si el export está deshabilitado, 429 si el canal excede su
+     *         cuota, o 503 con {@code Retry-After} si ya hay un export en curso
+     */
+    @GET
+    @Path("/costos")
+    @RunOnVirtualThread
+    public Response exportCostos(
+            @QueryParam("formato") String formato,
+            @QueryParam("afterCustomerId") String afterCustomerId,
+            @QueryParam("afterTransactionCode") String afterTransactionCode,
+            @QueryParam("limit") @DefaultValue("0") long limit,
+            @Context HttpHeaders httpHeaders
+    ) {
+
+        if (!enabled) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        HeadersPer002RequestDto headers;
+        try {
+            headers = InputHeadersPer002Validator.validateInputHeaders(httpHeaders);
+        } catch (BadRequestException brex) {
+            return errorResponse(Response.Status.BAD_REQUEST, "validationError", brex.getMessage()).build();
+        }
+
+        short canal = headers.getCanal();
+        if (!canalQuotaLimiter.tryAcquire(canal)) {
+            long retryAfterSeconds = Math.max(1, (canalQuotaLimiter.retryAfter(canal).toMillis() + 999) / 1000);
+            return errorResponse(Response.Status.TOO_MANY_REQUESTS, "TooManyRequests",
+                    "Cuota del canal " + canal + " excedida")
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+
+        TransactionCostExporter.Export export;
+        ExportFormat format;
+        try {
+            format = ExportFormat.parse(formato);
+            export = exporter.prepare(format, afterCustomerId, afterTransactionCode, limit, canal);
+        } catch (IllegalArgumentException iex) {
+            return errorResponse(Response.Status.BAD_REQUEST, "validationError", iex.getMessage()).build();
+        } catch (ServiceUnavailableException suex) {
+            long retryAfterSeconds = Math.max(1, (suex.getRetryAfter().toMillis() + 999) / 1000);
+            return errorResponse(Response.Status.SERVICE_UNAVAILABLE, "ServiceUnavailable", suex.getMessage())
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+
+        // 📝 AUDITORÍA: ENTRADA
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("headers", headers);
+        request.put("formato", format.name());
+        request.put("afterCustomerId", afterCustomerId);
+        request.put("afterTransactionCode", afterTransactionCode);
+        request.put("limit", limit);
+        auditPort.logAsync(auditLog(headers, AuditMessageType.ENTRADA, request, null));
+
+        StreamingOutput output = out -> {
+            try {
+                long rows = export.writeTo(out);
+                // 📝 AUDITORÍA: SALIDA
+                auditPort.logAsync(auditLog(headers, AuditMessageType.SALIDA, Map.of("filas", rows), null));
+            } catch (IOException | RuntimeException ex) {
+                auditPort.logAsync(auditLog(headers, AuditMessageType.ERROR,
+                        AuditUtils.exceptionToJson(ex, "ExportCostos"), ex.getMessage()));
+                throw ex;
+            }
+        };
+        return Response.ok(output, format.mediaType()).build();
+    }
+
+    private static AuditLog auditLog(HeadersPer002RequestDto headers, AuditMessageType type,
+                                     Object payload, String error) {
+        String payloadJson = payload instanceof String json ? json : AuditUtils.toJson(payload);
+        return AuditLog.builder()
+                .idTransaccion(headers.getIdTransaccion())
+                .tipoMensaje(type)
+                .logCanal(String.valueOf(headers.getCanal()))
+                .loginUser("SYSTEM")
+                .payload(payloadJson)
+                .payloadHash(AuditUtils.calculateSHA256(payloadJson))
+                .estado(error == null ? "OK" : "ERROR")
+                .detalleError(error)
+                .build();
+    }
+
+    private static Response.ResponseBuilder errorResponse(Response.Status status, String entityKey, String message) {
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of(entityKey, message));
+    }
+}
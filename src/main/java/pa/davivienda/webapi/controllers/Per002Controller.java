@@ -1,7 +1,27 @@
 package pa.davivienda.webapi.controllers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestMediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
@@ -12,12 +32,22 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
 import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.dtos.responses.Per002CostSheetResponseDto;
 import pa.davivienda.domain.dtos.responses.Per002ResponseDto;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
 import pa.davivienda.domain.interfaces.usecases.Per002UseCase;
+import pa.davivienda.domain.models.requests.Per002BatchRequestModel;
 import pa.davivienda.domain.models.requests.Per002RequestModel;
+import pa.davivienda.domain.models.responses.Per002BatchResponseModel;
+import pa.davivienda.domain.models.responses.Per002CostSheetResponseModel;
 import pa.davivienda.domain.models.responses.Per002ResponseModel;
+import pa.davivienda.transversal.concurrency.CanalQuotaLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
 import pa.davivienda.transversal.mappers.Per002Mapper;
 import pa.davivienda.webapi.validators.InputHeadersPer002Validator;
 
@@ -25,7 +55,10 @@ import pa.davivienda.webapi.validators.InputHeadersPer002Validator;
  * Controlador REST para la consulta de costos de transacciones.
  * 
  * <p>Provee el endpoint principal para determinar el costo de una transacción bancaria
- * basado en el tipo de cliente y el concepto de operación. Este controlador maneja
+ * basado en el tipo de cliente y el concepto de operación, su variante en lote
+ * ({@code /consultaCosto/batch}), la consulta masiva en streaming NDJSON
+ * ({@code /consultaCosto/stream}) y la hoja de costos de todos los conceptos de un
+ * cliente ({@code /consultaCosto/conceptos}). Este controlador maneja
  * la validación de headers, transformación de modelos y orquestación del caso de uso.</p>
  * 
  * <p>El servicio implementa auditoría completa de todas las operaciones y maneja
@@ -33,6 +66,9 @@ import pa.davivienda.webapi.validators.InputHeadersPer002Validator;
  * <ul>
  *   <li>200 OK - Consulta exitosa</li>
  *   <li>400 Bad Request - Errores de validación</li>
+ *   <li>429 Too Many Requests - Cuota del canal excedida</li>
+ *   <li>503 Service Unavailable - DB2 i no disponible o sobrecargada (reintentable)</li>
+ *   <li>504 Gateway Timeout - Tiempo límite de la solicitud agotado</li>
  *   <li>500 Internal Server Error - Errores del servidor</li>
  * </ul>
  * 
@@ -52,6 +88,24 @@ public class Per002Controller {
     @Inject
     Per002Mapper per002Mapper;
 
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    CanalQuotaLimiter canalQuotaLimiter;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "per002.deadline.default", defaultValue = "10s")
+    Duration defaultDeadline;
+
+    @ConfigProperty(name = "per002.deadline.max", defaultValue = "30s")
+    Duration maxDeadline;
+
+    @ConfigProperty(name = "per002.deadline.header", defaultValue = "X-Request-Timeout")
+    String deadlineHeader;
+
     /**
      * Consulta el costo de una transacción bancaria específica.
      * 
@@ -67,6 +121,16 @@ public class Per002Controller {
      * <p>El servicio valida todos los headers obligatorios, consulta la base de datos
      * DB2 i (AS/400) y retorna el costo en el formato especificado por el BUS.</p>
      * 
+     * <p>Se ejecuta en un hilo virtual cuando {@code quarkus.virtual-threads.enabled=true};
+     * en caso contrario, en el pool de workers. El acceso a DB2 i queda acotado por
+     * {@code DbAccessLimiter} en ambos modos.</p>
+     * 
+     * <p>Al entrar se calcula el tiempo límite de la solicitud: el header configurado
+     * en {@code per002.deadline.header} (milisegundos, acotado a {@code per002.deadline.max})
+     * o {@code per002.deadline.default}. Se propaga hasta las consultas a DB2 i, que se
+     * cancelan al agotarse; los vencimientos se cuentan por etapa en
+     * {@code per002.deadline.exceeded}.</p>
+     * 
      * @param per002RequestModel Modelo con los datos de la transacción a consultar.
      *                           Incluye: codTipoIdentificacion, valNumeroIdentificacion,
      *                           codTipoConcepto, codPais
@@ -74,11 +138,14 @@ public class Per002Controller {
      *                    Total, jornada, Canal, modoDeOperacion, usuario, perfil,
      *                    versionServicio, idTransaccion
      * @return Response con código 200 y el costo de la transacción si es exitoso,
-     *         400 si hay errores de validación, o 500 si ocurre un error interno
+     *         400 si hay errores de validación, 429 si el canal excede su cuota, 503 con {@code Retry-After} si DB2 i
+     *         no está disponible, 504 si se agota el tiempo límite, o 500 si ocurre
+     *         un error interno
      * @throws BadRequestException Si los headers son inválidos o están vacíos
      */
     @POST
     @Path("/consultaCosto")
+    @RunOnVirtualThread
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response consultaCostoTransaccionPer(
@@ -86,21 +153,21 @@ public class Per002Controller {
             @Context HttpHeaders httpHeaders
     ) {
 
+        // Tiempo límite de la solicitud, calculado al entrar
+        Deadline deadline = requestDeadline(httpHeaders);
+
         // Obtencion de los headers y su validacion requerida
         HeadersPer002RequestDto headers = null;
         try {
             headers = InputHeadersPer002Validator.validateInputHeaders(httpHeaders);
 
         } catch (BadRequestException brex) {
-            Map<String, Object> responseHeaders = Map.of(
-                    "caracterAceptacion", "M",
-                    "codMsgRespuesta", String.valueOf(Response.Status.BAD_REQUEST),
-                    "msgRespuesta", brex.getMessage()
-            );
-            Response.ResponseBuilder builder = Response.status(Response.Status.BAD_REQUEST);
-            builder.entity(Map.of("validationError", brex.getMessage()));
-            responseHeaders.forEach(builder::header);
-            return builder.build();
+            return headersErrorResponse(brex);
+        }
+
+        // Cuota de admisión del canal -> 429 Too Many Requests
+        if (!canalQuotaLimiter.tryAcquire(headers.getCanal())) {
+            return quotaExceededResponse(headers);
         }
 
         // Mapeo de campos de entrada de Model a Dto
@@ -109,43 +176,368 @@ public class Per002Controller {
         // Ejecucion de logica de negocio
         Per002ResponseModel per002ResponseModel;
         try {
-            Per002ResponseDto per002ResponseDto = per002UseCase.consultaCostoTransaccionPer(headers, per002RequestDto);
+            Per002ResponseDto per002ResponseDto = per002UseCase.consultaCostoTransaccionPer(headers, per002RequestDto, deadline);
             per002ResponseModel = per002Mapper.toResponseModel(per002ResponseDto);
         }
-        catch (IllegalArgumentException iex) {
-            // Errores de validación -> 400 Bad Request
-            Map<String, Object> responseHeaders = Map.of(
-                    "nombreOperacion", headers.getNombreOperacion(),
-                    "total", headers.getTotal(),
-                    "caracterAceptacion", "M",
-                    "ultimoMensaje", 1,
-                    "idTransaccion", headers.getIdTransaccion(),
-                    "codMsgRespuesta", String.valueOf(Response.Status.BAD_REQUEST.getStatusCode()),
-                    "msgRespuesta", iex.getMessage()
-            );
-            Response.ResponseBuilder builder = Response.status(Response.Status.BAD_REQUEST);
-            builder.entity(Map.of("validationError", iex.getMessage()));
-            responseHeaders.forEach(builder::header);
-            return builder.build();
-        }
         catch (Exception ex) {
-            // Errores del servidor -> 500 Internal Server Error
-            Map<String, Object> responseHeaders = Map.of(
-                    "nombreOperacion", headers.getNombreOperacion(),
-                    "total", headers.getTotal(),
-                    "caracterAceptacion", "M",
-                    "ultimoMensaje", 1,
-                    "idTransaccion", headers.getIdTransaccion(),
-                    "codMsgRespuesta", String.valueOf(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()),
-                    "msgRespuesta", ex.getMessage()
-            );
-            Response.ResponseBuilder builder = Response.status(Response.Status.INTERNAL_SERVER_ERROR);
-            builder.entity(Map.of("InternalServerError", ex.getMessage()));
-            responseHeaders.forEach(builder::header);
-            return builder.build();
+            return failureResponse(ex, headers);
         }
 
         // Respuesta con headers
+        return okResponse(per002ResponseModel, headers);
+    }
+
+    /**
+     * Consulta en lote el costo de varias transacciones con los mismos headers del BUS.
+     * 
+     * <p>Valida todos los ítems en una pasada y agrupa las consultas a DB2 i: una
+     * consulta {@code IN} a CUMST por tipo de documento y una a CNTRLPRF para el
+     * conjunto de clientes. Cada ítem trae su resultado o su error
+     * ({@code estado} OK/ERROR, {@code msgError}); la auditoría se escribe en un solo
+     * batch. El lote consume un token de la cuota del canal por ítem, como si cada
+     * consulta llegara por separado; así un lote no permite superar la cuota del canal.</p>
+     * 
+     * @param batchRequestModel Lista de consultas ({@code consultas}), como en {@code /consultaCosto}
+     * @param httpHeaders Headers HTTP requeridos por el BUS
+     * @return Response con código 200 y un resultado por ítem en el orden recibido, 400 si
+     *         los headers, el canal o el tamaño del lote no son válidos, y 429/503/504/500
+     *         con el mismo criterio que {@code /consultaCosto}
+     */
+    @POST
+    @Path("/consultaCosto/batch")
+    @RunOnVirtualThread
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response consultaCostoTransaccionPerBatch(
+            Per002BatchRequestModel batchRequestModel,
+            @Context HttpHeaders httpHeaders
+    ) {
+
+        Deadline deadline = requestDeadline(httpHeaders);
+
+        HeadersPer002RequestDto headers;
+        try {
+            headers = InputHeadersPer002Validator.validateInputHeaders(httpHeaders);
+        } catch (BadRequestException brex) {
+            return headersErrorResponse(brex);
+        }
+
+        List<Per002RequestDto> requestDtos = per002Mapper.toRequestDtos(
+                batchRequestModel == null ? null : batchRequestModel.getConsultas());
+
+        // Un token por ítem del lote (al menos uno por el request)
+        int weight = requestDtos == null ? 1 : Math.max(1, requestDtos.size());
+        if (!canalQuotaLimiter.tryAcquire(headers.getCanal(), weight)) {
+            return quotaExceededResponse(headers, weight);
+        }
+
+        Per002BatchResponseModel batchResponseModel;
+        try {
+            List<Per002BatchItemResponseDto> results =
+                    per002UseCase.consultaCostoTransaccionPerBatch(headers, requestDtos, deadline);
+            batchResponseModel = Per002BatchResponseModel.builder()
+                    .resultados(per002Mapper.toBatchItemResponseModels(results))
+                    .build();
+        }
+        catch (Exception ex) {
+            return failureResponse(ex, headers);
+        }
+
+        return okResponse(batchResponseModel, headers);
+    }
+
+    /**
+     * Consulta masiva en streaming para trabajos de conciliación con decenas de miles
+     * de consultas.
+     * 
+     * <p>Recibe NDJSON (una consulta de {@code /consultaCosto} por línea) y responde
+     * NDJSON (un resultado de {@code /consultaCosto/batch} por línea). El cuerpo se lee
+     * en grupos de {@code per002.stream.chunk-size} y los resultados de cada grupo se
+     * escriben y se envían en cuanto se resuelve, sin acumular el trabajo en memoria:
+     * el cliente debe leer la respuesta mientras envía el cuerpo. Las líneas que no son
+     * JSON válido se responden como ítems con error de lectura.</p>
+     * 
+     * <p>El trabajo consume un token de la cuota del canal al admitirse (429 si no hay) y
+     * luego uno por consulta leída: si el canal agota su cuota, la lectura espera a que
+     * se reponga, de modo que el trabajo avanza al ritmo de la cuota del canal. No usa el
+     * tiempo límite del request: cada grupo tiene el suyo ({@code per002.stream.chunk-timeout}).
+     * Una vez iniciada la respuesta, los errores que abortan el trabajo se informan en
+     * una última línea con estado ABORTADO.</p>
+     * 
+     * @param body Cuerpo NDJSON del request
+     * @param httpHeaders Headers HTTP requeridos por el BUS
+     * @return Response con código 200 y los resultados en NDJSON, o 400/429 si los
+     *         headers no son válidos o el canal excede su cuota
+     */
+    @POST
+    @Path("/consultaCosto/stream")
+    @RunOnVirtualThread
+    @Consumes(RestMediaType.APPLICATION_NDJSON)
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    public Response consultaCostoTransaccionPerStream(
+            InputStream body,
+            @Context HttpHeaders httpHeaders
+    ) {
+
+        HeadersPer002RequestDto headers;
+        try {
+            headers = InputHeadersPer002Validator.validateInputHeaders(httpHeaders);
+        } catch (BadRequestException brex) {
+            return headersErrorResponse(brex);
+        }
+
+        if (!canalQuotaLimiter.tryAcquire(headers.getCanal())) {
+            return quotaExceededResponse(headers);
+        }
+
+        StreamingOutput output = out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            Iterator<Per002RequestDto> requests = new NdjsonRequests(reader, headers.getCanal());
+            try {
+                per002UseCase.consultaCostoTransaccionPerStream(headers, requests, results -> writeLines(out, results));
+            } catch (UncheckedIOException uioex) {
+                throw uioex.getCause();
+            }
+        };
+
+        return okResponse(output, headers);
+    }
+
+    /**
+     * Consultas de un cuerpo NDJSON, una por línea no vacía.
+     * 
+     * <p>Cada consulta consume un token de la cuota del canal antes de entregarse. Una
+     * línea que no es JSON válido se entrega como {@link IllegalArgumentException} desde
+     * {@link #next()}, que el caso de uso responde como ítem con error.</p>
+     */
+    private final class NdjsonRequests implements Iterator<Per002RequestDto> {
+
+        private final BufferedReader reader;
+        private final short canal;
+        private String line;
+        private int lineNumber;
+
+        private NdjsonRequests(BufferedReader reader, short canal) {
+            this.reader = reader;
+            this.canal = canal;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String read = reader.readLine();
+                    if (read == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!read.isBlank()) {
+                        line = read;
+                    }
+                }
+                return true;
+            } catch (IOException ioex) {
+                throw new UncheckedIOException(ioex);
+            }
+        }
+
+        @Override
+        public Per002RequestDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String current = line;
+            line = null;
+            try {
+                canalQuotaLimiter.acquire(canal);
+            } catch (InterruptedException iex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Consulta masiva interrumpida esperando la cuota del canal", iex);
+            }
+            try {
+                return per002Mapper.toRequestDto(objectMapper.readValue(current, Per002RequestModel.class));
+            } catch (JsonProcessingException jpex) {
+                Log.debugf("Invalid NDJSON line %d: %s", lineNumber, jpex.getOriginalMessage());
+                throw new IllegalArgumentException("Línea " + lineNumber + " no es JSON válido: "
+                        + jpex.getOriginalMessage(), jpex);
+            }
+        }
+    }
+
+    /**
+     * Escribe un resultado por línea y envía el grupo al cliente.
+     */
+    private void writeLines(OutputStream out, List<Per002BatchItemResponseDto> results) {
+        try {
+            for (Per002BatchItemResponseDto result : results) {
+                out.write(objectMapper.writeValueAsBytes(per002Mapper.toBatchItemResponseModel(result)));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException ioex) {
+            throw new UncheckedIOException(ioex);
+        }
+    }
+
+    /**
+     * Calcula el tiempo límite a partir del header opcional o del valor por defecto.
+     * 
+     * @param httpHeaders Headers HTTP del request
+     * @return Deadline de la solicitud
+     */
+    private Deadline requestDeadline(HttpHeaders httpHeaders) {
+        Duration budget = defaultDeadline;
+        String requested = httpHeaders.getHeaderString(deadlineHeader);
+        if (requested != null && !requested.isBlank()) {
+            try {
+                long millis = Long.parseLong(requested.trim());
+                if (millis > 0) {
+                    budget = Duration.ofMillis(millis);
+                }
+            } catch (NumberFormatException nfe) {
+                Log.debugf("Ignoring invalid %s header: %s", deadlineHeader, requested);
+            }
+        }
+        return Deadline.after(budget.compareTo(maxDeadline) > 0 ? maxDeadline : budget);
+    }
+
+    /**
+     * Consulta el costo de todos los conceptos PER homologados que el canal puede
+     * consultar, para un cliente.
+     * 
+     * <p>Evita repetir la búsqueda en CUMST cuando un canal consulta varios conceptos
+     * del mismo cliente: una búsqueda del cliente y una consulta de varias claves a
+     * CNTRLPRF. Los conceptos permitidos salen de {@code InputTransactionCodeValidator}
+     * (canal 81: COBPER; canal 151: el resto). El campo {@code codTipoConcepto} del
+     * request no aplica.</p>
+     * 
+     * @param per002RequestModel Datos del cliente: codTipoIdentificacion,
+     *                           valNumeroIdentificacion, codPais
+     * @param httpHeaders Headers HTTP requeridos por el BUS
+     * @return Response con código 200 y el costo por concepto, o 400/429/503/504/500 con
+     *         el mismo criterio que {@code /consultaCosto}
+     */
+    @POST
+    @Path("/consultaCosto/conceptos")
+    @RunOnVirtualThread
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response consultaCostosConceptosPer(
+            Per002RequestModel per002RequestModel,
+            @Context HttpHeaders httpHeaders
+    ) {
+
+        Deadline deadline = requestDeadline(httpHeaders);
+
+        HeadersPer002RequestDto headers;
+        try {
+            headers = InputHeadersPer002Validator.validateInputHeaders(httpHeaders);
+        } catch (BadRequestException brex) {
+            return headersErrorResponse(brex);
+        }
+
+        if (!canalQuotaLimiter.tryAcquire(headers.getCanal())) {
+            return quotaExceededResponse(headers);
+        }
+
+        Per002RequestDto per002RequestDto = per002Mapper.toRequestDto(per002RequestModel);
+
+        Per002CostSheetResponseModel costSheetResponseModel;
+        try {
+            Per002CostSheetResponseDto costSheet =
+                    per002UseCase.consultaCostosConceptosPer(headers, per002RequestDto, deadline);
+            costSheetResponseModel = per002Mapper.toCostSheetResponseModel(costSheet);
+        }
+        catch (Exception ex) {
+            return failureResponse(ex, headers);
+        }
+
+        return okResponse(costSheetResponseModel, headers);
+    }
+
+    /**
+     * Traduce el error del caso de uso a la respuesta HTTP correspondiente.
+     * 
+     * @param ex Error producido por el caso de uso
+     * @param headers Headers validados del request
+     * @return Respuesta 400, 503, 504 o 500 con los headers del BUS
+     */
+    private Response failureResponse(Exception ex, HeadersPer002RequestDto headers) {
+        if (ex instanceof IllegalArgumentException iex) {
+            // Errores de validación -> 400 Bad Request
+            return errorResponse(Response.Status.BAD_REQUEST, headers, "validationError", iex.getMessage())
+                    .build();
+        }
+        if (ex instanceof ServiceUnavailableException suex) {
+            // DB2 i no disponible o sobrecargada -> 503 Service Unavailable, sin esperar timeouts
+            long retryAfterSeconds = Math.max(1, (suex.getRetryAfter().toMillis() + 999) / 1000);
+            return errorResponse(Response.Status.SERVICE_UNAVAILABLE, headers, "ServiceUnavailable", suex.getMessage())
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+        if (ex instanceof DeadlineExceededException dex) {
+            // Tiempo límite agotado -> 504 Gateway Timeout
+            registry.counter("per002.deadline.exceeded", "stage", dex.getStage()).increment();
+            return errorResponse(Response.Status.GATEWAY_TIMEOUT, headers, "GatewayTimeout", dex.getMessage())
+                    .build();
+        }
+        // Errores del servidor -> 500 Internal Server Error
+        return errorResponse(Response.Status.INTERNAL_SERVER_ERROR, headers, "InternalServerError", ex.getMessage())
+                .build();
+    }
+
+    /**
+     * Respuesta 429 con {@code Retry-After} cuando el canal agota su cuota.
+     * 
+     * @param headers Headers validados del request
+     * @return Respuesta 429 con los headers del BUS
+     */
+    private Response quotaExceededResponse(HeadersPer002RequestDto headers) {
+        return quotaExceededResponse(headers, 1);
+    }
+
+    /**
+     * Respuesta 429 con el {@code Retry-After} necesario para reunir {@code weight} tokens.
+     * 
+     * @param headers Headers validados del request
+     * @param weight Consultas que representa el request
+     * @return Respuesta 429 con los headers del BUS
+     */
+    private Response quotaExceededResponse(HeadersPer002RequestDto headers, int weight) {
+        Duration retryAfter = canalQuotaLimiter.retryAfter(headers.getCanal(), weight);
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return errorResponse(Response.Status.TOO_MANY_REQUESTS, headers, "TooManyRequests",
+                "Cuota del canal " + headers.getCanal() + " excedida")
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .build();
+    }
+
+    /**
+     * Respuesta 400 cuando los headers del BUS no son válidos.
+     * 
+     * @param brex Error de validación de headers
+     * @return Respuesta 400 con el mensaje de validación
+     */
+    private static Response headersErrorResponse(BadRequestException brex) {
+        Map<String, Object> responseHeaders = Map.of(
+                "caracterAceptacion", "M",
+                "codMsgRespuesta", String.valueOf(Response.Status.BAD_REQUEST),
+                "msgRespuesta", brex.getMessage()
+        );
+        Response.ResponseBuilder builder = Response.status(Response.Status.BAD_REQUEST);
+        builder.entity(Map.of("validationError", brex.getMessage()));
+        responseHeaders.forEach(builder::header);
+        return builder.build();
+    }
+
+    /**
+     * Respuesta 200 con los headers del BUS.
+     * 
+     * @param entity Cuerpo de la respuesta
+     * @param headers Headers validados del request
+     * @return Respuesta 200
+     */
+    private static Response okResponse(Object entity, HeadersPer002RequestDto headers) {
         Map<String, Object> responseHeaders = Map.of(
                 "nombreOperacion", headers.getNombreOperacion(),
                 "total", headers.getTotal(),
@@ -155,8 +547,34 @@ public class Per002Controller {
                 "codMsgRespuesta", "1.0",
                 "msgRespuesta", "1.0"
         );
-        Response.ResponseBuilder builder = Response.ok(per002ResponseModel);
+        Response.ResponseBuilder builder = Response.ok(entity);
         responseHeaders.forEach(builder::header);
         return builder.build();
     }
+
+    /**
+     * Construye la respuesta de error con los headers del BUS.
+     * 
+     * @param status Código HTTP de la respuesta
+     * @param headers Headers validados del request
+     * @param entityKey Clave del mensaje en el cuerpo de la respuesta
+     * @param message Mensaje de error
+     * @return Builder con status, cuerpo y headers del BUS
+     */
+    private static Response.ResponseBuilder errorResponse(Response.Status status, HeadersPer002RequestDto headers,
+                                                          String entityKey, String message) {
+        Map<String, Object> responseHeaders = Map.of(
+                "nombreOperacion", headers.getNombreOperacion(),
+                "total", headers.getTotal(),
+                "caracterAceptacion", "M",
+                "ultimoMensaje", 1,
+                "idTransaccion", headers.getIdTransaccion(),
+                "codMsgRespuesta", String.valueOf(status.getStatusCode()),
+                "msgRespuesta", message
+        );
+        Response.ResponseBuilder builder = Response.status(status);
+        builder.entity(Map.of(entityKey, message));
+        responseHeaders.forEach(builder::header);
+        return builder;
+    }
 }
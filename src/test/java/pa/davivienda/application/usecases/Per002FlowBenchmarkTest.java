@@ -0,0 +1,190 @@
+package pa.davivienda.application.usecases;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkus.logging.Log;
+import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
+import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.caches.SiblingCostPrefetcher;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.AdaptiveConcurrencyLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.IdempotencyGuard;
+import pa.davivienda.transversal.concurrency.RequestContext;
+import pa.davivienda.transversal.concurrency.StructuredScope;
+import pa.davivienda.transversal.structures.IdempotencyCache;
+
+/**
+ * Compara la latencia del flujo síncrono y del flujo asíncrono de la consulta de costo.
+ *
+ * <p>No toca el AS/400 ni la tabla de auditoría: el repositorio simula la latencia de
+ * CUMST y CNTRLPRF con una pausa fija y la auditoría es un mock, de modo que solo se mide
+ * el orden de las etapas de cada flujo. Ambos flujos se calientan con el mismo número de
+ * consultas y las mediciones se alternan (sync, async, sync...) para que ninguno se
+ * beneficie del JIT o de las cachés calentadas por el otro.</p>
+ *
+ * <p>Se ejecuta solo a pedido:
+ * {@code mvn test -Dtest=Per002FlowBenchmarkTest -Dper002.benchmark=true}.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+@EnabledIfSystemProperty(named = "per002.benchmark", matches = "true")
+class Per002FlowBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+    private static final Duration DB_LATENCY = Duration.ofMillis(2);
+
+    @Mock
+    private Per002StatelessRepository statelessRepository;
+
+    @Mock
+    private SiblingCostPrefetcher siblingCostPrefetcher;
+
+    @Mock
+    private AuditPort auditPort;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter adaptiveLimiter;
+
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
+    @InjectMocks
+    private Per002UseCaseImpl per002UseCase;
+
+    private Per002RequestDto request;
+
+    @BeforeEach
+    void setUp() {
+        per002UseCase.init();
+
+        lenient().when(adaptiveLimiter.call(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(adaptiveLimiter.callAsync(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(idempotencyGuard.execute(any(), any(), any(), any())).thenAnswer(invocation ->
+                new IdempotencyCache.Outcome<>(invocation.<Supplier<?>>getArgument(3).get(),
+                        IdempotencyCache.Source.EXECUTED));
+
+        CustomerProjection customer = new CustomerProjection("12345");
+        TransactionCostProjection cost = new TransactionCostProjection(500, "USD");
+        lenient().when(statelessRepository.findCustomerByDocument(anyString(), anyString(), any(RequestContext.class)))
+                .thenAnswer(invocation -> simulateQuery(customer));
+        lenient().when(statelessRepository.findTransactionCost(anyString(), anyString(), any(RequestContext.class)))
+                .thenAnswer(invocation -> simulateQuery(cost));
+        lenient().when(statelessRepository.findCustomerByDocumentAsync(anyString(), anyString(),
+                any(RequestContext.class), any(StructuredScope.class))).thenAnswer(invocation ->
+                invocation.<StructuredScope>getArgument(3).fork(handle -> simulateQuery(customer)));
+        lenient().when(statelessRepository.findTransactionCostAsync(anyString(), anyString(),
+                any(RequestContext.class), any(StructuredScope.class))).thenAnswer(invocation ->
+                invocation.<StructuredScope>getArgument(3).fork(handle -> simulateQuery(cost)));
+
+        request = Per002RequestDto.builder()
+                .codTipoIdentificacion("CED")
+                .valNumeroIdentificacion("8-111-111")
+                .codTipoConcepto("COBPER")
+                .codPais("PA")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        per002UseCase.shutdown();
+    }
+
+    @Test
+    void compareSyncAndAsyncFlows() {
+        // Arrange (mismo calentamiento para ambos flujos, intercalado)
+        for (int i = 0; i < WARMUP; i++) {
+            sync(i);
+            async(i);
+        }
+
+        // Act (mediciones alternadas)
+        long[] syncSamples = new long[ITERATIONS];
+        long[] asyncSamples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            boolean syncFirst = i % 2 == 0;
+            if (syncFirst) {
+                syncSamples[i] = time(() -> sync(0));
+                asyncSamples[i] = time(() -> async(0));
+            } else {
+                asyncSamples[i] = time(() -> async(0));
+                syncSamples[i] = time(() -> sync(0));
+            }
+        }
+
+        // Report
+        report("sync", syncSamples);
+        report("async", asyncSamples);
+    }
+
+    private void sync(int i) {
+        per002UseCase.consultaCostoTransaccionPer(headers("SYNC-" + i), request, Deadline.NONE);
+    }
+
+    private void async(int i) {
+        per002UseCase.consultaCostoTransaccionPerAsync(headers("ASYNC-" + i), request, Deadline.NONE)
+                .toCompletableFuture()
+                .join();
+    }
+
+    private static <T> T simulateQuery(T result) {
+        try {
+            Thread.sleep(DB_LATENCY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private static long time(Runnable lookup) {
+        long t0 = System.nanoTime();
+        lookup.run();
+        return System.nanoTime() - t0;
+    }
+
+    private static HeadersPer002RequestDto headers(String idTransaccion) {
+        return HeadersPer002RequestDto.builder()
+                .nombreOperacion("consultaCosto")
+                .total(1)
+                .canal((short) 81)
+                .usuario("BENCHMARK")
+                .idTransaccion(idTransaccion)
+                .build();
+    }
+
+    private static void report(String name, long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        Log.infof("Flow %s: %d consultas, p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                name, sorted.length, millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -1,16 +1,39 @@
 package pa.davivienda.application.usecases;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -19,11 +42,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import pa.davivienda.domain.dtos.requests.HeadersPer002RequestDto;
 import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.dtos.responses.Per002CostSheetResponseDto;
 import pa.davivienda.domain.dtos.responses.Per002ResponseDto;
-import pa.davivienda.domain.entities.Customer;
-import pa.davivienda.domain.entities.TransactionCost;
+import pa.davivienda.domain.enums.AuditMessageType;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
 import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.caches.SiblingCostPrefetcher;
 import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.AdaptiveConcurrencyLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.IdempotencyGuard;
+import pa.davivienda.transversal.concurrency.RequestContext;
+import pa.davivienda.transversal.concurrency.StructuredScope;
+import pa.davivienda.transversal.structures.IdempotencyCache;
 
 /**
  * Tests unitarios para Per002UseCaseImpl
@@ -35,19 +71,46 @@ class Per002UseCaseImplTest {
     @Mock
     private Per002StatelessRepository statelessRepository;
 
+    @Mock
+    private SiblingCostPrefetcher siblingCostPrefetcher;
+
     @Mock
     private AuditPort auditPort;
 
+    @Mock
+    private AdaptiveConcurrencyLimiter adaptiveLimiter;
+
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
     @InjectMocks
     private Per002UseCaseImpl per002UseCase;
 
     private HeadersPer002RequestDto validHeaders;
     private Per002RequestDto validRequest;
-    private Customer mockCustomer;
-    private TransactionCost mockTransactionCost;
+    private CustomerProjection mockCustomer;
+    private TransactionCostProjection mockTransactionCost;
 
     @BeforeEach
     void setUp() {
+        per002UseCase.batchMaxItems = 50;
+        per002UseCase.streamChunkSize = 2;
+        per002UseCase.streamChunkTimeout = Duration.ofSeconds(30);
+        per002UseCase.streamMaxRetries = 1;
+
+        per002UseCase.init();
+
+        // El limitador adaptativo deja pasar todas las consultas
+        lenient().when(adaptiveLimiter.call(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(adaptiveLimiter.callAsync(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+
+        // Sin reintentos previos: toda consulta se ejecuta
+        lenient().when(idempotencyGuard.execute(any(), any(), any(), any())).thenAnswer(invocation ->
+                new IdempotencyCache.Outcome<>(invocation.<Supplier<?>>getArgument(3).get(),
+                        IdempotencyCache.Source.EXECUTED));
+
         // Headers válidos
         validHeaders = HeadersPer002RequestDto.builder()
                 .nombreOperacion("consultaCosto")
@@ -70,17 +133,10 @@ class Per002UseCaseImplTest {
                 .build();
 
         // Customer mock
-        mockCustomer = new Customer();
-        mockCustomer.setCustomerId("12345");
-        mockCustomer.setIdentificationType("CED");
-        mockCustomer.setIdentificationNumber("8-111-111");
+        mockCustomer = new CustomerProjection("12345");
 
         // TransactionCost mock
-        mockTransactionCost = new TransactionCost();
-        mockTransactionCost.setTransactionCode("01PAR157");
-        mockTransactionCost.setCost(500); // Costo en centavos (5.00 USD)
-        mockTransactionCost.setCurrencyCode("USD");
-        mockTransactionCost.setCustomerId("12345");
+        mockTransactionCost = new TransactionCostProjection(500, "USD"); // Costo en centavos (5.00 USD)
     }
 
     // ============== TESTS DE ÉXITO ==============
@@ -88,9 +144,9 @@ class Per002UseCaseImplTest {
     @Test
     void whenValidRequestWithCanal81AndCOBPER_thenReturnResponse() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -102,8 +158,8 @@ class Per002UseCaseImplTest {
         assertEquals("USD", response.getCodMonedaTransaccion());
         assertNotNull(response.getFecHoraMovimiento());
         
-        verify(statelessRepository).findCustomerByDocument("CED", "8-111-111");
-        verify(statelessRepository).findTransactionCost("12345", "01PAR157");
+        verify(statelessRepository).findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class));
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class));
         verify(auditPort, times(6)).logAsync(any()); // 6 puntos de auditoría: ENTRADA, TRAMA_OUT(2), TRAMA_IN(2), SALIDA
     }
 
@@ -113,9 +169,9 @@ class Per002UseCaseImplTest {
         validHeaders.setCanal((short) 151);
         validRequest.setCodTipoConcepto("TRCPRO");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR153"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR153"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -123,7 +179,7 @@ class Per002UseCaseImplTest {
 
         // Assert
         assertNotNull(response);
-        verify(statelessRepository).findTransactionCost("12345", "01PAR153");
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR153"), any(RequestContext.class));
     }
 
     @Test
@@ -132,9 +188,9 @@ class Per002UseCaseImplTest {
         validHeaders.setCanal((short) 151);
         validRequest.setCodTipoConcepto("TRCTER");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR154"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR154"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -142,7 +198,7 @@ class Per002UseCaseImplTest {
 
         // Assert
         assertNotNull(response);
-        verify(statelessRepository).findTransactionCost("12345", "01PAR154");
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR154"), any(RequestContext.class));
     }
 
     @Test
@@ -150,9 +206,9 @@ class Per002UseCaseImplTest {
         // Arrange
         validRequest.setCodPais("CR");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -372,16 +428,16 @@ class Per002UseCaseImplTest {
     @Test
     void whenConceptoCOBPER_thenHomologateTo01PAR157() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
         per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
 
         // Assert
-        verify(statelessRepository).findTransactionCost("12345", "01PAR157");
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class));
     }
 
     @Test
@@ -390,16 +446,16 @@ class Per002UseCaseImplTest {
         validHeaders.setCanal((short) 151);
         validRequest.setCodTipoConcepto("TRCPRO");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR153"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR153"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
         per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
 
         // Assert
-        verify(statelessRepository).findTransactionCost("12345", "01PAR153");
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR153"), any(RequestContext.class));
     }
 
     @Test
@@ -408,16 +464,16 @@ class Per002UseCaseImplTest {
         validHeaders.setCanal((short) 151);
         validRequest.setCodTipoConcepto("TRCTER");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR154"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR154"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
         per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
 
         // Assert
-        verify(statelessRepository).findTransactionCost("12345", "01PAR154");
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR154"), any(RequestContext.class));
     }
 
     // ============== TESTS DE CONSULTA A REPOSITORIO ==============
@@ -425,7 +481,7 @@ class Per002UseCaseImplTest {
     @Test
     void whenCustomerNotFound_thenThrowIllegalArgument() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(null);
 
         // Act & Assert
@@ -434,17 +490,17 @@ class Per002UseCaseImplTest {
         );
         assertEquals("El usuario no existe", exception.getMessage());
         
-        verify(statelessRepository).findCustomerByDocument("CED", "8-111-111");
-        verify(statelessRepository, never()).findTransactionCost(anyString(), anyString());
+        verify(statelessRepository).findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class));
+        verify(statelessRepository, never()).findTransactionCost(anyString(), anyString(), any(RequestContext.class));
         verify(auditPort, times(3)).logAsync(any()); // ENTRADA, TRAMA_OUT, ERROR
     }
 
     @Test
     void whenTransactionCostNotFound_thenThrowIllegalArgument() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(null);
 
         // Act & Assert
@@ -453,19 +509,34 @@ class Per002UseCaseImplTest {
         );
         assertEquals("Data no encontrada", exception.getMessage());
         
-        verify(statelessRepository).findCustomerByDocument("CED", "8-111-111");
-        verify(statelessRepository).findTransactionCost("12345", "01PAR157");
+        verify(statelessRepository).findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class));
+        verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class));
         verify(auditPort, times(5)).logAsync(any()); // ENTRADA, TRAMA_OUT(2), TRAMA_IN, ERROR
     }
 
+    @Test
+    void whenDeadlineAlreadyExpired_thenThrowDeadlineExceededWithoutQuerying() {
+        // Arrange
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        // Act & Assert
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class, () ->
+                per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest, expired)
+        );
+        assertEquals("cumst", exception.getStage());
+
+        verify(statelessRepository, never()).findCustomerByDocument(anyString(), anyString(), any(RequestContext.class));
+        verify(auditPort, times(3)).logAsync(any()); // ENTRADA, TRAMA_OUT, ERROR
+    }
+
     // ============== TESTS DE AUDITORÍA ==============
 
     @Test
     void whenSuccess_thenAudit6Points() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -494,7 +565,7 @@ class Per002UseCaseImplTest {
     @Test
     void whenCustomerNotFound_thenAudit3Points() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(null);
 
         // Act
@@ -512,9 +583,9 @@ class Per002UseCaseImplTest {
     @Test
     void whenSuccess_thenResponseHasAllFields() {
         // Arrange
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -533,12 +604,11 @@ class Per002UseCaseImplTest {
     @Test
     void whenSuccessWithDifferentCurrency_thenResponseReflectsCurrency() {
         // Arrange
-        mockTransactionCost.setCurrencyCode("EUR");
-        mockTransactionCost.setCost(1050); // 1050 centavos = 10.50 EUR
+        mockTransactionCost = new TransactionCostProjection(1050, "EUR"); // 1050 centavos = 10.50 EUR
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -552,11 +622,11 @@ class Per002UseCaseImplTest {
     @Test
     void whenSuccessWithZeroCost_thenResponseHasZero() {
         // Arrange
-        mockTransactionCost.setCost(0);
+        mockTransactionCost = new TransactionCostProjection(0, "USD");
         
-        when(statelessRepository.findCustomerByDocument("CED", "8-111-111"))
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
                 .thenReturn(mockCustomer);
-        when(statelessRepository.findTransactionCost("12345", "01PAR157"))
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
                 .thenReturn(mockTransactionCost);
 
         // Act
@@ -565,4 +635,411 @@ class Per002UseCaseImplTest {
         // Assert
         assertEquals(0, response.getCostoDeLaTransaccion());
     }
+
+    // ============== TESTS DE CONSULTA EN LOTE ==============
+
+    @Test
+    void whenBatchWithValidAndInvalidItems_thenReturnResultPerItemAndAuditOnce() {
+        // Arrange
+        Per002RequestDto wrongConcept = Per002RequestDto.builder()
+                .codTipoIdentificacion("CED")
+                .valNumeroIdentificacion("8-111-111")
+                .codTipoConcepto("TRCPRO")
+                .codPais("PA")
+                .build();
+        Per002RequestDto unknownCustomer = Per002RequestDto.builder()
+                .codTipoIdentificacion("CED")
+                .valNumeroIdentificacion("8-999-999")
+                .codTipoConcepto("COBPER")
+                .codPais("PA")
+                .build();
+        when(statelessRepository.findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class)))
+                .thenReturn(Map.of("8-111-111", "12345"));
+        when(statelessRepository.findTransactionCosts(any(), any(), any(RequestContext.class)))
+                .thenReturn(List.of(new CustomerCostProjection("12345", "01PAR157", 500, "USD")));
+
+        // Act
+        List<Per002BatchItemResponseDto> results = per002UseCase.consultaCostoTransaccionPerBatch(
+                validHeaders, List.of(validRequest, wrongConcept, unknownCustomer), Deadline.NONE);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("OK", results.get(0).getEstado());
+        assertEquals(500, results.get(0).getCostoDeLaTransaccion());
+        assertEquals("USD", results.get(0).getCodMonedaTransaccion());
+        assertEquals("ERROR", results.get(1).getEstado());
+        assertEquals("Canal 81 solo permite concepto COBPER", results.get(1).getMsgError());
+        assertEquals("ERROR", results.get(2).getEstado());
+        assertEquals("El usuario no existe", results.get(2).getMsgError());
+        verify(statelessRepository, times(1)).findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class));
+        verify(statelessRepository, times(1)).findTransactionCosts(any(), any(), any(RequestContext.class));
+        verify(auditPort, times(1)).logBatchAsync(anyList());
+        verify(auditPort, never()).logAsync(any());
+    }
+
+    @Test
+    void whenBatchExceedsMaxItems_thenThrowIllegalArgumentWithoutQuerying() {
+        // Arrange
+        per002UseCase.batchMaxItems = 1;
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+                per002UseCase.consultaCostoTransaccionPerBatch(
+                        validHeaders, List.of(validRequest, validRequest), Deadline.NONE));
+        verify(statelessRepository, never()).findCustomersByDocuments(anyString(), any(), any(RequestContext.class));
+        verify(auditPort, times(1)).logBatchAsync(anyList());
+    }
+
+    // ============== TESTS DE CONSULTA EN STREAMING ==============
+
+    @Test
+    void whenStreamOfThreeItems_thenEmitTwoChunksAndAuditOneSummary() {
+        // Arrange
+        when(statelessRepository.findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class)))
+                .thenReturn(Map.of("8-111-111", "12345"));
+        when(statelessRepository.findTransactionCosts(any(), any(), any(RequestContext.class)))
+                .thenReturn(List.of(new CustomerCostProjection("12345", "01PAR157", 500, "USD")));
+        List<List<Per002BatchItemResponseDto>> chunks = new ArrayList<>();
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPerStream(validHeaders,
+                Arrays.asList(validRequest, null, validRequest).iterator(), chunks::add);
+
+        // Assert
+        assertEquals(2, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals("OK", chunks.get(0).get(0).getEstado());
+        assertEquals("ERROR", chunks.get(0).get(1).getEstado());
+        assertEquals(2, chunks.get(1).get(0).getIndice());
+        assertEquals("OK", chunks.get(1).get(0).getEstado());
+        verify(statelessRepository, times(2)).findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class));
+        verify(auditPort, times(1)).logBatchAsync(anyList());
+        verify(auditPort, times(1)).logAsync(any());
+    }
+
+    @Test
+    void whenStreamLineIsUnreadable_thenItemReportsParseError() {
+        // Arrange
+        when(statelessRepository.findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class)))
+                .thenReturn(Map.of("8-111-111", "12345"));
+        when(statelessRepository.findTransactionCosts(any(), any(), any(RequestContext.class)))
+                .thenReturn(List.of(new CustomerCostProjection("12345", "01PAR157", 500, "USD")));
+        Iterator<Per002RequestDto> requests = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 2;
+            }
+
+            @Override
+            public Per002RequestDto next() {
+                if (next++ == 0) {
+                    throw new IllegalArgumentException("Línea 1 no es JSON válido");
+                }
+                return validRequest;
+            }
+        };
+        List<List<Per002BatchItemResponseDto>> chunks = new ArrayList<>();
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPerStream(validHeaders, requests, chunks::add);
+
+        // Assert
+        assertEquals(1, chunks.size());
+        assertEquals("ERROR", chunks.get(0).get(0).getEstado());
+        assertEquals(0, chunks.get(0).get(0).getIndice());
+        assertEquals("Línea 1 no es JSON válido", chunks.get(0).get(0).getMsgError());
+        assertEquals("OK", chunks.get(0).get(1).getEstado());
+    }
+
+    @Test
+    void whenStreamChunkRejectedByOverload_thenRetryChunk() {
+        // Arrange
+        when(statelessRepository.findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class)))
+                .thenThrow(new ServiceUnavailableException("Límite de concurrencia alcanzado", Duration.ZERO))
+                .thenReturn(Map.of("8-111-111", "12345"));
+        when(statelessRepository.findTransactionCosts(any(), any(), any(RequestContext.class)))
+                .thenReturn(List.of(new CustomerCostProjection("12345", "01PAR157", 500, "USD")));
+        List<List<Per002BatchItemResponseDto>> chunks = new ArrayList<>();
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPerStream(validHeaders, List.of(validRequest).iterator(), chunks::add);
+
+        // Assert
+        assertEquals(1, chunks.size());
+        assertEquals("OK", chunks.get(0).get(0).getEstado());
+        verify(statelessRepository, times(2)).findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class));
+    }
+
+    @Test
+    void whenStreamRetriesExhausted_thenEmitAbortedLineWithResumeIndex() {
+        // Arrange
+        when(statelessRepository.findCustomersByDocuments(eq("CED"), any(), any(RequestContext.class)))
+                .thenThrow(new ServiceUnavailableException("Circuito abierto", Duration.ZERO));
+        List<List<Per002BatchItemResponseDto>> chunks = new ArrayList<>();
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPerStream(validHeaders, List.of(validRequest).iterator(), chunks::add);
+
+        // Assert
+        assertEquals(1, chunks.size());
+        assertEquals("ABORTADO", chunks.get(0).get(0).getEstado());
+        assertEquals(0, chunks.get(0).get(0).getIndice());
+        assertEquals("Circuito abierto", chunks.get(0).get(0).getMsgError());
+        verify(statelessRepository, never()).findTransactionCosts(any(), any(), any(RequestContext.class));
+    }
+
+    // ============== TESTS DE HOJA DE COSTOS ==============
+
+    @Test
+    void whenCostSheetForCanal151_thenQueryAllAllowedConceptsOnce() {
+        // Arrange
+        validHeaders.setCanal((short) 151);
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
+                .thenReturn(mockCustomer);
+        when(statelessRepository.findTransactionCosts(eq(List.of("12345")), any(), any(RequestContext.class)))
+                .thenReturn(List.of(
+                        new CustomerCostProjection("12345", "01PAR154", 300, "USD"),
+                        new CustomerCostProjection("12345", "01PAR153", 200, "USD")));
+
+        // Act
+        Per002CostSheetResponseDto response = per002UseCase.consultaCostosConceptosPer(
+                validHeaders, validRequest, Deadline.NONE);
+
+        // Assert
+        assertEquals(2, response.getConceptos().size());
+        assertEquals("TRCPRO", response.getConceptos().get(0).getCodTipoConcepto());
+        assertEquals(200, response.getConceptos().get(0).getCostoDeLaTransaccion());
+        assertEquals("TRCTER", response.getConceptos().get(1).getCodTipoConcepto());
+        assertEquals(300, response.getConceptos().get(1).getCostoDeLaTransaccion());
+        verify(statelessRepository, times(1)).findCustomerByDocument(anyString(), anyString(), any(RequestContext.class));
+        verify(statelessRepository, never()).findTransactionCost(anyString(), anyString(), any(RequestContext.class));
+    }
+
+    @Test
+    void whenCostSheetWithoutRows_thenThrowDataNoEncontrada() {
+        // Arrange
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
+                .thenReturn(mockCustomer);
+        when(statelessRepository.findTransactionCosts(any(), any(), any(RequestContext.class)))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                per002UseCase.consultaCostosConceptosPer(validHeaders, validRequest, Deadline.NONE));
+        assertEquals("Data no encontrada", exception.getMessage());
+    }
+
+    // ============== TESTS DE IDEMPOTENCIA ==============
+
+    @Test
+    void whenBusRetriesSameTransaction_thenReplayOriginalResponseWithoutQueries() {
+        // Arrange
+        Per002ResponseDto original = Per002ResponseDto.builder()
+                .fecHoraMovimiento("2026-10-19 10:00:00")
+                .codMonedaTransaccion("USD")
+                .costoDeLaTransaccion(500)
+                .build();
+        when(idempotencyGuard.execute(eq("TXN123456"), anyString(), any(Deadline.class), any()))
+                .thenReturn(new IdempotencyCache.Outcome<>(original, IdempotencyCache.Source.CACHE));
+
+        // Act
+        Per002ResponseDto response = per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
+
+        // Assert
+        assertSame(original, response);
+        verify(statelessRepository, never()).findCustomerByDocument(anyString(), anyString(), any(RequestContext.class));
+        verify(statelessRepository, never()).findTransactionCost(anyString(), anyString(), any(RequestContext.class));
+        verify(auditPort, times(1)).logAsync(argThat(log -> log.getTipoMensaje() == AuditMessageType.REPLAY
+                && log.getPayload().contains("CACHE")));
+        verify(auditPort, times(1)).logAsync(any());
+    }
+
+    @Test
+    void whenSameTransactionWithDifferentRequest_thenRequestHashDiffers() {
+        // Arrange
+        when(statelessRepository.findCustomerByDocument(anyString(), anyString(), any(RequestContext.class)))
+                .thenReturn(mockCustomer);
+        when(statelessRepository.findTransactionCost(anyString(), anyString(), any(RequestContext.class)))
+                .thenReturn(mockTransactionCost);
+        Per002RequestDto otherCustomer = Per002RequestDto.builder()
+                .codTipoIdentificacion("CED")
+                .valNumeroIdentificacion("8-222-222")
+                .codTipoConcepto("COBPER")
+                .codPais("PA")
+                .build();
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
+        per002UseCase.consultaCostoTransaccionPer(validHeaders, otherCustomer);
+
+        // Assert
+        ArgumentCaptor<String> hashes = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyGuard, times(2)).execute(eq("TXN123456"), hashes.capture(), any(Deadline.class), any());
+        assertNotEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(1));
+    }
+
+    @Test
+    void whenValidRequest_thenPrefetchStartsAfterOwnCostQuery() {
+        // Arrange
+        when(statelessRepository.findCustomerByDocument(eq("CED"), eq("8-111-111"), any(RequestContext.class)))
+                .thenReturn(mockCustomer);
+        when(statelessRepository.findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class)))
+                .thenReturn(mockTransactionCost);
+
+        // Act
+        per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
+
+        // Assert
+        InOrder order = inOrder(statelessRepository, siblingCostPrefetcher);
+        order.verify(statelessRepository).findTransactionCost(eq("12345"), eq("01PAR157"), any(RequestContext.class));
+        order.verify(siblingCostPrefetcher).prefetchSiblingCosts("12345", "01PAR157");
+    }
+
+    // ============== TESTS DE LA VARIANTE ASÍNCRONA ==============
+
+    @Test
+    void whenAsyncFlowEnabled_thenEndpointUsesAsyncFlowInsideIdempotencyGuard() {
+        // Arrange
+        per002UseCase.asyncFlowEnabled = true;
+        when(statelessRepository.findCustomerByDocumentAsync(eq("CED"), eq("8-111-111"), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockCustomer));
+        when(statelessRepository.findTransactionCostAsync(eq("12345"), eq("01PAR157"), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockTransactionCost));
+
+        // Act
+        Per002ResponseDto response = per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest);
+
+        // Assert
+        assertEquals(500, response.getCostoDeLaTransaccion());
+        verify(idempotencyGuard).execute(eq("TXN123456"), anyString(), any(Deadline.class), any());
+        verify(statelessRepository, never()).findCustomerByDocument(anyString(), anyString(), any(RequestContext.class));
+        verify(auditPort, times(6)).logAsync(any()); // ENTRADA, TRAMA_OUT(2), TRAMA_IN(2), SALIDA
+    }
+
+    @Test
+    void whenAsyncFlowEnabledAndCustomerNotFound_thenThrowOriginalException() {
+        // Arrange
+        per002UseCase.asyncFlowEnabled = true;
+        when(statelessRepository.findCustomerByDocumentAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> per002UseCase.consultaCostoTransaccionPer(validHeaders, validRequest));
+        assertEquals("El usuario no existe", ex.getMessage());
+    }
+
+    @Test
+    void whenAsyncValidRequest_thenReturnResponseWithSameAudits() throws Exception {
+        // Arrange
+        when(statelessRepository.findCustomerByDocumentAsync(eq("CED"), eq("8-111-111"), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockCustomer));
+        when(statelessRepository.findTransactionCostAsync(eq("12345"), eq("01PAR157"), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockTransactionCost));
+
+        // Act
+        Per002ResponseDto response = per002UseCase
+                .consultaCostoTransaccionPerAsync(validHeaders, validRequest, Deadline.NONE)
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(500, response.getCostoDeLaTransaccion());
+        assertEquals("USD", response.getCodMonedaTransaccion());
+        verify(siblingCostPrefetcher).prefetchSiblingCosts("12345", "01PAR157");
+        verify(auditPort, times(6)).logAsync(any()); // ENTRADA, TRAMA_OUT(2), TRAMA_IN(2), SALIDA
+    }
+
+    @Test
+    void whenAsyncInvalidRequest_thenFailWithoutQueryingDatabase() {
+        // Arrange
+        validRequest.setCodPais("XX");
+
+        // Act
+        CompletableFuture<Per002ResponseDto> result = per002UseCase
+                .consultaCostoTransaccionPerAsync(validHeaders, validRequest, Deadline.NONE)
+                .toCompletableFuture();
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        verify(statelessRepository, never()).findCustomerByDocumentAsync(anyString(), anyString(), any(), any());
+        verify(auditPort, times(2)).logAsync(any()); // ENTRADA + ERROR
+    }
+
+    @Test
+    void whenAsyncCustomerNotFound_thenFailWithOriginalExceptionAndSkipCostLookup() {
+        // Arrange
+        when(statelessRepository.findCustomerByDocumentAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        CompletableFuture<Per002ResponseDto> result = per002UseCase
+                .consultaCostoTransaccionPerAsync(validHeaders, validRequest, Deadline.NONE)
+                .toCompletableFuture();
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        assertEquals("El usuario no existe", ex.getCause().getMessage());
+        verify(statelessRepository, never()).findTransactionCostAsync(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void whenAsyncCostLookupFails_thenFailWithThatCauseAndAuditError() {
+        // Arrange
+        ServiceUnavailableException unavailable =
+                new ServiceUnavailableException("Base de datos no disponible", Duration.ofSeconds(1));
+        when(statelessRepository.findCustomerByDocumentAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockCustomer));
+        when(statelessRepository.findTransactionCostAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.failedFuture(unavailable));
+
+        // Act
+        CompletableFuture<Per002ResponseDto> result = per002UseCase
+                .consultaCostoTransaccionPerAsync(validHeaders, validRequest, Deadline.NONE)
+                .toCompletableFuture();
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(unavailable, ex.getCause());
+        verify(auditPort).logAsync(argThat(
+                log -> log.getTipoMensaje() == AuditMessageType.ERROR));
+    }
+
+    @Test
+    void whenAsyncDeadlineExpires_thenCancelRunningCostQuery() throws Exception {
+        // Arrange
+        AtomicBoolean queryCancelled = new AtomicBoolean();
+        CountDownLatch stall = new CountDownLatch(1);
+        when(statelessRepository.findCustomerByDocumentAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenReturn(CompletableFuture.completedFuture(mockCustomer));
+        when(statelessRepository.findTransactionCostAsync(anyString(), anyString(), any(RequestContext.class),
+                any(StructuredScope.class))).thenAnswer(invocation ->
+                invocation.<StructuredScope>getArgument(3).fork(handle -> {
+                    handle.onCancel(() -> {
+                        queryCancelled.set(true);
+                        stall.countDown();
+                    });
+                    try {
+                        stall.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("Statement cancelado");
+                }));
+
+        // Act
+        CompletableFuture<Per002ResponseDto> result = per002UseCase
+                .consultaCostoTransaccionPerAsync(validHeaders, validRequest, Deadline.after(Duration.ofMillis(100)))
+                .toCompletableFuture();
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, ex.getCause());
+        assertEquals("cntrlprf", ((DeadlineExceededException) ex.getCause()).getStage());
+        assertTrue(queryCancelled.get());
+    }
 }
@@ -1,5 +1,7 @@
 package pa.davivienda.application.validators;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -50,6 +52,35 @@ class InputTransactionCodeValidatorTest {
         assertEquals("Codigo de transaccion no permitido", exception.getMessage());
     }
 
+    // Tests para getHomologatedConceptsForCanal
+    @Test
+    void whenCanal81_thenOnlyCOBPERIsAllowed() {
+        // Act
+        List<String> result = InputTransactionCodeValidator.getHomologatedConceptsForCanal((short) 81);
+
+        // Assert
+        assertEquals(List.of("COBPER"), result);
+    }
+
+    @Test
+    void whenCanal151_thenAllConceptsExceptCOBPERAreAllowed() {
+        // Act
+        List<String> result = InputTransactionCodeValidator.getHomologatedConceptsForCanal((short) 151);
+
+        // Assert
+        assertEquals(List.of("TRCPRO", "TRCTER"), result);
+    }
+
+    // Tests para getHomologatedTransactionCodes
+    @Test
+    void whenGetHomologatedTransactionCodes_thenReturnAllCodesSorted() {
+        // Act
+        List<String> result = InputTransactionCodeValidator.getHomologatedTransactionCodes();
+
+        // Assert
+        assertEquals(List.of("01PAR153", "01PAR154", "01PAR157"), result);
+    }
+
     // Tests para codPaisValidate
     @Test
     void whenCodPaisIsPA_thenReturnTrue() {
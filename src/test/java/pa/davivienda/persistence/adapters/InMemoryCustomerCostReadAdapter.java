@@ -0,0 +1,99 @@
+package pa.davivienda.persistence.adapters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.transversal.concurrency.CancellationHandle;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Implementación en memoria de CustomerCostReadPort para tests.
+ *
+ * Respeta el contrato del puerto (null si no existe, verificación del tiempo límite)
+ * y cuenta las lecturas para verificar cuándo se llega a DB2 i. Como CUSCUN y PRFCUN
+ * en DB2 i, los CUN se comparan sin blancos finales y se devuelven con relleno CHAR.
+ */
+public class InMemoryCustomerCostReadAdapter implements CustomerCostReadPort {
+
+    private static final int CUN_WIDTH = 10;
+
+    private final Map<String, String> customers = new ConcurrentHashMap<>();
+    private final Map<String, TransactionCostProjection> costs = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    public InMemoryCustomerCostReadAdapter withCustomer(String docType, String docNumber, String customerId) {
+        customers.put(docType + '\0' + docNumber, customerId.trim());
+        return this;
+    }
+
+    public InMemoryCustomerCostReadAdapter withCost(String customerId, String trxCode, int cost, String currency) {
+        costs.put(customerId.trim() + '\0' + trxCode, new TransactionCostProjection(cost, currency));
+        return this;
+    }
+
+    public int reads() {
+        return reads.get();
+    }
+
+    @Override
+    public CustomerProjection findCustomerByDocument(String docType, String docNumber,
+                                                     Deadline deadline, CancellationHandle handle) {
+        deadline.check("cumst");
+        reads.incrementAndGet();
+        String customerId = customers.get(docType + '\0' + docNumber);
+        return customerId == null ? null : new CustomerProjection(padded(customerId));
+    }
+
+    @Override
+    public TransactionCostProjection findTransactionCost(String customerId, String trxCode,
+                                                         Deadline deadline, CancellationHandle handle) {
+        deadline.check("cntrlprf");
+        reads.incrementAndGet();
+        return costs.get(customerId.trim() + '\0' + trxCode);
+    }
+
+    @Override
+    public Map<String, String> findCustomersByDocuments(String docType, Collection<String> docNumbers,
+                                                        Deadline deadline) {
+        deadline.check("cumst");
+        reads.incrementAndGet();
+        Map<String, String> found = new HashMap<>();
+        for (String docNumber : docNumbers) {
+            String customerId = customers.get(docType + '\0' + docNumber);
+            if (customerId != null) {
+                found.put(docNumber, padded(customerId));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<CustomerCostProjection> findTransactionCosts(Collection<String> customerIds,
+                                                             Collection<String> trxCodes, Deadline deadline) {
+        deadline.check("cntrlprf");
+        reads.incrementAndGet();
+        List<CustomerCostProjection> found = new ArrayList<>();
+        for (String customerId : customerIds) {
+            for (String trxCode : trxCodes) {
+                TransactionCostProjection cost = costs.get(customerId.trim() + '\0' + trxCode);
+                if (cost != null) {
+                    found.add(new CustomerCostProjection(padded(customerId), trxCode, cost.cost(), cost.currencyCode()));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static String padded(String customerId) {
+        return String.format("%-" + CUN_WIDTH + "s", customerId.trim());
+    }
+}
@@ -0,0 +1,67 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.transversal.structures.BloomFilter;
+
+/**
+ * Tests unitarios para CustomerDocumentFilter
+ */
+class CustomerDocumentFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry registry;
+    private CustomerDocumentFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new CustomerDocumentFilter();
+        filter.registry = registry;
+        filter.enabled = true;
+        filter.rejectUnknown = true;
+        filter.maxStaleness = Duration.ofMinutes(5);
+        filter.nanoClock = clock::get;
+        filter.initMetrics();
+
+        BloomFilter built = BloomFilter.create(1000, 0.01);
+        built.put("CED", "8-111-111");
+        filter.publish(built, clock.get());
+    }
+
+    @Test
+    void whenFilterIsFreshAndDocumentIsMissing_thenItIsRejected() {
+        // Act & Assert
+        assertTrue(filter.mightExist("CED", "8-111-111"));
+        assertFalse(filter.mightExist("CED", "8-999-999"));
+        assertEquals(1, registry.get("per002.customer.filter.rejections").counter().count());
+    }
+
+    @Test
+    void whenFilterIsStale_thenMissingDocumentFallsThroughToDb() {
+        // Arrange (cliente creado después de la reconstrucción)
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // Act & Assert
+        assertTrue(filter.mightExist("CED", "8-999-999"));
+        assertEquals(1, registry.get("per002.customer.filter.misses").counter().count());
+        assertEquals(0, registry.get("per002.customer.filter.rejections").counter().count());
+    }
+
+    @Test
+    void whenRejectionIsNotEnabled_thenMissingDocumentFallsThroughToDb() {
+        // Arrange
+        filter.rejectUnknown = false;
+
+        // Act & Assert
+        assertTrue(filter.mightExist("CED", "8-999-999"));
+    }
+}
@@ -0,0 +1,136 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests unitarios para CustomerIndexSnapshot y CustomerIndexSnapshotWriter
+ */
+class CustomerIndexSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CustomerIndexSnapshot writeAndOpen(CustomerIndexSnapshotWriter writer) throws IOException {
+        Path file = tempDir.resolve("customer-index.bin");
+        writer.writeTo(file, 1234L);
+        return CustomerIndexSnapshot.open(file);
+    }
+
+    @Test
+    void whenDocumentExists_thenReturnCustomerId() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter();
+        writer.add("CED", "8-111-111", "12345");
+        writer.add("PAS", "A1234567", "67890");
+        writer.add("CED", "8-222-222", "11111");
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertEquals(3, snapshot.size());
+        assertEquals(1234L, snapshot.getCreatedAt());
+        assertEquals("12345", snapshot.findCustomerId("CED", "8-111-111"));
+        assertEquals("67890", snapshot.findCustomerId("PAS", "A1234567"));
+        assertEquals("11111", snapshot.findCustomerId("CED", "8-222-222"));
+    }
+
+    @Test
+    void whenDocumentDoesNotExist_thenReturnNull() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter();
+        writer.add("CED", "8-111-111", "12345");
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertNull(snapshot.findCustomerId("CED", "8-111-11"));
+        assertNull(snapshot.findCustomerId("CED", "8-111-1111"));
+        assertNull(snapshot.findCustomerId("PAS", "8-111-111"));
+        assertNull(snapshot.findCustomerId(null, "8-111-111"));
+    }
+
+    @Test
+    void whenValuesHaveTrailingBlanks_thenLookupIgnoresThem() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter();
+        writer.add("C  ", "8-111-111   ", "12345  ");
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertEquals("12345", snapshot.findCustomerId("C", "8-111-111"));
+        assertEquals("12345", snapshot.findCustomerId("C ", "8-111-111 "));
+    }
+
+    @Test
+    void whenDocumentIsDuplicated_thenKeepLowestCustomerId() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter();
+        writer.add("CED", "8-111-111", "99999");
+        writer.add("CED", "8-111-111", "12345");
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertEquals(1, snapshot.size());
+        assertEquals("12345", snapshot.findCustomerId("CED", "8-111-111"));
+    }
+
+    @Test
+    void whenManyDocumentsAreWritten_thenAllAreFound() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter();
+        for (int i = 0; i < 10000; i++) {
+            writer.add(i % 3 == 0 ? "PAS" : "CED", "DOC" + i, "CUN" + i);
+        }
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertEquals(10000, snapshot.size());
+        assertEquals("CUN9999", snapshot.findCustomerId("PAS", "DOC9999"));
+        assertEquals("CUN4321", snapshot.findCustomerId("CED", "DOC4321"));
+        assertNull(snapshot.findCustomerId("CED", "DOC9999"));
+    }
+
+    @Test
+    void whenRowsSpillToSeveralRuns_thenMergedSnapshotIsSortedAndDeduplicated() throws IOException {
+        // Arrange
+        CustomerIndexSnapshotWriter writer = new CustomerIndexSnapshotWriter(64);
+        for (int i = 999; i >= 0; i--) {
+            writer.add("CED", "DOC" + i, "CUN" + i);
+            writer.add("CED", "DOC" + i, "ZZZ" + i);
+        }
+
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(writer);
+
+        // Assert
+        assertEquals(2000, writer.size());
+        assertEquals(1000, snapshot.size());
+        assertEquals("CUN0", snapshot.findCustomerId("CED", "DOC0"));
+        assertEquals("CUN517", snapshot.findCustomerId("CED", "DOC517"));
+        assertEquals("CUN999", snapshot.findCustomerId("CED", "DOC999"));
+    }
+
+    @Test
+    void whenSnapshotIsEmpty_thenLookupReturnsNull() throws IOException {
+        // Act
+        CustomerIndexSnapshot snapshot = writeAndOpen(new CustomerIndexSnapshotWriter());
+
+        // Assert
+        assertEquals(0, snapshot.size());
+        assertNull(snapshot.findCustomerId("CED", "8-111-111"));
+    }
+}
@@ -0,0 +1,133 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Tests unitarios para HotCostKeyRefresher
+ */
+@ExtendWith(MockitoExtension.class)
+class HotCostKeyRefresherTest {
+
+    @Mock
+    private HotCostKeyTracker hotKeys;
+
+    @Mock
+    private Per002StatelessRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private HotCostKeyRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        refresher = new HotCostKeyRefresher();
+        refresher.hotKeys = hotKeys;
+        refresher.repository = repository;
+        refresher.registry = registry;
+        refresher.refreshTimeout = Duration.ofSeconds(5);
+
+        lenient().when(hotKeys.isEnabled()).thenReturn(true);
+        lenient().when(repository.isCircuitClosed()).thenReturn(true);
+    }
+
+    @Test
+    void whenRefreshingHotKeys_thenPinsThemWithOneQuery() {
+        // Arrange
+        when(hotKeys.hotKeys()).thenReturn(List.of(
+                new HotCostKeyTracker.HotKey("12345", "01PAR157", 900, false),
+                new HotCostKeyTracker.HotKey("67890", "01PAR153", 400, true)));
+        when(repository.findTransactionCostsInBackground(eq(Set.of("12345", "67890")),
+                eq(Set.of("01PAR157", "01PAR153")), any(Deadline.class))).thenReturn(List.of(
+                        new CustomerCostProjection("12345", "01PAR157", 500, "USD"),
+                        new CustomerCostProjection("12345", "01PAR153", 200, "USD"),
+                        new CustomerCostProjection("67890", "01PAR153", 250, "USD")));
+
+        // Act
+        refresher.refreshHotKeys();
+
+        // Assert
+        verify(hotKeys).pin("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+        verify(hotKeys).pin("67890", "01PAR153", new TransactionCostProjection(250, "USD"));
+        verify(hotKeys, never()).pin(eq("12345"), eq("01PAR153"), any());
+        assertEquals(1, registry.get("per002.hot-keys.refresh.executed").counter().count());
+    }
+
+    @Test
+    void whenHotKeysRefreshFails_thenRefreshIsSkipped() {
+        // Arrange
+        when(hotKeys.hotKeys()).thenReturn(List.of(new HotCostKeyTracker.HotKey("12345", "01PAR157", 900, false)));
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class)))
+                .thenThrow(new IllegalStateException("SQL0911"));
+
+        // Act
+        refresher.refreshHotKeys();
+
+        // Assert
+        assertEquals(1, registry.get("per002.hot-keys.refresh.skipped").counter().count());
+        verify(hotKeys, never()).pin(anyString(), anyString(), any());
+    }
+
+    @Test
+    void whenCircuitIsNotClosed_thenRefreshDoesNotQuery() {
+        // Arrange
+        when(hotKeys.hotKeys()).thenReturn(List.of(new HotCostKeyTracker.HotKey("12345", "01PAR157", 900, true)));
+        when(repository.isCircuitClosed()).thenReturn(false);
+
+        // Act
+        refresher.refreshHotKeys();
+
+        // Assert
+        assertEquals(1, registry.get("per002.hot-keys.refresh.skipped").counter().count());
+        verify(repository, never()).findTransactionCostsInBackground(any(), any(), any());
+    }
+
+    @Test
+    void whenHotCunIsPadded_thenRefreshPinsTheReturnedRow() {
+        // Arrange (detector real; el CUN llega con relleno CHAR de CUSCUN y de PRFCUN)
+        HotCostKeyTracker tracker = new HotCostKeyTracker();
+        tracker.registry = registry;
+        tracker.enabled = true;
+        tracker.topK = 10;
+        tracker.minCount = 5;
+        tracker.sketchWidth = 1024;
+        tracker.sketchDepth = 4;
+        tracker.ttl = Duration.ofMinutes(10);
+        tracker.init();
+        for (int i = 0; i < 10; i++) {
+            tracker.record("CORP1     ", "01PAR157");
+        }
+        refresher.hotKeys = tracker;
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class))).thenReturn(List.of(
+                new CustomerCostProjection("CORP1     ", "01PAR157", 500, "USD")));
+
+        // Act
+        refresher.refreshHotKeys();
+
+        // Assert
+        assertEquals(500, tracker.lookup("CORP1", "01PAR157").cost());
+        assertTrue(tracker.hotKeys().get(0).pinned());
+    }
+}
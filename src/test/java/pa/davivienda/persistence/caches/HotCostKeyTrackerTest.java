@@ -0,0 +1,107 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+
+/**
+ * Tests unitarios para HotCostKeyTracker
+ */
+class HotCostKeyTrackerTest {
+
+    private SimpleMeterRegistry registry;
+    private HotCostKeyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracker = new HotCostKeyTracker();
+        tracker.registry = registry;
+        tracker.enabled = true;
+        tracker.topK = 2;
+        tracker.minCount = 10;
+        tracker.sketchWidth = 1024;
+        tracker.sketchDepth = 4;
+        tracker.ttl = Duration.ofMinutes(10);
+        tracker.init();
+    }
+
+    @Test
+    void whenCorporateCustomerDominatesTraffic_thenItIsTheHotKey() {
+        // Act
+        for (int i = 0; i < 500; i++) {
+            tracker.record("CORP1", "01PAR157");
+            tracker.record("C" + i, "01PAR157");
+        }
+
+        // Assert
+        List<HotCostKeyTracker.HotKey> hot = tracker.hotKeys();
+        assertEquals(1, hot.size());
+        assertEquals("CORP1", hot.get(0).customerId());
+        assertEquals("01PAR157", hot.get(0).transactionCode());
+        assertTrue(hot.get(0).estimatedCount() >= 500);
+        assertFalse(hot.get(0).pinned());
+        assertEquals(1000, tracker.trackedLookups());
+    }
+
+    @Test
+    void whenHotKeyIsPinned_thenLookupHitsUntilItCoolsDown() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            tracker.record("CORP1", "01PAR157");
+        }
+        tracker.pin("CORP1", "01PAR157", new TransactionCostProjection(500, "USD"));
+
+        // Act
+        TransactionCostProjection pinned = tracker.lookup("CORP1", "01PAR157");
+        boolean pinnedFlag = tracker.hotKeys().get(0).pinned();
+        tracker.retainPinned(List.of());
+
+        // Assert
+        assertEquals(500, pinned.cost());
+        assertTrue(pinnedFlag);
+        assertNull(tracker.lookup("CORP1", "01PAR157"));
+        assertEquals(1, registry.get("per002.hot-keys.hits").counter().count());
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsTrackedOrPinned() {
+        // Arrange
+        tracker.enabled = false;
+
+        // Act
+        tracker.record("CORP1", "01PAR157");
+        tracker.pin("CORP1", "01PAR157", new TransactionCostProjection(500, "USD"));
+
+        // Assert
+        assertNull(tracker.lookup("CORP1", "01PAR157"));
+        assertTrue(tracker.hotKeys().isEmpty());
+        assertEquals(0, tracker.trackedLookups());
+    }
+
+    @Test
+    void whenCunIsPadded_thenHotKeyAndPinUseTheTrimmedCun() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            tracker.record("CORP1     ", "01PAR157");
+        }
+        HotCostKeyTracker.HotKey hot = tracker.hotKeys().get(0);
+
+        // Act
+        tracker.pin(hot.customerId(), hot.transactionCode(), new TransactionCostProjection(500, "USD"));
+
+        // Assert
+        assertEquals("CORP1", hot.customerId());
+        assertEquals(500, tracker.lookup("CORP1     ", "01PAR157").cost());
+        assertTrue(tracker.hotKeys().get(0).pinned());
+    }
+}
@@ -0,0 +1,147 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Tests unitarios para SiblingCostPrefetcher
+ */
+@ExtendWith(MockitoExtension.class)
+class SiblingCostPrefetcherTest {
+
+    @Mock
+    private TransactionCostPreloadCache costPreloadCache;
+
+    @Mock
+    private TransactionCostLookupCache costLookupCache;
+
+    @Mock
+    private Per002StatelessRepository repository;
+
+    @Mock
+    private DbAccessLimiter dbAccessLimiter;
+
+    private SimpleMeterRegistry registry;
+    private SiblingCostPrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        prefetcher = new SiblingCostPrefetcher();
+        prefetcher.costPreloadCache = costPreloadCache;
+        prefetcher.costLookupCache = costLookupCache;
+        prefetcher.repository = repository;
+        prefetcher.dbAccessLimiter = dbAccessLimiter;
+        prefetcher.registry = registry;
+        prefetcher.enabled = true;
+        prefetcher.budgetRate = 5;
+        prefetcher.budgetBurst = 10;
+        prefetcher.queueSize = 4;
+        prefetcher.timeout = Duration.ofSeconds(2);
+        prefetcher.init();
+
+        lenient().when(costLookupCache.isEnabled()).thenReturn(true);
+        lenient().when(repository.isCircuitClosed()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    void whenPrefetchEnabled_thenSiblingCodesAreLoadedWithOneQuery() {
+        // Arrange
+        when(dbAccessLimiter.isIdle()).thenReturn(true);
+        when(repository.findTransactionCostsInBackground(eq(List.of("12345")), eq(List.of("01PAR153", "01PAR154")),
+                any(Deadline.class))).thenReturn(List.of(
+                        new CustomerCostProjection("12345", "01PAR153", 200, "USD"),
+                        new CustomerCostProjection("12345", "01PAR154", 300, "USD")));
+
+        // Act
+        prefetcher.prefetchSiblingCosts("12345", "01PAR157");
+
+        // Assert
+        verify(costLookupCache, timeout(2000)).putPrefetched(eq("12345"), eq("01PAR153"), any());
+        verify(costLookupCache, timeout(2000)).putPrefetched(eq("12345"), eq("01PAR154"), any());
+        verify(costLookupCache, never()).putPrefetched(eq("12345"), eq("01PAR157"), any());
+    }
+
+    @Test
+    void whenDatabaseIsBusy_thenPrefetchIsSkipped() {
+        // Arrange
+        when(dbAccessLimiter.isIdle()).thenReturn(false);
+
+        // Act
+        prefetcher.prefetchSiblingCosts("12345", "01PAR157");
+
+        // Assert
+        verify(dbAccessLimiter, timeout(2000)).isIdle();
+        prefetcher.shutdown();
+        verify(repository, never()).findTransactionCostsInBackground(any(), any(), any());
+    }
+
+    @Test
+    void whenCircuitIsNotClosed_thenPrefetchIsSkipped() {
+        // Arrange
+        when(repository.isCircuitClosed()).thenReturn(false);
+
+        // Act
+        prefetcher.prefetchSiblingCosts("12345", "01PAR157");
+
+        // Assert
+        verify(repository, timeout(2000)).isCircuitClosed();
+        prefetcher.shutdown();
+        verify(repository, never()).findTransactionCostsInBackground(any(), any(), any());
+        verify(costLookupCache, never()).putPrefetched(anyString(), anyString(), any());
+    }
+
+    @Test
+    void whenCunIsPadded_thenPrefetchedRowsAreFoundWithTheSameKey() {
+        // Arrange (caché real; el CUN de la solicitud y el de PRFCUN llegan con relleno CHAR)
+        TransactionCostLookupCache cache = new TransactionCostLookupCache();
+        cache.registry = registry;
+        cache.enabled = true;
+        cache.maxEntries = 100;
+        cache.ttl = Duration.ofMinutes(5);
+        cache.init();
+        cache.put("12345", "01PAR154", new TransactionCostProjection(300, "USD"));
+        prefetcher.costLookupCache = cache;
+        when(dbAccessLimiter.isIdle()).thenReturn(true);
+        when(repository.findTransactionCostsInBackground(eq(List.of("12345")), eq(List.of("01PAR153")),
+                any(Deadline.class))).thenReturn(List.of(new CustomerCostProjection("12345     ", "01PAR153", 200, "USD")));
+
+        // Act
+        prefetcher.prefetchSiblingCosts("12345     ", "01PAR157");
+
+        // Assert
+        verify(repository, timeout(2000)).findTransactionCostsInBackground(any(), any(), any());
+        prefetcher.shutdown();
+        assertTrue(cache.contains("12345     ", "01PAR153"));
+        assertEquals(200, cache.lookup("12345", "01PAR153").cost());
+    }
+}
@@ -0,0 +1,109 @@
+package pa.davivienda.persistence.caches;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+
+/**
+ * Tests unitarios para TransactionCostLookupCache
+ */
+class TransactionCostLookupCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private TransactionCostLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new TransactionCostLookupCache();
+        cache.registry = registry;
+        cache.enabled = true;
+        cache.maxEntries = 100;
+        cache.ttl = Duration.ofMinutes(5);
+        cache.init();
+    }
+
+    @Test
+    void whenPrefetchedRowIsLookedUpTwice_thenCountsOneUse() {
+        // Arrange
+        cache.putPrefetched("12345", "01PAR153", new TransactionCostProjection(200, "USD"));
+        cache.putPrefetched("12345", "01PAR154", new TransactionCostProjection(300, "USD"));
+
+        // Act
+        cache.lookup("12345", "01PAR153");
+        cache.lookup("12345", "01PAR153");
+
+        // Assert
+        assertEquals(0.5, registry.get("per002.cost-cache.prefetch.hit-ratio").gauge().value());
+        assertEquals(2, registry.get("per002.cost-cache.lookups").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void whenRowWasReadNormally_thenItDoesNotCountForPrefetch() {
+        // Arrange
+        cache.put("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+
+        // Act
+        TransactionCostProjection cost = cache.lookup("12345", "01PAR157");
+
+        // Assert
+        assertEquals(500, cost.cost());
+        assertEquals(0, registry.get("per002.cost-cache.prefetch.used").counter().count());
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsStored() {
+        // Arrange
+        cache.enabled = false;
+        cache.putPrefetched("12345", "01PAR153", new TransactionCostProjection(200, "USD"));
+
+        // Act & Assert
+        assertNull(cache.lookup("12345", "01PAR153"));
+        assertFalse(cache.contains("12345", "01PAR153"));
+    }
+
+    @Test
+    void whenRestoredAndVisited_thenKeepsRemainingTtlBoundedByCacheTtl() {
+        // Arrange
+        cache.restore("12345", "01PAR153", new TransactionCostProjection(200, "USD"), Duration.ofMinutes(1).toNanos());
+        cache.restore("12345", "01PAR154", new TransactionCostProjection(300, "USD"), Duration.ofHours(1).toNanos());
+        cache.restore("12345", "01PAR155", new TransactionCostProjection(400, "USD"), 0);
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        cache.forEach((customerId, trxCode, cost, remainingNanos) -> visited.add(customerId + "/" + trxCode + "/"
+                + cost.cost() + "/" + (remainingNanos <= Duration.ofMinutes(5).toNanos())));
+
+        // Assert
+        visited.sort(null);
+        assertEquals(List.of("12345/01PAR153/200/true", "12345/01PAR154/300/true"), visited);
+        assertNull(cache.lookup("12345", "01PAR155"));
+        assertEquals(0, registry.get("per002.cost-cache.prefetch.loaded").counter().count());
+    }
+
+    @Test
+    void whenCunIsPaddedOnOneSide_thenBothSidesUseTheSameEntry() {
+        // Arrange (CUN con relleno CHAR, como llega de CUSCUN/PRFCUN)
+        cache.put("12345     ", "01PAR157", new TransactionCostProjection(500, "USD"));
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        TransactionCostProjection cost = cache.lookup("12345", "01PAR157");
+        cache.forEach((customerId, trxCode, cached, remainingNanos) -> visited.add(customerId + "/" + trxCode));
+        cache.remove("12345", "01PAR157");
+
+        // Assert
+        assertEquals(500, cost.cost());
+        assertEquals(List.of("12345/01PAR157"), visited);
+        assertFalse(cache.contains("12345     ", "01PAR157"));
+    }
+}
@@ -0,0 +1,86 @@
+package pa.davivienda.persistence.caches;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para TransactionCostTable
+ */
+class TransactionCostTableTest {
+
+    private TransactionCostTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new TransactionCostTable(List.of("01PAR153", "01PAR154", "01PAR157"));
+    }
+
+    @Test
+    void whenRowIsLoaded_thenFindReturnsCostAndCurrency() {
+        // Arrange
+        table.put("12345", "01PAR157", 500, "USD");
+
+        // Act
+        int cell = table.find("12345", "01PAR157");
+
+        // Assert
+        assertTrue(cell >= 0);
+        assertEquals(500, table.costAt(cell));
+        assertEquals("USD", table.currencyAt(cell));
+    }
+
+    @Test
+    void whenCustomerHasOtherCodeOnly_thenFindReturnsMiss() {
+        // Arrange
+        table.put("12345", "01PAR153", 100, "USD");
+
+        // Act & Assert
+        assertEquals(-1, table.find("12345", "01PAR157"));
+        assertEquals(-1, table.find("99999", "01PAR153"));
+    }
+
+    @Test
+    void whenCodeIsNotHomologated_thenRowIsIgnored() {
+        // Arrange
+        table.put("12345", "01PAR999", 100, "USD");
+
+        // Act & Assert
+        assertEquals(0, table.size());
+        assertEquals(-1, table.find("12345", "01PAR999"));
+    }
+
+    @Test
+    void whenRowIsReplaced_thenSizeDoesNotGrow() {
+        // Arrange
+        table.put("12345", "01PAR157", 500, "USD");
+        table.put("12345", "01PAR157", 700, "PAB");
+
+        // Act
+        int cell = table.find("12345", "01PAR157");
+
+        // Assert
+        assertEquals(1, table.size());
+        assertEquals(700, table.costAt(cell));
+        assertEquals("PAB", table.currencyAt(cell));
+    }
+
+    @Test
+    void whenManyCustomersAreLoaded_thenTableGrowsAndKeepsAllRows() {
+        // Arrange
+        for (int i = 0; i < 5000; i++) {
+            table.put("CUN" + i, "01PAR153", i, i % 2 == 0 ? "USD" : "PAB");
+            table.put("CUN" + i, "01PAR154", i * 2, "USD");
+        }
+
+        // Assert
+        assertEquals(10000, table.size());
+        assertEquals(5000, table.customerCount());
+        int cell = table.find("CUN4321", "01PAR154");
+        assertEquals(8642, table.costAt(cell));
+        assertEquals("PAB", table.currencyAt(table.find("CUN4321", "01PAR153")));
+    }
+}
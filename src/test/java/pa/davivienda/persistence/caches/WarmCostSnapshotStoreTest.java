@@ -0,0 +1,245 @@
+package pa.davivienda.persistence.caches;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.repositories.Per002StatelessRepository;
+import pa.davivienda.transversal.concurrency.Deadline;
+
+/**
+ * Tests unitarios para WarmCostSnapshotStore
+ */
+@ExtendWith(MockitoExtension.class)
+class WarmCostSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private Per002StatelessRepository repository;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private SimpleMeterRegistry registry;
+    private HotCostKeyTracker hotKeys;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        hotKeys = new HotCostKeyTracker();
+        hotKeys.registry = registry;
+        hotKeys.enabled = true;
+        hotKeys.topK = 2;
+        hotKeys.minCount = 10;
+        hotKeys.sketchWidth = 1024;
+        hotKeys.sketchDepth = 4;
+        hotKeys.ttl = Duration.ofMinutes(10);
+        hotKeys.init();
+        lenient().when(repository.isCircuitClosed()).thenReturn(true);
+    }
+
+    private TransactionCostLookupCache newCache() {
+        TransactionCostLookupCache cache = new TransactionCostLookupCache();
+        cache.registry = new SimpleMeterRegistry();
+        cache.enabled = true;
+        cache.maxEntries = 100;
+        cache.ttl = Duration.ofMinutes(5);
+        cache.init();
+        return cache;
+    }
+
+    private WarmCostSnapshotStore newStore(TransactionCostLookupCache cache) {
+        WarmCostSnapshotStore store = new WarmCostSnapshotStore();
+        store.costLookupCache = cache;
+        store.hotKeys = hotKeys;
+        store.repository = repository;
+        store.registry = registry;
+        store.enabled = true;
+        store.path = tempDir.resolve("warm-cost-cache.bin").toString();
+        store.maxAge = Duration.ofMinutes(30);
+        store.revalidate = true;
+        store.revalidateDelay = Duration.ZERO;
+        store.revalidateTimeout = Duration.ofSeconds(5);
+        store.revalidatePause = Duration.ZERO;
+        store.maxInList = 100;
+        store.wallClock = clock::get;
+        return store;
+    }
+
+    @Test
+    void whenRestartedWithinMaxAge_thenCostsAreServedWarmAndRevalidated() {
+        // Arrange
+        TransactionCostLookupCache before = newCache();
+        before.put("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+        hotKeys.pin("CORP1", "01PAR153", new TransactionCostProjection(250, "USD"));
+        assertEquals(2, newStore(before).save());
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+        TransactionCostLookupCache after = newCache();
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class))).thenReturn(List.of(
+                new CustomerCostProjection("12345", "01PAR157", 500, "USD"),
+                new CustomerCostProjection("CORP1", "01PAR153", 250, "USD")));
+
+        // Act
+        int restored = newStore(after).restore();
+
+        // Assert
+        assertEquals(2, restored);
+        assertEquals(500, after.lookup("12345", "01PAR157").cost());
+        assertEquals(250, after.lookup("CORP1", "01PAR153").cost());
+        verify(repository, timeout(1000)).findTransactionCostsInBackground(
+                argThat(ids -> Set.copyOf(ids).equals(Set.of("12345", "CORP1"))),
+                eq(Set.of("01PAR157", "01PAR153")), any(Deadline.class));
+    }
+
+    @Test
+    void whenEntriesExpiredWhileDown_thenTheyAreNotRestored() {
+        // Arrange
+        TransactionCostLookupCache before = newCache();
+        before.put("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+        newStore(before).save();
+        clock.addAndGet(Duration.ofMinutes(6).toMillis());
+        TransactionCostLookupCache after = newCache();
+
+        // Act
+        int restored = newStore(after).restore();
+
+        // Assert
+        assertEquals(0, restored);
+        assertNull(after.lookup("12345", "01PAR157"));
+        verify(repository, never()).findTransactionCostsInBackground(any(), any(), any());
+    }
+
+    @Test
+    void whenSnapshotIsOlderThanMaxAge_thenItIsDiscarded() {
+        // Arrange
+        TransactionCostLookupCache before = newCache();
+        before.put("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+        WarmCostSnapshotStore store = newStore(before);
+        store.save();
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+        TransactionCostLookupCache after = newCache();
+        WarmCostSnapshotStore restarted = newStore(after);
+        restarted.maxAge = Duration.ofSeconds(30);
+
+        // Act
+        int restored = restarted.restore();
+
+        // Assert
+        assertEquals(0, restored);
+        assertNull(after.lookup("12345", "01PAR157"));
+    }
+
+    @Test
+    void whenRevalidatingRestoredCosts_thenUpdatesExistingAndRemovesMissing() {
+        // Arrange
+        TransactionCostLookupCache cache = newCache();
+        cache.put("12345", "01PAR157", new TransactionCostProjection(450, "USD"));
+        cache.put("12345", "01PAR999", new TransactionCostProjection(100, "USD"));
+        cache.put("67890", "01PAR153", new TransactionCostProjection(250, "USD"));
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class))).thenReturn(List.of(
+                new CustomerCostProjection("12345", "01PAR157", 500, "USD"),
+                new CustomerCostProjection("67890", "01PAR153", 250, "USD")));
+        Map<String, Set<String>> restored = Map.of(
+                "12345", Set.of("01PAR157", "01PAR999"),
+                "67890", Set.of("01PAR153"));
+
+        // Act
+        int revalidated = newStore(cache).revalidateCachedCosts(restored);
+
+        // Assert
+        assertEquals(3, revalidated);
+        assertEquals(500, cache.lookup("12345", "01PAR157").cost());
+        assertEquals(250, cache.lookup("67890", "01PAR153").cost());
+        assertNull(cache.lookup("12345", "01PAR999"));
+    }
+
+    @Test
+    void whenRevalidationFails_thenStopsAndKeepsRestoredCosts() {
+        // Arrange
+        TransactionCostLookupCache cache = newCache();
+        TransactionCostProjection restoredCost = new TransactionCostProjection(500, "USD");
+        cache.put("12345", "01PAR157", restoredCost);
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class)))
+                .thenThrow(new IllegalStateException("SQL0911"));
+
+        // Act
+        int revalidated = newStore(cache).revalidateCachedCosts(Map.of("12345", Set.of("01PAR157")));
+
+        // Assert
+        assertEquals(0, revalidated);
+        assertSame(restoredCost, cache.lookup("12345", "01PAR157"));
+    }
+
+    @Test
+    void whenCircuitIsNotClosed_thenRevalidationDoesNotQuery() {
+        // Arrange
+        when(repository.isCircuitClosed()).thenReturn(false);
+
+        // Act
+        int revalidated = newStore(newCache()).revalidateCachedCosts(Map.of("12345", Set.of("01PAR157")));
+
+        // Assert
+        assertEquals(0, revalidated);
+        verify(repository, never()).findTransactionCostsInBackground(any(), any(), any());
+    }
+
+    @Test
+    void whenRestoredCunsArePadded_thenRevalidationDoesNotEvictMatchingCosts() {
+        // Arrange (snapshot con CUN con relleno CHAR y filas de PRFCUN con relleno)
+        TransactionCostLookupCache cache = newCache();
+        cache.put("12345", "01PAR157", new TransactionCostProjection(450, "USD"));
+        cache.put("12345", "01PAR999", new TransactionCostProjection(100, "USD"));
+        when(repository.findTransactionCostsInBackground(eq(List.of("12345")), any(), any(Deadline.class)))
+                .thenReturn(List.of(new CustomerCostProjection("12345     ", "01PAR157", 500, "USD")));
+
+        // Act
+        int revalidated = newStore(cache).revalidateCachedCosts(
+                Map.of("12345     ", Set.of("01PAR157", "01PAR999")));
+
+        // Assert
+        assertEquals(2, revalidated);
+        assertEquals(500, cache.lookup("12345", "01PAR157").cost());
+        assertNull(cache.lookup("12345", "01PAR999"));
+    }
+
+    @Test
+    void whenRowsDoNotMatchRequestedCuns_thenNothingIsEvicted() {
+        // Arrange
+        TransactionCostLookupCache cache = newCache();
+        TransactionCostProjection restoredCost = new TransactionCostProjection(500, "USD");
+        cache.put("12345", "01PAR157", restoredCost);
+        when(repository.findTransactionCostsInBackground(any(), any(), any(Deadline.class)))
+                .thenReturn(List.of(new CustomerCostProjection("99999", "01PAR157", 300, "USD")));
+
+        // Act
+        int revalidated = newStore(cache).revalidateCachedCosts(Map.of("12345", Set.of("01PAR157")));
+
+        // Assert
+        assertEquals(0, revalidated);
+        assertSame(restoredCost, cache.lookup("12345", "01PAR157"));
+    }
+}
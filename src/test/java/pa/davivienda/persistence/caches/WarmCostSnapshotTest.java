@@ -0,0 +1,64 @@
+package pa.davivienda.persistence.caches;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pa.davivienda.domain.projections.TransactionCostProjection;
+
+/**
+ * Tests unitarios para WarmCostSnapshot
+ */
+class WarmCostSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void whenWrittenAndRead_thenEntriesRoundTrip() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("warm-cache.bin");
+        WarmCostSnapshot snapshot = new WarmCostSnapshot(1234L, List.of(
+                new WarmCostSnapshot.Entry("12345", "01PAR153", new TransactionCostProjection(200, "USD"), 5000L),
+                new WarmCostSnapshot.Entry("67890", "01PAR157", new TransactionCostProjection(0, null), 6000L)));
+
+        // Act
+        snapshot.writeTo(file);
+        WarmCostSnapshot read = WarmCostSnapshot.readFrom(file);
+
+        // Assert
+        assertEquals(snapshot, read);
+        assertEquals(List.of(file), Files.list(tempDir).toList());
+    }
+
+    @Test
+    void whenFileHasAnotherFormat_thenThrowIllegalState() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("warm-cache.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 0, 0, 0, 1});
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> WarmCostSnapshot.readFrom(file));
+    }
+
+    @Test
+    void whenFileIsTruncated_thenThrowIOException() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("warm-cache.bin");
+        new WarmCostSnapshot(1234L, List.of(
+                new WarmCostSnapshot.Entry("12345", "01PAR153", new TransactionCostProjection(200, "USD"), 5000L)))
+                .writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> WarmCostSnapshot.readFrom(file));
+    }
+}
@@ -0,0 +1,70 @@
+package pa.davivienda.persistence.exports;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para TransactionCostExportWriter y ExportFormat
+ */
+class TransactionCostExportWriterTest {
+
+    @Test
+    void whenCsv_thenWriteHeaderAndOneLinePerRow() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        TransactionCostExportWriter writer = new TransactionCostExportWriter(out, ExportFormat.CSV);
+
+        // Act
+        writer.writeHeader();
+        writer.write("12345", "01PAR153", 200, "USD");
+        writer.write("12345", "01PAR157", 500, "USD");
+
+        // Assert
+        assertEquals("customerId,transactionCode,cost,currencyCode\n"
+                + "12345,01PAR153,200,USD\n"
+                + "12345,01PAR157,500,USD\n", out.toString());
+        assertEquals(2, writer.rows());
+    }
+
+    @Test
+    void whenCsvValueHasCommaOrQuote_thenQuoteIt() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        TransactionCostExportWriter writer = new TransactionCostExportWriter(out, ExportFormat.CSV);
+
+        // Act
+        writer.write("12,345", "01\"PAR", 1, null);
+
+        // Assert
+        assertEquals("\"12,345\",\"01\"\"PAR\",1,\n", out.toString());
+    }
+
+    @Test
+    void whenNdjson_thenWriteOneObjectPerLineWithoutHeader() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        TransactionCostExportWriter writer = new TransactionCostExportWriter(out, ExportFormat.NDJSON);
+
+        // Act
+        writer.writeHeader();
+        writer.write("12345", "01PAR157", 500, "USD");
+        writer.write("67\"890", "01PAR153", 250, null);
+
+        // Assert
+        assertEquals("{\"customerId\":\"12345\",\"transactionCode\":\"01PAR157\",\"cost\":500,\"currencyCode\":\"USD\"}\n"
+                + "{\"customerId\":\"67\\\"890\",\"transactionCode\":\"01PAR153\",\"cost\":250,\"currencyCode\":null}\n",
+                out.toString());
+    }
+
+    @Test
+    void whenFormatParsed_thenDefaultToCsvAndRejectUnknown() {
+        // Act & Assert
+        assertEquals(ExportFormat.CSV, ExportFormat.parse(null));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.parse(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.parse("xml"));
+    }
+}
@@ -0,0 +1,86 @@
+package pa.davivienda.persistence.pool;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para PoolWarmPlanner
+ */
+class PoolWarmPlannerTest {
+
+    private static final Duration TICK = Duration.ofSeconds(30);
+
+    private static PoolWarmPlanner planner(List<String> schedule) {
+        // 250ms por acceso, holgura 2: cada 2 accesos/segundo requieren una conexión
+        return new PoolWarmPlanner(1, 4, Duration.ofMillis(250), 2.0, schedule, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void whenIdle_thenKeepsMinimum() {
+        // Arrange
+        PoolWarmPlanner planner = planner(List.of());
+
+        // Act
+        int target = planner.plan(0, TICK, LocalTime.of(3, 0));
+
+        // Assert
+        assertEquals(1, target);
+    }
+
+    @Test
+    void whenRateGrows_thenTargetFollowsAndIsCappedAtMaxSize() {
+        // Arrange
+        PoolWarmPlanner planner = planner(List.of());
+
+        // Act
+        int moderate = planner.plan(180, TICK, LocalTime.of(10, 0));   // 6 accesos/s
+        int saturated = planner.plan(3000, TICK, LocalTime.of(10, 0)); // 100 accesos/s
+
+        // Assert
+        assertEquals(3, moderate);
+        assertEquals(4, saturated);
+    }
+
+    @Test
+    void whenNextSlotWasBusyBefore_thenWarmsAhead() {
+        // Arrange
+        PoolWarmPlanner planner = planner(List.of());
+        for (int i = 0; i < 30; i++) {
+            planner.plan(180, TICK, LocalTime.of(7, 0));
+        }
+        for (int i = 0; i < 30; i++) {
+            planner.plan(0, TICK, LocalTime.of(23, 0));
+        }
+
+        // Act (un día después, 15 minutos antes de la franja ocupada)
+        int target = planner.plan(0, TICK, LocalTime.of(6, 50));
+
+        // Assert
+        assertEquals(3, target);
+    }
+
+    @Test
+    void whenInsideScheduledWindowOrLead_thenWarmsWholePool() {
+        // Arrange
+        PoolWarmPlanner planner = planner(List.of("07:00-07:30", "23:50-00:10"));
+
+        // Act & Assert
+        assertEquals(4, planner.plan(0, TICK, LocalTime.of(6, 55)));
+        assertEquals(4, planner.plan(0, TICK, LocalTime.of(7, 15)));
+        assertEquals(1, planner.plan(0, TICK, LocalTime.of(7, 45)));
+        assertEquals(4, planner.plan(0, TICK, LocalTime.of(0, 5)));
+    }
+
+    @Test
+    void whenInvalidConfiguration_thenThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new PoolWarmPlanner(5, 2, Duration.ofMillis(250), 1.0, List.of(), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () ->
+                new PoolWarmPlanner(1, 2, Duration.ofMillis(250), 1.0, List.of("07:00"), Duration.ZERO));
+    }
+}
@@ -0,0 +1,362 @@
+package pa.davivienda.persistence.repositories;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.enterprise.inject.Instance;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.ports.output.AuditPort;
+import pa.davivienda.domain.ports.output.CustomerCostReadPort;
+import pa.davivienda.domain.projections.CustomerCostProjection;
+import pa.davivienda.domain.projections.CustomerProjection;
+import pa.davivienda.domain.projections.TransactionCostProjection;
+import pa.davivienda.persistence.adapters.InMemoryCustomerCostReadAdapter;
+import pa.davivienda.persistence.caches.CustomerDocumentFilter;
+import pa.davivienda.persistence.caches.CustomerIndexSnapshotCache;
+import pa.davivienda.persistence.caches.HotCostKeyTracker;
+import pa.davivienda.persistence.caches.TransactionCostLookupCache;
+import pa.davivienda.persistence.caches.TransactionCostPreloadCache;
+import pa.davivienda.transversal.concurrency.DbAccessLimiter;
+import pa.davivienda.transversal.concurrency.Deadline;
+import pa.davivienda.transversal.concurrency.RequestContext;
+import pa.davivienda.transversal.concurrency.StructuredScope;
+
+/**
+ * Tests unitarios para Per002StatelessRepository sobre el puerto de lectura en memoria
+ */
+@ExtendWith(MockitoExtension.class)
+class Per002StatelessRepositoryTest {
+
+    @Mock
+    private Instance<CustomerCostReadPort> readPorts;
+
+    @Mock
+    private TransactionCostPreloadCache costPreloadCache;
+
+    @Mock
+    private TransactionCostLookupCache costLookupCache;
+
+    @Mock
+    private HotCostKeyTracker hotKeys;
+
+    @Mock
+    private CustomerIndexSnapshotCache customerSnapshot;
+
+    @Mock
+    private CustomerDocumentFilter customerFilter;
+
+    @Mock
+    private DbAccessLimiter dbAccessLimiter;
+
+    @Mock
+    private AuditPort auditPort;
+
+    private InMemoryCustomerCostReadAdapter readPort;
+    private Per002StatelessRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        readPort = new InMemoryCustomerCostReadAdapter()
+                .withCustomer("CED", "8-111-111", "12345")
+                .withCost("12345", "01PAR157", 500, "USD")
+                .withCustomer("CED", "8-222-222", "67890")
+                .withCustomer("CED", "8-333-333", "24680")
+                .withCost("67890", "01PAR153", 250, "USD");
+        when(readPorts.get()).thenReturn(readPort);
+
+        // El limitador de acceso deja pasar todas las lecturas
+        lenient().when(dbAccessLimiter.call(any(), any(RequestContext.class))).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(customerFilter.mightExist(anyString(), anyString())).thenReturn(true);
+
+        repository = new Per002StatelessRepository();
+        repository.readPorts = readPorts;
+        repository.costPreloadCache = costPreloadCache;
+        repository.costLookupCache = costLookupCache;
+        repository.hotKeys = hotKeys;
+        repository.customerSnapshot = customerSnapshot;
+        repository.customerFilter = customerFilter;
+        repository.dbAccessLimiter = dbAccessLimiter;
+        repository.auditPort = auditPort;
+        repository.registry = new SimpleMeterRegistry();
+        repository.coalescingEnabled = false;
+        repository.coalescingWaitTimeout = Duration.ofSeconds(5);
+        repository.circuitFailureThreshold = 5;
+        repository.circuitOpenDuration = Duration.ofSeconds(30);
+        repository.circuitHalfOpenProbes = 2;
+        repository.maxInList = 2;
+        repository.init();
+    }
+
+    @Test
+    void whenNotCached_thenReadsThroughPort() {
+        // Act
+        CustomerProjection customer = repository.findCustomerByDocument("CED", "8-111-111");
+        TransactionCostProjection cost = repository.findTransactionCost("12345", "01PAR157");
+
+        // Assert
+        assertEquals("12345", customer.customerId());
+        assertEquals(500, cost.cost());
+        assertEquals("USD", cost.currencyCode());
+        assertEquals(2, readPort.reads());
+    }
+
+    @Test
+    void whenRecordDoesNotExist_thenReturnNull() {
+        // Act & Assert
+        assertNull(repository.findCustomerByDocument("CED", "0-000-000"));
+        assertNull(repository.findTransactionCost("12345", "01XXX999"));
+    }
+
+    @Test
+    void whenSnapshotOrPreloadHit_thenPortIsNotRead() {
+        // Arrange
+        when(customerSnapshot.findCustomerId("CED", "8-111-111")).thenReturn("12345");
+        when(costPreloadCache.lookup("12345", "01PAR157")).thenReturn(new TransactionCostProjection(500, "USD"));
+
+        // Act
+        repository.findCustomerByDocument("CED", "8-111-111");
+        repository.findTransactionCost("12345", "01PAR157");
+
+        // Assert
+        assertEquals(0, readPort.reads());
+    }
+
+    @Test
+    void whenFilterRejectsDocument_thenReturnNullWithoutReading() {
+        // Arrange
+        when(customerFilter.mightExist("CED", "9-999-999")).thenReturn(false);
+
+        // Act
+        CustomerProjection customer = repository.findCustomerByDocument("CED", "9-999-999");
+
+        // Assert
+        assertNull(customer);
+        assertEquals(0, readPort.reads());
+    }
+
+    @Test
+    void whenDeadlineExpired_thenThrowDeadlineExceededWithoutReading() {
+        // Arrange
+        RequestContext context = new RequestContext(Deadline.after(Duration.ZERO), (short) 81);
+
+        // Act & Assert
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class, () ->
+                repository.findCustomerByDocument("CED", "8-111-111", context));
+        assertEquals("cumst", exception.getStage());
+        assertEquals(0, readPort.reads());
+    }
+
+    @Test
+    void whenBatchOfDocuments_thenReadsInChunksAndSkipsSnapshotHits() {
+        // Arrange
+        lenient().when(customerSnapshot.findCustomerId("CED", "8-111-111")).thenReturn("12345");
+
+        // Act
+        Map<String, String> customers = repository.findCustomersByDocuments("CED",
+                List.of("8-111-111", "8-222-222", "8-333-333", "0-000-000"), RequestContext.NONE);
+
+        // Assert (3 pendientes con listas IN de 2 -> 2 lecturas)
+        assertEquals(Map.of("8-111-111", "12345", "8-222-222", "67890", "8-333-333", "24680"), customers);
+        assertEquals(2, readPort.reads());
+    }
+
+    @Test
+    void whenBatchOfCosts_thenCombinesPreloadAndDatabaseWithoutDuplicates() {
+        // Arrange
+        lenient().when(costPreloadCache.lookup("12345", "01PAR157")).thenReturn(new TransactionCostProjection(500, "USD"));
+
+        // Act
+        List<CustomerCostProjection> costs = repository.findTransactionCosts(
+                List.of("12345", "67890"), List.of("01PAR157", "01PAR153"), RequestContext.NONE);
+
+        // Assert
+        assertEquals(2, costs.size());
+        assertEquals(new CustomerCostProjection("12345", "01PAR157", 500, "USD"), costs.get(0));
+        assertEquals(new CustomerCostProjection("67890", "01PAR153", 250, "USD"), costs.get(1));
+        assertEquals(1, readPort.reads());
+    }
+
+    @Test
+    void whenCostCacheHit_thenPortIsNotRead() {
+        // Arrange
+        when(costLookupCache.lookup("12345", "01PAR157")).thenReturn(new TransactionCostProjection(500, "USD"));
+
+        // Act
+        TransactionCostProjection cost = repository.findTransactionCost("12345", "01PAR157");
+
+        // Assert
+        assertEquals(500, cost.cost());
+        assertEquals(0, readPort.reads());
+    }
+
+    @Test
+    void whenCunIsPadded_thenCachesAndBatchesUseTheTrimmedCun() {
+        // Act (el puerto devuelve CUN con relleno CHAR, como CUSCUN/PRFCUN)
+        String cun = repository.findCustomerByDocument("CED", "8-111-111").customerId();
+        repository.findTransactionCost("12345     ", "01PAR157");
+        List<CustomerCostProjection> costs = repository.findTransactionCosts(
+                List.of("12345     ", "12345"), List.of("01PAR157"), RequestContext.NONE);
+
+        // Assert
+        assertEquals("12345", cun);
+        verify(hotKeys).record("12345", "01PAR157");
+        verify(costLookupCache, times(2)).put("12345", "01PAR157", new TransactionCostProjection(500, "USD"));
+        assertEquals(List.of(new CustomerCostProjection("12345", "01PAR157", 500, "USD")), costs);
+    }
+
+    @Test
+    void whenBackgroundReadFails_thenCircuitStaysClosed() {
+        // Arrange
+        when(dbAccessLimiter.call(any(), any(RequestContext.class))).thenThrow(new IllegalStateException("SQL0911"));
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            assertThrows(IllegalStateException.class, () -> repository.findTransactionCostsInBackground(
+                    List.of("12345"), List.of("01PAR153"), Deadline.after(Duration.ofSeconds(2))));
+        }
+
+        // Assert
+        assertTrue(repository.isCircuitClosed());
+        assertEquals(0, repository.registry.get("per002.db.circuit.state").gauge().value());
+    }
+
+    @Test
+    void whenBackgroundReadSpansSeveralChunks_thenQueriesEachChunkOutsideCaches() {
+        // Act
+        List<CustomerCostProjection> rows = repository.findTransactionCostsInBackground(
+                List.of("12345", "67890", "24680"), List.of("01PAR157", "01PAR153"),
+                Deadline.after(Duration.ofSeconds(2)));
+
+        // Assert (max-in-list = 2)
+        assertEquals(2, rows.size());
+        assertEquals(2, readPort.reads());
+        verify(costLookupCache, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    void whenAsyncLookups_thenResolveThroughScope() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        StructuredScope scope = new StructuredScope(executor);
+
+        try {
+            // Act
+            CustomerProjection customer = repository
+                    .findCustomerByDocumentAsync("CED", "8-111-111", RequestContext.NONE, scope)
+                    .get(5, TimeUnit.SECONDS);
+            TransactionCostProjection cost = repository
+                    .findTransactionCostAsync(customer.customerId(), "01PAR157", RequestContext.NONE, scope)
+                    .get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals("12345", customer.customerId());
+            assertEquals(500, cost.cost());
+            assertEquals(2, readPort.reads());
+            assertNull(scope.failure());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenHotKeyIsPinned_thenPortIsNotRead() {
+        // Arrange
+        when(hotKeys.lookup("12345", "01PAR157")).thenReturn(new TransactionCostProjection(500, "USD"));
+
+        // Act
+        TransactionCostProjection cost = repository.findTransactionCost("12345", "01PAR157");
+
+        // Assert
+        assertEquals(500, cost.cost());
+        assertEquals(0, readPort.reads());
+        verify(hotKeys).record("12345", "01PAR157");
+        verify(costLookupCache, never()).lookup(anyString(), anyString());
+    }
+
+    @Test
+    void whenCoalescedLeaderRunsOutOfTime_thenFollowerQueriesOnItsOwn() throws Exception {
+        // Arrange (el líder vence mientras el seguidor, con más tiempo, espera su consulta)
+        repository.coalescingEnabled = true;
+        RequestContext leader = new RequestContext(Deadline.after(Duration.ofMillis(200)), (short) 81);
+        RequestContext follower = new RequestContext(Deadline.after(Duration.ofSeconds(5)), (short) 81);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        when(dbAccessLimiter.call(any(), any(RequestContext.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(1) == leader) {
+                leaderStarted.countDown();
+                long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while ((coalescingRatio() == 0 || !leader.deadline().isExpired()) && System.nanoTime() < waitUntil) {
+                    Thread.sleep(10);
+                }
+                throw new DeadlineExceededException("cntrlprf");
+            }
+            return invocation.<Supplier<?>>getArgument(0).get();
+        });
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            // Act
+            Future<TransactionCostProjection> leaderCost = executor.submit(
+                    () -> repository.findTransactionCost("12345", "01PAR157", leader));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            TransactionCostProjection followerCost = repository.findTransactionCost("12345", "01PAR157", follower);
+
+            // Assert
+            assertEquals(500, followerCost.cost());
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                    () -> leaderCost.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, leaderFailure.getCause());
+            assertEquals(1, repository.registry.get("per002.lookup.coalescing.fallbacks")
+                    .tag("lookup", "cost").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalescingRatio() {
+        return repository.registry.get("per002.lookup.coalescing.ratio").tag("lookup", "cost").gauge().value();
+    }
+
+    @Test
+    void whenClientDeadlinesExpire_thenCircuitStaysClosed() {
+        // Arrange (tiempo límite ya agotado, p. ej. X-Request-Timeout muy corto)
+        RequestContext expired = new RequestContext(Deadline.after(Duration.ZERO), (short) 81);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(DeadlineExceededException.class,
+                    () -> repository.findCustomerByDocument("CED", "8-111-111", expired));
+        }
+
+        // Assert
+        assertEquals(0, repository.registry.get("per002.db.circuit.state").gauge().value());
+        assertEquals("12345", repository.findCustomerByDocument("CED", "8-111-111").customerId());
+    }
+}
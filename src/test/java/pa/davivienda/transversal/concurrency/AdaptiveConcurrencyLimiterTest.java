@@ -0,0 +1,69 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Tests unitarios para AdaptiveConcurrencyLimiter
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter();
+        limiter.registry = registry;
+        limiter.enabled = true;
+        limiter.initialLimit = 10;
+        limiter.minLimit = 1;
+        limiter.maxLimit = 50;
+        limiter.tolerance = 1.5;
+        limiter.retryAfter = Duration.ofSeconds(1);
+        limiter.init();
+    }
+
+    private double limit() {
+        return registry.get("per002.db.adaptive.limit").gauge().value();
+    }
+
+    @Test
+    void whenClientDeadlineOrRejectionFails_thenLimitIsKept() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThrows(DeadlineExceededException.class, () -> limiter.call(() -> {
+                throw new DeadlineExceededException("cntrlprf");
+            }));
+            assertThrows(ServiceUnavailableException.class, () -> limiter.call(() -> {
+                throw new ServiceUnavailableException("Circuito abierto", Duration.ofSeconds(1));
+            }));
+        }
+
+        // Assert
+        assertEquals(10, limit());
+        assertEquals(0, registry.get("per002.db.adaptive.in-flight").gauge().value());
+    }
+
+    @Test
+    void whenDatabaseFails_thenLimitIsReduced() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> limiter.call(() -> {
+            throw new IllegalStateException("SQL0911");
+        }));
+
+        // Assert
+        assertTrue(limit() < 10);
+        assertEquals(0, registry.get("per002.db.adaptive.in-flight").gauge().value());
+    }
+}
@@ -0,0 +1,150 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests unitarios para CanalQuotaLimiter
+ */
+@ExtendWith(MockitoExtension.class)
+class CanalQuotaLimiterTest {
+
+    private static final short CANAL_81 = 81;
+    private static final short CANAL_151 = 151;
+
+    @Mock
+    private Config config;
+
+    private SimpleMeterRegistry registry;
+    private CanalQuotaLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new CanalQuotaLimiter();
+        limiter.registry = registry;
+        limiter.config = config;
+        limiter.enabled = true;
+        limiter.defaultRate = 1;
+        limiter.defaultBurst = 5;
+
+        lenient().when(config.getOptionalValue(anyString(), eq(Double.class))).thenReturn(Optional.empty());
+        lenient().when(config.getOptionalValue(anyString(), eq(Integer.class))).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void whenBurstIsConsumed_thenRejectsAndSuggestsRetryAfter() {
+        // Arrange
+        limiter.init();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(CANAL_81));
+        }
+
+        // Act
+        boolean admitted = limiter.tryAcquire(CANAL_81);
+
+        // Assert
+        assertFalse(admitted);
+        Duration retryAfter = limiter.retryAfter(CANAL_81);
+        assertTrue(retryAfter.compareTo(Duration.ZERO) > 0);
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(1)) <= 0);
+        assertEquals(5, requests(CANAL_81, "admitted"));
+        assertEquals(1, requests(CANAL_81, "rejected"));
+    }
+
+    @Test
+    void whenRequestWeighsSeveralItems_thenConsumesOneTokenPerItem() {
+        // Arrange
+        limiter.init();
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire(CANAL_81, 3));
+        assertFalse(limiter.tryAcquire(CANAL_81, 3));
+        assertTrue(limiter.retryAfter(CANAL_81, 3).compareTo(limiter.retryAfter(CANAL_81, 2)) > 0);
+        assertTrue(limiter.tryAcquire(CANAL_81, 2));
+        assertEquals(5, requests(CANAL_81, "admitted"));
+        assertEquals(3, requests(CANAL_81, "rejected"));
+        assertEquals(0, registry.get("per002.canal.quota.available").tag("canal", "81").gauge().value());
+    }
+
+    @Test
+    void whenOneCanalExhaustsItsQuota_thenTheOtherCanalIsStillAdmitted() {
+        // Arrange
+        when(config.getOptionalValue("per002.canal-quota.canal-151.burst", Integer.class)).thenReturn(Optional.of(1));
+        limiter.init();
+        assertTrue(limiter.tryAcquire(CANAL_151));
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire(CANAL_151));
+        assertTrue(limiter.tryAcquire(CANAL_81, 5));
+        assertFalse(limiter.tryAcquire(CANAL_81));
+    }
+
+    @Test
+    void whenCanalHasNoQuota_thenRequestIsAdmitted() {
+        // Arrange
+        limiter.init();
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire((short) 99, 50));
+        assertEquals(Duration.ZERO, limiter.retryAfter((short) 99));
+    }
+
+    @Test
+    void whenQuotasAreDisabled_thenEveryRequestIsAdmitted() throws InterruptedException {
+        // Arrange
+        limiter.enabled = false;
+        limiter.init();
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(CANAL_81, 5));
+        }
+        limiter.acquire(CANAL_81);
+        assertEquals(0, requests(CANAL_81, "admitted"));
+    }
+
+    @Test
+    void whenQuotaIsExhausted_thenAcquireWaitsForRefill() throws InterruptedException {
+        // Arrange (20 tokens por segundo: uno cada 50 ms)
+        limiter.defaultRate = 20;
+        limiter.defaultBurst = 1;
+        limiter.init();
+        limiter.acquire(CANAL_81);
+
+        // Act
+        long t0 = System.nanoTime();
+        limiter.acquire(CANAL_81);
+        long waited = System.nanoTime() - t0;
+
+        // Assert
+        assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(20), "waited " + waited + "ns");
+        assertEquals(2, requests(CANAL_81, "admitted"));
+        assertEquals(0, requests(CANAL_81, "rejected"));
+    }
+
+    private double requests(short canal, String result) {
+        return registry.get("per002.canal.quota.requests")
+                .tag("canal", String.valueOf(canal))
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
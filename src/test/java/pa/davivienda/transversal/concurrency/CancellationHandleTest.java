@@ -0,0 +1,67 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para CancellationHandle
+ */
+class CancellationHandleTest {
+
+    @Test
+    void whenCancelled_thenRegisteredActionRunsOnce() {
+        // Arrange
+        CancellationHandle handle = new CancellationHandle();
+        AtomicInteger runs = new AtomicInteger();
+        CancellationHandle.Registration registration = handle.onCancel(runs::incrementAndGet);
+
+        // Act
+        handle.cancel();
+        handle.cancel();
+
+        // Assert
+        assertEquals(1, runs.get());
+        assertFalse(registration.remove());
+    }
+
+    @Test
+    void whenRemovedBeforeCancel_thenActionDoesNotRun() {
+        // Arrange
+        CancellationHandle handle = new CancellationHandle();
+        AtomicInteger runs = new AtomicInteger();
+        CancellationHandle.Registration registration = handle.onCancel(runs::incrementAndGet);
+
+        // Act
+        boolean removed = registration.remove();
+        handle.cancel();
+
+        // Assert
+        assertTrue(removed);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void whenRegisteredAfterCancel_thenActionRunsImmediately() {
+        // Arrange
+        CancellationHandle handle = new CancellationHandle();
+        AtomicInteger runs = new AtomicInteger();
+        handle.cancel();
+
+        // Act
+        CancellationHandle.Registration registration = handle.onCancel(runs::incrementAndGet);
+
+        // Assert
+        assertEquals(1, runs.get());
+        assertFalse(registration.remove());
+    }
+
+    @Test
+    void whenHandleIsNone_thenRegistrationIsDetached() {
+        // Act & Assert
+        assertTrue(CancellationHandle.NONE.onCancel(() -> { }).remove());
+    }
+}
@@ -0,0 +1,148 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.transversal.concurrency.CircuitBreaker.State;
+
+/**
+ * Tests unitarios para CircuitBreaker
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(3, Duration.ofSeconds(30), 2, clock::get,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private void fail() {
+        assertThrows(IllegalStateException.class, () -> breaker.call(() -> {
+            throw new IllegalStateException("AS/400 inaccesible");
+        }));
+    }
+
+    private void openCircuit() {
+        fail();
+        fail();
+        fail();
+    }
+
+    @Test
+    void whenFailuresBelowThreshold_thenStaysClosed() {
+        // Act
+        fail();
+        fail();
+        breaker.call(() -> "ok");
+        fail();
+        fail();
+
+        // Assert
+        assertEquals(State.CLOSED, breaker.state());
+        assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    void whenThresholdReached_thenOpensAndFailsFast() {
+        // Arrange
+        openCircuit();
+
+        // Act
+        ServiceUnavailableException error = assertThrows(ServiceUnavailableException.class,
+                () -> breaker.call(() -> "no debe ejecutarse"));
+
+        // Assert
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+        assertEquals(Duration.ofSeconds(30), error.getRetryAfter());
+        assertEquals(1, breaker.rejectedCount());
+    }
+
+    @Test
+    void whenOpenDurationElapsesAndProbesSucceed_thenCloses() {
+        // Arrange
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act
+        breaker.call(() -> "probe 1");
+        State afterFirstProbe = breaker.state();
+        breaker.call(() -> "probe 2");
+
+        // Assert
+        assertEquals(State.HALF_OPEN, afterFirstProbe);
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void whenProbeFails_thenReopens() {
+        // Arrange
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        // Act
+        fail();
+
+        // Assert
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), transitions);
+        assertThrows(ServiceUnavailableException.class, () -> breaker.call(() -> "ok"));
+    }
+
+    @Test
+    void whenInvalidConfiguration_thenThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(0, Duration.ofSeconds(1), 1, null));
+    }
+
+    @Test
+    void whenClientDeadlinesExpire_thenStaysClosed() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(DeadlineExceededException.class, () -> breaker.call(() -> {
+                throw new DeadlineExceededException("cumst");
+            }));
+            assertThrows(ServiceUnavailableException.class, () -> breaker.call(() -> {
+                throw new ServiceUnavailableException("Tiempo de espera agotado esperando acceso a base de datos",
+                        Duration.ofSeconds(1));
+            }));
+        }
+
+        // Assert
+        assertEquals(State.CLOSED, breaker.state());
+        assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    void whenHalfOpenProbeHitsDeadline_thenProbeSlotIsFreed() {
+        // Arrange
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act
+        assertThrows(DeadlineExceededException.class, () -> breaker.call(() -> {
+            throw new DeadlineExceededException("cntrlprf");
+        }));
+        breaker.call(() -> "ok");
+        breaker.call(() -> "ok");
+
+        // Assert
+        assertEquals(State.CLOSED, breaker.state());
+    }
+}
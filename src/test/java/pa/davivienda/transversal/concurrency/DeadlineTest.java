@@ -0,0 +1,55 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+
+/**
+ * Tests unitarios para Deadline
+ */
+class DeadlineTest {
+
+    @Test
+    void whenNone_thenNeverExpires() {
+        // Act & Assert
+        assertFalse(Deadline.NONE.isExpired());
+        assertTrue(Deadline.NONE.isUnbounded());
+        assertEquals(Duration.ofSeconds(60), Deadline.NONE.min(Duration.ofSeconds(60)));
+        assertDoesNotThrow(() -> Deadline.NONE.check("cumst"));
+    }
+
+    @Test
+    void whenBudgetIsZero_thenExpiredAndCheckThrows() {
+        // Arrange
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        // Act
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> deadline.check("db-limiter"));
+
+        // Assert
+        assertTrue(deadline.isExpired());
+        assertEquals(Duration.ZERO, deadline.min(Duration.ofSeconds(60)));
+        assertEquals("db-limiter", exception.getStage());
+    }
+
+    @Test
+    void whenBudgetIsShorterThanTimeout_thenMinReturnsRemaining() {
+        // Arrange
+        Deadline deadline = Deadline.after(Duration.ofMillis(1500));
+
+        // Act
+        Duration wait = deadline.min(Duration.ofSeconds(60));
+
+        // Assert
+        assertTrue(wait.compareTo(Duration.ofMillis(1500)) <= 0);
+        assertEquals(2, deadline.remainingSeconds());
+    }
+}
@@ -0,0 +1,108 @@
+package pa.davivienda.transversal.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para GradientConcurrencyLimit
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000L;
+
+    /**
+     * Ejecuta rondas con todo el límite ocupado y la latencia indicada.
+     */
+    private static void saturate(GradientConcurrencyLimit limit, long rttNanos, int rounds) {
+        for (int r = 0; r < rounds; r++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.onSuccess(rttNanos);
+            }
+        }
+    }
+
+    @Test
+    void whenLimitReached_thenRejectsExcess() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 1.5);
+
+        // Act & Assert
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.onIgnored();
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void whenLatencyIsStableUnderLoad_thenLimitGrows() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 1, 50, 1.5);
+
+        // Act
+        saturate(limit, 10 * MS, 20);
+
+        // Assert
+        assertTrue(limit.getLimit() > 4);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void whenLatencyDegrades_thenLimitShrinks() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 50, 1.5);
+        saturate(limit, 10 * MS, 5);
+        int before = limit.getLimit();
+
+        // Act
+        saturate(limit, 100 * MS, 10);
+
+        // Assert
+        assertTrue(limit.getLimit() < before);
+    }
+
+    @Test
+    void whenConcurrencyIsLow_thenLimitDoesNotGrow() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 50, 1.5);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.onSuccess(10 * MS);
+        }
+
+        // Assert
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void whenDropped_thenLimitDecreasesButNotBelowMinimum() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 50, 1.5);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onDropped();
+        }
+
+        // Assert
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void whenInvalidConfiguration_thenThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(10, 0, 50, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(10, 5, 2, 1.5));
+    }
+}
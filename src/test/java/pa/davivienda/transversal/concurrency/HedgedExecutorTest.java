@@ -0,0 +1,165 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+
+/**
+ * Tests unitarios para HedgedExecutor y LatencyTracker
+ */
+class HedgedExecutorTest {
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static LatencyTracker warmTracker(long nanos) {
+        LatencyTracker tracker = new LatencyTracker(16, 0.95, 16);
+        for (int i = 0; i < 16; i++) {
+            tracker.record(nanos);
+        }
+        return tracker;
+    }
+
+    @Test
+    void whenNotEnoughSamples_thenNoThresholdAndNoHedge() {
+        // Arrange
+        HedgedExecutor hedged = new HedgedExecutor(pool, new LatencyTracker(16, 0.95, 16), 100);
+
+        // Act
+        String result = hedged.execute(handle -> "12345");
+
+        // Assert
+        assertEquals("12345", result);
+        assertEquals(0, hedged.hedgeCount());
+        assertEquals(-1, hedged.thresholdNanos());
+    }
+
+    @Test
+    void whenPrimaryIsSlow_thenHedgeWinsAndPrimaryIsCancelled() {
+        // Arrange
+        HedgedExecutor hedged = new HedgedExecutor(pool, warmTracker(TimeUnit.MILLISECONDS.toNanos(5)), 100);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        CountDownLatch stall = new CountDownLatch(1);
+
+        // Act
+        String result = hedged.execute(handle -> {
+            if (calls.incrementAndGet() == 1) {
+                handle.onCancel(() -> {
+                    primaryCancelled.set(true);
+                    stall.countDown();
+                });
+                try {
+                    stall.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("cancelada");
+            }
+            return "hedge";
+        });
+
+        // Assert
+        assertEquals("hedge", result);
+        assertEquals(1, hedged.hedgeCount());
+        assertEquals(1, hedged.hedgeWinCount());
+        assertTrue(primaryCancelled.get());
+    }
+
+    @Test
+    void whenBudgetIsExhausted_thenWaitForPrimary() {
+        // Arrange
+        HedgedExecutor hedged = new HedgedExecutor(pool, warmTracker(TimeUnit.MILLISECONDS.toNanos(1)), 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = hedged.execute(handle -> {
+            calls.incrementAndGet();
+            sleep(20);
+            return "primary";
+        });
+
+        // Assert
+        assertEquals("primary", result);
+        assertEquals(1, calls.get());
+        assertEquals(0, hedged.hedgeCount());
+    }
+
+    @Test
+    void whenAllAttemptsFail_thenPropagateError() {
+        // Arrange
+        HedgedExecutor hedged = new HedgedExecutor(pool, new LatencyTracker(16, 0.95, 16), 100);
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> hedged.execute(handle -> {
+                    throw new IllegalStateException("DB2 no disponible");
+                }));
+        assertEquals("DB2 no disponible", error.getMessage());
+    }
+
+    @Test
+    void whenPrimaryHangsPastDeadline_thenThrowDeadlineExceededAndCancelIt() {
+        // Arrange
+        HedgedExecutor hedged = new HedgedExecutor(pool, new LatencyTracker(16, 0.95, 16), 100);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CountDownLatch hung = new CountDownLatch(1);
+
+        // Act
+        DeadlineExceededException error = assertThrows(DeadlineExceededException.class,
+                () -> hedged.execute(handle -> {
+                    handle.onCancel(() -> {
+                        cancelled.set(true);
+                        hung.countDown();
+                    });
+                    try {
+                        hung.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "tarde";
+                }, Deadline.after(Duration.ofMillis(50))));
+
+        // Assert
+        assertEquals("hedged-read", error.getStage());
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void whenTrackerHasSamples_thenThresholdIsPercentile() {
+        // Arrange
+        LatencyTracker tracker = new LatencyTracker(100, 0.95, 100);
+
+        // Act
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        // Assert
+        assertEquals(95, tracker.thresholdNanos());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.transversal.structures.IdempotencyCache;
+
+/**
+ * Tests unitarios para IdempotencyGuard
+ */
+class IdempotencyGuardTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private IdempotencyGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new IdempotencyGuard();
+        guard.registry = new SimpleMeterRegistry();
+        guard.enabled = true;
+        guard.maxEntries = 100;
+        guard.ttl = Duration.ofMinutes(2);
+        guard.waitTimeout = Duration.ofMillis(100);
+        guard.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenWaitTimeoutExpiresBeforeDeadline_thenRetryIsServiceUnavailable() throws Exception {
+        // Arrange
+        Future<IdempotencyCache.Outcome<String>> original = startSlowOriginal();
+
+        // Act
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () ->
+                guard.execute("TXN1", "HASH", Deadline.after(Duration.ofSeconds(5)), () -> "otro"));
+
+        // Assert
+        assertTrue(ex.getRetryAfter().toMillis() > 0);
+        release.countDown();
+        assertEquals("500", original.get(5, TimeUnit.SECONDS).value());
+        IdempotencyCache.Outcome<String> retry =
+                guard.execute("TXN1", "HASH", Deadline.after(Duration.ofSeconds(5)), () -> "otro");
+        assertEquals(IdempotencyCache.Source.CACHE, retry.source());
+        assertEquals("500", retry.value());
+    }
+
+    @Test
+    void whenDeadlineExpiresWhileWaiting_thenDeadlineExceeded() throws Exception {
+        // Arrange
+        guard.waitTimeout = Duration.ofSeconds(5);
+        startSlowOriginal();
+
+        // Act & Assert
+        DeadlineExceededException ex = assertThrows(DeadlineExceededException.class, () ->
+                guard.execute("TXN1", "HASH", Deadline.after(Duration.ofMillis(100)), () -> "otro"));
+        assertEquals("idempotency", ex.getStage());
+    }
+
+    @Test
+    void whenOwnOperationIsUnavailable_thenErrorIsPropagatedUnchanged() {
+        // Arrange
+        ServiceUnavailableException unavailable =
+                new ServiceUnavailableException("Circuito abierto", Duration.ofSeconds(3));
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        // Act & Assert
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () ->
+                guard.execute("TXN1", "HASH", expired, () -> {
+                    throw unavailable;
+                }));
+        assertSame(unavailable, ex);
+    }
+
+    private Future<IdempotencyCache.Outcome<String>> startSlowOriginal() throws InterruptedException {
+        Future<IdempotencyCache.Outcome<String>> original = executor.submit(() ->
+                guard.execute("TXN1", "HASH", Deadline.NONE, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "500";
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return original;
+    }
+}
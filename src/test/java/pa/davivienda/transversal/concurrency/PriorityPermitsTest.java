@@ -0,0 +1,98 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para PriorityPermits
+ */
+class PriorityPermitsTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private static Thread waiter(PriorityPermits permits, long key, String name, List<String> order) {
+        return Thread.ofPlatform().start(() -> {
+            try {
+                if (permits.tryAcquire(key, TIMEOUT)) {
+                    order.add(name);
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static void awaitWaiting(PriorityPermits permits, int expected) throws InterruptedException {
+        long limit = System.nanoTime() + TIMEOUT;
+        while (permits.waiting() < expected && System.nanoTime() < limit) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, permits.waiting());
+    }
+
+    @Test
+    void whenPermitsAvailable_thenAcquireImmediately() throws InterruptedException {
+        // Arrange
+        PriorityPermits permits = new PriorityPermits(2);
+
+        // Act & Assert
+        assertTrue(permits.tryAcquire(0, 0));
+        assertTrue(permits.tryAcquire(0, 0));
+        assertFalse(permits.tryAcquire(0, 0));
+        assertEquals(2, permits.inUse());
+
+        permits.release();
+        assertEquals(1, permits.inUse());
+    }
+
+    @Test
+    void whenContended_thenLowestKeyIsServedFirst() throws InterruptedException {
+        // Arrange
+        PriorityPermits permits = new PriorityPermits(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        assertTrue(permits.tryAcquire(0, 0));
+
+        Thread low = waiter(permits, 100, "canal-151", order);
+        awaitWaiting(permits, 1);
+        Thread high = waiter(permits, 50, "canal-81", order);
+        awaitWaiting(permits, 2);
+
+        // Act
+        permits.release();
+        low.join(TimeUnit.NANOSECONDS.toMillis(TIMEOUT));
+        high.join(TimeUnit.NANOSECONDS.toMillis(TIMEOUT));
+
+        // Assert
+        assertEquals(List.of("canal-81", "canal-151"), order);
+        assertEquals(0, permits.inUse());
+    }
+
+    @Test
+    void whenWaitTimesOut_thenLeavesQueue() throws InterruptedException {
+        // Arrange
+        PriorityPermits permits = new PriorityPermits(1);
+        assertTrue(permits.tryAcquire(0, 0));
+
+        // Act
+        boolean acquired = permits.tryAcquire(0, TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Assert
+        assertFalse(acquired);
+        assertEquals(0, permits.waiting());
+        permits.release();
+        assertEquals(0, permits.inUse());
+    }
+
+    @Test
+    void whenInvalidPermits_thenThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityPermits(0));
+    }
+}
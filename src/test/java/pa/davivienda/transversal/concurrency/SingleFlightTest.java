@@ -0,0 +1,143 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+
+/**
+ * Tests unitarios para SingleFlight
+ */
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenConcurrentCallsShareKey_thenLoaderRunsOnce() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+
+        results.add(executor.submit(() -> flights.execute("CED|8-111-111", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "12345";
+        }, Duration.ofSeconds(5))));
+        while (flights.leaderCount() == 0) {
+            Thread.onSpinWait();
+        }
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.submit(() -> flights.execute("CED|8-111-111", () -> {
+                loads.incrementAndGet();
+                return "otro";
+            }, Duration.ofSeconds(5))));
+        }
+        while (flights.followerCount() < 5) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("12345", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(5.0 / 6.0, flights.coalescingRatio(), 0.0001);
+    }
+
+    @Test
+    void whenLoaderFails_thenFollowersReceiveSameError() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("DB2 no disponible");
+
+        Future<String> leader = executor.submit(() -> flights.execute("k", () -> {
+            await(release);
+            throw failure;
+        }, Duration.ofSeconds(5)));
+        while (flights.leaderCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Future<Throwable> follower = executor.submit(() -> {
+            try {
+                flights.execute("k", () -> "nunca", Duration.ofSeconds(5));
+                return null;
+            } catch (RuntimeException e) {
+                return e;
+            }
+        });
+        while (flights.followerCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertSame(failure, follower.get(5, TimeUnit.SECONDS));
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+    }
+
+    @Test
+    void whenFollowerWaitsTooLong_thenThrowServiceUnavailable() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> flights.execute("k", () -> {
+            await(release);
+            return "tarde";
+        }, Duration.ofSeconds(5)));
+        while (flights.leaderCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class,
+                () -> flights.execute("k", () -> "nunca", Duration.ofMillis(20)));
+        release.countDown();
+    }
+
+    @Test
+    void whenCallsAreSequential_thenEachOneLoads() {
+        // Act
+        assertEquals("a", flights.execute("k", () -> "a", Duration.ofSeconds(1)));
+        assertEquals("b", flights.execute("k", () -> "b", Duration.ofSeconds(1)));
+        assertNull(flights.execute("k", () -> null, Duration.ofSeconds(1)));
+
+        // Assert
+        assertEquals(3, flights.leaderCount());
+        assertTrue(flights.coalescingRatio() == 0.0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
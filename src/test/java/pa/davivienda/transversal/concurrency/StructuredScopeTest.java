@@ -0,0 +1,117 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para StructuredScope
+ */
+class StructuredScopeTest {
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void whenForksSucceed_thenResultsAreReturnedAndScopeIsNotFailed() throws Exception {
+        // Arrange
+        StructuredScope scope = new StructuredScope(pool);
+
+        // Act
+        CompletableFuture<String> customer = scope.fork(handle -> "12345");
+        CompletableFuture<Integer> cost = scope.fork(handle -> 500);
+
+        // Assert
+        assertEquals("12345", customer.get(5, TimeUnit.SECONDS));
+        assertEquals(500, cost.get(5, TimeUnit.SECONDS));
+        assertNull(scope.failure());
+    }
+
+    @Test
+    void whenForkFails_thenRunningSiblingIsCancelled() throws Exception {
+        // Arrange
+        StructuredScope scope = new StructuredScope(pool);
+        AtomicBoolean siblingCancelled = new AtomicBoolean();
+        CountDownLatch stall = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> sibling = scope.fork(handle -> {
+            handle.onCancel(() -> {
+                siblingCancelled.set(true);
+                stall.countDown();
+            });
+            started.countDown();
+            try {
+                stall.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("cancelada");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<String> failing = scope.fork(handle -> {
+            throw new IllegalArgumentException("El usuario no existe");
+        });
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        assertThrows(CancellationException.class, () -> sibling.get(5, TimeUnit.SECONDS));
+        assertTrue(siblingCancelled.get());
+        assertInstanceOf(IllegalArgumentException.class, scope.failure());
+    }
+
+    @Test
+    void whenScopeFailedExternally_thenLaterForksAreCancelledWithoutRunning() {
+        // Arrange
+        StructuredScope scope = new StructuredScope(pool);
+        AtomicBoolean ran = new AtomicBoolean();
+        RuntimeException deadline = new IllegalStateException("tiempo límite");
+
+        // Act
+        scope.fail(deadline);
+        scope.fail(new IllegalStateException("segunda causa"));
+        CompletableFuture<String> late = scope.fork(handle -> {
+            ran.set(true);
+            return "12345";
+        });
+
+        // Assert
+        assertTrue(late.isCancelled());
+        assertSame(deadline, scope.failure());
+        assertEquals(false, ran.get());
+    }
+
+    @Test
+    void whenExecutorRejects_thenForkFailsAndScopeIsFailed() {
+        // Arrange
+        pool.shutdown();
+        StructuredScope scope = new StructuredScope(pool);
+
+        // Act
+        CompletableFuture<String> fork = scope.fork(handle -> "12345");
+
+        // Assert
+        assertTrue(fork.isCompletedExceptionally());
+        assertInstanceOf(java.util.concurrent.RejectedExecutionException.class, scope.failure());
+    }
+}
@@ -0,0 +1,118 @@
+package pa.davivienda.transversal.concurrency;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para TokenBucket
+ */
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void whenBurstIsConsumed_thenRejectsUntilRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        // Act & Assert
+        assertEquals(3, bucket.availableTokens());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.availableTokens());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.nanosUntilAvailable());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void whenWeightedRequest_thenConsumesOneTokenPerPermit() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        // Act & Assert
+        assertTrue(bucket.tryAcquire(3));
+        assertEquals(2, bucket.availableTokens());
+        assertFalse(bucket.tryAcquire(3));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.nanosUntilAvailable(3));
+        assertTrue(bucket.tryAcquire(2));
+        assertEquals(0, bucket.availableTokens());
+    }
+
+    @Test
+    void whenWeightExceedsBurst_thenItIsCappedToBurst() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        // Act & Assert
+        assertTrue(bucket.tryAcquire(50));
+        assertEquals(0, bucket.availableTokens());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void whenIdleLongTime_thenRefillsOnlyUpToBurst() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        // Assert
+        assertEquals(2, bucket.availableTokens());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void whenConcurrentAcquires_thenAdmitsExactlyBurst() throws InterruptedException {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 100, clock::get);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.tryAcquire()) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    void whenInvalidConfiguration_thenThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
@@ -0,0 +1,74 @@
+package pa.davivienda.transversal.structures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para BloomFilter
+ */
+class BloomFilterTest {
+
+    @Test
+    void whenDocumentIsInserted_thenMightContainReturnsTrue() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        filter.put("CED", "8-111-111");
+
+        // Act & Assert
+        assertTrue(filter.mightContain("CED", "8-111-111"));
+        assertEquals(1, filter.insertions());
+    }
+
+    @Test
+    void whenValuesHaveTrailingBlanks_thenTheyAreIgnored() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        filter.put("CED  ", "8-111-111   ");
+
+        // Act & Assert
+        assertTrue(filter.mightContain("CED", "8-111-111"));
+    }
+
+    @Test
+    void whenNoFalseNegativesAndFalsePositivesNearTarget_thenFilterIsSized() {
+        // Arrange
+        int n = 20000;
+        BloomFilter filter = BloomFilter.create(n, 0.01);
+        for (int i = 0; i < n; i++) {
+            filter.put("CED", "DOC" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(filter.mightContain("CED", "DOC" + i));
+            if (filter.mightContain("PAS", "DOC" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < n * 0.02, "falsos positivos: " + falsePositives);
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.02);
+        assertTrue(filter.memoryBytes() > 0);
+    }
+
+    @Test
+    void whenFilterIsEmpty_thenMightContainReturnsFalse() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        // Act & Assert
+        assertFalse(filter.mightContain("CED", "8-111-111"));
+        assertEquals(0.0, filter.estimatedFalsePositiveRate());
+    }
+
+    @Test
+    void whenFalsePositiveRateIsInvalid_thenThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1));
+    }
+}
@@ -0,0 +1,119 @@
+package pa.davivienda.transversal.structures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para ExpiringLruCache
+ */
+class ExpiringLruCacheTest {
+
+    private static final long TTL = TimeUnit.SECONDS.toNanos(60);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void whenEntryIsWithinTtl_thenGetReturnsIt() {
+        // Arrange
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, TTL, clock::get);
+        cache.put("a", 1);
+
+        // Act
+        clock.addAndGet(TTL - 1);
+
+        // Assert
+        assertEquals(1, cache.get("a"));
+    }
+
+    @Test
+    void whenTtlElapses_thenGetReturnsNullAndDropsEntry() {
+        // Arrange
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, TTL, clock::get);
+        cache.put("a", 1);
+
+        // Act
+        clock.addAndGet(TTL);
+
+        // Assert
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void whenSegmentIsFull_thenLeastRecentlyUsedIsEvicted() {
+        // Arrange (16 entradas -> 1 por segmento; claves Integer del mismo segmento)
+        ExpiringLruCache<Integer, String> cache = new ExpiringLruCache<>(16, TTL, clock::get);
+        cache.put(0, "a");
+
+        // Act
+        cache.put(16, "b");
+
+        // Assert
+        assertNull(cache.get(0));
+        assertEquals("b", cache.get(16));
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void whenPurgeExpired_thenOnlyExpiredEntriesAreRemoved() {
+        // Arrange
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, TTL, clock::get);
+        cache.put("old", 1);
+        clock.addAndGet(TTL / 2);
+        cache.put("new", 2);
+        clock.addAndGet(TTL / 2);
+
+        // Act
+        int purged = cache.purgeExpired();
+
+        // Assert
+        assertEquals(1, purged);
+        assertNull(cache.get("old"));
+        assertEquals(2, cache.get("new"));
+    }
+
+    @Test
+    void whenForEach_thenVisitsLiveEntriesWithRemainingTtl() {
+        // Arrange
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, TTL, clock::get);
+        cache.put("viejo", 1);
+        clock.addAndGet(TTL / 2);
+        cache.put("nuevo", 2);
+        cache.put("corto", 3, TimeUnit.SECONDS.toNanos(5));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        Map<String, Long> remaining = new HashMap<>();
+
+        // Act
+        cache.forEach((key, value, nanos) -> remaining.put(key, nanos));
+
+        // Assert
+        assertEquals(Map.of("viejo", TTL / 2 - TimeUnit.SECONDS.toNanos(10),
+                "nuevo", TTL - TimeUnit.SECONDS.toNanos(10)), remaining);
+    }
+
+    @Test
+    void whenPutWithTtlAboveCacheTtl_thenCacheTtlApplies() {
+        // Arrange
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, TTL, clock::get);
+        cache.put("a", 1, TTL * 10);
+
+        // Act
+        clock.addAndGet(TTL);
+
+        // Assert
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void whenInvalidSize_thenThrowIllegalArgument() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringLruCache<String, Integer>(0, TTL));
+    }
+}
@@ -0,0 +1,86 @@
+package pa.davivienda.transversal.structures;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para HeavyHitterSketch
+ */
+class HeavyHitterSketchTest {
+
+    @Test
+    void whenFewHeavyKeysAmongManyOneOffKeys_thenTopKHoldsHeavyKeys() {
+        // Arrange
+        HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 4, 3);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("CLIENTE-" + i);
+            if (i % 10 == 0) {
+                sketch.add("CORP-A");
+            }
+            if (i % 20 == 0) {
+                sketch.add("CORP-B");
+            }
+            if (i % 40 == 0) {
+                sketch.add("CORP-C");
+            }
+        }
+
+        // Assert
+        List<HeavyHitterSketch.HeavyHitter> top = sketch.topK();
+        assertEquals(3, top.size());
+        assertEquals("CORP-A", top.get(0).key());
+        assertEquals("CORP-B", top.get(1).key());
+        assertEquals("CORP-C", top.get(2).key());
+        assertTrue(top.get(0).count() >= 1000);
+        assertEquals(10_000 + 1000 + 500 + 250, sketch.total());
+    }
+
+    @Test
+    void whenEstimating_thenNeverUnderestimates() {
+        // Arrange
+        HeavyHitterSketch sketch = new HeavyHitterSketch(64, 4, 5);
+
+        // Act
+        for (int i = 0; i < 2_000; i++) {
+            sketch.add("CLIENTE-" + (i % 500));
+        }
+
+        // Assert
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("CLIENTE-" + i) >= 4);
+        }
+    }
+
+    @Test
+    void whenDecayed_thenCountsAreHalvedAndColdKeysLeaveTopK() {
+        // Arrange
+        HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 4, 2);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("CORP-A");
+        }
+        sketch.add("CLIENTE-1");
+
+        // Act
+        sketch.decay();
+
+        // Assert
+        List<HeavyHitterSketch.HeavyHitter> top = sketch.topK();
+        assertEquals(1, top.size());
+        assertEquals("CORP-A", top.get(0).key());
+        assertEquals(50, top.get(0).count());
+        assertEquals(50, sketch.estimate("CORP-A"));
+    }
+
+    @Test
+    void whenInvalidDimensions_thenThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitterSketch(0, 4, 10));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitterSketch(1024, 4, 0));
+    }
+}
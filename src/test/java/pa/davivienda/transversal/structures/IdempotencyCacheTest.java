@@ -0,0 +1,120 @@
+package pa.davivienda.transversal.structures;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para IdempotencyCache
+ */
+class IdempotencyCacheTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final IdempotencyCache<String> cache = new IdempotencyCache<>(100, Duration.ofMinutes(2), clock::get);
+
+    @Test
+    void whenRetriedWithSameKey_thenCachedResultIsReplayedWithoutExecuting() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        IdempotencyCache.Outcome<String> first = cache.execute("TXN1", () -> "500-" + executions.incrementAndGet(), WAIT);
+        IdempotencyCache.Outcome<String> retry = cache.execute("TXN1", () -> "500-" + executions.incrementAndGet(), WAIT);
+
+        // Assert
+        assertEquals(IdempotencyCache.Source.EXECUTED, first.source());
+        assertFalse(first.replayed());
+        assertEquals(IdempotencyCache.Source.CACHE, retry.source());
+        assertTrue(retry.replayed());
+        assertEquals("500-1", retry.value());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void whenRetriedWhileInFlight_thenWaitsForOriginalResult() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<IdempotencyCache.Outcome<String>> original = CompletableFuture.supplyAsync(() ->
+                cache.execute("TXN1", () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "500";
+                }, WAIT));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<IdempotencyCache.Outcome<String>> retry = CompletableFuture.supplyAsync(() ->
+                cache.execute("TXN1", () -> "otro-" + executions.incrementAndGet(), WAIT));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Assert
+        assertEquals(IdempotencyCache.Source.EXECUTED, original.get(5, TimeUnit.SECONDS).source());
+        IdempotencyCache.Outcome<String> replay = retry.get(5, TimeUnit.SECONDS);
+        assertTrue(replay.replayed());
+        assertEquals("500", replay.value());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void whenOperationFails_thenErrorIsNotCachedAndRetryExecutes() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("TXN1", () -> {
+            executions.incrementAndGet();
+            throw new IllegalArgumentException("Data no encontrada");
+        }, WAIT));
+        IdempotencyCache.Outcome<String> retry = cache.execute("TXN1", () -> "500-" + executions.incrementAndGet(), WAIT);
+
+        // Assert
+        assertEquals(IdempotencyCache.Source.EXECUTED, retry.source());
+        assertEquals("500-2", retry.value());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void whenResultExpires_thenRetryExecutesAgain() {
+        // Arrange
+        cache.execute("TXN1", () -> "500", WAIT);
+
+        // Act
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        IdempotencyCache.Outcome<String> retry = cache.execute("TXN1", () -> "600", WAIT);
+
+        // Assert
+        assertEquals(IdempotencyCache.Source.EXECUTED, retry.source());
+        assertEquals("600", retry.value());
+    }
+
+    @Test
+    void whenKeysDiffer_thenEachExecutes() {
+        // Act
+        IdempotencyCache.Outcome<String> first = cache.execute("TXN1\0hashA", () -> "500", WAIT);
+        IdempotencyCache.Outcome<String> other = cache.execute("TXN1\0hashB", () -> "250", WAIT);
+
+        // Assert
+        assertFalse(first.replayed());
+        assertFalse(other.replayed());
+        assertEquals("250", other.value());
+    }
+}
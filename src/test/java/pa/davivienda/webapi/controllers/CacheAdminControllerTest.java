@@ -0,0 +1,30 @@
+package pa.davivienda.webapi.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.NotFoundException;
+
+/**
+ * Tests unitarios para CacheAdminController
+ */
+class CacheAdminControllerTest {
+
+    @Test
+    void whenAdminIsDisabled_thenHotKeysAreNotFound() {
+        // Arrange
+        CacheAdminController controller = new CacheAdminController();
+        controller.enabled = false;
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, controller::hotKeys);
+    }
+
+    @Test
+    void whenMaskingCustomerId_thenOnlyLastCharactersAreVisible() {
+        // Act & Assert
+        assertEquals("*****2345", CacheAdminController.maskCustomerId("123452345 "));
+        assertEquals("123", CacheAdminController.maskCustomerId("123"));
+    }
+}
@@ -1,24 +1,63 @@
 package pa.davivienda.webapi.controllers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import static io.restassured.RestAssured.given;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import pa.davivienda.domain.dtos.requests.Per002RequestDto;
+import pa.davivienda.domain.dtos.responses.Per002BatchItemResponseDto;
+import pa.davivienda.domain.exceptions.DeadlineExceededException;
+import pa.davivienda.domain.exceptions.ServiceUnavailableException;
+import pa.davivienda.domain.interfaces.usecases.Per002UseCase;
+import pa.davivienda.transversal.concurrency.CanalQuotaLimiter;
 
 /**
  * Tests de integración para Per002Controller.
  * Usa @QuarkusTest para probar el endpoint REST completo.
  * Objetivo: Cubrir controlador, mapper y validadores HTTP.
  * 
- * Nota: Estos tests son de integración real sin mocks,
- * por lo que requieren acceso a la base de datos o
- * configuración de perfil de test con H2/mocks.
+ * Nota: el caso de uso y la cuota por canal se reemplazan por mocks
+ * ({@code @InjectMock}) para cubrir solo el contrato HTTP del controlador:
+ * validación de headers, cuota del canal y traducción de errores.
  */
 @QuarkusTest
 class Per002ControllerTest {
 
+    @InjectMock
+    Per002UseCase per002UseCase;
+
+    @InjectMock
+    CanalQuotaLimiter canalQuotaLimiter;
+
+    @Inject
+    MeterRegistry registry;
+
     private String validRequestJson;
 
     @BeforeEach
@@ -36,6 +75,9 @@ class Per002ControllerTest {
                     "codTipoConcepto": "COBPER"
                 }
                 """;
+
+        when(canalQuotaLimiter.tryAcquire(anyShort())).thenReturn(true);
+        when(canalQuotaLimiter.tryAcquire(anyShort(), anyInt())).thenReturn(true);
     }
 
     // ============== TESTS DE VALIDACIÓN DE HEADERS ==============
@@ -245,4 +287,239 @@ class Per002ControllerTest {
                 .statusCode(400)
                 .body("validationError", containsString("jornada"));
     }
+
+    // ============== TESTS DE CUOTA POR CANAL ==============
+
+    @Test
+    void whenCanalQuotaIsExceeded_thenReturn429WithRetryAfter() {
+        // Arrange
+        when(canalQuotaLimiter.tryAcquire((short) 81)).thenReturn(false);
+        when(canalQuotaLimiter.retryAfter((short) 81, 1)).thenReturn(Duration.ofMillis(1500));
+
+        // Act & Assert
+        givenValidHeaders()
+                .contentType("application/json")
+                .body(validRequestJson)
+        .when()
+                .post("/per002/consultaCosto")
+        .then()
+                .statusCode(429)
+                .header("Retry-After", "2")
+                .header("caracterAceptacion", "M")
+                .header("codMsgRespuesta", "429")
+                .body("TooManyRequests", containsString("81"));
+        verify(per002UseCase, never()).consultaCostoTransaccionPer(any(), any(), any());
+    }
+
+    @Test
+    void whenBatchHasThreeItems_thenChargesOneQuotaTokenPerItem() {
+        // Arrange
+        when(per002UseCase.consultaCostoTransaccionPerBatch(any(), argThat(items -> items.size() == 3), any()))
+                .thenReturn(List.of(batchItem(0), batchItem(1), batchItem(2)));
+
+        // Act & Assert
+        givenValidHeaders()
+                .contentType("application/json")
+                .body(batchRequestJson(3))
+        .when()
+                .post("/per002/consultaCosto/batch")
+        .then()
+                .statusCode(200)
+                .body("resultados", hasSize(3))
+                .body("resultados[2].indice", equalTo(2));
+        verify(canalQuotaLimiter).tryAcquire((short) 81, 3);
+        verify(canalQuotaLimiter, never()).tryAcquire(anyShort());
+    }
+
+    @Test
+    void whenBatchExceedsCanalQuota_thenReturn429WithRetryAfterForTheWholeBatch() {
+        // Arrange
+        when(canalQuotaLimiter.tryAcquire((short) 81, 3)).thenReturn(false);
+        when(canalQuotaLimiter.retryAfter((short) 81, 3)).thenReturn(Duration.ofMillis(2500));
+
+        // Act & Assert
+        givenValidHeaders()
+                .contentType("application/json")
+                .body(batchRequestJson(3))
+        .when()
+                .post("/per002/consultaCosto/batch")
+        .then()
+                .statusCode(429)
+                .header("Retry-After", "3")
+                .body("TooManyRequests", containsString("81"));
+        verify(per002UseCase, never()).consultaCostoTransaccionPerBatch(any(), any(), any());
+    }
+
+    // ============== TESTS DE ERRORES DEL CASO DE USO ==============
+
+    @Test
+    void whenDb2IsUnavailable_thenReturn503WithRetryAfter() {
+        // Arrange
+        when(per002UseCase.consultaCostoTransaccionPer(any(), any(), any()))
+                .thenThrow(new ServiceUnavailableException("Circuito de lecturas abierto", Duration.ofMillis(2100)));
+
+        // Act & Assert
+        givenValidHeaders()
+                .contentType("application/json")
+                .body(validRequestJson)
+        .when()
+                .post("/per002/consultaCosto")
+        .then()
+                .statusCode(503)
+                .header("Retry-After", "3")
+                .header("caracterAceptacion", "M")
+                .header("codMsgRespuesta", "503")
+                .body("ServiceUnavailable", equalTo("Circuito de lecturas abierto"));
+    }
+
+    @Test
+    void whenDeadlineIsExceeded_thenReturn504AndCountTheStage() {
+        // Arrange
+        when(per002UseCase.consultaCostoTransaccionPer(any(), any(), any()))
+                .thenThrow(new DeadlineExceededException("cost"));
+        double before = registry.counter("per002.deadline.exceeded", "stage", "cost").count();
+
+        // Act & Assert
+        givenValidHeaders()
+                .header("X-Request-Timeout", "500")
+                .contentType("application/json")
+                .body(validRequestJson)
+        .when()
+                .post("/per002/consultaCosto")
+        .then()
+                .statusCode(504)
+                .header("caracterAceptacion", "M")
+                .header("codMsgRespuesta", "504")
+                .body("GatewayTimeout", containsString("cost"));
+        assertEquals(before + 1, registry.counter("per002.deadline.exceeded", "stage", "cost").count());
+    }
+
+    // ============== TESTS DE CONSULTA MASIVA (NDJSON) ==============
+
+    @Test
+    void whenStreamHasUnreadableLine_thenItemReportsParseErrorAndEachLineWaitsForQuota() throws Exception {
+        // Arrange (el caso de uso responde cada ítem leído y cada error de lectura)
+        doAnswer(invocation -> {
+            Iterator<Per002RequestDto> requests = invocation.getArgument(1);
+            Consumer<List<Per002BatchItemResponseDto>> sink = invocation.getArgument(2);
+            List<Per002BatchItemResponseDto> results = new ArrayList<>();
+            while (requests.hasNext()) {
+                try {
+                    requests.next();
+                    results.add(batchItem(results.size()));
+                } catch (IllegalArgumentException iex) {
+                    results.add(Per002BatchItemResponseDto.builder()
+                            .indice(results.size())
+                            .estado("ERROR")
+                            .msgError(iex.getMessage())
+                            .build());
+                }
+            }
+            sink.accept(results);
+            return null;
+        }).when(per002UseCase).consultaCostoTransaccionPerStream(any(), any(), any());
+
+        // Act
+        String body = givenValidHeaders()
+                .contentType("application/x-ndjson")
+                .body(ndjson(validRequestJson) + "{no es json\n\n" + ndjson(validRequestJson))
+        .when()
+                .post("/per002/consultaCosto/stream")
+        .then()
+                .statusCode(200)
+                .extract().asString();
+
+        // Assert (la línea en blanco no cuenta como consulta)
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"estado\":\"OK\""));
+        assertTrue(lines[1].contains("\"estado\":\"ERROR\""));
+        assertTrue(lines[1].contains("2 no es JSON"));
+        assertTrue(lines[2].contains("\"estado\":\"OK\""));
+        verify(canalQuotaLimiter).tryAcquire((short) 81);
+        verify(canalQuotaLimiter, times(3)).acquire((short) 81);
+    }
+
+    @Test
+    void whenStreamIsAbortedAfterFirstChunk_thenLastLineIsAborted() {
+        // Arrange (la respuesta ya empezó cuando el trabajo se aborta)
+        doAnswer(invocation -> {
+            Iterator<Per002RequestDto> requests = invocation.getArgument(1);
+            Consumer<List<Per002BatchItemResponseDto>> sink = invocation.getArgument(2);
+            requests.next();
+            sink.accept(List.of(batchItem(0)));
+            sink.accept(List.of(Per002BatchItemResponseDto.builder()
+                    .indice(1)
+                    .estado("ABORTADO")
+                    .msgError("Servicio no disponible")
+                    .build()));
+            return null;
+        }).when(per002UseCase).consultaCostoTransaccionPerStream(any(), any(), any());
+
+        // Act
+        String body = givenValidHeaders()
+                .contentType("application/x-ndjson")
+                .body(ndjson(validRequestJson) + ndjson(validRequestJson))
+        .when()
+                .post("/per002/consultaCosto/stream")
+        .then()
+                .statusCode(200)
+                .extract().asString();
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"estado\":\"OK\""));
+        assertTrue(lines[1].contains("\"estado\":\"ABORTADO\""));
+        assertTrue(lines[1].contains("\"indice\":1"));
+    }
+
+    @Test
+    void whenStreamExceedsCanalQuotaOnAdmission_thenReturn429() throws Exception {
+        // Arrange
+        when(canalQuotaLimiter.tryAcquire((short) 81)).thenReturn(false);
+        when(canalQuotaLimiter.retryAfter((short) 81, 1)).thenReturn(Duration.ofMillis(200));
+
+        // Act & Assert
+        givenValidHeaders()
+                .contentType("application/x-ndjson")
+                .body(ndjson(validRequestJson))
+        .when()
+                .post("/per002/consultaCosto/stream")
+        .then()
+                .statusCode(429)
+                .header("Retry-After", "1");
+        verify(per002UseCase, never()).consultaCostoTransaccionPerStream(any(), any(), any());
+        verify(canalQuotaLimiter, never()).acquire(anyShort());
+    }
+
+    private static String ndjson(String json) {
+        return json.replaceAll("\\s*\\n\\s*", "") + "\n";
+    }
+
+    private String batchRequestJson(int items) {
+        return "{\"consultas\": [" + String.join(",", Collections.nCopies(items, validRequestJson)) + "]}";
+    }
+
+    private static Per002BatchItemResponseDto batchItem(int index) {
+        return Per002BatchItemResponseDto.builder()
+                .indice(index)
+                .estado("OK")
+                .costoDeLaTransaccion(500)
+                .codMonedaTransaccion("USD")
+                .build();
+    }
+
+    private static RequestSpecification givenValidHeaders() {
+        return given()
+                .header("nombreOperacion", "consultaCosto")
+                .header("Total", "1")
+                .header("jornada", "1")
+                .header("Canal", "81")
+                .header("modoDeOperacion", "1")
+                .header("usuario", "testuser")
+                .header("perfil", "1")
+                .header("versionServicio", "1.0")
+                .header("idTransaccion", "TXN123");
+    }
 }